@@ -0,0 +1,7 @@
+-- Índice para ordenar la búsqueda avanzada V3 por fecha de creación (sort=fechaCreacion)
+-- Ejecutar una vez en bases existentes; las nuevas lo crean con create_servicios_reparacion_table.sql.
+-- Sin él, cada página ordenada por FECHA_CREACION ordena todas las filas que cumplen el filtro.
+
+CREATE INDEX idx_servicios_fecha_creacion_id ON SERVICIOS_REPARACION(FECHA_CREACION, ID);
+
+COMMIT;
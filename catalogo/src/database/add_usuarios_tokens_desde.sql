@@ -0,0 +1,9 @@
+-- Columna TOKENS_DESDE de USUARIOS: instante (milisegundos epoch) antes del cual los tokens de sesión del
+-- usuario dejan de valer. La guardan el cambio de rol, el cambio de contraseña y la reactivación, y cada nodo
+-- la vuelve a leer al sincronizar las revocaciones (RevocacionSesiones). Ejecutar una vez en bases existentes.
+
+ALTER TABLE USUARIOS ADD TOKENS_DESDE NUMBER(19);
+
+CREATE INDEX idx_usuarios_tokens_desde ON USUARIOS(TOKENS_DESDE);
+
+COMMIT;
@@ -0,0 +1,8 @@
+-- Columna VERSION para el bloqueo optimista (@Version) de SERVICIOS_REPARACION y USUARIOS
+-- Ejecutar una vez en bases existentes. La API V3 la usa también para los ETag de /{id} y de los listados.
+-- Con DEFAULT 0 Oracle completa las filas existentes al agregar la columna NOT NULL.
+
+ALTER TABLE SERVICIOS_REPARACION ADD VERSION NUMBER(19) DEFAULT 0 NOT NULL;
+ALTER TABLE USUARIOS ADD VERSION NUMBER(19) DEFAULT 0 NOT NULL;
+
+COMMIT;
@@ -0,0 +1,22 @@
+-- Conversión de las fechas guardadas a la hora local de spring.jackson.time-zone (America/Santiago)
+-- Antes las fechas se escribían como java.util.Date en la zona por defecto de la JVM; ahora el modelo usa
+-- LocalDateTime y guarda la hora local de la zona configurada tal cual (ver Fechas y FechasConfig).
+-- Ejecutar una vez ANTES de desplegar, solo si la JVM anterior corría con otra zona (p. ej. un servidor en
+-- UTC): sin convertir, las filas antiguas quedan desfasadas 3-4 horas y los filtros por día devuelven filas
+-- del día equivocado. Si la zona anterior ya era la configurada no hay nada que convertir.
+-- zona_anterior es la zona de la JVM anterior (user.timezone o la del sistema operativo del servidor).
+
+DEFINE zona_anterior = 'UTC'
+DEFINE zona_nueva = 'America/Santiago'
+
+UPDATE SERVICIOS_REPARACION SET
+    FECHA_AGENDADA = CAST(FROM_TZ(FECHA_AGENDADA, '&zona_anterior') AT TIME ZONE '&zona_nueva' AS TIMESTAMP),
+    FECHA_CREACION = CAST(FROM_TZ(FECHA_CREACION, '&zona_anterior') AT TIME ZONE '&zona_nueva' AS TIMESTAMP),
+    FECHA_INICIO_REPARACION = CAST(FROM_TZ(FECHA_INICIO_REPARACION, '&zona_anterior') AT TIME ZONE '&zona_nueva' AS TIMESTAMP),
+    FECHA_FIN_REPARACION = CAST(FROM_TZ(FECHA_FIN_REPARACION, '&zona_anterior') AT TIME ZONE '&zona_nueva' AS TIMESTAMP);
+
+UPDATE USUARIOS SET
+    FECHA_CREACION = CAST(FROM_TZ(FECHA_CREACION, '&zona_anterior') AT TIME ZONE '&zona_nueva' AS TIMESTAMP),
+    ULTIMO_LOGIN = CAST(FROM_TZ(ULTIMO_LOGIN, '&zona_anterior') AT TIME ZONE '&zona_nueva' AS TIMESTAMP);
+
+COMMIT;
@@ -2,8 +2,11 @@
 -- Script para crear la tabla SERVICIOS_REPARACION en Oracle Database
 -- Ejecutar este script en tu base de datos antes de usar el sistema
 
+-- Secuencia de IDs: Hibernate reserva bloques de 50 (pooled-lo) para poder insertar en lotes JDBC
+CREATE SEQUENCE SEQ_SERVICIOS_REPARACION START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE SERVICIOS_REPARACION (
-    ID NUMBER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    ID NUMBER PRIMARY KEY,
     NOMBRE_CLIENTE VARCHAR2(100) NOT NULL,
     TELEFONO VARCHAR2(20) NOT NULL,
     EMAIL VARCHAR2(100) NOT NULL,
@@ -23,6 +26,7 @@ CREATE TABLE SERVICIOS_REPARACION (
     PRIORIDAD VARCHAR2(20) DEFAULT 'NORMAL',
     GARANTIA_DIAS NUMBER DEFAULT 30,
     ACTIVO NUMBER(1) DEFAULT 1,
+    VERSION NUMBER(19) DEFAULT 0 NOT NULL,
     
     -- Constraints
     CONSTRAINT chk_servicios_estado CHECK (ESTADO IN ('AGENDADO', 'EN_REVISION', 'EN_REPARACION', 
@@ -40,30 +44,47 @@ CREATE INDEX idx_servicios_fecha_agendada ON SERVICIOS_REPARACION(FECHA_AGENDADA
 CREATE INDEX idx_servicios_tecnico ON SERVICIOS_REPARACION(TECNICO_ASIGNADO);
 CREATE INDEX idx_servicios_activo ON SERVICIOS_REPARACION(ACTIVO);
 
+-- Índices compuestos para la paginación keyset (cursor) de la API V3
+CREATE INDEX idx_servicios_activo_id ON SERVICIOS_REPARACION(ACTIVO, ID);
+CREATE INDEX idx_servicios_estado_act_id ON SERVICIOS_REPARACION(ESTADO, ACTIVO, ID);
+CREATE INDEX idx_servicios_tipo_act_id ON SERVICIOS_REPARACION(TIPO_DISPOSITIVO, ACTIVO, ID);
+CREATE INDEX idx_servicios_tecnico_act_id ON SERVICIOS_REPARACION(TECNICO_ASIGNADO, ACTIVO, ID);
+CREATE INDEX idx_servicios_email_act_id ON SERVICIOS_REPARACION(EMAIL, ACTIVO, ID);
+CREATE INDEX idx_servicios_fecha_id ON SERVICIOS_REPARACION(FECHA_AGENDADA, ID);
+
+-- Orden por fecha de creación de la búsqueda avanzada paginada (el id desempata entre páginas)
+CREATE INDEX idx_servicios_fecha_creacion_id ON SERVICIOS_REPARACION(FECHA_CREACION, ID);
+
+-- Índices basados en función para la búsqueda avanzada (filtros por prefijo sin distinguir mayúsculas)
+CREATE INDEX idx_servicios_lower_nombre ON SERVICIOS_REPARACION(LOWER(NOMBRE_CLIENTE));
+CREATE INDEX idx_servicios_lower_email ON SERVICIOS_REPARACION(LOWER(EMAIL));
+CREATE INDEX idx_servicios_lower_tipo ON SERVICIOS_REPARACION(LOWER(TIPO_DISPOSITIVO));
+CREATE INDEX idx_servicios_lower_tecnico ON SERVICIOS_REPARACION(LOWER(TECNICO_ASIGNADO));
+
 -- Insertar algunos servicios de ejemplo
 INSERT INTO SERVICIOS_REPARACION (
-    NOMBRE_CLIENTE, TELEFONO, EMAIL, TIPO_DISPOSITIVO, MARCA, MODELO, 
+    ID, NOMBRE_CLIENTE, TELEFONO, EMAIL, TIPO_DISPOSITIVO, MARCA, MODELO, 
     DESCRIPCION_PROBLEMA, FECHA_AGENDADA, ESTADO, PRIORIDAD
 ) VALUES (
-    'Juan Pérez', '+56987654321', 'juan.perez@email.com', 'Smartphone', 
+    SEQ_SERVICIOS_REPARACION.NEXTVAL, 'Juan Pérez', '+56987654321', 'juan.perez@email.com', 'Smartphone', 
     'Apple', 'iPhone 13', 'Pantalla rota tras caída', 
     CURRENT_TIMESTAMP + INTERVAL '1' DAY, 'AGENDADO', 'NORMAL'
 );
 
 INSERT INTO SERVICIOS_REPARACION (
-    NOMBRE_CLIENTE, TELEFONO, EMAIL, TIPO_DISPOSITIVO, MARCA, MODELO, 
+    ID, NOMBRE_CLIENTE, TELEFONO, EMAIL, TIPO_DISPOSITIVO, MARCA, MODELO, 
     DESCRIPCION_PROBLEMA, FECHA_AGENDADA, ESTADO, PRIORIDAD, TECNICO_ASIGNADO
 ) VALUES (
-    'María González', '+56912345678', 'maria.gonzalez@email.com', 'Laptop', 
+    SEQ_SERVICIOS_REPARACION.NEXTVAL, 'María González', '+56912345678', 'maria.gonzalez@email.com', 'Laptop', 
     'HP', 'Pavilion 15', 'No enciende, problema con cargador', 
     CURRENT_TIMESTAMP + INTERVAL '2' DAY, 'EN_REVISION', 'ALTA', 'Carlos Mendoza'
 );
 
 INSERT INTO SERVICIOS_REPARACION (
-    NOMBRE_CLIENTE, TELEFONO, EMAIL, TIPO_DISPOSITIVO, MARCA, MODELO, 
+    ID, NOMBRE_CLIENTE, TELEFONO, EMAIL, TIPO_DISPOSITIVO, MARCA, MODELO, 
     DESCRIPCION_PROBLEMA, FECHA_AGENDADA, ESTADO, PRIORIDAD, COSTO_ESTIMADO
 ) VALUES (
-    'Pedro Silva', '+56998765432', 'pedro.silva@email.com', 'Tablet', 
+    SEQ_SERVICIOS_REPARACION.NEXTVAL, 'Pedro Silva', '+56998765432', 'pedro.silva@email.com', 'Tablet', 
     'Samsung', 'Galaxy Tab S7', 'Pantalla táctil no responde en algunas zonas', 
     CURRENT_TIMESTAMP + INTERVAL '3' DAY, 'AGENDADO', 'NORMAL', 85000
 );
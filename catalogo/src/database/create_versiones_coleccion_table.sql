@@ -0,0 +1,13 @@
+-- Versión por tabla para los ETag débiles de los listados V3 (VersionesColeccion)
+-- Ejecutar una vez en bases existentes. Cada escritura de los servicios incrementa la fila de su tabla y
+-- cada listado la lee por clave; la primera reconciliación de la aplicación crea las filas que falten.
+
+CREATE TABLE VERSIONES_COLECCION (
+    TABLA VARCHAR2(50) PRIMARY KEY,
+    VERSION NUMBER(19) NOT NULL
+);
+
+INSERT INTO VERSIONES_COLECCION (TABLA, VERSION) VALUES ('SERVICIOS_REPARACION', 1);
+INSERT INTO VERSIONES_COLECCION (TABLA, VERSION) VALUES ('USUARIOS', 1);
+
+COMMIT;
@@ -0,0 +1,16 @@
+-- Migración de SERVICIOS_REPARACION de IDENTITY a secuencia (necesaria para los INSERT por lote)
+-- Ejecutar una vez en bases existentes ANTES de desplegar la versión que usa SEQ_SERVICIOS_REPARACION.
+-- La secuencia parte después del mayor ID actual para no chocar con las filas ya creadas.
+
+DECLARE
+    v_inicio NUMBER;
+BEGIN
+    SELECT NVL(MAX(ID), 0) + 1 INTO v_inicio FROM SERVICIOS_REPARACION;
+    EXECUTE IMMEDIATE 'CREATE SEQUENCE SEQ_SERVICIOS_REPARACION START WITH ' || v_inicio || ' INCREMENT BY 50';
+END;
+/
+
+-- La columna puede seguir como IDENTITY "BY DEFAULT" (acepta IDs explícitos); si se prefiere quitarla:
+-- ALTER TABLE SERVICIOS_REPARACION MODIFY ID DROP IDENTITY;
+
+COMMIT;
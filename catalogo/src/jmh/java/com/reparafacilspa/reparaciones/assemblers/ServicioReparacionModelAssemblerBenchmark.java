@@ -0,0 +1,56 @@
+package com.reparafacilspa.reparaciones.assemblers;
+
+import com.reparafacilspa.reparaciones.benchmark.BenchmarkData;
+import com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse;
+import com.reparafacilspa.reparaciones.model.ServicioReparacion;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Mapeo entidad -> ServicioReparacionResponse y DTO -> EntityModel con enlaces HATEOAS,
+// los dos pasos que se repiten por cada elemento de los listados
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServicioReparacionModelAssemblerBenchmark {
+
+    private final ServicioReparacionModelAssembler assembler = new ServicioReparacionModelAssembler();
+    private List<ServicioReparacion> servicios;
+    private List<ServicioReparacionResponse> respuestas;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        servicios = BenchmarkData.serviciosConId(1000);
+        respuestas = servicios.stream().map(ServicioReparacionResponse::new).collect(Collectors.toList());
+
+        // Los enlaces se construyen a partir de la petición en curso, igual que dentro de un controlador
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reparafacil-api/api/v3/reparaciones");
+        request.setContextPath("/reparafacil-api");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public ServicioReparacionResponse mapearResponse() {
+        return new ServicioReparacionResponse(servicios.get(siguiente++ % servicios.size()));
+    }
+
+    @Benchmark
+    public EntityModel<ServicioReparacionResponse> toModel() {
+        return assembler.toModel(respuestas.get(siguiente++ % respuestas.size()));
+    }
+}
@@ -0,0 +1,107 @@
+package com.reparafacilspa.reparaciones.benchmark;
+
+import com.reparafacilspa.reparaciones.model.Fechas;
+import com.reparafacilspa.reparaciones.model.ServicioReparacion;
+import com.reparafacilspa.reparaciones.model.User;
+import net.datafaker.Faker;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Datasets para los benchmarks generados con Datafaker. La semilla es fija para que dos corridas
+// comparen exactamente los mismos datos.
+public final class BenchmarkData {
+
+    public static final long SEMILLA = 20240120L;
+
+    private static final String[] TIPOS_DISPOSITIVOS = {"Smartphone", "Laptop", "Tablet", "Computador", "Smartwatch", "Auriculares", "Consola"};
+    private static final String[] MARCAS = {"Samsung", "iPhone", "Huawei", "Xiaomi", "Motorola", "HP", "Dell", "Lenovo", "Asus", "PlayStation"};
+    private static final String[] PROBLEMAS = {
+        "Pantalla rota", "Batería no carga", "No enciende", "Cámara no funciona", "Sobrecalentamiento",
+        "Teclado no funciona", "WiFi no conecta", "Ventilador hace ruido", "Audio no funciona"
+    };
+    private static final String[] TECNICOS = {
+        "Carlos González", "María Martínez", "José López", "Ana Rodríguez", "Pedro Silva", "Laura Torres"
+    };
+
+    private BenchmarkData() {
+    }
+
+    // Servicios sin ID (listos para persistir); ~10% eliminados y técnico asignado salvo en AGENDADO/CANCELADO
+    public static List<ServicioReparacion> servicios(int cantidad) {
+        Random random = new Random(SEMILLA);
+        Faker faker = new Faker(random);
+        LocalDateTime ahora = Fechas.ahora();
+        List<ServicioReparacion> servicios = new ArrayList<>(cantidad);
+
+        for (int i = 0; i < cantidad; i++) {
+            ServicioReparacion servicio = new ServicioReparacion();
+            servicio.setNombreCliente(faker.name().fullName());
+            servicio.setTelefono("+569" + (10000000 + random.nextInt(90000000)));
+            servicio.setEmail("cliente" + i + "@" + faker.internet().domainName());
+            servicio.setTipoDispositivo(TIPOS_DISPOSITIVOS[random.nextInt(TIPOS_DISPOSITIVOS.length)]);
+            String marca = MARCAS[random.nextInt(MARCAS.length)];
+            servicio.setMarca(marca);
+            servicio.setModelo(marca + " " + faker.commerce().productName());
+            servicio.setDescripcionProblema(PROBLEMAS[random.nextInt(PROBLEMAS.length)] + ". " + faker.lorem().sentence());
+
+            LocalDateTime fechaCreacion = ahora.minusDays(random.nextInt(90));
+            servicio.setFechaCreacion(fechaCreacion);
+            servicio.setFechaAgendada(fechaCreacion.plusHours(random.nextInt(240)));
+
+            ServicioReparacion.EstadoReparacion[] estados = ServicioReparacion.EstadoReparacion.values();
+            ServicioReparacion.EstadoReparacion estado = estados[random.nextInt(estados.length)];
+            servicio.setEstado(estado);
+            if (estado != ServicioReparacion.EstadoReparacion.AGENDADO && estado != ServicioReparacion.EstadoReparacion.CANCELADO) {
+                servicio.setTecnicoAsignado(TECNICOS[random.nextInt(TECNICOS.length)]);
+            }
+            ServicioReparacion.PrioridadReparacion[] prioridades = ServicioReparacion.PrioridadReparacion.values();
+            servicio.setPrioridad(prioridades[random.nextInt(prioridades.length)]);
+            servicio.setCostoEstimado(BigDecimal.valueOf(15000 + random.nextInt(135000)));
+            if (random.nextInt(3) == 0) {
+                servicio.setObservaciones(faker.lorem().sentence());
+            }
+            servicio.setGarantiaDias(30 + random.nextInt(91));
+            servicio.setActivo(random.nextInt(10) != 0);
+            servicios.add(servicio);
+        }
+        return servicios;
+    }
+
+    // Mismos datos que servicios(cantidad) pero con IDs asignados, para benchmarks sin base de datos
+    public static List<ServicioReparacion> serviciosConId(int cantidad) {
+        List<ServicioReparacion> servicios = servicios(cantidad);
+        for (int i = 0; i < servicios.size(); i++) {
+            servicios.get(i).setId(i + 1L);
+        }
+        return servicios;
+    }
+
+    public static List<User> usuarios(int cantidad) {
+        Random random = new Random(SEMILLA);
+        Faker faker = new Faker(random);
+        User.UserRole[] roles = User.UserRole.values();
+        List<User> usuarios = new ArrayList<>(cantidad);
+
+        for (int i = 0; i < cantidad; i++) {
+            User user = new User();
+            user.setId(i + 1L);
+            user.setUsername(faker.internet().username() + i);
+            user.setEmail("usuario" + i + "@" + faker.internet().domainName());
+            user.setPassword("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchm");
+            user.setNombre(faker.name().firstName());
+            user.setApellido(faker.name().lastName());
+            user.setTelefono("+569" + (10000000 + random.nextInt(90000000)));
+            user.setRol(roles[random.nextInt(roles.length)]);
+            user.setActivo(true);
+            user.setFechaCreacion(Fechas.ahora());
+            user.setIntentosLogin(0);
+            user.setCuentaBloqueada(false);
+            usuarios.add(user);
+        }
+        return usuarios;
+    }
+}
@@ -0,0 +1,100 @@
+package com.reparafacilspa.reparaciones.benchmark;
+
+import com.reparafacilspa.reparaciones.ReparaFacilApplication;
+import com.reparafacilspa.reparaciones.model.ServicioReparacion;
+import com.reparafacilspa.reparaciones.repository.ServicioReparacionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Carga HTTP concurrente contra la aplicación completa (Tomcat en un puerto aleatorio, H2 en memoria) con
+// hilos de plataforma y con hilos virtuales (spring.threads.virtual.enabled). Cada invocación lanza CLIENTES
+// peticiones GET /api/v3/reparaciones/cliente/{email} a la vez y espera todas las respuestas; cada consulta
+// SQL espera latenciaMs (LatenciaBaseDatos) y en ambos modos el pool de Hikari es el mismo.
+//   ./mvnw -P benchmarks test-compile exec:exec -Djmh.args="CargaHttpBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class CargaHttpBenchmark {
+
+    // Peticiones simultáneas por invocación; por encima de server.tomcat.threads.max (200)
+    private static final int CLIENTES = 400;
+
+    @Param({"false", "true"})
+    private boolean hilosVirtuales;
+
+    // 0 mide solo el costo de cada modo; con latencia las peticiones pasan la mayor parte del tiempo bloqueadas
+    @Param({"0", "5"})
+    private long latenciaMs;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientesExecutor;
+    private HttpClient http;
+    private List<HttpRequest> requests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LatenciaBaseDatos.milisegundos = 0;
+        context = new SpringApplicationBuilder(ReparaFacilApplication.class)
+                .run("--spring.profiles.active=test",
+                     "--server.port=0",
+                     "--spring.threads.virtual.enabled=" + hilosVirtuales,
+                     "--spring.datasource.url=jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1;MODE=Oracle",
+                     "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + LatenciaBaseDatos.class.getName(),
+                     "--logging.level.root=WARN",
+                     "--reparafacil.estadisticas.reconciliacion-ms=3600000");
+        List<ServicioReparacion> servicios = context.getBean(ServicioReparacionRepository.class)
+                .saveAll(BenchmarkData.servicios(1000));
+        LatenciaBaseDatos.milisegundos = latenciaMs;
+
+        int puerto = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+        String base = "http://localhost:" + puerto + "/reparafacil-api/api/v3/reparaciones/cliente/";
+        requests = servicios.stream()
+                .map(servicio -> HttpRequest.newBuilder(URI.create(base + URLEncoder.encode(servicio.getEmail(), StandardCharsets.UTF_8))).GET().build())
+                .toList();
+
+        // Los clientes siempre usan hilos virtuales para que el generador de carga no sea el cuello de botella
+        clientesExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        http = HttpClient.newBuilder().executor(clientesExecutor).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        LatenciaBaseDatos.milisegundos = 0;
+        http.close();
+        clientesExecutor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CLIENTES)
+    public int peticionesSimultaneas() {
+        CompletableFuture<?>[] respuestas = new CompletableFuture<?>[CLIENTES];
+        for (int i = 0; i < CLIENTES; i++) {
+            respuestas[i] = http.sendAsync(requests.get(i % requests.size()), HttpResponse.BodyHandlers.discarding())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Respuesta " + response.statusCode() + " en " + response.uri());
+                        }
+                    });
+        }
+        CompletableFuture.allOf(respuestas).join();
+        return respuestas.length;
+    }
+}
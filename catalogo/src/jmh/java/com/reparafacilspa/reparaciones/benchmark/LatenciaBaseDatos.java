@@ -0,0 +1,25 @@
+package com.reparafacilspa.reparaciones.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.TimeUnit;
+
+// Simula el viaje de ida y vuelta a la base de datos remota: cada sentencia SQL que prepara Hibernate espera
+// "milisegundos" mientras tiene tomada su conexión, como ocurre contra Oracle Autonomous. Hibernate crea la
+// instancia por nombre de clase (hibernate.session_factory.statement_inspector), por eso el valor es estático.
+public class LatenciaBaseDatos implements StatementInspector {
+
+    public static volatile long milisegundos;
+
+    @Override
+    public String inspect(String sql) {
+        if (milisegundos > 0) {
+            try {
+                TimeUnit.MILLISECONDS.sleep(milisegundos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,44 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.benchmark.BenchmarkData;
+import com.reparafacilspa.reparaciones.dto.AuthResponse;
+import com.reparafacilspa.reparaciones.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Conversión User -> AuthResponse.UserInfo usada por login, registro y los listados de usuarios
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthServiceV3Benchmark {
+
+    private final AuthServiceV3 authService = new AuthServiceV3();
+    private List<User> usuarios;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        usuarios = BenchmarkData.usuarios(1000);
+    }
+
+    @Benchmark
+    public AuthResponse.UserInfo convertToUserInfo() {
+        User user = usuarios.get(siguiente++ % usuarios.size());
+        return authService.convertToUserInfo(user);
+    }
+
+    // Listado completo (como /users): mide el costo por usuario dentro de un recorrido
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void convertToUserInfoListado(Blackhole blackhole) {
+        for (User user : usuarios) {
+            blackhole.consume(authService.convertToUserInfo(user));
+        }
+    }
+}
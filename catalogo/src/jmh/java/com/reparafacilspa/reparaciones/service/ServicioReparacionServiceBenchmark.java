@@ -0,0 +1,86 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.ReparaFacilApplication;
+import com.reparafacilspa.reparaciones.benchmark.BenchmarkData;
+import com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse;
+import com.reparafacilspa.reparaciones.repository.ServicioReparacionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// search, searchAdvanced y getDetailedStatistics contra el contexto Spring real sobre H2 en memoria,
+// con el dataset generado por BenchmarkData (incluye el índice de búsqueda y los contadores).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServicioReparacionServiceBenchmark {
+
+    @Param({"1000", "10000"})
+    private int servicios;
+
+    private ConfigurableApplicationContext context;
+    private ServicioReparacionServiceV3 servicioService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Como argumentos de línea de comandos para que prevalezcan sobre spring.profiles.active=dev
+        context = new SpringApplicationBuilder(ReparaFacilApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                     "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;MODE=Oracle",
+                     "--logging.level.root=WARN",
+                     "--reparafacil.estadisticas.reconciliacion-ms=3600000");
+        servicioService = context.getBean(ServicioReparacionServiceV3.class);
+
+        context.getBean(ServicioReparacionRepository.class).saveAll(BenchmarkData.servicios(servicios));
+        context.getBean(ServicioSearchIndex.class).rebuildFromDatabase();
+        context.getBean(EstadisticasServiciosContadores.class).reconciliar();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ServicioReparacionResponse> search() {
+        return servicioService.search("samsung pantalla");
+    }
+
+    @Benchmark
+    public Page<ServicioReparacionResponse> searchPaginado() {
+        return servicioService.search("bat", PageRequest.of(0, ServicioReparacionServiceV3.DEFAULT_PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<ServicioReparacionResponse> searchAdvanced() {
+        return servicioService.searchAdvanced(null, null, "Smartphone", "EN_REPARACION", "Carlos");
+    }
+
+    @Benchmark
+    public Page<ServicioReparacionResponse> searchAdvancedPaginado() {
+        return servicioService.searchAdvanced(null, "cliente1", null, null, null,
+                PageRequest.of(0, ServicioReparacionServiceV3.DEFAULT_PAGE_SIZE, Sort.by("fechaAgendada")));
+    }
+
+    @Benchmark
+    public Map<String, Object> getDetailedStatistics() {
+        return servicioService.getDetailedStatistics();
+    }
+
+    @Benchmark
+    public Map<String, Object> getEstadisticas() {
+        return servicioService.getEstadisticas();
+    }
+}
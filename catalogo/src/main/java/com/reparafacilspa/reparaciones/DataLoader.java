@@ -2,286 +2,399 @@ package com.reparafacilspa.reparaciones;
 
 import com.reparafacilspa.reparaciones.model.*;
 import com.reparafacilspa.reparaciones.repository.*;
+import com.reparafacilspa.reparaciones.service.EstadisticasServiciosContadores;
+import com.reparafacilspa.reparaciones.service.EstadisticasUsuariosContadores;
+import com.reparafacilspa.reparaciones.service.ServicioSearchIndex;
+import com.reparafacilspa.reparaciones.service.UsuariosRegistradosBloom;
 import net.datafaker.Faker;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.util.Date;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Profile("dev")
 @Component
 public class DataLoader implements CommandLineRunner {
 
+    // Contraseña compartida de los usuarios de demostración
+    private static final String PASSWORD_DEMO = "123456";
+
+    // Tipos de dispositivos comunes en Chile
+    private static final String[] TIPOS_DISPOSITIVOS = {"Smartphone", "Laptop", "Tablet", "Computador", "Smartwatch", "Auriculares", "Consola"};
+
+    // Marcas comunes
+    private static final String[] MARCAS_SMARTPHONES = {"Samsung", "iPhone", "Huawei", "Xiaomi", "Motorola", "LG"};
+    private static final String[] MARCAS_LAPTOPS = {"HP", "Dell", "Lenovo", "Asus", "Acer", "MacBook"};
+    private static final String[] MARCAS_CONSOLAS = {"PlayStation", "Xbox", "Nintendo"};
+
+    // Problemas típicos
+    private static final String[] PROBLEMAS_SMARTPHONE = {
+        "Pantalla rota", "Batería no carga", "No enciende", "Cámara no funciona",
+        "Audio no funciona", "Botones no responden", "Problemas de conectividad"
+    };
+    private static final String[] PROBLEMAS_LAPTOP = {
+        "No enciende", "Pantalla azul", "Sobrecalentamiento", "Batería no carga",
+        "Teclado no funciona", "WiFi no conecta", "Ventilador hace ruido"
+    };
+
     @Autowired
     private UserRepository userRepository;
-    
+
     @Autowired
     private ServicioReparacionRepository servicioReparacionRepository;
 
+    @Autowired
+    private ServicioSearchIndex searchIndex;
+
+    @Autowired
+    private EstadisticasServiciosContadores estadisticasServicios;
+
+    @Autowired
+    private EstadisticasUsuariosContadores estadisticasUsuarios;
+
+    @Autowired
+    private UsuariosRegistradosBloom usuariosRegistrados;
+
+    // Tamaño del dataset; los valores por defecto reproducen la demo original
+    @Value("${reparafacil.seed.clientes:50}")
+    private int cantidadClientes;
+
+    @Value("${reparafacil.seed.servicios:80}")
+    private int cantidadServicios;
+
+    // Filas por saveAll: cada lote es una transacción y se inserta con hibernate.jdbc.batch_size
+    @Value("${reparafacil.seed.lote:1000}")
+    private int tamanoLote;
+
+    // Hilos que generan e insertan lotes en paralelo (0 = núcleos disponibles); conviene no superar el pool de Hikari
+    @Value("${reparafacil.seed.hilos:0}")
+    private int hilos;
+
+    // true = la carga corre en segundo plano y no retrasa el arranque de la aplicación
+    @Value("${reparafacil.seed.async:false}")
+    private boolean async;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
+    // Faker no es seguro entre hilos: uno por hilo generador
+    private final ThreadLocal<Faker> fakers = ThreadLocal.withInitial(Faker::new);
+
+    // Datos del cliente que se copian en cada servicio
+    private record Cliente(String nombreCompleto, String telefono, String email) {
+    }
+
     @Override
     public void run(String... args) throws Exception {
-        Faker faker = new Faker();
-        Random random = new Random();
-
         // Verificar si ya existen datos para evitar duplicados
         if (userRepository.count() > 0) {
             System.out.println("Datos ya existen en la base de datos. Saltando la carga de datos fake.");
             return;
         }
 
-        System.out.println("Iniciando carga de datos fake para ReparaFacilSPA...");
+        if (async) {
+            Thread hilo = new Thread(() -> {
+                try {
+                    cargarDatos();
+                    // El índice y los contadores se construyeron al arrancar con la base vacía
+                    searchIndex.rebuildFromDatabase();
+                    estadisticasServicios.reconciliar();
+                    estadisticasUsuarios.reconciliar();
+                    usuariosRegistrados.reconstruir();
+                } catch (Exception e) {
+                    System.out.println("Error en la carga de datos fake: " + e.getMessage());
+                }
+            }, "data-loader");
+            hilo.setDaemon(true);
+            hilo.start();
+            System.out.println("Carga de datos fake iniciada en segundo plano");
+            return;
+        }
+        cargarDatos();
+    }
+
+    private void cargarDatos() throws Exception {
+        long inicio = System.currentTimeMillis();
+        System.out.println("Iniciando carga de datos fake para ReparaFacilSPA ("
+                + cantidadClientes + " clientes, " + cantidadServicios + " servicios)...");
+
+        // Un solo hash BCrypt para todos los usuarios demo: cada encode cuesta decenas de milisegundos
+        String passwordHash = passwordEncoder.encode(PASSWORD_DEMO);
 
         // 1. Crear usuarios administradores y técnicos
-        createAdminUsers(faker);
-        
+        List<String> tecnicos = createAdminUsers(fakers.get(), passwordHash);
+
         // 2. Crear usuarios clientes
-        createClientUsers(faker, random);
-        
-        // 3. Obtener técnicos para asignar servicios
-        List<User> tecnicos = userRepository.findAll().stream()
-                .filter(u -> u.getRol() == User.UserRole.EMPRENDEDOR)
-                .toList();
-        
-        // 4. Crear servicios de reparación
-        createServiciosReparacion(faker, random, tecnicos);
-
-        System.out.println("Carga de datos fake completada exitosamente!");
+        List<Cliente> clientes = createClientUsers(passwordHash);
+
+        // 3. Crear servicios de reparación
+        createServiciosReparacion(clientes, tecnicos);
+
+        System.out.println("Carga de datos fake completada exitosamente en " + (System.currentTimeMillis() - inicio) + " ms!");
         System.out.println("Usuarios creados: " + userRepository.count());
         System.out.println("Servicios creados: " + servicioReparacionRepository.count());
     }
 
-    private void createAdminUsers(Faker faker) {
+    private List<String> createAdminUsers(Faker faker, String passwordHash) {
+        List<User> usuarios = new ArrayList<>();
+
         // Usuario administrador por defecto
         User admin = new User();
         admin.setUsername("admin");
         admin.setEmail("admin@reparafacil.com");
-        admin.setPassword(passwordEncoder.encode("123456"));
+        admin.setPassword(passwordHash);
         admin.setNombre("Administrador");
         admin.setApellido("Sistema");
         admin.setTelefono("+56912345678");
         admin.setRol(User.UserRole.ADMIN);
         admin.setActivo(true);
-        admin.setFechaCreacion(new Date());
+        admin.setFechaCreacion(Fechas.ahora());
         admin.setIntentosLogin(0);
         admin.setCuentaBloqueada(false);
-        userRepository.save(admin);
+        usuarios.add(admin);
 
         // Crear algunos técnicos/emprendedores
         String[] nombresTecnicos = {"Carlos", "María", "José", "Ana", "Pedro", "Laura"};
         String[] apellidosTecnicos = {"González", "Martínez", "López", "Rodríguez", "Silva", "Torres"};
-        
+        List<String> tecnicos = new ArrayList<>();
+
         for (int i = 0; i < 6; i++) {
             User tecnico = new User();
             tecnico.setUsername("tecnico" + (i + 1));
             tecnico.setEmail("tecnico" + (i + 1) + "@reparafacil.com");
-            tecnico.setPassword(passwordEncoder.encode("123456"));
+            tecnico.setPassword(passwordHash);
             tecnico.setNombre(nombresTecnicos[i]);
             tecnico.setApellido(apellidosTecnicos[i]);
             tecnico.setTelefono(faker.phoneNumber().cellPhone());
             tecnico.setRol(User.UserRole.EMPRENDEDOR);
             tecnico.setActivo(true);
-            tecnico.setFechaCreacion(new Date());
+            tecnico.setFechaCreacion(Fechas.ahora());
             tecnico.setIntentosLogin(0);
             tecnico.setCuentaBloqueada(false);
-            userRepository.save(tecnico);
+            usuarios.add(tecnico);
+            tecnicos.add(tecnico.getNombreCompleto());
         }
+        userRepository.saveAll(usuarios);
+        return tecnicos;
     }
 
-    private void createClientUsers(Faker faker, Random random) {
-        // Crear clientes
-        for (int i = 0; i < 50; i++) {
+    private List<Cliente> createClientUsers(String passwordHash) {
+        Faker faker = fakers.get();
+        List<Cliente> clientes = new ArrayList<>(cantidadClientes);
+        List<User> lote = new ArrayList<>(Math.min(tamanoLote, cantidadClientes));
+
+        for (int i = 0; i < cantidadClientes; i++) {
             User cliente = new User();
-            cliente.setUsername(faker.internet().username());
-            cliente.setEmail(faker.internet().emailAddress());
-            cliente.setPassword(passwordEncoder.encode("123456"));
+            // El sufijo garantiza unicidad de username y email aunque Faker repita valores en datasets grandes
+            cliente.setUsername(faker.internet().username() + i);
+            cliente.setEmail("cliente" + i + "." + faker.internet().emailAddress());
+            cliente.setPassword(passwordHash);
             cliente.setNombre(faker.name().firstName());
             cliente.setApellido(faker.name().lastName());
             cliente.setTelefono("+569" + faker.number().numberBetween(10000000, 99999999));
             cliente.setRol(User.UserRole.CLIENTE);
             cliente.setActivo(true);
-            
+
             // Fechas de creación variadas (últimos 6 meses) - MÉTODO SEGURO
-            Date fechaCreacion = generatePastDate(180);
+            LocalDateTime fechaCreacion = generatePastDate(180);
             cliente.setFechaCreacion(fechaCreacion);
-            
+
             // Algunos con último login reciente
-            if (random.nextBoolean()) {
-                Date ultimoLogin = generatePastDate(30);
+            if (ThreadLocalRandom.current().nextBoolean()) {
+                LocalDateTime ultimoLogin = generatePastDate(30);
                 cliente.setUltimoLogin(ultimoLogin);
             }
-            
+
             cliente.setIntentosLogin(0);
             cliente.setCuentaBloqueada(false);
-            userRepository.save(cliente);
+            clientes.add(new Cliente(cliente.getNombreCompleto(), cliente.getTelefono(), cliente.getEmail()));
+
+            lote.add(cliente);
+            if (lote.size() == tamanoLote) {
+                userRepository.saveAll(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            userRepository.saveAll(lote);
         }
+        return clientes;
     }
 
-    private void createServiciosReparacion(Faker faker, Random random, List<User> tecnicos) {
-        // Tipos de dispositivos comunes en Chile
-        String[] tiposDispositivos = {"Smartphone", "Laptop", "Tablet", "Computador", "Smartwatch", "Auriculares", "Consola"};
-        
-        // Marcas comunes
-        String[] marcasSmartphones = {"Samsung", "iPhone", "Huawei", "Xiaomi", "Motorola", "LG"};
-        String[] marcasLaptops = {"HP", "Dell", "Lenovo", "Asus", "Acer", "MacBook"};
-        String[] marcasConsolas = {"PlayStation", "Xbox", "Nintendo"};
-        
-        // Problemas típicos
-        String[] problemasSmartphone = {
-            "Pantalla rota", "Batería no carga", "No enciende", "Cámara no funciona",
-            "Audio no funciona", "Botones no responden", "Problemas de conectividad"
-        };
-        String[] problemasLaptop = {
-            "No enciende", "Pantalla azul", "Sobrecalentamiento", "Batería no carga",
-            "Teclado no funciona", "WiFi no conecta", "Ventilador hace ruido"
-        };
-
-        // Obtener lista de clientes
-        List<User> clientes = userRepository.findAll().stream()
-                .filter(u -> u.getRol() == User.UserRole.CLIENTE)
-                .toList();
-
-        // Crear servicios de reparación
-        for (int i = 0; i < 80; i++) {
-            ServicioReparacion servicio = new ServicioReparacion();
-            
-            // Seleccionar cliente aleatorio
-            User clienteSeleccionado = clientes.get(random.nextInt(clientes.size()));
-            servicio.setNombreCliente(clienteSeleccionado.getNombreCompleto());
-            servicio.setTelefono(clienteSeleccionado.getTelefono());
-            servicio.setEmail(clienteSeleccionado.getEmail());
-            
-            // Tipo de dispositivo
-            String tipoDispositivo = tiposDispositivos[random.nextInt(tiposDispositivos.length)];
-            servicio.setTipoDispositivo(tipoDispositivo);
-            
-            // Marca y modelo según tipo de dispositivo
-            String marca, modelo, problema;
-            switch (tipoDispositivo) {
-                case "Smartphone":
-                    marca = marcasSmartphones[random.nextInt(marcasSmartphones.length)];
-                    modelo = marca.equals("iPhone") ? 
-                        "iPhone " + (11 + random.nextInt(4)) : 
-                        marca + " " + faker.commerce().productName();
-                    problema = problemasSmartphone[random.nextInt(problemasSmartphone.length)];
-                    break;
-                case "Laptop":
-                    marca = marcasLaptops[random.nextInt(marcasLaptops.length)];
-                    modelo = marca + " " + faker.commerce().productName();
-                    problema = problemasLaptop[random.nextInt(problemasLaptop.length)];
-                    break;
-                case "Consola":
-                    marca = marcasConsolas[random.nextInt(marcasConsolas.length)];
-                    modelo = marca.equals("PlayStation") ? "PS" + (4 + random.nextInt(2)) :
-                            marca.equals("Xbox") ? "Xbox " + (random.nextBoolean() ? "One" : "Series") :
-                            "Nintendo Switch";
-                    problema = "No enciende o problemas de lectura";
-                    break;
-                default:
-                    marca = faker.company().name();
-                    modelo = faker.commerce().productName();
-                    problema = "Falla general del dispositivo";
-            }
-            
-            servicio.setMarca(marca);
-            servicio.setModelo(modelo);
-            servicio.setDescripcionProblema(problema + ". " + faker.lorem().sentence());
-            
-            // Fechas - MÉTODO SEGURO SIN WARNINGS
-            Date fechaCreacion = generatePastDate(90);
-            servicio.setFechaCreacion(fechaCreacion);
-            
-            // Fecha agendada (normalmente después de la creación)
-            Date fechaAgendada = generateDateBetween(fechaCreacion, new Date());
-            servicio.setFechaAgendada(fechaAgendada);
-            
-            // Estado aleatorio con lógica
-            ServicioReparacion.EstadoReparacion[] estados = ServicioReparacion.EstadoReparacion.values();
-            ServicioReparacion.EstadoReparacion estado = estados[random.nextInt(estados.length)];
-            servicio.setEstado(estado);
-            
-            // Asignar técnico si el servicio está en proceso
-            if (estado != ServicioReparacion.EstadoReparacion.AGENDADO && 
-                estado != ServicioReparacion.EstadoReparacion.CANCELADO && 
-                !tecnicos.isEmpty()) {
-                User tecnico = tecnicos.get(random.nextInt(tecnicos.size()));
-                servicio.setTecnicoAsignado(tecnico.getNombreCompleto());
-            }
-            
-            // Fechas según estado
-            if (estado == ServicioReparacion.EstadoReparacion.EN_REPARACION ||
-                estado == ServicioReparacion.EstadoReparacion.COMPLETADO ||
-                estado == ServicioReparacion.EstadoReparacion.ENTREGADO) {
-                servicio.setFechaInicioReparacion(generateDateBetween(fechaAgendada, new Date()));
-            }
-            
-            if (estado == ServicioReparacion.EstadoReparacion.COMPLETADO ||
-                estado == ServicioReparacion.EstadoReparacion.ENTREGADO) {
-                Date fechaInicio = servicio.getFechaInicioReparacion() != null ? 
-                    servicio.getFechaInicioReparacion() : fechaAgendada;
-                servicio.setFechaFinReparacion(generateDateBetween(fechaInicio, new Date()));
-            }
-            
-            // Costos
-            BigDecimal costoBase = new BigDecimal(faker.number().numberBetween(15000, 150000));
-            servicio.setCostoEstimado(costoBase);
-            
-            if (estado == ServicioReparacion.EstadoReparacion.COMPLETADO ||
-                estado == ServicioReparacion.EstadoReparacion.ENTREGADO) {
-                // Costo final puede variar ±20% del estimado
-                double variacion = 0.8 + (new Random().nextDouble() * 0.4); // 0.8 a 1.2
-                BigDecimal costoFinal = costoBase.multiply(new BigDecimal(variacion));
-                servicio.setCostoFinal(costoFinal);
+    // Cada tarea genera e inserta su propio lote, así la memoria queda acotada a (hilos x lote) servicios
+    private void createServiciosReparacion(List<Cliente> clientes, List<String> tecnicos) throws Exception {
+        if (clientes.isEmpty() || cantidadServicios <= 0) {
+            return;
+        }
+        int tamano = Math.max(tamanoLote, 1);
+        int totalHilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        AtomicInteger numeroHilo = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(totalHilos,
+                tarea -> new Thread(tarea, "data-loader-" + numeroHilo.incrementAndGet()));
+        AtomicLong insertados = new AtomicLong();
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int desde = 0; desde < cantidadServicios; desde += tamano) {
+                int cantidad = Math.min(tamano, cantidadServicios - desde);
+                tareas.add(executor.submit(() -> {
+                    List<ServicioReparacion> lote = new ArrayList<>(cantidad);
+                    for (int i = 0; i < cantidad; i++) {
+                        lote.add(generarServicio(clientes, tecnicos));
+                    }
+                    servicioReparacionRepository.saveAll(lote);
+                    long total = insertados.addAndGet(cantidad);
+                    if (cantidadServicios > tamano && total % (tamano * 10L) < cantidad) {
+                        System.out.println("Servicios insertados: " + total + "/" + cantidadServicios);
+                    }
+                }));
             }
-            
-            // Prioridad
-            ServicioReparacion.PrioridadReparacion[] prioridades = ServicioReparacion.PrioridadReparacion.values();
-            servicio.setPrioridad(prioridades[random.nextInt(prioridades.length)]);
-            
-            // Observaciones ocasionales
-            if (random.nextInt(3) == 0) {
-                servicio.setObservaciones(faker.lorem().paragraph());
+            for (Future<?> tarea : tareas) {
+                tarea.get();
             }
-            
-            // Garantía
-            servicio.setGarantiaDias(30 + random.nextInt(91)); // 30 a 120 días
-            
-            servicio.setActivo(true);
-            
-            servicioReparacionRepository.save(servicio);
+        } finally {
+            executor.shutdown();
         }
     }
-    
+
+    private ServicioReparacion generarServicio(List<Cliente> clientes, List<String> tecnicos) {
+        Faker faker = fakers.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ServicioReparacion servicio = new ServicioReparacion();
+
+        // Seleccionar cliente aleatorio
+        Cliente clienteSeleccionado = clientes.get(random.nextInt(clientes.size()));
+        servicio.setNombreCliente(clienteSeleccionado.nombreCompleto());
+        servicio.setTelefono(clienteSeleccionado.telefono());
+        servicio.setEmail(clienteSeleccionado.email());
+
+        // Tipo de dispositivo
+        String tipoDispositivo = TIPOS_DISPOSITIVOS[random.nextInt(TIPOS_DISPOSITIVOS.length)];
+        servicio.setTipoDispositivo(tipoDispositivo);
+
+        // Marca y modelo según tipo de dispositivo
+        String marca, modelo, problema;
+        switch (tipoDispositivo) {
+            case "Smartphone":
+                marca = MARCAS_SMARTPHONES[random.nextInt(MARCAS_SMARTPHONES.length)];
+                modelo = marca.equals("iPhone") ?
+                    "iPhone " + (11 + random.nextInt(4)) :
+                    marca + " " + faker.commerce().productName();
+                problema = PROBLEMAS_SMARTPHONE[random.nextInt(PROBLEMAS_SMARTPHONE.length)];
+                break;
+            case "Laptop":
+                marca = MARCAS_LAPTOPS[random.nextInt(MARCAS_LAPTOPS.length)];
+                modelo = marca + " " + faker.commerce().productName();
+                problema = PROBLEMAS_LAPTOP[random.nextInt(PROBLEMAS_LAPTOP.length)];
+                break;
+            case "Consola":
+                marca = MARCAS_CONSOLAS[random.nextInt(MARCAS_CONSOLAS.length)];
+                modelo = marca.equals("PlayStation") ? "PS" + (4 + random.nextInt(2)) :
+                        marca.equals("Xbox") ? "Xbox " + (random.nextBoolean() ? "One" : "Series") :
+                        "Nintendo Switch";
+                problema = "No enciende o problemas de lectura";
+                break;
+            default:
+                marca = faker.company().name();
+                modelo = faker.commerce().productName();
+                problema = "Falla general del dispositivo";
+        }
+
+        servicio.setMarca(marca);
+        servicio.setModelo(modelo);
+        servicio.setDescripcionProblema(problema + ". " + faker.lorem().sentence());
+
+        // Fechas - MÉTODO SEGURO SIN WARNINGS
+        LocalDateTime fechaCreacion = generatePastDate(90);
+        servicio.setFechaCreacion(fechaCreacion);
+
+        // Fecha agendada (normalmente después de la creación)
+        LocalDateTime fechaAgendada = generateDateBetween(fechaCreacion, Fechas.ahora());
+        servicio.setFechaAgendada(fechaAgendada);
+
+        // Estado aleatorio con lógica
+        ServicioReparacion.EstadoReparacion[] estados = ServicioReparacion.EstadoReparacion.values();
+        ServicioReparacion.EstadoReparacion estado = estados[random.nextInt(estados.length)];
+        servicio.setEstado(estado);
+
+        // Asignar técnico si el servicio está en proceso
+        if (estado != ServicioReparacion.EstadoReparacion.AGENDADO &&
+            estado != ServicioReparacion.EstadoReparacion.CANCELADO &&
+            !tecnicos.isEmpty()) {
+            servicio.setTecnicoAsignado(tecnicos.get(random.nextInt(tecnicos.size())));
+        }
+
+        // Fechas según estado
+        if (estado == ServicioReparacion.EstadoReparacion.EN_REPARACION ||
+            estado == ServicioReparacion.EstadoReparacion.COMPLETADO ||
+            estado == ServicioReparacion.EstadoReparacion.ENTREGADO) {
+            servicio.setFechaInicioReparacion(generateDateBetween(fechaAgendada, Fechas.ahora()));
+        }
+
+        if (estado == ServicioReparacion.EstadoReparacion.COMPLETADO ||
+            estado == ServicioReparacion.EstadoReparacion.ENTREGADO) {
+            LocalDateTime fechaInicio = servicio.getFechaInicioReparacion() != null ?
+                servicio.getFechaInicioReparacion() : fechaAgendada;
+            servicio.setFechaFinReparacion(generateDateBetween(fechaInicio, Fechas.ahora()));
+        }
+
+        // Costos
+        BigDecimal costoBase = new BigDecimal(random.nextInt(15000, 150000));
+        servicio.setCostoEstimado(costoBase);
+
+        if (estado == ServicioReparacion.EstadoReparacion.COMPLETADO ||
+            estado == ServicioReparacion.EstadoReparacion.ENTREGADO) {
+            // Costo final puede variar ±20% del estimado
+            double variacion = 0.8 + (random.nextDouble() * 0.4); // 0.8 a 1.2
+            BigDecimal costoFinal = costoBase.multiply(new BigDecimal(variacion));
+            servicio.setCostoFinal(costoFinal);
+        }
+
+        // Prioridad
+        ServicioReparacion.PrioridadReparacion[] prioridades = ServicioReparacion.PrioridadReparacion.values();
+        servicio.setPrioridad(prioridades[random.nextInt(prioridades.length)]);
+
+        // Observaciones ocasionales
+        if (random.nextInt(3) == 0) {
+            servicio.setObservaciones(faker.lorem().paragraph());
+        }
+
+        // Garantía
+        servicio.setGarantiaDias(30 + random.nextInt(91)); // 30 a 120 días
+
+        servicio.setActivo(true);
+        return servicio;
+    }
+
     /**
      * Generar fecha en el pasado sin usar APIs deprecadas
      * @param daysAgo número de días en el pasado
-     * @return Date en el pasado
+     * @return fecha en el pasado (hora de Chile, ver Fechas)
      */
-    private Date generatePastDate(int daysAgo) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime past = now.minusDays(new Random().nextInt(daysAgo));
-        return Date.from(past.atZone(ZoneId.systemDefault()).toInstant());
+    private LocalDateTime generatePastDate(int daysAgo) {
+        return Fechas.ahora().minusDays(ThreadLocalRandom.current().nextInt(daysAgo));
     }
-    
+
     /**
      * Generar fecha entre dos fechas sin usar APIs deprecadas
      * @param startDate fecha inicial
      * @param endDate fecha final
-     * @return Date entre las dos fechas
+     * @return fecha entre las dos fechas
      */
-    private Date generateDateBetween(Date startDate, Date endDate) {
-        long startTime = startDate.getTime();
-        long endTime = endDate.getTime();
-        long randomTime = startTime + (long) (new Random().nextDouble() * (endTime - startTime));
-        return new Date(randomTime);
+    private LocalDateTime generateDateBetween(LocalDateTime startDate, LocalDateTime endDate) {
+        long segundos = Duration.between(startDate, endDate).getSeconds();
+        return startDate.plusSeconds((long) (ThreadLocalRandom.current().nextDouble() * segundos));
     }
-}
\ No newline at end of file
+}
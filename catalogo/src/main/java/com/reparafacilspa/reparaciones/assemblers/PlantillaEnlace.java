@@ -0,0 +1,184 @@
+package com.reparafacilspa.reparaciones.assemblers;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.core.AnnotationMappingDiscoverer;
+import org.springframework.hateoas.server.core.MappingDiscoverer;
+import org.springframework.hateoas.server.core.UriMapping;
+import org.springframework.hateoas.server.mvc.BasicLinkBuilder;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.util.UriUtils;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Plantilla de enlace HATEOAS resuelta una sola vez por método de controlador. linkTo(methodOn(...)) crea un
+// proxy, recorre las anotaciones y arma UriComponents en cada llamada; aquí eso ocurre al construir la
+// plantilla y por enlace solo se concatenan la base de la petición (calculada una vez por petición) y los
+// valores codificados. El href resultante es el mismo que generaban linkTo y slash.
+public final class PlantillaEnlace {
+
+    private static final MappingDiscoverer DISCOVERER = new AnnotationMappingDiscoverer(RequestMapping.class);
+    private static final Pattern VARIABLE = Pattern.compile("\\{([^}]+)}");
+    private static final String ATRIBUTO_BASE = PlantillaEnlace.class.getName() + ".base";
+
+    // Partes fijas y variables intercaladas: partes[0] variable[0] partes[1] ... partes[n]
+    private final List<String> partes;
+    private final List<Variable> variables;
+
+    // Cómo codifica cada variable la API que reemplaza: methodOn codifica todo lo que no es "unreserved"
+    // (RFC 3986) y slash() conserva los caracteres válidos en una ruta, como '@' y '+' en un email
+    private record Variable(String nombre, boolean comoSlash) {
+    }
+
+    private PlantillaEnlace(List<String> partes, List<Variable> variables) {
+        this.partes = partes;
+        this.variables = variables;
+    }
+
+    // Equivale a linkTo(Controlador.class)
+    public static PlantillaEnlace de(Class<?> controlador) {
+        return new PlantillaEnlace(List.of(mapping(DISCOVERER.getUriMapping(controlador))), List.of());
+    }
+
+    // Equivale a linkTo(methodOn(Controlador.class).metodo(...)). Se busca el método por nombre en lugar de usar
+    // methodOn: el proxy que crea methodOn inicializa la clase del controlador, y si eso ocurre desde el
+    // inicializador estático de esa misma clase la generación del proxy queda bloqueada esperándose a sí misma.
+    // El nombre no lo revisa el compilador: renombrar el método hace fallar la inicialización de la clase que
+    // declara la plantilla (ExceptionInInitializerError). PlantillaEnlaceTest construye todas las plantillas
+    public static PlantillaEnlace de(Class<?> controlador, String metodo) {
+        List<Method> candidatos = Arrays.stream(controlador.getMethods())
+                .filter(method -> method.getName().equals(metodo))
+                .toList();
+        if (candidatos.size() != 1) {
+            throw new IllegalArgumentException("Se esperaba un único método " + metodo + " en " + controlador.getName());
+        }
+        Method method = candidatos.get(0);
+        for (int i = 0; i < method.getParameterCount(); i++) {
+            if (new MethodParameter(method, i).hasParameterAnnotation(RequestParam.class)) {
+                throw new IllegalArgumentException("Plantilla de enlace sin soporte para parámetros de consulta: " + method);
+            }
+        }
+
+        String ruta = mapping(DISCOVERER.getUriMapping(controlador, method));
+        List<String> partes = new ArrayList<>();
+        List<Variable> variables = new ArrayList<>();
+        Matcher matcher = VARIABLE.matcher(ruta);
+        int desde = 0;
+        while (matcher.find()) {
+            partes.add(ruta.substring(desde, matcher.start()));
+            variables.add(new Variable(matcher.group(1), false));
+            desde = matcher.end();
+        }
+        partes.add(ruta.substring(desde));
+        return new PlantillaEnlace(List.copyOf(partes), List.copyOf(variables));
+    }
+
+    // Equivale a .slash(segmento); "{nombre}" declara una variable que se entrega al expandir
+    public PlantillaEnlace slash(String segmento) {
+        if (variables.stream().anyMatch(variable -> !variable.comoSlash())) {
+            throw new IllegalStateException("No se pueden agregar segmentos a la plantilla de un método con variables");
+        }
+        List<String> nuevasPartes = new ArrayList<>(partes);
+        List<Variable> nuevasVariables = new ArrayList<>(variables);
+        Matcher matcher = VARIABLE.matcher(segmento);
+        if (matcher.matches()) {
+            nuevasVariables.add(new Variable(matcher.group(1), true));
+            nuevasPartes.add("");
+        } else {
+            int ultima = nuevasPartes.size() - 1;
+            nuevasPartes.set(ultima, nuevasPartes.get(ultima) + segmentoFijo(segmento));
+        }
+        return new PlantillaEnlace(List.copyOf(nuevasPartes), List.copyOf(nuevasVariables));
+    }
+
+    public Link withRel(String rel, Object... valores) {
+        return Link.of(expandir(valores), rel);
+    }
+
+    public Link withSelfRel(Object... valores) {
+        return Link.of(expandir(valores), IanaLinkRelations.SELF);
+    }
+
+    // Los valores se entregan en el orden en que aparecen las variables en la ruta
+    public String expandir(Object... valores) {
+        if (valores.length != variables.size()) {
+            throw new IllegalArgumentException("La plantilla espera " + variables.size() + " valores y recibió " + valores.length);
+        }
+
+        StringBuilder href = new StringBuilder(128).append(base());
+        for (int i = 0; i < valores.length; i++) {
+            href.append(partes.get(i));
+            Variable variable = variables.get(i);
+            if (!variable.comoSlash()) {
+                // Igual que linkTo(methodOn(...)): una variable sin valor queda como plantilla ({id})
+                href.append(valores[i] == null ? "{" + variable.nombre() + "}" : UriUtils.encode(valores[i].toString(), StandardCharsets.UTF_8));
+            } else if (esSegmentoSimple(valores[i])) {
+                href.append('/').append(UriUtils.encodePath(valores[i].toString(), StandardCharsets.UTF_8));
+            } else {
+                return expandirConLinkBuilder(valores);
+            }
+        }
+        return href.append(partes.get(valores.length)).toString();
+    }
+
+    // Esquema, host y context path de la petición en curso, como los calcula linkTo
+    private static String base() {
+        RequestAttributes atributos = RequestContextHolder.currentRequestAttributes();
+        String base = (String) atributos.getAttribute(ATRIBUTO_BASE, RequestAttributes.SCOPE_REQUEST);
+        if (base == null) {
+            base = BasicLinkBuilder.linkToCurrentMapping().toString();
+            atributos.setAttribute(ATRIBUTO_BASE, base, RequestAttributes.SCOPE_REQUEST);
+        }
+        return base;
+    }
+
+    // Valores para los que slash() solo codifica y antepone '/': sin '/', '?' ni '#', que slash() interpreta
+    // como separadores, query o fragmento, y con texto (slash() ignora null y los blancos)
+    private static boolean esSegmentoSimple(Object valor) {
+        if (valor == null) {
+            return false;
+        }
+        String texto = valor.toString();
+        return StringUtils.hasText(texto) && texto.indexOf('/') < 0 && texto.indexOf('?') < 0 && texto.indexOf('#') < 0;
+    }
+
+    // Caso poco común: se delega en slash() para conservar exactamente el href anterior
+    private String expandirConLinkBuilder(Object[] valores) {
+        BasicLinkBuilder builder = BasicLinkBuilder.linkToCurrentMapping();
+        for (int i = 0; i < valores.length; i++) {
+            builder = builder.slash(partes.get(i)).slash(valores[i]);
+        }
+        return builder.slash(partes.get(valores.length)).toString();
+    }
+
+    private static String mapping(UriMapping uriMapping) {
+        String mapping = uriMapping == null ? null : uriMapping.getMapping();
+        return mapping == null || mapping.equals("/") ? "" : mapping;
+    }
+
+    // Los segmentos fijos son literales del código y no requieren codificación; así las partes sirven tal cual
+    // tanto al concatenar como al delegar en slash()
+    private static String segmentoFijo(String segmento) {
+        StringBuilder ruta = new StringBuilder();
+        for (String parte : segmento.split("/")) {
+            if (!UriUtils.encodePath(parte, StandardCharsets.UTF_8).equals(parte)) {
+                throw new IllegalArgumentException("Segmento fijo con caracteres que requieren codificación: " + segmento);
+            }
+            if (!parte.isEmpty()) {
+                ruta.append('/').append(parte);
+            }
+        }
+        return ruta.toString();
+    }
+}
@@ -6,18 +6,23 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @Component
 public class ServicioReparacionModelAssembler implements RepresentationModelAssembler<ServicioReparacionResponse, EntityModel<ServicioReparacionResponse>> {
 
+    // Se arman cinco enlaces por elemento de cada listado: las rutas se resuelven una sola vez
+    private static final PlantillaEnlace ENLACE_SERVICIO = PlantillaEnlace.de(ServicioReparacionControllerV2.class, "getServicioById");
+    private static final PlantillaEnlace ENLACE_SERVICIOS = PlantillaEnlace.de(ServicioReparacionControllerV2.class);
+    private static final PlantillaEnlace ENLACE_SERVICIOS_CLIENTE = PlantillaEnlace.de(ServicioReparacionControllerV2.class, "getServiciosByEmail");
+    private static final PlantillaEnlace ENLACE_SERVICIOS_ESTADO = PlantillaEnlace.de(ServicioReparacionControllerV2.class, "getServiciosByEstado");
+    private static final PlantillaEnlace ENLACE_SERVICIOS_TIPO = PlantillaEnlace.de(ServicioReparacionControllerV2.class, "getServiciosByTipo");
+
     @Override
     public EntityModel<ServicioReparacionResponse> toModel(ServicioReparacionResponse servicio) {
         return EntityModel.of(servicio)
-                .add(linkTo(methodOn(ServicioReparacionControllerV2.class).getServicioById(servicio.getId())).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"))
-                .add(linkTo(methodOn(ServicioReparacionControllerV2.class).getServiciosByEmail(servicio.getEmail())).withRel("servicios-cliente"))
-                .add(linkTo(methodOn(ServicioReparacionControllerV2.class).getServiciosByEstado(servicio.getEstado())).withRel("servicios-estado"))
-                .add(linkTo(methodOn(ServicioReparacionControllerV2.class).getServiciosByTipo(servicio.getTipoDispositivo())).withRel("servicios-tipo"));
+                .add(ENLACE_SERVICIO.withSelfRel(servicio.getId()))
+                .add(ENLACE_SERVICIOS.withRel("servicios"))
+                .add(ENLACE_SERVICIOS_CLIENTE.withRel("servicios-cliente", servicio.getEmail()))
+                .add(ENLACE_SERVICIOS_ESTADO.withRel("servicios-estado", servicio.getEstado()))
+                .add(ENLACE_SERVICIOS_TIPO.withRel("servicios-tipo", servicio.getTipoDispositivo()));
     }
 }
\ No newline at end of file
@@ -6,16 +6,18 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @Component
 public class UserModelAssembler implements RepresentationModelAssembler<AuthResponse.UserInfo, EntityModel<AuthResponse.UserInfo>> {
 
+    private static final PlantillaEnlace ENLACE_CHECK_USERNAME = PlantillaEnlace.de(AuthControllerV2.class, "checkUsername");
+    private static final PlantillaEnlace ENLACE_CHECK_EMAIL = PlantillaEnlace.de(AuthControllerV2.class, "checkEmail");
+    private static final PlantillaEnlace ENLACE_AUTH = PlantillaEnlace.de(AuthControllerV2.class);
+
     @Override
     public EntityModel<AuthResponse.UserInfo> toModel(AuthResponse.UserInfo user) {
         return EntityModel.of(user)
-                .add(linkTo(methodOn(AuthControllerV2.class).checkUsername(user.getUsername())).withRel("check-username"))
-                .add(linkTo(methodOn(AuthControllerV2.class).checkEmail(user.getEmail())).withRel("check-email"))
-                .add(linkTo(AuthControllerV2.class).withRel("auth"));
+                .add(ENLACE_CHECK_USERNAME.withRel("check-username", user.getUsername()))
+                .add(ENLACE_CHECK_EMAIL.withRel("check-email", user.getEmail()))
+                .add(ENLACE_AUTH.withRel("auth"));
     }
 }
\ No newline at end of file
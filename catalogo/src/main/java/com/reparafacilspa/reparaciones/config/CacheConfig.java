@@ -0,0 +1,40 @@
+package com.reparafacilspa.reparaciones.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+// Cachés de Spring (@Cacheable/@CacheEvict). Tamaño máximo y TTL de cada una se definen en application.conf,
+// junto a las regiones de Hibernate; una caché que no esté declarada allí no se puede usar.
+@Configuration
+public class CacheConfig {
+
+    // /estadisticas de servicios (V1, V2 y V3)
+    public static final String ESTADISTICAS_SERVICIOS = "estadisticas-servicios";
+
+    // /users/statistics
+    public static final String ESTADISTICAS_USUARIOS = "estadisticas-usuarios";
+
+    // /estados y /tipos-dispositivos
+    public static final String CATALOGOS = "catalogos";
+
+    public static final List<String> CACHES = List.of(ESTADISTICAS_SERVICIOS, ESTADISTICAS_USUARIOS, CATALOGOS);
+
+    // Las evicciones hechas dentro de una transacción se aplican después del commit, cuando los contadores
+    // de estadísticas ya se actualizaron; antes del commit otra lectura volvería a cachear el valor viejo
+    @Bean
+    public CacheManagerCustomizer<JCacheCacheManager> jCacheTransactionAwareCustomizer() {
+        return cacheManager -> cacheManager.setTransactionAware(true);
+    }
+
+    // Crea las cachés al arrancar (con la política de application.conf) en lugar de en el primer uso, para que
+    // Actuator las encuentre y publique sus aciertos y fallos (cache.gets, cache.puts, ...)
+    @Bean
+    public JCacheManagerCustomizer jCacheCachesAlArrancar() {
+        return cacheManager -> CACHES.forEach(cacheManager::getCache);
+    }
+}
@@ -0,0 +1,85 @@
+package com.reparafacilspa.reparaciones.config;
+
+import com.reparafacilspa.reparaciones.service.ConsultasLentas;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Envuelve el DataSource para cronometrar cada execute* y pasarlo a ConsultasLentas. Solo se envuelven la
+// conexión y las sentencias (no los ResultSet); los setX de una sentencia preparada pasan por el proxy sin
+// más costo que la llamada reflexiva. DelegatingDataSource conserva unwrap(), así Actuator sigue viendo el
+// pool de Hikari para sus métricas.
+@Configuration
+public class ConsultasLentasConfig {
+
+    // static: un BeanPostProcessor se crea antes que el resto de los beans de esta clase
+    @Bean
+    public static BeanPostProcessor dataSourceCronometrado(ObjectProvider<ConsultasLentas> consultasLentas) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceCronometrado)) {
+                    return new DataSourceCronometrado(dataSource, consultasLentas.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static final class DataSourceCronometrado extends DelegatingDataSource {
+
+        private final ConsultasLentas consultasLentas;
+
+        private DataSourceCronometrado(DataSource destino, ConsultasLentas consultasLentas) {
+            super(destino);
+            this.consultasLentas = consultasLentas;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return envolver(Connection.class, super.getConnection(), null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return envolver(Connection.class, super.getConnection(username, password), null);
+        }
+
+        // sql es el texto con que se preparó la sentencia; Statement.execute(sql) lo trae como argumento
+        @SuppressWarnings("unchecked")
+        private <T> T envolver(Class<T> tipo, T destino, String sql) {
+            boolean esConexion = tipo == Connection.class;
+            InvocationHandler handler = (proxy, method, args) -> {
+                boolean ejecuta = !esConexion && method.getName().startsWith("execute");
+                long inicio = ejecuta ? System.nanoTime() : 0;
+                Object resultado;
+                try {
+                    resultado = method.invoke(destino, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    if (ejecuta) {
+                        consultasLentas.registrar(args != null && args.length > 0 && args[0] instanceof String texto ? texto : sql,
+                                System.nanoTime() - inicio);
+                    }
+                }
+                if (esConexion && resultado instanceof Statement statement) {
+                    return envolver((Class<Statement>) method.getReturnType(), statement,
+                            args != null && args.length > 0 && args[0] instanceof String texto ? texto : null);
+                }
+                return resultado;
+            };
+            return (T) Proxy.newProxyInstance(ConsultasLentasConfig.class.getClassLoader(), new Class<?>[]{tipo}, handler);
+        }
+    }
+}
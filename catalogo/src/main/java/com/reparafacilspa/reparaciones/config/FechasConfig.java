@@ -0,0 +1,34 @@
+package com.reparafacilspa.reparaciones.config;
+
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.reparafacilspa.reparaciones.model.Fechas;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.ZoneId;
+import java.util.TimeZone;
+
+// Las fechas del modelo son LocalDateTime (ver Fechas); spring.jackson.date-format solo aplica a java.util.Date,
+// así que aquí se fija el mismo formato para que las respuestas JSON no cambien.
+// La zona sale de spring.jackson.time-zone y es obligatorio que la JVM use la misma: java.util.Date y el
+// driver JDBC trabajan con la zona por defecto, y con otra (p. ej. un servidor en UTC) las filas quedarían
+// desfasadas respecto de Fechas.ahora(). hibernate.jdbc.time_zone apunta a la misma propiedad.
+@Configuration
+public class FechasConfig {
+
+    public FechasConfig(@Value("${spring.jackson.time-zone:America/Santiago}") String zona) {
+        ZoneId zonaId = ZoneId.of(zona);
+        Fechas.configurarZona(zonaId);
+        TimeZone.setDefault(TimeZone.getTimeZone(zonaId));
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer formatoFechas() {
+        return builder -> builder
+                .serializers(new LocalDateTimeSerializer(Fechas.FORMATO))
+                .deserializers(new LocalDateTimeDeserializer(Fechas.FORMATO_ENTRADA));
+    }
+}
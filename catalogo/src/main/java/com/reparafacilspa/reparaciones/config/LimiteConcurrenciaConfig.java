@@ -0,0 +1,35 @@
+package com.reparafacilspa.reparaciones.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+// Solo con spring.threads.virtual.enabled=true. Con hilos de plataforma el máximo de hilos de Tomcat acota
+// cuántas peticiones compiten por una conexión; con hilos virtuales ese tope desaparece y miles de
+// peticiones quedarían esperando dentro de Hikari hasta fallar con un 500. El filtro deja pasar tantas
+// peticiones a la vez como conexiones tiene el pool y hace esperar al resto.
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class LimiteConcurrenciaConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(LimiteConcurrenciaConfig.class);
+
+    @Bean
+    public FilterRegistrationBean<LimiteConcurrenciaFilter> limiteConcurrenciaFilter(DataSource dataSource) throws SQLException {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        LimiteConcurrenciaFilter filter = new LimiteConcurrenciaFilter(hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+        log.info("Hilos virtuales activos: máximo {} peticiones /api simultáneas", hikari.getMaximumPoolSize());
+
+        FilterRegistrationBean<LimiteConcurrenciaFilter> registro = new FilterRegistrationBean<>(filter);
+        registro.addUrlPatterns("/api/*");
+        return registro;
+    }
+}
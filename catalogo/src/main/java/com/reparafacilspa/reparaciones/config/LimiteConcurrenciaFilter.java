@@ -0,0 +1,114 @@
+package com.reparafacilspa.reparaciones.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Limita las peticiones simultáneas al tamaño del pool de conexiones (ver LimiteConcurrenciaConfig). Esperar
+// un permiso bloquea un hilo virtual, que no ocupa un hilo del sistema; si no llega dentro del mismo plazo
+// que Hikari da para obtener una conexión, se responde 503 con Retry-After.
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+    private static final String RESPUESTA_OCUPADO =
+            "{\"success\":false,\"message\":\"Servidor ocupado, reintente en unos segundos\"}";
+
+    private final Semaphore permisos;
+    private final long esperaMaximaMs;
+
+    public LimiteConcurrenciaFilter(int maximoSimultaneas, long esperaMaximaMs) {
+        // Justo: las peticiones en espera obtienen su turno en orden de llegada
+        this.permisos = new Semaphore(maximoSimultaneas, true);
+        this.esperaMaximaMs = esperaMaximaMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!obtenerPermiso()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(RESPUESTA_OCUPADO);
+            return;
+        }
+
+        boolean liberarAlSalir = true;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // /exportar sigue leyendo y escribiendo en otro hilo: el permiso se libera cuando termina
+                request.getAsyncContext().addListener(new LiberarPermiso());
+                liberarAlSalir = false;
+            }
+        } finally {
+            if (liberarAlSalir) {
+                permisos.release();
+            }
+        }
+    }
+
+    private boolean obtenerPermiso() {
+        try {
+            return permisos.tryAcquire(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Peticiones en espera de un permiso (aproximado)
+    public int getEnEspera() {
+        return permisos.getQueueLength();
+    }
+
+    public int getDisponibles() {
+        return permisos.availablePermits();
+    }
+
+    // onError y onTimeout van seguidos de onComplete: el permiso se libera una sola vez
+    private class LiberarPermiso implements AsyncListener {
+
+        private final AtomicBoolean liberado = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            liberar();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Un nuevo ciclo asíncrono de la misma petición: este listener ya no recibe eventos
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void liberar() {
+            if (liberado.compareAndSet(false, true)) {
+                permisos.release();
+            }
+        }
+    }
+}
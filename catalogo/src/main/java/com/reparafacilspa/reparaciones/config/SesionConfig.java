@@ -0,0 +1,21 @@
+package com.reparafacilspa.reparaciones.config;
+
+import com.reparafacilspa.reparaciones.service.TokenSesion;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Tokens de sesión firmados (TokenSesion) verificados antes de cualquier otro filtro de /api: un token
+// rechazado no alcanza a ocupar un turno de LimiteConcurrenciaFilter
+@Configuration
+public class SesionConfig {
+
+    @Bean
+    public FilterRegistrationBean<SesionTokenFilter> sesionTokenFilter(TokenSesion tokenSesion) {
+        FilterRegistrationBean<SesionTokenFilter> registro = new FilterRegistrationBean<>(new SesionTokenFilter(tokenSesion));
+        registro.addUrlPatterns("/api/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+}
@@ -0,0 +1,56 @@
+package com.reparafacilspa.reparaciones.config;
+
+import com.reparafacilspa.reparaciones.service.TokenSesion;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+// Verifica "Authorization: Bearer <token>" en memoria (firma, expiración y revocación, ver TokenSesion) y
+// deja la sesión en el atributo ATRIBUTO_SESION para los controladores. Sin cabecera la petición sigue como
+// anónima; un token inválido se rechaza con 401 sin llegar al controlador.
+public class SesionTokenFilter extends OncePerRequestFilter {
+
+    // Constante literal: se usa en @RequestAttribute
+    public static final String ATRIBUTO_SESION = "reparafacil.sesion";
+
+    private static final String PREFIJO = "Bearer ";
+    private static final String RESPUESTA_INVALIDO =
+            "{\"success\":false,\"message\":\"Token de sesión inválido, expirado o revocado\"}";
+
+    private final TokenSesion tokenSesion;
+
+    public SesionTokenFilter(TokenSesion tokenSesion) {
+        this.tokenSesion = tokenSesion;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, PREFIJO, 0, PREFIJO.length())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<TokenSesion.Sesion> sesion = tokenSesion.verificar(authorization.substring(PREFIJO.length()).trim());
+        if (sesion.isEmpty()) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(RESPUESTA_INVALIDO);
+            return;
+        }
+        request.setAttribute(ATRIBUTO_SESION, sesion.get());
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,26 @@
+package com.reparafacilspa.reparaciones.config;
+
+import com.reparafacilspa.reparaciones.service.SobrecargaException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// Solo SobrecargaException (a diferencia de GlobalExceptionHandler, que sigue deshabilitado): el cliente
+// recibe 429 y cuándo reintentar en lugar del error genérico de cada endpoint
+@RestControllerAdvice
+public class SobrecargaExceptionHandler {
+
+    @ExceptionHandler(SobrecargaException.class)
+    public ResponseEntity<Map<String, Object>> handleSobrecarga(SobrecargaException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getReintentarEnSegundos()))
+                .body(Map.of(
+                    "success", false,
+                    "message", ex.getMessage()
+                ));
+    }
+}
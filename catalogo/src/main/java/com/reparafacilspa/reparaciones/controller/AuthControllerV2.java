@@ -1,5 +1,6 @@
 package com.reparafacilspa.reparaciones.controller;
 
+import com.reparafacilspa.reparaciones.assemblers.PlantillaEnlace;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.http.HttpStatus;
@@ -25,14 +26,24 @@ import jakarta.validation.Valid;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @RestController
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 @RequestMapping("/api/v2/auth")
 @Tag(name = "Autenticación V2 (HATEOAS)", description = "Operaciones de autenticación con enlaces HATEOAS para navegación dinámica")
 public class AuthControllerV2 {
 
+    // Enlaces HATEOAS precompilados (ver PlantillaEnlace)
+    private static final PlantillaEnlace ENLACE_AUTH = PlantillaEnlace.de(AuthControllerV2.class);
+    private static final PlantillaEnlace ENLACE_LOGOUT = ENLACE_AUTH.slash("logout");
+    private static final PlantillaEnlace ENLACE_PROFILE = ENLACE_AUTH.slash("profile");
+    private static final PlantillaEnlace ENLACE_REGISTRO = PlantillaEnlace.de(AuthControllerV2.class, "register");
+    private static final PlantillaEnlace ENLACE_LOGIN = PlantillaEnlace.de(AuthControllerV2.class, "login");
+    private static final PlantillaEnlace ENLACE_CAMBIAR_PASSWORD = PlantillaEnlace.de(AuthControllerV2.class, "changePassword");
+    private static final PlantillaEnlace ENLACE_DESBLOQUEAR = PlantillaEnlace.de(AuthControllerV2.class, "unlockAccount");
+    private static final PlantillaEnlace ENLACE_CHECK_USERNAME = PlantillaEnlace.de(AuthControllerV2.class, "checkUsername");
+    private static final PlantillaEnlace ENLACE_CHECK_EMAIL = PlantillaEnlace.de(AuthControllerV2.class, "checkEmail");
+    private static final PlantillaEnlace ENLACE_HEALTH = PlantillaEnlace.de(AuthControllerV2.class, "health");
+
     @Autowired
     private AuthService authService;
 
@@ -102,8 +113,8 @@ public class AuthControllerV2 {
                 "success", false,
                 "message", "Errores de validación: " + errors,
                 "_links", Map.of(
-                    "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref(),
-                    "register", linkTo(methodOn(AuthControllerV2.class).register(null, null)).withRel("register").getHref()
+                    "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                    "register", ENLACE_REGISTRO.withRel("register").getHref()
                 )
             ));
         }
@@ -120,9 +131,9 @@ public class AuthControllerV2 {
                 "user", userModel,
                 "sessionToken", response.getSessionToken(),
                 "_links", Map.of(
-                    "self", linkTo(methodOn(AuthControllerV2.class).login(loginRequest, bindingResult)).withSelfRel().getHref(),
-                    "change-password", linkTo(methodOn(AuthControllerV2.class).changePassword(null)).withRel("change-password").getHref(),
-                    "logout", linkTo(AuthControllerV2.class).slash("logout").withRel("logout").getHref()
+                    "self", ENLACE_LOGIN.withSelfRel().getHref(),
+                    "change-password", ENLACE_CAMBIAR_PASSWORD.withRel("change-password").getHref(),
+                    "logout", ENLACE_LOGOUT.withRel("logout").getHref()
                 )
             );
             
@@ -132,9 +143,9 @@ public class AuthControllerV2 {
                 "success", response.isSuccess(),
                 "message", response.getMessage(),
                 "_links", Map.of(
-                    "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref(),
-                    "register", linkTo(methodOn(AuthControllerV2.class).register(null, null)).withRel("register").getHref(),
-                    "unlock", linkTo(methodOn(AuthControllerV2.class).unlockAccount(loginRequest.getUsername())).withRel("unlock").getHref()
+                    "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                    "register", ENLACE_REGISTRO.withRel("register").getHref(),
+                    "unlock", ENLACE_DESBLOQUEAR.withRel("unlock", loginRequest.getUsername()).getHref()
                 )
             ));
         }
@@ -157,8 +168,8 @@ public class AuthControllerV2 {
                 "success", false,
                 "message", "Errores de validación: " + errors,
                 "_links", Map.of(
-                    "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref(),
-                    "login", linkTo(methodOn(AuthControllerV2.class).login(null, null)).withRel("login").getHref()
+                    "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                    "login", ENLACE_LOGIN.withRel("login").getHref()
                 )
             ));
         }
@@ -174,9 +185,9 @@ public class AuthControllerV2 {
                 "user", userModel,
                 "sessionToken", response.getSessionToken(),
                 "_links", Map.of(
-                    "self", linkTo(methodOn(AuthControllerV2.class).register(registerRequest, bindingResult)).withSelfRel().getHref(),
-                    "login", linkTo(methodOn(AuthControllerV2.class).login(null, null)).withRel("login").getHref(),
-                    "profile", linkTo(AuthControllerV2.class).slash("profile").withRel("profile").getHref()
+                    "self", ENLACE_REGISTRO.withSelfRel().getHref(),
+                    "login", ENLACE_LOGIN.withRel("login").getHref(),
+                    "profile", ENLACE_PROFILE.withRel("profile").getHref()
                 )
             );
             
@@ -186,10 +197,10 @@ public class AuthControllerV2 {
                 "success", response.isSuccess(),
                 "message", response.getMessage(),
                 "_links", Map.of(
-                    "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref(),
-                    "login", linkTo(methodOn(AuthControllerV2.class).login(null, null)).withRel("login").getHref(),
-                    "check-username", linkTo(methodOn(AuthControllerV2.class).checkUsername(registerRequest.getUsername())).withRel("check-username").getHref(),
-                    "check-email", linkTo(methodOn(AuthControllerV2.class).checkEmail(registerRequest.getEmail())).withRel("check-email").getHref()
+                    "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                    "login", ENLACE_LOGIN.withRel("login").getHref(),
+                    "check-username", ENLACE_CHECK_USERNAME.withRel("check-username", registerRequest.getUsername()).getHref(),
+                    "check-email", ENLACE_CHECK_EMAIL.withRel("check-email", registerRequest.getEmail()).getHref()
                 )
             ));
         }
@@ -209,9 +220,9 @@ public class AuthControllerV2 {
             "available", !exists,
             "message", exists ? "Username no disponible" : "Username disponible",
             "_links", Map.of(
-                "self", linkTo(methodOn(AuthControllerV2.class).checkUsername(username)).withSelfRel().getHref(),
-                "register", linkTo(methodOn(AuthControllerV2.class).register(null, null)).withRel("register").getHref(),
-                "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref()
+                "self", ENLACE_CHECK_USERNAME.withSelfRel(username).getHref(),
+                "register", ENLACE_REGISTRO.withRel("register").getHref(),
+                "auth", ENLACE_AUTH.withRel("auth").getHref()
             )
         );
         return ResponseEntity.ok(response);
@@ -231,9 +242,9 @@ public class AuthControllerV2 {
             "available", !exists,
             "message", exists ? "Email ya registrado" : "Email disponible",
             "_links", Map.of(
-                "self", linkTo(methodOn(AuthControllerV2.class).checkEmail(email)).withSelfRel().getHref(),
-                "register", linkTo(methodOn(AuthControllerV2.class).register(null, null)).withRel("register").getHref(),
-                "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref()
+                "self", ENLACE_CHECK_EMAIL.withSelfRel(email).getHref(),
+                "register", ENLACE_REGISTRO.withRel("register").getHref(),
+                "auth", ENLACE_AUTH.withRel("auth").getHref()
             )
         );
         return ResponseEntity.ok(response);
@@ -252,9 +263,9 @@ public class AuthControllerV2 {
             "success", success,
             "message", success ? "Cuenta desbloqueada exitosamente" : "Error al desbloquear cuenta",
             "_links", Map.of(
-                "self", linkTo(methodOn(AuthControllerV2.class).unlockAccount(username)).withSelfRel().getHref(),
-                "login", linkTo(methodOn(AuthControllerV2.class).login(null, null)).withRel("login").getHref(),
-                "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref()
+                "self", ENLACE_DESBLOQUEAR.withSelfRel(username).getHref(),
+                "login", ENLACE_LOGIN.withRel("login").getHref(),
+                "auth", ENLACE_AUTH.withRel("auth").getHref()
             )
         );
         return ResponseEntity.ok(response);
@@ -275,8 +286,8 @@ public class AuthControllerV2 {
                 "success", false,
                 "message", "Username, contraseña actual y nueva contraseña son requeridos",
                 "_links", Map.of(
-                    "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref(),
-                    "login", linkTo(methodOn(AuthControllerV2.class).login(null, null)).withRel("login").getHref()
+                    "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                    "login", ENLACE_LOGIN.withRel("login").getHref()
                 )
             ));
         }
@@ -286,8 +297,8 @@ public class AuthControllerV2 {
                 "success", false,
                 "message", "La nueva contraseña debe tener al menos 6 caracteres",
                 "_links", Map.of(
-                    "self", linkTo(methodOn(AuthControllerV2.class).changePassword(request)).withSelfRel().getHref(),
-                    "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref()
+                    "self", ENLACE_CAMBIAR_PASSWORD.withSelfRel().getHref(),
+                    "auth", ENLACE_AUTH.withRel("auth").getHref()
                 )
             ));
         }
@@ -299,9 +310,9 @@ public class AuthControllerV2 {
                 "success", response.isSuccess(),
                 "message", response.getMessage(),
                 "_links", Map.of(
-                    "self", linkTo(methodOn(AuthControllerV2.class).changePassword(request)).withSelfRel().getHref(),
-                    "login", linkTo(methodOn(AuthControllerV2.class).login(null, null)).withRel("login").getHref(),
-                    "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref()
+                    "self", ENLACE_CAMBIAR_PASSWORD.withSelfRel().getHref(),
+                    "login", ENLACE_LOGIN.withRel("login").getHref(),
+                    "auth", ENLACE_AUTH.withRel("auth").getHref()
                 )
             ));
         } else {
@@ -309,8 +320,8 @@ public class AuthControllerV2 {
                 "success", response.isSuccess(),
                 "message", response.getMessage(),
                 "_links", Map.of(
-                    "self", linkTo(methodOn(AuthControllerV2.class).changePassword(request)).withSelfRel().getHref(),
-                    "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref()
+                    "self", ENLACE_CAMBIAR_PASSWORD.withSelfRel().getHref(),
+                    "auth", ENLACE_AUTH.withRel("auth").getHref()
                 )
             ));
         }
@@ -327,10 +338,10 @@ public class AuthControllerV2 {
             "service", "Authentication Service V2 (HATEOAS)",
             "timestamp", new java.util.Date().toString(),
             "_links", Map.of(
-                "self", linkTo(methodOn(AuthControllerV2.class).health()).withSelfRel().getHref(),
-                "auth", linkTo(AuthControllerV2.class).withRel("auth").getHref(),
-                "login", linkTo(methodOn(AuthControllerV2.class).login(null, null)).withRel("login").getHref(),
-                "register", linkTo(methodOn(AuthControllerV2.class).register(null, null)).withRel("register").getHref()
+                "self", ENLACE_HEALTH.withSelfRel().getHref(),
+                "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                "login", ENLACE_LOGIN.withRel("login").getHref(),
+                "register", ENLACE_REGISTRO.withRel("register").getHref()
             )
         );
         return ResponseEntity.ok(response);
@@ -1,19 +1,28 @@
 package com.reparafacilspa.reparaciones.controller;
 
+import com.reparafacilspa.reparaciones.assemblers.PlantillaEnlace;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
-import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
 import com.reparafacilspa.reparaciones.assemblers.UserModelAssembler;
+import com.reparafacilspa.reparaciones.config.SesionTokenFilter;
 import com.reparafacilspa.reparaciones.dto.AuthResponse;
 import com.reparafacilspa.reparaciones.dto.LoginRequest;
 import com.reparafacilspa.reparaciones.dto.RegisterRequest;
 import com.reparafacilspa.reparaciones.dto.UpdateUserRequest;
 import com.reparafacilspa.reparaciones.service.AuthServiceV3;
+import com.reparafacilspa.reparaciones.service.SobrecargaException;
+import com.reparafacilspa.reparaciones.service.TokenSesion;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -25,18 +34,33 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import jakarta.validation.Valid;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @RestController
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 @RequestMapping("/api/v3/auth")
 @Tag(name = "Autenticación V3 (HATEOAS + CRUD)", description = "Operaciones completas de autenticación y gestión de usuarios con enlaces HATEOAS y CRUD completo")
 public class AuthControllerV3 {
 
+    // Enlaces HATEOAS precompilados (ver PlantillaEnlace)
+    private static final PlantillaEnlace ENLACE_AUTH = PlantillaEnlace.de(AuthControllerV3.class);
+    private static final PlantillaEnlace ENLACE_REGISTRO = PlantillaEnlace.de(AuthControllerV3.class, "register");
+    // Los listados paginados reciben parámetros de consulta: sus enlaces se arman con slash()
+    private static final PlantillaEnlace ENLACE_USUARIOS = ENLACE_AUTH.slash("users");
+    private static final PlantillaEnlace ENLACE_LOGIN = PlantillaEnlace.de(AuthControllerV3.class, "login");
+    private static final PlantillaEnlace ENLACE_CAMBIAR_PASSWORD = PlantillaEnlace.de(AuthControllerV3.class, "changePassword");
+    private static final PlantillaEnlace ENLACE_USUARIO = PlantillaEnlace.de(AuthControllerV3.class, "getUserById");
+    private static final PlantillaEnlace ENLACE_DESBLOQUEAR = PlantillaEnlace.de(AuthControllerV3.class, "unlockAccount");
+    private static final PlantillaEnlace ENLACE_CHECK_USERNAME = PlantillaEnlace.de(AuthControllerV3.class, "checkUsername");
+    private static final PlantillaEnlace ENLACE_CHECK_EMAIL = PlantillaEnlace.de(AuthControllerV3.class, "checkEmail");
+    private static final PlantillaEnlace ENLACE_ESTADISTICAS_USUARIOS = PlantillaEnlace.de(AuthControllerV3.class, "getUserStatistics");
+    private static final PlantillaEnlace ENLACE_USUARIOS_ACTIVOS = ENLACE_USUARIOS.slash("active");
+    private static final PlantillaEnlace ENLACE_USUARIOS_ROL = ENLACE_USUARIOS.slash("role").slash("{role}");
+    private static final PlantillaEnlace ENLACE_HEALTH = PlantillaEnlace.de(AuthControllerV3.class, "health");
+    private static final PlantillaEnlace ENLACE_SESION = PlantillaEnlace.de(AuthControllerV3.class, "getSesion");
+
     @Autowired
     private AuthServiceV3 authService;
 
@@ -100,9 +124,9 @@ public class AuthControllerV3 {
                 "success", false,
                 "message", "Errores de validación: " + errors,
                 "_links", Map.of(
-                    "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref(),
-                    "register", linkTo(methodOn(AuthControllerV3.class).register(null, null)).withRel("register").getHref(),
-                    "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref()
+                    "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                    "register", ENLACE_REGISTRO.withRel("register").getHref(),
+                    "users", ENLACE_USUARIOS.withRel("users").getHref()
                 )
             ));
         }
@@ -118,10 +142,10 @@ public class AuthControllerV3 {
                 "user", userModel,
                 "sessionToken", response.getSessionToken(),
                 "_links", Map.of(
-                    "self", linkTo(methodOn(AuthControllerV3.class).login(loginRequest, bindingResult)).withSelfRel().getHref(),
-                    "change-password", linkTo(methodOn(AuthControllerV3.class).changePassword(null)).withRel("change-password").getHref(),
-                    "profile", linkTo(methodOn(AuthControllerV3.class).getUserById(response.getUser().getId())).withRel("profile").getHref(),
-                    "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref()
+                    "self", ENLACE_LOGIN.withSelfRel().getHref(),
+                    "change-password", ENLACE_CAMBIAR_PASSWORD.withRel("change-password").getHref(),
+                    "profile", ENLACE_USUARIO.withRel("profile", response.getUser().getId()).getHref(),
+                    "users", ENLACE_USUARIOS.withRel("users").getHref()
                 )
             );
             
@@ -131,9 +155,9 @@ public class AuthControllerV3 {
                 "success", response.isSuccess(),
                 "message", response.getMessage(),
                 "_links", Map.of(
-                    "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref(),
-                    "register", linkTo(methodOn(AuthControllerV3.class).register(null, null)).withRel("register").getHref(),
-                    "unlock", linkTo(methodOn(AuthControllerV3.class).unlockAccount(loginRequest.getUsername())).withRel("unlock").getHref()
+                    "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                    "register", ENLACE_REGISTRO.withRel("register").getHref(),
+                    "unlock", ENLACE_DESBLOQUEAR.withRel("unlock", loginRequest.getUsername()).getHref()
                 )
             ));
         }
@@ -156,9 +180,9 @@ public class AuthControllerV3 {
                 "success", false,
                 "message", "Errores de validación: " + errors,
                 "_links", Map.of(
-                    "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref(),
-                    "login", linkTo(methodOn(AuthControllerV3.class).login(null, null)).withRel("login").getHref(),
-                    "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref()
+                    "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                    "login", ENLACE_LOGIN.withRel("login").getHref(),
+                    "users", ENLACE_USUARIOS.withRel("users").getHref()
                 )
             ));
         }
@@ -174,10 +198,10 @@ public class AuthControllerV3 {
                 "user", userModel,
                 "sessionToken", response.getSessionToken(),
                 "_links", Map.of(
-                    "self", linkTo(methodOn(AuthControllerV3.class).register(registerRequest, bindingResult)).withSelfRel().getHref(),
-                    "login", linkTo(methodOn(AuthControllerV3.class).login(null, null)).withRel("login").getHref(),
-                    "profile", linkTo(methodOn(AuthControllerV3.class).getUserById(response.getUser().getId())).withRel("profile").getHref(),
-                    "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref()
+                    "self", ENLACE_REGISTRO.withSelfRel().getHref(),
+                    "login", ENLACE_LOGIN.withRel("login").getHref(),
+                    "profile", ENLACE_USUARIO.withRel("profile", response.getUser().getId()).getHref(),
+                    "users", ENLACE_USUARIOS.withRel("users").getHref()
                 )
             );
             
@@ -187,13 +211,44 @@ public class AuthControllerV3 {
                 "success", response.isSuccess(),
                 "message", response.getMessage(),
                 "_links", Map.of(
-                    "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref(),
-                    "login", linkTo(methodOn(AuthControllerV3.class).login(null, null)).withRel("login").getHref(),
-                    "check-username", linkTo(methodOn(AuthControllerV3.class).checkUsername(registerRequest.getUsername())).withRel("check-username").getHref(),
-                    "check-email", linkTo(methodOn(AuthControllerV3.class).checkEmail(registerRequest.getEmail())).withRel("check-email").getHref()
+                    "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                    "login", ENLACE_LOGIN.withRel("login").getHref(),
+                    "check-username", ENLACE_CHECK_USERNAME.withRel("check-username", registerRequest.getUsername()).getHref(),
+                    "check-email", ENLACE_CHECK_EMAIL.withRel("check-email", registerRequest.getEmail()).getHref()
+                )
+            ));
+        }
+    }
+
+    @Operation(
+        summary = "Sesión actual (V3 con HATEOAS)",
+        description = "Datos del token de sesión enviado en Authorization: Bearer. Se resuelve solo con el token " +
+                      "verificado por SesionTokenFilter, sin consultar la base de datos"
+    )
+    @GetMapping("/sesion")
+    public ResponseEntity<Map<String, Object>> getSesion(
+            @RequestAttribute(name = SesionTokenFilter.ATRIBUTO_SESION, required = false) TokenSesion.Sesion sesion) {
+        if (sesion == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
+                "success", false,
+                "message", "Se requiere un token de sesión (Authorization: Bearer <token>)",
+                "_links", Map.of(
+                    "login", ENLACE_LOGIN.withRel("login").getHref(),
+                    "register", ENLACE_REGISTRO.withRel("register").getHref()
                 )
             ));
         }
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "userId", sesion.userId(),
+            "rol", sesion.rol(),
+            "expira", sesion.expira(),
+            "_links", Map.of(
+                "self", ENLACE_SESION.withSelfRel().getHref(),
+                "profile", ENLACE_USUARIO.withRel("profile", sesion.userId()).getHref(),
+                "auth", ENLACE_AUTH.withRel("auth").getHref()
+            )
+        ));
     }
 
     @Operation(
@@ -210,10 +265,10 @@ public class AuthControllerV3 {
             "available", !exists,
             "message", exists ? "Username no disponible" : "Username disponible",
             "_links", Map.of(
-                "self", linkTo(methodOn(AuthControllerV3.class).checkUsername(username)).withSelfRel().getHref(),
-                "register", linkTo(methodOn(AuthControllerV3.class).register(null, null)).withRel("register").getHref(),
-                "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref(),
-                "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref()
+                "self", ENLACE_CHECK_USERNAME.withSelfRel(username).getHref(),
+                "register", ENLACE_REGISTRO.withRel("register").getHref(),
+                "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                "users", ENLACE_USUARIOS.withRel("users").getHref()
             )
         );
         return ResponseEntity.ok(response);
@@ -233,10 +288,10 @@ public class AuthControllerV3 {
             "available", !exists,
             "message", exists ? "Email ya registrado" : "Email disponible",
             "_links", Map.of(
-                "self", linkTo(methodOn(AuthControllerV3.class).checkEmail(email)).withSelfRel().getHref(),
-                "register", linkTo(methodOn(AuthControllerV3.class).register(null, null)).withRel("register").getHref(),
-                "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref(),
-                "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref()
+                "self", ENLACE_CHECK_EMAIL.withSelfRel(email).getHref(),
+                "register", ENLACE_REGISTRO.withRel("register").getHref(),
+                "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                "users", ENLACE_USUARIOS.withRel("users").getHref()
             )
         );
         return ResponseEntity.ok(response);
@@ -255,10 +310,10 @@ public class AuthControllerV3 {
             "success", success,
             "message", success ? "Cuenta desbloqueada exitosamente" : "Error al desbloquear cuenta",
             "_links", Map.of(
-                "self", linkTo(methodOn(AuthControllerV3.class).unlockAccount(username)).withSelfRel().getHref(),
-                "login", linkTo(methodOn(AuthControllerV3.class).login(null, null)).withRel("login").getHref(),
-                "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref(),
-                "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref()
+                "self", ENLACE_DESBLOQUEAR.withSelfRel(username).getHref(),
+                "login", ENLACE_LOGIN.withRel("login").getHref(),
+                "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                "users", ENLACE_USUARIOS.withRel("users").getHref()
             )
         );
         return ResponseEntity.ok(response);
@@ -279,9 +334,9 @@ public class AuthControllerV3 {
                 "success", false,
                 "message", "Username, contraseña actual y nueva contraseña son requeridos",
                 "_links", Map.of(
-                    "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref(),
-                    "login", linkTo(methodOn(AuthControllerV3.class).login(null, null)).withRel("login").getHref(),
-                    "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref()
+                    "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                    "login", ENLACE_LOGIN.withRel("login").getHref(),
+                    "users", ENLACE_USUARIOS.withRel("users").getHref()
                 )
             ));
         }
@@ -291,8 +346,8 @@ public class AuthControllerV3 {
                 "success", false,
                 "message", "La nueva contraseña debe tener al menos 6 caracteres",
                 "_links", Map.of(
-                    "self", linkTo(methodOn(AuthControllerV3.class).changePassword(request)).withSelfRel().getHref(),
-                    "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref()
+                    "self", ENLACE_CAMBIAR_PASSWORD.withSelfRel().getHref(),
+                    "auth", ENLACE_AUTH.withRel("auth").getHref()
                 )
             ));
         }
@@ -304,10 +359,10 @@ public class AuthControllerV3 {
                 "success", response.isSuccess(),
                 "message", response.getMessage(),
                 "_links", Map.of(
-                    "self", linkTo(methodOn(AuthControllerV3.class).changePassword(request)).withSelfRel().getHref(),
-                    "login", linkTo(methodOn(AuthControllerV3.class).login(null, null)).withRel("login").getHref(),
-                    "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref(),
-                    "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref()
+                    "self", ENLACE_CAMBIAR_PASSWORD.withSelfRel().getHref(),
+                    "login", ENLACE_LOGIN.withRel("login").getHref(),
+                    "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                    "users", ENLACE_USUARIOS.withRel("users").getHref()
                 )
             ));
         } else {
@@ -315,8 +370,8 @@ public class AuthControllerV3 {
                 "success", response.isSuccess(),
                 "message", response.getMessage(),
                 "_links", Map.of(
-                    "self", linkTo(methodOn(AuthControllerV3.class).changePassword(request)).withSelfRel().getHref(),
-                    "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref()
+                    "self", ENLACE_CAMBIAR_PASSWORD.withSelfRel().getHref(),
+                    "auth", ENLACE_AUTH.withRel("auth").getHref()
                 )
             ));
         }
@@ -326,7 +381,8 @@ public class AuthControllerV3 {
 
     @Operation(
         summary = "Obtener todos los usuarios (V3 con HATEOAS)",
-        description = "Retorna una lista de todos los usuarios del sistema con enlaces de navegación. " +
+        description = "Retorna los usuarios del sistema paginados y ordenables (page, size, sort=campo,asc|desc), " +
+                     "con filtros opcionales por rol, estado y prefijo de username, email, nombre o apellido. " +
                      "Funcionalidad administrativa."
     )
     @ApiResponses(value = {
@@ -358,41 +414,49 @@ public class AuthControllerV3 {
                             ]
                         },
                         "_links": {
-                            "self": {"href": "/api/v3/auth/users"},
+                            "self": {"href": "/api/v3/auth/users?page=0&size=20&sort=id,asc"},
+                            "next": {"href": "/api/v3/auth/users?page=1&size=20&sort=id,asc"},
                             "create": {"href": "/api/v3/auth/register"},
                             "statistics": {"href": "/api/v3/auth/users/statistics"}
-                        }
+                        },
+                        "page": {"size": 20, "totalElements": 57, "totalPages": 3, "number": 0}
                     }
                     """
                 )
             )
         ),
-        @ApiResponse(responseCode = "204", description = "No hay usuarios registrados")
+        @ApiResponse(responseCode = "400", description = "Rol inválido")
     })
     @GetMapping("/users")
-    public ResponseEntity<CollectionModel<EntityModel<AuthResponse.UserInfo>>> getAllUsers() {
-        List<AuthResponse.UserInfo> users = authService.findAllUsers();
-        
-        if (users.isEmpty()) {
-            CollectionModel<EntityModel<AuthResponse.UserInfo>> emptyCollection = 
-                CollectionModel.<EntityModel<AuthResponse.UserInfo>>empty()
-                    .add(linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withSelfRel())
-                    .add(linkTo(methodOn(AuthControllerV3.class).register(null, null)).withRel("create"))
-                    .add(linkTo(AuthControllerV3.class).withRel("auth"));
-            return ResponseEntity.ok(emptyCollection);
+    public ResponseEntity<PagedModel<EntityModel<AuthResponse.UserInfo>>> getAllUsers(
+            @Parameter(description = "Rol del usuario", example = "CLIENTE",
+                       schema = @Schema(allowableValues = {"ADMIN", "EMPRENDEDOR", "CLIENTE"}))
+            @RequestParam(required = false) String rol,
+            @Parameter(description = "Solo activos (true) o inactivos (false)", example = "true")
+            @RequestParam(required = false) Boolean activo,
+            @Parameter(description = "Prefijo de username, email, nombre o apellido", example = "juan")
+            @RequestParam(required = false) String q,
+            @ParameterObject @PageableDefault(size = AuthServiceV3.DEFAULT_PAGE_SIZE, sort = "id") Pageable pageable,
+            @Parameter(hidden = true) PagedResourcesAssembler<AuthResponse.UserInfo> pagedAssembler) {
+        String etag = ETags.deColeccion(authService.getVersionColeccion());
+        if (ETags.noModificado(etag)) {
+            return ETags.respuestaNoModificada(etag);
+        }
+        // Solo un rol desconocido es un 400; un error de la base de datos sigue como 5xx
+        Page<AuthResponse.UserInfo> users;
+        try {
+            users = authService.findAllUsers(rol, activo, q, pageable);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(paginaConError());
         }
 
-        CollectionModel<EntityModel<AuthResponse.UserInfo>> usersModel = 
-            CollectionModel.of(users.stream()
-                .map(userAssembler::toModel)
-                .collect(Collectors.toList()))
-                .add(linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withSelfRel())
-                .add(linkTo(methodOn(AuthControllerV3.class).register(null, null)).withRel("create"))
-                .add(linkTo(methodOn(AuthControllerV3.class).getUserStatistics()).withRel("statistics"))
-                .add(linkTo(methodOn(AuthControllerV3.class).getActiveUsers()).withRel("active-users"))
-                .add(linkTo(AuthControllerV3.class).withRel("auth"));
-
-        return ResponseEntity.ok(usersModel);
+        PagedModel<EntityModel<AuthResponse.UserInfo>> usersModel = pagedAssembler.toModel(users, userAssembler);
+        usersModel.add(ENLACE_REGISTRO.withRel("create"));
+        usersModel.add(ENLACE_ESTADISTICAS_USUARIOS.withRel("statistics"));
+        usersModel.add(ENLACE_USUARIOS_ACTIVOS.withRel("active-users"));
+        usersModel.add(ENLACE_AUTH.withRel("auth"));
+
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(usersModel);
     }
 
     @Operation(
@@ -416,8 +480,12 @@ public class AuthControllerV3 {
             @PathVariable Long id) {
         try {
             AuthResponse.UserInfo user = authService.findUserById(id);
+            String etag = ETags.deEntidad(user.getId(), user.getVersion());
+            if (ETags.noModificado(etag)) {
+                return ETags.respuestaNoModificada(etag);
+            }
             EntityModel<AuthResponse.UserInfo> userModel = userAssembler.toModel(user);
-            return ResponseEntity.ok(userModel);
+            return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(userModel);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -498,9 +566,9 @@ public class AuthControllerV3 {
                 "success", false,
                 "message", "Errores de validación: " + errors,
                 "_links", Map.of(
-                    "user", linkTo(methodOn(AuthControllerV3.class).getUserById(id)).withRel("user").getHref(),
-                    "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref(),
-                    "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref()
+                    "user", ENLACE_USUARIO.withRel("user", id).getHref(),
+                    "users", ENLACE_USUARIOS.withRel("users").getHref(),
+                    "auth", ENLACE_AUTH.withRel("auth").getHref()
                 )
             ));
         }
@@ -516,10 +584,10 @@ public class AuthControllerV3 {
                     "message", response.getMessage(),
                     "user", userModel,
                     "_links", Map.of(
-                        "self", linkTo(methodOn(AuthControllerV3.class).updateUser(id, updateRequest, bindingResult)).withSelfRel().getHref(),
-                        "user", linkTo(methodOn(AuthControllerV3.class).getUserById(id)).withRel("user").getHref(),
-                        "delete", linkTo(methodOn(AuthControllerV3.class).deleteUser(id)).withRel("delete").getHref(),
-                        "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref()
+                        "self", ENLACE_USUARIO.withSelfRel(id).getHref(),
+                        "user", ENLACE_USUARIO.withRel("user", id).getHref(),
+                        "delete", ENLACE_USUARIO.withRel("delete", id).getHref(),
+                        "users", ENLACE_USUARIOS.withRel("users").getHref()
                     )
                 );
                 
@@ -529,12 +597,15 @@ public class AuthControllerV3 {
                     "success", response.isSuccess(),
                     "message", response.getMessage(),
                     "_links", Map.of(
-                        "user", linkTo(methodOn(AuthControllerV3.class).getUserById(id)).withRel("user").getHref(),
-                        "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref(),
-                        "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref()
+                        "user", ENLACE_USUARIO.withRel("user", id).getHref(),
+                        "users", ENLACE_USUARIOS.withRel("users").getHref(),
+                        "auth", ENLACE_AUTH.withRel("auth").getHref()
                     )
                 ));
             }
+        } catch (SobrecargaException e) {
+            // Cola de BCrypt llena: 429 con Retry-After (SobrecargaExceptionHandler), no 404
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -582,11 +653,11 @@ public class AuthControllerV3 {
                     "success", response.isSuccess(),
                     "message", response.getMessage(),
                     "_links", Map.of(
-                        "self", linkTo(methodOn(AuthControllerV3.class).deleteUser(id)).withSelfRel().getHref(),
-                        "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref(),
-                        "active-users", linkTo(methodOn(AuthControllerV3.class).getActiveUsers()).withRel("active-users").getHref(),
-                        "statistics", linkTo(methodOn(AuthControllerV3.class).getUserStatistics()).withRel("statistics").getHref(),
-                        "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref()
+                        "self", ENLACE_USUARIO.withSelfRel(id).getHref(),
+                        "users", ENLACE_USUARIOS.withRel("users").getHref(),
+                        "active-users", ENLACE_USUARIOS_ACTIVOS.withRel("active-users").getHref(),
+                        "statistics", ENLACE_ESTADISTICAS_USUARIOS.withRel("statistics").getHref(),
+                        "auth", ENLACE_AUTH.withRel("auth").getHref()
                     )
                 ));
             } else {
@@ -594,9 +665,9 @@ public class AuthControllerV3 {
                     "success", response.isSuccess(),
                     "message", response.getMessage(),
                     "_links", Map.of(
-                        "user", linkTo(methodOn(AuthControllerV3.class).getUserById(id)).withRel("user").getHref(),
-                        "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref(),
-                        "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref()
+                        "user", ENLACE_USUARIO.withRel("user", id).getHref(),
+                        "users", ENLACE_USUARIOS.withRel("users").getHref(),
+                        "auth", ENLACE_AUTH.withRel("auth").getHref()
                     )
                 ));
             }
@@ -609,57 +680,74 @@ public class AuthControllerV3 {
 
     @Operation(
         summary = "Obtener usuarios activos (V3 con HATEOAS)",
-        description = "Retorna solo los usuarios que están activos en el sistema"
+        description = "Retorna solo los usuarios que están activos en el sistema, paginados y ordenables " +
+                      "(page, size, sort=campo,asc|desc), con filtro opcional por prefijo"
     )
     @GetMapping("/users/active")
-    public ResponseEntity<CollectionModel<EntityModel<AuthResponse.UserInfo>>> getActiveUsers() {
-        List<AuthResponse.UserInfo> activeUsers = authService.findActiveUsers();
-        
-        CollectionModel<EntityModel<AuthResponse.UserInfo>> usersModel = 
-            CollectionModel.of(activeUsers.stream()
-                .map(userAssembler::toModel)
-                .collect(Collectors.toList()))
-                .add(linkTo(methodOn(AuthControllerV3.class).getActiveUsers()).withSelfRel())
-                .add(linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("all-users"))
-                .add(linkTo(methodOn(AuthControllerV3.class).getUserStatistics()).withRel("statistics"))
-                .add(linkTo(AuthControllerV3.class).withRel("auth"));
-
-        return ResponseEntity.ok(usersModel);
+    public ResponseEntity<PagedModel<EntityModel<AuthResponse.UserInfo>>> getActiveUsers(
+            @Parameter(description = "Prefijo de username, email, nombre o apellido", example = "juan")
+            @RequestParam(required = false) String q,
+            @ParameterObject @PageableDefault(size = AuthServiceV3.DEFAULT_PAGE_SIZE, sort = "id") Pageable pageable,
+            @Parameter(hidden = true) PagedResourcesAssembler<AuthResponse.UserInfo> pagedAssembler) {
+        String etag = ETags.deColeccion(authService.getVersionColeccion());
+        if (ETags.noModificado(etag)) {
+            return ETags.respuestaNoModificada(etag);
+        }
+        Page<AuthResponse.UserInfo> activeUsers = authService.findActiveUsers(q, pageable);
+
+        PagedModel<EntityModel<AuthResponse.UserInfo>> usersModel = pagedAssembler.toModel(activeUsers, userAssembler);
+        usersModel.add(ENLACE_USUARIOS.withRel("all-users"));
+        usersModel.add(ENLACE_ESTADISTICAS_USUARIOS.withRel("statistics"));
+        usersModel.add(ENLACE_AUTH.withRel("auth"));
+
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(usersModel);
     }
 
     @Operation(
         summary = "Obtener usuarios por rol (V3 con HATEOAS)",
-        description = "Retorna usuarios filtrados por su rol en el sistema"
+        description = "Retorna usuarios filtrados por su rol en el sistema, paginados y ordenables " +
+                      "(page, size, sort=campo,asc|desc), con filtros opcionales por estado y prefijo"
     )
     @GetMapping("/users/role/{role}")
-    public ResponseEntity<CollectionModel<EntityModel<AuthResponse.UserInfo>>> getUsersByRole(
+    public ResponseEntity<PagedModel<EntityModel<AuthResponse.UserInfo>>> getUsersByRole(
             @Parameter(
                 description = "Rol del usuario", 
                 required = true, 
                 example = "ADMIN",
                 schema = @Schema(allowableValues = {"ADMIN", "EMPRENDEDOR", "CLIENTE"})
             )
-            @PathVariable String role) {
+            @PathVariable String role,
+            @Parameter(description = "Solo activos (true) o inactivos (false)", example = "true")
+            @RequestParam(required = false) Boolean activo,
+            @Parameter(description = "Prefijo de username, email, nombre o apellido", example = "juan")
+            @RequestParam(required = false) String q,
+            @ParameterObject @PageableDefault(size = AuthServiceV3.DEFAULT_PAGE_SIZE, sort = "id") Pageable pageable,
+            @Parameter(hidden = true) PagedResourcesAssembler<AuthResponse.UserInfo> pagedAssembler) {
+        String etag = ETags.deColeccion(authService.getVersionColeccion());
+        if (ETags.noModificado(etag)) {
+            return ETags.respuestaNoModificada(etag);
+        }
+        Page<AuthResponse.UserInfo> users;
         try {
-            List<AuthResponse.UserInfo> users = authService.findUsersByRole(role);
-            
-            CollectionModel<EntityModel<AuthResponse.UserInfo>> usersModel = 
-                CollectionModel.of(users.stream()
-                    .map(userAssembler::toModel)
-                    .collect(Collectors.toList()))
-                    .add(linkTo(methodOn(AuthControllerV3.class).getUsersByRole(role)).withSelfRel())
-                    .add(linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("all-users"))
-                    .add(linkTo(methodOn(AuthControllerV3.class).getUserStatistics()).withRel("statistics"))
-                    .add(linkTo(AuthControllerV3.class).withRel("auth"));
-
-            return ResponseEntity.ok(usersModel);
-        } catch (Exception e) {
-            CollectionModel<EntityModel<AuthResponse.UserInfo>> errorModel = 
-                CollectionModel.<EntityModel<AuthResponse.UserInfo>>empty()
-                    .add(linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users"))
-                    .add(linkTo(AuthControllerV3.class).withRel("auth"));
-            return ResponseEntity.badRequest().body(errorModel);
+            users = authService.findUsersByRole(role, activo, q, pageable);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(paginaConError());
         }
+
+        PagedModel<EntityModel<AuthResponse.UserInfo>> usersModel = pagedAssembler.toModel(users, userAssembler);
+        usersModel.add(ENLACE_USUARIOS.withRel("all-users"));
+        usersModel.add(ENLACE_ESTADISTICAS_USUARIOS.withRel("statistics"));
+        usersModel.add(ENLACE_AUTH.withRel("auth"));
+
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(usersModel);
+    }
+
+    // Página vacía con enlaces de navegación para los filtros inválidos
+    private PagedModel<EntityModel<AuthResponse.UserInfo>> paginaConError() {
+        PagedModel<EntityModel<AuthResponse.UserInfo>> errorModel = PagedModel.empty();
+        errorModel.add(ENLACE_USUARIOS.withRel("users"));
+        errorModel.add(ENLACE_AUTH.withRel("auth"));
+        return errorModel;
     }
 
     @Operation(
@@ -698,17 +786,18 @@ public class AuthControllerV3 {
     )
     @GetMapping("/users/statistics")
     public ResponseEntity<Map<String, Object>> getUserStatistics() {
-        Map<String, Object> stats = authService.getUserStatistics();
+        // Copia: el mapa del servicio está cacheado y se comparte entre peticiones
+        Map<String, Object> stats = new HashMap<>(authService.getUserStatistics());
         
         // Agregar enlaces HATEOAS a las estadísticas
         Map<String, Object> linksMap = Map.of(
-            "self", linkTo(methodOn(AuthControllerV3.class).getUserStatistics()).withSelfRel().getHref(),
-            "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref(),
-            "active-users", linkTo(methodOn(AuthControllerV3.class).getActiveUsers()).withRel("active-users").getHref(),
-            "admins", linkTo(methodOn(AuthControllerV3.class).getUsersByRole("ADMIN")).withRel("admins").getHref(),
-            "emprendedores", linkTo(methodOn(AuthControllerV3.class).getUsersByRole("EMPRENDEDOR")).withRel("emprendedores").getHref(),
-            "clientes", linkTo(methodOn(AuthControllerV3.class).getUsersByRole("CLIENTE")).withRel("clientes").getHref(),
-            "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref()
+            "self", ENLACE_ESTADISTICAS_USUARIOS.withSelfRel().getHref(),
+            "users", ENLACE_USUARIOS.withRel("users").getHref(),
+            "active-users", ENLACE_USUARIOS_ACTIVOS.withRel("active-users").getHref(),
+            "admins", ENLACE_USUARIOS_ROL.withRel("admins", "ADMIN").getHref(),
+            "emprendedores", ENLACE_USUARIOS_ROL.withRel("emprendedores", "EMPRENDEDOR").getHref(),
+            "clientes", ENLACE_USUARIOS_ROL.withRel("clientes", "CLIENTE").getHref(),
+            "auth", ENLACE_AUTH.withRel("auth").getHref()
         );
         
         stats.put("_links", linksMap);
@@ -727,12 +816,12 @@ public class AuthControllerV3 {
             "timestamp", new java.util.Date().toString(),
             "version", "3.0.0",
             "_links", Map.of(
-                "self", linkTo(methodOn(AuthControllerV3.class).health()).withSelfRel().getHref(),
-                "auth", linkTo(AuthControllerV3.class).withRel("auth").getHref(),
-                "login", linkTo(methodOn(AuthControllerV3.class).login(null, null)).withRel("login").getHref(),
-                "register", linkTo(methodOn(AuthControllerV3.class).register(null, null)).withRel("register").getHref(),
-                "users", linkTo(methodOn(AuthControllerV3.class).getAllUsers()).withRel("users").getHref(),
-                "statistics", linkTo(methodOn(AuthControllerV3.class).getUserStatistics()).withRel("statistics").getHref()
+                "self", ENLACE_HEALTH.withSelfRel().getHref(),
+                "auth", ENLACE_AUTH.withRel("auth").getHref(),
+                "login", ENLACE_LOGIN.withRel("login").getHref(),
+                "register", ENLACE_REGISTRO.withRel("register").getHref(),
+                "users", ENLACE_USUARIOS.withRel("users").getHref(),
+                "statistics", ENLACE_ESTADISTICAS_USUARIOS.withRel("statistics").getHref()
             )
         );
         return ResponseEntity.ok(response);
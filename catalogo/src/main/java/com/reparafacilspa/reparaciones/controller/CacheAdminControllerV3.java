@@ -0,0 +1,127 @@
+package com.reparafacilspa.reparaciones.controller;
+
+import com.reparafacilspa.reparaciones.assemblers.PlantillaEnlace;
+import com.reparafacilspa.reparaciones.service.CacheAdminService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@RequestMapping("/api/v3/admin/cache")
+@Tag(name = "Administración de cachés V3", description = "Estado, estadísticas y vaciado de las cachés de la aplicación")
+public class CacheAdminControllerV3 {
+
+    // Enlaces HATEOAS precompilados (ver PlantillaEnlace)
+    private static final PlantillaEnlace ENLACE_CACHES = PlantillaEnlace.de(CacheAdminControllerV3.class, "getEstadisticasCaches");
+    private static final PlantillaEnlace ENLACE_HIBERNATE = PlantillaEnlace.de(CacheAdminControllerV3.class, "getEstadisticasHibernate");
+    private static final PlantillaEnlace ENLACE_REINICIAR_ESTADISTICAS_HIBERNATE = PlantillaEnlace.de(CacheAdminControllerV3.class, "reiniciarEstadisticasHibernate");
+
+    @Autowired
+    private CacheAdminService cacheAdminService;
+
+    @Operation(
+        summary = "Estado de las cachés de Spring",
+        description = "Entradas, tamaño máximo, TTL, aciertos, fallos y evicciones de las cachés de /estadisticas, " +
+                      "/users/statistics, /estados y /tipos-dispositivos"
+    )
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getEstadisticasCaches() {
+        Map<String, Object> stats = cacheAdminService.getEstadisticasCaches();
+        stats.put("_links", links());
+        return ResponseEntity.ok(stats);
+    }
+
+    @Operation(
+        summary = "Vaciar todas las cachés de Spring",
+        description = "Las próximas lecturas vuelven a calcular los valores"
+    )
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> limpiarCaches() {
+        cacheAdminService.limpiarCaches();
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", "Cachés vaciadas",
+            "_links", links()
+        ));
+    }
+
+    @Operation(
+        summary = "Vaciar una caché de Spring",
+        description = "Vacía solo la caché indicada (estadisticas-servicios, estadisticas-usuarios o catalogos)"
+    )
+    @DeleteMapping("/{nombre}")
+    public ResponseEntity<Map<String, Object>> limpiarCache(@PathVariable String nombre) {
+        try {
+            cacheAdminService.limpiarCache(nombre);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                "success", false,
+                "message", e.getMessage(),
+                "_links", links()
+            ));
+        }
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", "Caché " + nombre + " vaciada",
+            "_links", links()
+        ));
+    }
+
+    @Operation(
+        summary = "Estadísticas de la caché de segundo nivel de Hibernate",
+        description = "Aciertos, fallos y escrituras de las regiones de entidades, de la caché de natural-id (username) " +
+                      "y de la caché de consultas, acumulados desde el inicio o el último reinicio"
+    )
+    @GetMapping("/hibernate")
+    public ResponseEntity<Map<String, Object>> getEstadisticasHibernate() {
+        Map<String, Object> stats = cacheAdminService.getEstadisticasHibernate();
+
+        stats.put("_links", links());
+        return ResponseEntity.ok(stats);
+    }
+
+    @Operation(
+        summary = "Vaciar la caché de segundo nivel de Hibernate",
+        description = "Elimina todas las entradas de las regiones de entidades, natural-id y consultas"
+    )
+    @DeleteMapping("/hibernate")
+    public ResponseEntity<Map<String, Object>> limpiarCacheHibernate() {
+        cacheAdminService.limpiarCacheHibernate();
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", "Caché de Hibernate vaciada",
+            "_links", links()
+        ));
+    }
+
+    @Operation(
+        summary = "Reiniciar estadísticas de Hibernate",
+        description = "Vuelve a cero los contadores de aciertos y fallos; el contenido de las cachés se conserva"
+    )
+    @DeleteMapping("/hibernate/estadisticas")
+    public ResponseEntity<Map<String, Object>> reiniciarEstadisticasHibernate() {
+        cacheAdminService.reiniciarEstadisticasHibernate();
+
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", "Estadísticas de Hibernate reiniciadas",
+            "_links", links()
+        ));
+    }
+
+    private Map<String, Object> links() {
+        return Map.of(
+            "caches", ENLACE_CACHES.withRel("caches").getHref(),
+            "hibernate", ENLACE_HIBERNATE.withRel("hibernate").getHref(),
+            "reiniciar-estadisticas-hibernate", ENLACE_REINICIAR_ESTADISTICAS_HIBERNATE.withRel("reiniciar-estadisticas-hibernate").getHref()
+        );
+    }
+}
@@ -0,0 +1,55 @@
+package com.reparafacilspa.reparaciones.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+// ETag de los endpoints V3: fuerte para un recurso (ID + versión de la entidad) y débil para los listados
+// (versión de la tabla completa, compartida por los nodos, ver VersionesColeccion). Con If-None-Match
+// coincidente se responde 304 antes de armar el modelo HATEOAS y sin serializar el cuerpo.
+final class ETags {
+
+    // Los clientes pueden guardar la respuesta pero deben revalidarla con If-None-Match en cada uso
+    static final CacheControl CACHE_CONTROL = CacheControl.noCache();
+
+    private ETags() {
+    }
+
+    static String deEntidad(Long id, Long version) {
+        return "\"" + id + "-" + (version == null ? 0 : version) + "\"";
+    }
+
+    static String deColeccion(long version) {
+        return "W/\"" + version + "\"";
+    }
+
+    // Comparación débil (RFC 9110, sección 13.1.2), la que corresponde a If-None-Match
+    static boolean noModificado(String etag) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes atributos)) {
+            return false;
+        }
+        String ifNoneMatch = atributos.getRequest().getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        String buscado = sinPrefijoDebil(etag);
+        for (String candidato : ifNoneMatch.split(",")) {
+            String valor = candidato.trim();
+            if (valor.equals("*") || sinPrefijoDebil(valor).equals(buscado)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static <T> ResponseEntity<T> respuestaNoModificada(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CACHE_CONTROL).build();
+    }
+
+    private static String sinPrefijoDebil(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,43 @@
+package com.reparafacilspa.reparaciones.controller;
+
+import com.reparafacilspa.reparaciones.assemblers.PlantillaEnlace;
+import com.reparafacilspa.reparaciones.service.HashContrasenas;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@RequestMapping("/api/v3/admin/hash")
+@Tag(name = "Administración de BCrypt V3", description = "Estado del pool que calcula y verifica contraseñas")
+public class HashAdminControllerV3 {
+
+    // Enlaces HATEOAS precompilados (ver PlantillaEnlace)
+    private static final PlantillaEnlace ENLACE_HASH = PlantillaEnlace.de(HashAdminControllerV3.class, "getEstadisticasHash");
+    private static final PlantillaEnlace ENLACE_CACHES = PlantillaEnlace.de(CacheAdminControllerV3.class, "getEstadisticasCaches");
+
+    @Autowired
+    private HashContrasenas hashContrasenas;
+
+    @Operation(
+        summary = "Estado del pool de BCrypt",
+        description = "Hilos, peticiones en cola, rechazos (429) y latencia promedio y máxima de la espera en cola " +
+                      "y del cálculo del hash, acumuladas desde el inicio. Sirve para dimensionar reparafacil.hash.hilos " +
+                      "y reparafacil.hash.cola"
+    )
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getEstadisticasHash() {
+        Map<String, Object> stats = hashContrasenas.getEstadisticas();
+        stats.put("_links", Map.of(
+            "self", ENLACE_HASH.withSelfRel().getHref(),
+            "caches", ENLACE_CACHES.withRel("caches").getHref()
+        ));
+        return ResponseEntity.ok(stats);
+    }
+}
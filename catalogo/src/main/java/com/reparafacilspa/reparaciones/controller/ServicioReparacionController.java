@@ -2,6 +2,7 @@ package com.reparafacilspa.reparaciones.controller;
 
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionRequest;
+import com.reparafacilspa.reparaciones.service.CatalogoService;
 import com.reparafacilspa.reparaciones.service.ServicioReparacionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -33,6 +34,9 @@ public class ServicioReparacionController {
     @Autowired
     private ServicioReparacionService servicioService;
 
+    @Autowired
+    private CatalogoService catalogoService;
+
     @Operation(
         summary = "Obtener todos los servicios de reparación",
         description = "Retorna una lista de todos los servicios de reparación activos en el sistema"
@@ -450,16 +454,7 @@ public class ServicioReparacionController {
     @GetMapping("/estados")
     public ResponseEntity<Map<String, Object>> getEstadosDisponibles() {
         return ResponseEntity.ok(Map.of(
-            "estados", List.of(
-                Map.of("codigo", "AGENDADO", "descripcion", "Agendado - Esperando revisión"),
-                Map.of("codigo", "EN_REVISION", "descripcion", "En revisión técnica"),
-                Map.of("codigo", "EN_REPARACION", "descripcion", "En proceso de reparación"),
-                Map.of("codigo", "ESPERANDO_REPUESTOS", "descripcion", "Esperando repuestos"),
-                Map.of("codigo", "COMPLETADO", "descripcion", "Reparación completada"),
-                Map.of("codigo", "ENTREGADO", "descripcion", "Entregado al cliente"),
-                Map.of("codigo", "CANCELADO", "descripcion", "Servicio cancelado"),
-                Map.of("codigo", "EN_GARANTIA", "descripcion", "En servicio de garantía")
-            )
+            "estados", catalogoService.getEstadosDisponibles()
         ));
     }
 
@@ -492,10 +487,7 @@ public class ServicioReparacionController {
     )
     @GetMapping("/tipos-dispositivos")
     public ResponseEntity<List<String>> getTiposDispositivos() {
-        List<String> tipos = List.of(
-            "Smartphone", "Laptop", "Tablet", "Computador", 
-            "Smartwatch", "Auriculares", "Consola", "Otro"
-        );
+        List<String> tipos = catalogoService.getTiposDispositivos();
         return ResponseEntity.ok(tipos);
     }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.reparafacilspa.reparaciones.controller;
 
+import com.reparafacilspa.reparaciones.assemblers.PlantillaEnlace;
 import com.reparafacilspa.reparaciones.assemblers.ServicioReparacionModelAssembler;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionRequest;
+import com.reparafacilspa.reparaciones.service.CatalogoService;
 import com.reparafacilspa.reparaciones.service.ServicioReparacionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.EntityModel;
@@ -17,21 +19,44 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import jakarta.validation.Valid;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @RestController
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 @RequestMapping("/api/v2/reparaciones")
 @Tag(name = "Servicios de Reparación V2 (HATEOAS)", description = "Gestión completa de servicios de reparación con enlaces HATEOAS para navegación dinámica")
 public class ServicioReparacionControllerV2 {
 
+    // Enlaces HATEOAS precompilados (ver PlantillaEnlace)
+    private static final PlantillaEnlace ENLACE_SERVICIOS = PlantillaEnlace.de(ServicioReparacionControllerV2.class);
+    private static final PlantillaEnlace ENLACE_BUSCAR = ENLACE_SERVICIOS.slash("buscar");
+    private static final PlantillaEnlace ENLACE_ESTADISTICAS = ENLACE_SERVICIOS.slash("estadisticas");
+    private static final PlantillaEnlace ENLACE_ESTADOS = ENLACE_SERVICIOS.slash("estados");
+    private static final PlantillaEnlace ENLACE_HEALTH = ENLACE_SERVICIOS.slash("health");
+    private static final PlantillaEnlace ENLACE_TIPOS_DISPOSITIVOS = ENLACE_SERVICIOS.slash("tipos-dispositivos");
+    private static final PlantillaEnlace ENLACE_SERVICIO = ENLACE_SERVICIOS.slash("{id}");
+    private static final PlantillaEnlace ENLACE_CLIENTE = ENLACE_SERVICIOS.slash("cliente").slash("{email}");
+    private static final PlantillaEnlace ENLACE_ESTADO = ENLACE_SERVICIOS.slash("estado").slash("{estado}");
+    private static final PlantillaEnlace ENLACE_FECHA = ENLACE_SERVICIOS.slash("fecha").slash("{fecha}");
+    private static final PlantillaEnlace ENLACE_TECNICO = ENLACE_SERVICIOS.slash("tecnico").slash("{tecnicoAsignado}");
+    private static final PlantillaEnlace ENLACE_TIPO = ENLACE_SERVICIOS.slash("tipo").slash("{tipoDispositivo}");
+    private static final PlantillaEnlace ENLACE_SERVICIO_ESTADO = ENLACE_SERVICIO.slash("estado");
+    private static final PlantillaEnlace ENLACE_CLIENTE_COUNT = ENLACE_CLIENTE.slash("count");
+    private static final PlantillaEnlace ENLACE_CLIENTE_FECHAS = ENLACE_CLIENTE.slash("fechas");
+    private static final PlantillaEnlace ENLACE_TECNICO_COUNT = ENLACE_TECNICO.slash("count");
+    private static final PlantillaEnlace ENLACE_TECNICO_FECHAS = ENLACE_TECNICO.slash("fechas");
+    private static final PlantillaEnlace ENLACE_CLIENTE_FECHA = ENLACE_CLIENTE.slash("fecha").slash("{fecha}");
+    private static final PlantillaEnlace ENLACE_TECNICO_ESTADO = ENLACE_TECNICO.slash("estado").slash("{estado}");
+
     @Autowired
     private ServicioReparacionService servicioService;
 
+    @Autowired
+    private CatalogoService catalogoService;
+
     @Autowired
     private ServicioReparacionModelAssembler assembler;
 
@@ -46,8 +71,8 @@ public class ServicioReparacionControllerV2 {
         if (servicios.isEmpty()) {
             CollectionModel<EntityModel<ServicioReparacionResponse>> emptyCollection = 
                 CollectionModel.<EntityModel<ServicioReparacionResponse>>empty()
-                    .add(linkTo(ServicioReparacionControllerV2.class).withSelfRel())
-                    .add(linkTo(ServicioReparacionControllerV2.class).withRel("create"));
+                    .add(ENLACE_SERVICIOS.withSelfRel())
+                    .add(ENLACE_SERVICIOS.withRel("create"));
             return ResponseEntity.ok(emptyCollection);
         }
 
@@ -55,11 +80,11 @@ public class ServicioReparacionControllerV2 {
             CollectionModel.of(servicios.stream()
                 .map(assembler::toModel)
                 .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV2.class).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV2.class).withRel("create"))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("estadisticas").withRel("estadisticas"))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("estados").withRel("estados"))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("tipos-dispositivos").withRel("tipos-dispositivos"));
+                .add(ENLACE_SERVICIOS.withSelfRel())
+                .add(ENLACE_SERVICIOS.withRel("create"))
+                .add(ENLACE_ESTADISTICAS.withRel("estadisticas"))
+                .add(ENLACE_ESTADOS.withRel("estados"))
+                .add(ENLACE_TIPOS_DISPOSITIVOS.withRel("tipos-dispositivos"));
 
         return ResponseEntity.ok(serviciosModel);
     }
@@ -81,8 +106,8 @@ public class ServicioReparacionControllerV2 {
                 "success", false,
                 "message", "Errores de validación: " + errors,
                 "_links", Map.of(
-                    "servicios", linkTo(ServicioReparacionControllerV2.class).withRel("servicios").getHref(),
-                    "tipos-dispositivos", linkTo(ServicioReparacionControllerV2.class).slash("tipos-dispositivos").withRel("tipos-dispositivos").getHref()
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref(),
+                    "tipos-dispositivos", ENLACE_TIPOS_DISPOSITIVOS.withRel("tipos-dispositivos").getHref()
                 )
             ));
         }
@@ -96,9 +121,9 @@ public class ServicioReparacionControllerV2 {
                 "message", "Servicio de reparación agendado exitosamente",
                 "servicio", servicioModel,
                 "_links", Map.of(
-                    "self", linkTo(ServicioReparacionControllerV2.class).slash(nuevoServicio.getId()).withSelfRel().getHref(),
-                    "servicios", linkTo(ServicioReparacionControllerV2.class).withRel("servicios").getHref(),
-                    "cambiar-estado", linkTo(ServicioReparacionControllerV2.class).slash(nuevoServicio.getId()).slash("estado").withRel("cambiar-estado").getHref()
+                    "self", ENLACE_SERVICIO.withSelfRel(nuevoServicio.getId()).getHref(),
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref(),
+                    "cambiar-estado", ENLACE_SERVICIO_ESTADO.withRel("cambiar-estado", nuevoServicio.getId()).getHref()
                 )
             );
             
@@ -108,7 +133,7 @@ public class ServicioReparacionControllerV2 {
                 "success", false,
                 "message", "Error al agendar servicio: " + e.getMessage(),
                 "_links", Map.of(
-                    "servicios", linkTo(ServicioReparacionControllerV2.class).withRel("servicios").getHref()
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
                 )
             ));
         }
@@ -145,9 +170,9 @@ public class ServicioReparacionControllerV2 {
             CollectionModel.of(servicios.stream()
                 .map(assembler::toModel)
                 .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("cliente").slash(email).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("cliente").slash(email).slash("count").withRel("total-cliente"));
+                .add(ENLACE_CLIENTE.withSelfRel(email))
+                .add(ENLACE_SERVICIOS.withRel("servicios"))
+                .add(ENLACE_CLIENTE_COUNT.withRel("total-cliente", email));
 
         return ResponseEntity.ok(serviciosModel);
     }
@@ -166,9 +191,9 @@ public class ServicioReparacionControllerV2 {
             CollectionModel.of(servicios.stream()
                 .map(assembler::toModel)
                 .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("estado").slash(estado).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("estados").withRel("estados"));
+                .add(ENLACE_ESTADO.withSelfRel(estado))
+                .add(ENLACE_SERVICIOS.withRel("servicios"))
+                .add(ENLACE_ESTADOS.withRel("estados"));
 
         return ResponseEntity.ok(serviciosModel);
     }
@@ -187,9 +212,9 @@ public class ServicioReparacionControllerV2 {
             CollectionModel.of(servicios.stream()
                 .map(assembler::toModel)
                 .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("tipo").slash(tipoDispositivo).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("tipos-dispositivos").withRel("tipos-dispositivos"));
+                .add(ENLACE_TIPO.withSelfRel(tipoDispositivo))
+                .add(ENLACE_SERVICIOS.withRel("servicios"))
+                .add(ENLACE_TIPOS_DISPOSITIVOS.withRel("tipos-dispositivos"));
 
         return ResponseEntity.ok(serviciosModel);
     }
@@ -210,8 +235,8 @@ public class ServicioReparacionControllerV2 {
                     "success", false,
                     "message", "El estado es requerido",
                     "_links", Map.of(
-                        "servicio", linkTo(ServicioReparacionControllerV2.class).slash(id).withRel("servicio").getHref(),
-                        "estados", linkTo(ServicioReparacionControllerV2.class).slash("estados").withRel("estados").getHref()
+                        "servicio", ENLACE_SERVICIO.withRel("servicio", id).getHref(),
+                        "estados", ENLACE_ESTADOS.withRel("estados").getHref()
                     )
                 ));
             }
@@ -224,9 +249,9 @@ public class ServicioReparacionControllerV2 {
                 "message", "Estado actualizado exitosamente",
                 "servicio", servicioModel,
                 "_links", Map.of(
-                    "self", linkTo(ServicioReparacionControllerV2.class).slash(id).slash("estado").withSelfRel().getHref(),
-                    "servicio", linkTo(ServicioReparacionControllerV2.class).slash(id).withRel("servicio").getHref(),
-                    "servicios", linkTo(ServicioReparacionControllerV2.class).withRel("servicios").getHref()
+                    "self", ENLACE_SERVICIO_ESTADO.withSelfRel(id).getHref(),
+                    "servicio", ENLACE_SERVICIO.withRel("servicio", id).getHref(),
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
                 )
             );
             
@@ -236,8 +261,8 @@ public class ServicioReparacionControllerV2 {
                 "success", false,
                 "message", "Error al cambiar estado: " + e.getMessage(),
                 "_links", Map.of(
-                    "servicio", linkTo(ServicioReparacionControllerV2.class).slash(id).withRel("servicio").getHref(),
-                    "estados", linkTo(ServicioReparacionControllerV2.class).slash("estados").withRel("estados").getHref()
+                    "servicio", ENLACE_SERVICIO.withRel("servicio", id).getHref(),
+                    "estados", ENLACE_ESTADOS.withRel("estados").getHref()
                 )
             ));
         }
@@ -259,9 +284,9 @@ public class ServicioReparacionControllerV2 {
             CollectionModel.of(servicios.stream()
                 .map(assembler::toModel)
                 .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("tecnico").slash(tecnicoAsignado).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("tecnico").slash(tecnicoAsignado).slash("count").withRel("total-tecnico"));
+                .add(ENLACE_TECNICO.withSelfRel(tecnicoAsignado))
+                .add(ENLACE_SERVICIOS.withRel("servicios"))
+                .add(ENLACE_TECNICO_COUNT.withRel("total-tecnico", tecnicoAsignado));
 
         return ResponseEntity.ok(serviciosModel);
     }
@@ -281,14 +306,14 @@ public class ServicioReparacionControllerV2 {
                 CollectionModel.of(servicios.stream()
                     .map(assembler::toModel)
                     .collect(Collectors.toList()))
-                    .add(linkTo(ServicioReparacionControllerV2.class).slash("fecha").slash(fecha).withSelfRel())
-                    .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"));
+                    .add(ENLACE_FECHA.withSelfRel(fecha))
+                    .add(ENLACE_SERVICIOS.withRel("servicios"));
 
             return ResponseEntity.ok(serviciosModel);
         } catch (Exception e) {
             CollectionModel<EntityModel<ServicioReparacionResponse>> errorModel = 
                 CollectionModel.<EntityModel<ServicioReparacionResponse>>empty()
-                    .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"));
+                    .add(ENLACE_SERVICIOS.withRel("servicios"));
             return ResponseEntity.badRequest().body(errorModel);
         }
     }
@@ -307,9 +332,9 @@ public class ServicioReparacionControllerV2 {
             "email", email,
             "totalServicios", total,
             "_links", Map.of(
-                "self", linkTo(ServicioReparacionControllerV2.class).slash("cliente").slash(email).slash("count").withSelfRel().getHref(),
-                "servicios-cliente", linkTo(ServicioReparacionControllerV2.class).slash("cliente").slash(email).withRel("servicios-cliente").getHref(),
-                "servicios", linkTo(ServicioReparacionControllerV2.class).withRel("servicios").getHref()
+                "self", ENLACE_CLIENTE_COUNT.withSelfRel(email).getHref(),
+                "servicios-cliente", ENLACE_CLIENTE.withRel("servicios-cliente", email).getHref(),
+                "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
             )
         );
         
@@ -333,16 +358,16 @@ public class ServicioReparacionControllerV2 {
                 CollectionModel.of(servicios.stream()
                     .map(assembler::toModel)
                     .collect(Collectors.toList()))
-                    .add(linkTo(ServicioReparacionControllerV2.class).slash("cliente").slash(email).slash("fecha").slash(fecha).withSelfRel())
-                    .add(linkTo(ServicioReparacionControllerV2.class).slash("cliente").slash(email).withRel("servicios-cliente"))
-                    .add(linkTo(ServicioReparacionControllerV2.class).slash("fecha").slash(fecha).withRel("servicios-fecha"))
-                    .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"));
+                    .add(ENLACE_CLIENTE_FECHA.withSelfRel(email, fecha))
+                    .add(ENLACE_CLIENTE.withRel("servicios-cliente", email))
+                    .add(ENLACE_FECHA.withRel("servicios-fecha", fecha))
+                    .add(ENLACE_SERVICIOS.withRel("servicios"));
 
             return ResponseEntity.ok(serviciosModel);
         } catch (Exception e) {
             CollectionModel<EntityModel<ServicioReparacionResponse>> errorModel = 
                 CollectionModel.<EntityModel<ServicioReparacionResponse>>empty()
-                    .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"));
+                    .add(ENLACE_SERVICIOS.withRel("servicios"));
             return ResponseEntity.badRequest().body(errorModel);
         }
     }
@@ -363,10 +388,10 @@ public class ServicioReparacionControllerV2 {
             CollectionModel.of(servicios.stream()
                 .map(assembler::toModel)
                 .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("tecnico").slash(tecnicoAsignado).slash("estado").slash(estado).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("tecnico").slash(tecnicoAsignado).withRel("servicios-tecnico"))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("estado").slash(estado).withRel("servicios-estado"))
-                .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"));
+                .add(ENLACE_TECNICO_ESTADO.withSelfRel(tecnicoAsignado, estado))
+                .add(ENLACE_TECNICO.withRel("servicios-tecnico", tecnicoAsignado))
+                .add(ENLACE_ESTADO.withRel("servicios-estado", estado))
+                .add(ENLACE_SERVICIOS.withRel("servicios"));
 
         return ResponseEntity.ok(serviciosModel);
     }
@@ -390,15 +415,15 @@ public class ServicioReparacionControllerV2 {
                 CollectionModel.of(servicios.stream()
                     .map(assembler::toModel)
                     .collect(Collectors.toList()))
-                    .add(linkTo(ServicioReparacionControllerV2.class).slash("cliente").slash(email).slash("fechas").withSelfRel())
-                    .add(linkTo(ServicioReparacionControllerV2.class).slash("cliente").slash(email).withRel("servicios-cliente"))
-                    .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"));
+                    .add(ENLACE_CLIENTE_FECHAS.withSelfRel(email))
+                    .add(ENLACE_CLIENTE.withRel("servicios-cliente", email))
+                    .add(ENLACE_SERVICIOS.withRel("servicios"));
 
             return ResponseEntity.ok(serviciosModel);
         } catch (Exception e) {
             CollectionModel<EntityModel<ServicioReparacionResponse>> errorModel = 
                 CollectionModel.<EntityModel<ServicioReparacionResponse>>empty()
-                    .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"));
+                    .add(ENLACE_SERVICIOS.withRel("servicios"));
             return ResponseEntity.badRequest().body(errorModel);
         }
     }
@@ -422,15 +447,15 @@ public class ServicioReparacionControllerV2 {
                 CollectionModel.of(servicios.stream()
                     .map(assembler::toModel)
                     .collect(Collectors.toList()))
-                    .add(linkTo(ServicioReparacionControllerV2.class).slash("tecnico").slash(tecnicoAsignado).slash("fechas").withSelfRel())
-                    .add(linkTo(ServicioReparacionControllerV2.class).slash("tecnico").slash(tecnicoAsignado).withRel("servicios-tecnico"))
-                    .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"));
+                    .add(ENLACE_TECNICO_FECHAS.withSelfRel(tecnicoAsignado))
+                    .add(ENLACE_TECNICO.withRel("servicios-tecnico", tecnicoAsignado))
+                    .add(ENLACE_SERVICIOS.withRel("servicios"));
 
             return ResponseEntity.ok(serviciosModel);
         } catch (Exception e) {
             CollectionModel<EntityModel<ServicioReparacionResponse>> errorModel = 
                 CollectionModel.<EntityModel<ServicioReparacionResponse>>empty()
-                    .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"));
+                    .add(ENLACE_SERVICIOS.withRel("servicios"));
             return ResponseEntity.badRequest().body(errorModel);
         }
     }
@@ -449,9 +474,9 @@ public class ServicioReparacionControllerV2 {
             "tecnicoAsignado", tecnicoAsignado,
             "totalServicios", total,
             "_links", Map.of(
-                "self", linkTo(ServicioReparacionControllerV2.class).slash("tecnico").slash(tecnicoAsignado).slash("count").withSelfRel().getHref(),
-                "servicios-tecnico", linkTo(ServicioReparacionControllerV2.class).slash("tecnico").slash(tecnicoAsignado).withRel("servicios-tecnico").getHref(),
-                "servicios", linkTo(ServicioReparacionControllerV2.class).withRel("servicios").getHref()
+                "self", ENLACE_TECNICO_COUNT.withSelfRel(tecnicoAsignado).getHref(),
+                "servicios-tecnico", ENLACE_TECNICO.withRel("servicios-tecnico", tecnicoAsignado).getHref(),
+                "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
             )
         );
         
@@ -474,8 +499,8 @@ public class ServicioReparacionControllerV2 {
             CollectionModel.of(servicios.stream()
                 .map(assembler::toModel)
                 .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV2.class).slash("buscar").withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"));
+                .add(ENLACE_BUSCAR.withSelfRel())
+                .add(ENLACE_SERVICIOS.withRel("servicios"));
 
         return ResponseEntity.ok(serviciosModel);
     }
@@ -486,15 +511,16 @@ public class ServicioReparacionControllerV2 {
     )
     @GetMapping("/estadisticas")
     public ResponseEntity<Map<String, Object>> getEstadisticas() {
-        Map<String, Object> stats = servicioService.getEstadisticas();
+        // Copia: el mapa del servicio está cacheado y se comparte entre peticiones
+        Map<String, Object> stats = new HashMap<>(servicioService.getEstadisticas());
         
         // Agregar enlaces HATEOAS a las estadísticas
         Map<String, Object> linksMap = Map.of(
-            "self", linkTo(ServicioReparacionControllerV2.class).slash("estadisticas").withSelfRel().getHref(),
-            "servicios", linkTo(ServicioReparacionControllerV2.class).withRel("servicios").getHref(),
-            "servicios-agendados", linkTo(ServicioReparacionControllerV2.class).slash("estado").slash("AGENDADO").withRel("servicios-agendados").getHref(),
-            "servicios-en-reparacion", linkTo(ServicioReparacionControllerV2.class).slash("estado").slash("EN_REPARACION").withRel("servicios-en-reparacion").getHref(),
-            "servicios-completados", linkTo(ServicioReparacionControllerV2.class).slash("estado").slash("COMPLETADO").withRel("servicios-completados").getHref()
+            "self", ENLACE_ESTADISTICAS.withSelfRel().getHref(),
+            "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref(),
+            "servicios-agendados", ENLACE_ESTADO.withRel("servicios-agendados", "AGENDADO").getHref(),
+            "servicios-en-reparacion", ENLACE_ESTADO.withRel("servicios-en-reparacion", "EN_REPARACION").getHref(),
+            "servicios-completados", ENLACE_ESTADO.withRel("servicios-completados", "COMPLETADO").getHref()
         );
         
         stats.put("_links", linksMap);
@@ -508,19 +534,10 @@ public class ServicioReparacionControllerV2 {
     @GetMapping("/estados")
     public ResponseEntity<Map<String, Object>> getEstadosDisponibles() {
         Map<String, Object> response = Map.of(
-            "estados", List.of(
-                Map.of("codigo", "AGENDADO", "descripcion", "Agendado - Esperando revisión"),
-                Map.of("codigo", "EN_REVISION", "descripcion", "En revisión técnica"),
-                Map.of("codigo", "EN_REPARACION", "descripcion", "En proceso de reparación"),
-                Map.of("codigo", "ESPERANDO_REPUESTOS", "descripcion", "Esperando repuestos"),
-                Map.of("codigo", "COMPLETADO", "descripcion", "Reparación completada"),
-                Map.of("codigo", "ENTREGADO", "descripcion", "Entregado al cliente"),
-                Map.of("codigo", "CANCELADO", "descripcion", "Servicio cancelado"),
-                Map.of("codigo", "EN_GARANTIA", "descripcion", "En servicio de garantía")
-            ),
+            "estados", catalogoService.getEstadosDisponibles(),
             "_links", Map.of(
-                "self", linkTo(ServicioReparacionControllerV2.class).slash("estados").withSelfRel().getHref(),
-                "servicios", linkTo(ServicioReparacionControllerV2.class).withRel("servicios").getHref()
+                "self", ENLACE_ESTADOS.withSelfRel().getHref(),
+                "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
             )
         );
         return ResponseEntity.ok(response);
@@ -532,16 +549,13 @@ public class ServicioReparacionControllerV2 {
     )
     @GetMapping("/tipos-dispositivos")
     public ResponseEntity<Map<String, Object>> getTiposDispositivos() {
-        List<String> tipos = List.of(
-            "Smartphone", "Laptop", "Tablet", "Computador", 
-            "Smartwatch", "Auriculares", "Consola", "Otro"
-        );
+        List<String> tipos = catalogoService.getTiposDispositivos();
         
         Map<String, Object> response = Map.of(
             "tipos", tipos,
             "_links", Map.of(
-                "self", linkTo(ServicioReparacionControllerV2.class).slash("tipos-dispositivos").withSelfRel().getHref(),
-                "servicios", linkTo(ServicioReparacionControllerV2.class).withRel("servicios").getHref()
+                "self", ENLACE_TIPOS_DISPOSITIVOS.withSelfRel().getHref(),
+                "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
             )
         );
         return ResponseEntity.ok(response);
@@ -558,11 +572,11 @@ public class ServicioReparacionControllerV2 {
             "service", "ReparaFacilSPA - Servicios de Reparación V2 (HATEOAS)",
             "timestamp", new java.util.Date().toString(),
             "_links", Map.of(
-                "self", linkTo(ServicioReparacionControllerV2.class).slash("health").withSelfRel().getHref(),
-                "servicios", linkTo(ServicioReparacionControllerV2.class).withRel("servicios").getHref(),
-                "estadisticas", linkTo(ServicioReparacionControllerV2.class).slash("estadisticas").withRel("estadisticas").getHref(),
-                "estados", linkTo(ServicioReparacionControllerV2.class).slash("estados").withRel("estados").getHref(),
-                "tipos-dispositivos", linkTo(ServicioReparacionControllerV2.class).slash("tipos-dispositivos").withRel("tipos-dispositivos").getHref()
+                "self", ENLACE_HEALTH.withSelfRel().getHref(),
+                "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref(),
+                "estadisticas", ENLACE_ESTADISTICAS.withRel("estadisticas").getHref(),
+                "estados", ENLACE_ESTADOS.withRel("estados").getHref(),
+                "tipos-dispositivos", ENLACE_TIPOS_DISPOSITIVOS.withRel("tipos-dispositivos").getHref()
             )
         );
         return ResponseEntity.ok(response);
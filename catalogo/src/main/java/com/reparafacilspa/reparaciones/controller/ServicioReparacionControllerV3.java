@@ -1,16 +1,36 @@
 package com.reparafacilspa.reparaciones.controller;
 
+import com.reparafacilspa.reparaciones.assemblers.PlantillaEnlace;
 import com.reparafacilspa.reparaciones.assemblers.ServicioReparacionModelAssembler;
+import com.reparafacilspa.reparaciones.dto.BulkItemResult;
+import com.reparafacilspa.reparaciones.dto.CursorPage;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionRequest;
+import com.reparafacilspa.reparaciones.service.ServicioExportService;
+import com.reparafacilspa.reparaciones.service.CatalogoService;
+import com.reparafacilspa.reparaciones.service.CursorInvalidoException;
 import com.reparafacilspa.reparaciones.service.ServicioReparacionServiceV3;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -22,53 +42,85 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import jakarta.validation.Valid;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
-
 @RestController
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 @RequestMapping("/api/v3/reparaciones")
 @Tag(name = "Servicios de Reparación V3 (HATEOAS + CRUD)", description = "Gestión completa de servicios de reparación con enlaces HATEOAS y CRUD completo")
 public class ServicioReparacionControllerV3 {
 
+    // Enlaces HATEOAS precompilados (ver PlantillaEnlace)
+    private static final PlantillaEnlace ENLACE_SERVICIOS = PlantillaEnlace.de(ServicioReparacionControllerV3.class);
+    private static final PlantillaEnlace ENLACE_ESTADISTICAS = ENLACE_SERVICIOS.slash("estadisticas");
+    private static final PlantillaEnlace ENLACE_ESTADOS = ENLACE_SERVICIOS.slash("estados");
+    private static final PlantillaEnlace ENLACE_HEALTH = ENLACE_SERVICIOS.slash("health");
+    private static final PlantillaEnlace ENLACE_LOTE = ENLACE_SERVICIOS.slash("lote");
+    private static final PlantillaEnlace ENLACE_TIPOS_DISPOSITIVOS = ENLACE_SERVICIOS.slash("tipos-dispositivos");
+    private static final PlantillaEnlace ENLACE_SERVICIO = ENLACE_SERVICIOS.slash("{id}");
+    private static final PlantillaEnlace ENLACE_CLIENTE = ENLACE_SERVICIOS.slash("cliente").slash("{email}");
+    private static final PlantillaEnlace ENLACE_ESTADO = ENLACE_SERVICIOS.slash("estado").slash("{estado}");
+    private static final PlantillaEnlace ENLACE_FECHA = ENLACE_SERVICIOS.slash("fecha").slash("{fecha}");
+    private static final PlantillaEnlace ENLACE_TECNICO = ENLACE_SERVICIOS.slash("tecnico").slash("{tecnicoAsignado}");
+    private static final PlantillaEnlace ENLACE_TIPO = ENLACE_SERVICIOS.slash("tipo").slash("{tipoDispositivo}");
+    private static final PlantillaEnlace ENLACE_SERVICIO_ESTADO = ENLACE_SERVICIO.slash("estado");
+    private static final PlantillaEnlace ENLACE_CLIENTE_COUNT = ENLACE_CLIENTE.slash("count");
+    private static final PlantillaEnlace ENLACE_TECNICO_COUNT = ENLACE_TECNICO.slash("count");
+
     @Autowired
     private ServicioReparacionServiceV3 servicioService;
 
+    @Autowired
+    private CatalogoService catalogoService;
+
     @Autowired
     private ServicioReparacionModelAssembler assembler;
 
+    @Autowired
+    private ServicioExportService exportService;
+
     // ===== TODOS LOS ENDPOINTS DE V2 MANTENIDOS =====
 
     @Operation(
         summary = "Obtener todos los servicios de reparación (V3 con HATEOAS)",
-        description = "Retorna una lista de todos los servicios de reparación activos con enlaces de navegación"
+        description = "Retorna una página de servicios de reparación activos (paginación por cursor) con enlaces de navegación"
     )
     @GetMapping
-    public ResponseEntity<CollectionModel<EntityModel<ServicioReparacionResponse>>> getAllServicios() {
-        List<ServicioReparacionResponse> servicios = servicioService.findAll();
+    public ResponseEntity<CollectionModel<EntityModel<ServicioReparacionResponse>>> getAllServicios(
+            @Parameter(description = "Cursor de la página siguiente (nextCursor)") @RequestParam(required = false) String after,
+            @Parameter(description = "Cursor de la página anterior (prevCursor)") @RequestParam(required = false) String before,
+            @Parameter(description = "Tamaño de página (máximo 100)", example = "20") @RequestParam(required = false) Integer size) {
+        // La huella se lee antes que la página: si entre ambas lecturas hay una escritura, el ETag queda
+        // desactualizado y el cliente vuelve a recibir el listado en la próxima consulta, nunca al revés
+        String etag = ETags.deColeccion(servicioService.getVersionColeccion());
+        if (ETags.noModificado(etag)) {
+            return ETags.respuestaNoModificada(etag);
+        }
+        CursorPage<ServicioReparacionResponse> page;
+        try {
+            page = servicioService.findAllPage(after, before, size);
+        } catch (CursorInvalidoException e) {
+            return cursorError();
+        }
         
-        if (servicios.isEmpty()) {
+        if (page.getContent().isEmpty()) {
             CollectionModel<EntityModel<ServicioReparacionResponse>> emptyCollection = 
-                CollectionModel.<EntityModel<ServicioReparacionResponse>>empty()
-                    .add(linkTo(ServicioReparacionControllerV3.class).withSelfRel())
-                    .add(linkTo(ServicioReparacionControllerV3.class).withRel("create"));
-            return ResponseEntity.ok(emptyCollection);
+                toCursorModel(page, ENLACE_SERVICIOS.expandir(), after, before)
+                    .add(ENLACE_SERVICIOS.withRel("create"));
+            return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(emptyCollection);
         }
 
         CollectionModel<EntityModel<ServicioReparacionResponse>> serviciosModel = 
-            CollectionModel.of(servicios.stream()
-                .map(assembler::toModel)
-                .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV3.class).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV3.class).withRel("create"))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("estadisticas").withRel("estadisticas"))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("estados").withRel("estados"))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("tipos-dispositivos").withRel("tipos-dispositivos"));
+            toCursorModel(page, ENLACE_SERVICIOS.expandir(), after, before)
+                .add(ENLACE_SERVICIOS.withRel("create"))
+                .add(ENLACE_ESTADISTICAS.withRel("estadisticas"))
+                .add(ENLACE_ESTADOS.withRel("estados"))
+                .add(ENLACE_TIPOS_DISPOSITIVOS.withRel("tipos-dispositivos"));
 
-        return ResponseEntity.ok(serviciosModel);
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(serviciosModel);
     }
 
     @Operation(
@@ -88,8 +140,8 @@ public class ServicioReparacionControllerV3 {
                 "success", false,
                 "message", "Errores de validación: " + errors,
                 "_links", Map.of(
-                    "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref(),
-                    "tipos-dispositivos", linkTo(ServicioReparacionControllerV3.class).slash("tipos-dispositivos").withRel("tipos-dispositivos").getHref()
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref(),
+                    "tipos-dispositivos", ENLACE_TIPOS_DISPOSITIVOS.withRel("tipos-dispositivos").getHref()
                 )
             ));
         }
@@ -103,10 +155,10 @@ public class ServicioReparacionControllerV3 {
                 "message", "Servicio de reparación agendado exitosamente",
                 "servicio", servicioModel,
                 "_links", Map.of(
-                    "self", linkTo(ServicioReparacionControllerV3.class).slash(nuevoServicio.getId()).withSelfRel().getHref(),
-                    "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref(),
-                    "update", linkTo(ServicioReparacionControllerV3.class).slash(nuevoServicio.getId()).withRel("update").getHref(),
-                    "cambiar-estado", linkTo(ServicioReparacionControllerV3.class).slash(nuevoServicio.getId()).slash("estado").withRel("cambiar-estado").getHref()
+                    "self", ENLACE_SERVICIO.withSelfRel(nuevoServicio.getId()).getHref(),
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref(),
+                    "update", ENLACE_SERVICIO.withRel("update", nuevoServicio.getId()).getHref(),
+                    "cambiar-estado", ENLACE_SERVICIO_ESTADO.withRel("cambiar-estado", nuevoServicio.getId()).getHref()
                 )
             );
             
@@ -116,7 +168,49 @@ public class ServicioReparacionControllerV3 {
                 "success", false,
                 "message", "Error al agendar servicio: " + e.getMessage(),
                 "_links", Map.of(
-                    "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref()
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
+                )
+            ));
+        }
+    }
+
+    @Operation(
+        summary = "Crear servicios de reparación por lote (V3 con HATEOAS)",
+        description = "Agenda hasta " + ServicioReparacionServiceV3.MAX_BULK_SIZE + " servicios en una sola transacción. " +
+                      "Cada elemento se valida por separado y la respuesta informa el resultado de cada uno en el mismo orden. " +
+                      "Responde 201 si todos se crearon, 207 si algunos fallaron la validación y 400 si ninguno se creó"
+    )
+    @PostMapping("/lote")
+    public ResponseEntity<?> createServiciosLote(@RequestBody List<ServicioReparacionRequest> requests) {
+        try {
+            List<BulkItemResult> resultados = servicioService.saveAll(requests);
+            long creados = resultados.stream().filter(BulkItemResult::isSuccess).count();
+            List<EntityModel<BulkItemResult>> resultadosModel = resultados.stream()
+                    .map(resultado -> resultado.isSuccess()
+                            ? EntityModel.of(resultado, ENLACE_SERVICIO.withSelfRel(resultado.getServicio().getId()))
+                            : EntityModel.of(resultado))
+                    .collect(Collectors.toList());
+
+            HttpStatus status = creados == resultados.size() ? HttpStatus.CREATED
+                    : creados > 0 ? HttpStatus.MULTI_STATUS : HttpStatus.BAD_REQUEST;
+            Map<String, Object> response = Map.of(
+                "success", creados > 0,
+                "message", creados + " de " + resultados.size() + " servicios creados",
+                "creados", creados,
+                "fallidos", resultados.size() - creados,
+                "resultados", resultadosModel,
+                "_links", Map.of(
+                    "self", ENLACE_LOTE.withSelfRel().getHref(),
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
+                )
+            );
+            return ResponseEntity.status(status).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "Error al agendar servicios: " + e.getMessage(),
+                "_links", Map.of(
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
                 )
             ));
         }
@@ -132,8 +226,12 @@ public class ServicioReparacionControllerV3 {
             @PathVariable Long id) {
         try {
             ServicioReparacionResponse servicio = servicioService.findById(id);
+            String etag = ETags.deEntidad(servicio.getId(), servicio.getVersion());
+            if (ETags.noModificado(etag)) {
+                return ETags.respuestaNoModificada(etag);
+            }
             EntityModel<ServicioReparacionResponse> servicioModel = assembler.toModel(servicio);
-            return ResponseEntity.ok(servicioModel);
+            return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(servicioModel);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -218,8 +316,8 @@ public class ServicioReparacionControllerV3 {
                 "success", false,
                 "message", "Errores de validación: " + errors,
                 "_links", Map.of(
-                    "servicio", linkTo(ServicioReparacionControllerV3.class).slash(id).withRel("servicio").getHref(),
-                    "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref()
+                    "servicio", ENLACE_SERVICIO.withRel("servicio", id).getHref(),
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
                 )
             ));
         }
@@ -233,10 +331,10 @@ public class ServicioReparacionControllerV3 {
                 "message", "Servicio actualizado exitosamente",
                 "servicio", servicioModel,
                 "_links", Map.of(
-                    "self", linkTo(ServicioReparacionControllerV3.class).slash(id).withSelfRel().getHref(),
-                    "delete", linkTo(ServicioReparacionControllerV3.class).slash(id).withRel("delete").getHref(),
-                    "cambiar-estado", linkTo(ServicioReparacionControllerV3.class).slash(id).slash("estado").withRel("cambiar-estado").getHref(),
-                    "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref()
+                    "self", ENLACE_SERVICIO.withSelfRel(id).getHref(),
+                    "delete", ENLACE_SERVICIO.withRel("delete", id).getHref(),
+                    "cambiar-estado", ENLACE_SERVICIO_ESTADO.withRel("cambiar-estado", id).getHref(),
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
                 )
             );
             
@@ -246,8 +344,8 @@ public class ServicioReparacionControllerV3 {
                 "success", false,
                 "message", "Error al actualizar servicio: " + e.getMessage(),
                 "_links", Map.of(
-                    "servicio", linkTo(ServicioReparacionControllerV3.class).slash(id).withRel("servicio").getHref(),
-                    "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref()
+                    "servicio", ENLACE_SERVICIO.withRel("servicio", id).getHref(),
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
                 )
             ));
         }
@@ -292,10 +390,10 @@ public class ServicioReparacionControllerV3 {
                 "success", true,
                 "message", "Servicio eliminado exitosamente",
                 "_links", Map.of(
-                    "self", linkTo(ServicioReparacionControllerV3.class).slash(id).withSelfRel().getHref(),
-                    "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref(),
-                    "estadisticas", linkTo(ServicioReparacionControllerV3.class).slash("estadisticas").withRel("estadisticas").getHref(),
-                    "create", linkTo(ServicioReparacionControllerV3.class).withRel("create").getHref()
+                    "self", ENLACE_SERVICIO.withSelfRel(id).getHref(),
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref(),
+                    "estadisticas", ENLACE_ESTADISTICAS.withRel("estadisticas").getHref(),
+                    "create", ENLACE_SERVICIOS.withRel("create").getHref()
                 )
             ));
         } catch (Exception e) {
@@ -303,8 +401,8 @@ public class ServicioReparacionControllerV3 {
                 "success", false,
                 "message", "Error al eliminar servicio: " + e.getMessage(),
                 "_links", Map.of(
-                    "servicio", linkTo(ServicioReparacionControllerV3.class).slash(id).withRel("servicio").getHref(),
-                    "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref()
+                    "servicio", ENLACE_SERVICIO.withRel("servicio", id).getHref(),
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
                 )
             ));
         }
@@ -319,18 +417,27 @@ public class ServicioReparacionControllerV3 {
     @GetMapping("/cliente/{email}")
     public ResponseEntity<CollectionModel<EntityModel<ServicioReparacionResponse>>> getServiciosByEmail(
             @Parameter(description = "Email del cliente", required = true, example = "cliente@email.com")
-            @PathVariable String email) {
-        List<ServicioReparacionResponse> servicios = servicioService.findByEmail(email);
+            @PathVariable String email,
+            @Parameter(description = "Cursor de la página siguiente (nextCursor)") @RequestParam(required = false) String after,
+            @Parameter(description = "Cursor de la página anterior (prevCursor)") @RequestParam(required = false) String before,
+            @Parameter(description = "Tamaño de página (máximo 100)", example = "20") @RequestParam(required = false) Integer size) {
+        String etag = ETags.deColeccion(servicioService.getVersionColeccion());
+        if (ETags.noModificado(etag)) {
+            return ETags.respuestaNoModificada(etag);
+        }
+        CursorPage<ServicioReparacionResponse> page;
+        try {
+            page = servicioService.findByEmailPage(email, after, before, size);
+        } catch (CursorInvalidoException e) {
+            return cursorError();
+        }
         
         CollectionModel<EntityModel<ServicioReparacionResponse>> serviciosModel = 
-            CollectionModel.of(servicios.stream()
-                .map(assembler::toModel)
-                .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("cliente").slash(email).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV3.class).withRel("servicios"))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("cliente").slash(email).slash("count").withRel("total-cliente"));
+            toCursorModel(page, ENLACE_CLIENTE.expandir(email), after, before)
+                .add(ENLACE_SERVICIOS.withRel("servicios"))
+                .add(ENLACE_CLIENTE_COUNT.withRel("total-cliente", email));
 
-        return ResponseEntity.ok(serviciosModel);
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(serviciosModel);
     }
 
     @Operation(
@@ -340,18 +447,27 @@ public class ServicioReparacionControllerV3 {
     @GetMapping("/estado/{estado}")
     public ResponseEntity<CollectionModel<EntityModel<ServicioReparacionResponse>>> getServiciosByEstado(
             @Parameter(description = "Estado del servicio", required = true, example = "AGENDADO")
-            @PathVariable String estado) {
-        List<ServicioReparacionResponse> servicios = servicioService.findByEstado(estado);
+            @PathVariable String estado,
+            @Parameter(description = "Cursor de la página siguiente (nextCursor)") @RequestParam(required = false) String after,
+            @Parameter(description = "Cursor de la página anterior (prevCursor)") @RequestParam(required = false) String before,
+            @Parameter(description = "Tamaño de página (máximo 100)", example = "20") @RequestParam(required = false) Integer size) {
+        String etag = ETags.deColeccion(servicioService.getVersionColeccion());
+        if (ETags.noModificado(etag)) {
+            return ETags.respuestaNoModificada(etag);
+        }
+        CursorPage<ServicioReparacionResponse> page;
+        try {
+            page = servicioService.findByEstadoPage(estado, after, before, size);
+        } catch (CursorInvalidoException e) {
+            return cursorError();
+        }
         
         CollectionModel<EntityModel<ServicioReparacionResponse>> serviciosModel = 
-            CollectionModel.of(servicios.stream()
-                .map(assembler::toModel)
-                .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("estado").slash(estado).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV3.class).withRel("servicios"))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("estados").withRel("estados"));
+            toCursorModel(page, ENLACE_ESTADO.expandir(estado), after, before)
+                .add(ENLACE_SERVICIOS.withRel("servicios"))
+                .add(ENLACE_ESTADOS.withRel("estados"));
 
-        return ResponseEntity.ok(serviciosModel);
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(serviciosModel);
     }
 
     @Operation(
@@ -361,18 +477,27 @@ public class ServicioReparacionControllerV3 {
     @GetMapping("/tipo/{tipoDispositivo}")
     public ResponseEntity<CollectionModel<EntityModel<ServicioReparacionResponse>>> getServiciosByTipo(
             @Parameter(description = "Tipo de dispositivo", required = true, example = "Smartphone")
-            @PathVariable String tipoDispositivo) {
-        List<ServicioReparacionResponse> servicios = servicioService.findByTipoDispositivo(tipoDispositivo);
+            @PathVariable String tipoDispositivo,
+            @Parameter(description = "Cursor de la página siguiente (nextCursor)") @RequestParam(required = false) String after,
+            @Parameter(description = "Cursor de la página anterior (prevCursor)") @RequestParam(required = false) String before,
+            @Parameter(description = "Tamaño de página (máximo 100)", example = "20") @RequestParam(required = false) Integer size) {
+        String etag = ETags.deColeccion(servicioService.getVersionColeccion());
+        if (ETags.noModificado(etag)) {
+            return ETags.respuestaNoModificada(etag);
+        }
+        CursorPage<ServicioReparacionResponse> page;
+        try {
+            page = servicioService.findByTipoDispositivoPage(tipoDispositivo, after, before, size);
+        } catch (CursorInvalidoException e) {
+            return cursorError();
+        }
         
         CollectionModel<EntityModel<ServicioReparacionResponse>> serviciosModel = 
-            CollectionModel.of(servicios.stream()
-                .map(assembler::toModel)
-                .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("tipo").slash(tipoDispositivo).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV3.class).withRel("servicios"))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("tipos-dispositivos").withRel("tipos-dispositivos"));
+            toCursorModel(page, ENLACE_TIPO.expandir(tipoDispositivo), after, before)
+                .add(ENLACE_SERVICIOS.withRel("servicios"))
+                .add(ENLACE_TIPOS_DISPOSITIVOS.withRel("tipos-dispositivos"));
 
-        return ResponseEntity.ok(serviciosModel);
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(serviciosModel);
     }
 
     @Operation(
@@ -391,8 +516,8 @@ public class ServicioReparacionControllerV3 {
                     "success", false,
                     "message", "El estado es requerido",
                     "_links", Map.of(
-                        "servicio", linkTo(ServicioReparacionControllerV3.class).slash(id).withRel("servicio").getHref(),
-                        "estados", linkTo(ServicioReparacionControllerV3.class).slash("estados").withRel("estados").getHref()
+                        "servicio", ENLACE_SERVICIO.withRel("servicio", id).getHref(),
+                        "estados", ENLACE_ESTADOS.withRel("estados").getHref()
                     )
                 ));
             }
@@ -405,10 +530,10 @@ public class ServicioReparacionControllerV3 {
                 "message", "Estado actualizado exitosamente",
                 "servicio", servicioModel,
                 "_links", Map.of(
-                    "self", linkTo(ServicioReparacionControllerV3.class).slash(id).slash("estado").withSelfRel().getHref(),
-                    "servicio", linkTo(ServicioReparacionControllerV3.class).slash(id).withRel("servicio").getHref(),
-                    "update", linkTo(ServicioReparacionControllerV3.class).slash(id).withRel("update").getHref(),
-                    "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref()
+                    "self", ENLACE_SERVICIO_ESTADO.withSelfRel(id).getHref(),
+                    "servicio", ENLACE_SERVICIO.withRel("servicio", id).getHref(),
+                    "update", ENLACE_SERVICIO.withRel("update", id).getHref(),
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
                 )
             );
             
@@ -418,8 +543,8 @@ public class ServicioReparacionControllerV3 {
                 "success", false,
                 "message", "Error al cambiar estado: " + e.getMessage(),
                 "_links", Map.of(
-                    "servicio", linkTo(ServicioReparacionControllerV3.class).slash(id).withRel("servicio").getHref(),
-                    "estados", linkTo(ServicioReparacionControllerV3.class).slash("estados").withRel("estados").getHref()
+                    "servicio", ENLACE_SERVICIO.withRel("servicio", id).getHref(),
+                    "estados", ENLACE_ESTADOS.withRel("estados").getHref()
                 )
             ));
         }
@@ -434,18 +559,27 @@ public class ServicioReparacionControllerV3 {
     @GetMapping("/tecnico/{tecnicoAsignado}")
     public ResponseEntity<CollectionModel<EntityModel<ServicioReparacionResponse>>> getServiciosByTecnico(
             @Parameter(description = "Nombre del técnico asignado", required = true, example = "Carlos González")
-            @PathVariable String tecnicoAsignado) {
-        List<ServicioReparacionResponse> servicios = servicioService.findByTecnicoAsignado(tecnicoAsignado);
+            @PathVariable String tecnicoAsignado,
+            @Parameter(description = "Cursor de la página siguiente (nextCursor)") @RequestParam(required = false) String after,
+            @Parameter(description = "Cursor de la página anterior (prevCursor)") @RequestParam(required = false) String before,
+            @Parameter(description = "Tamaño de página (máximo 100)", example = "20") @RequestParam(required = false) Integer size) {
+        String etag = ETags.deColeccion(servicioService.getVersionColeccion());
+        if (ETags.noModificado(etag)) {
+            return ETags.respuestaNoModificada(etag);
+        }
+        CursorPage<ServicioReparacionResponse> page;
+        try {
+            page = servicioService.findByTecnicoAsignadoPage(tecnicoAsignado, after, before, size);
+        } catch (CursorInvalidoException e) {
+            return cursorError();
+        }
         
         CollectionModel<EntityModel<ServicioReparacionResponse>> serviciosModel = 
-            CollectionModel.of(servicios.stream()
-                .map(assembler::toModel)
-                .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("tecnico").slash(tecnicoAsignado).withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV3.class).withRel("servicios"))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("tecnico").slash(tecnicoAsignado).slash("count").withRel("total-tecnico"));
+            toCursorModel(page, ENLACE_TECNICO.expandir(tecnicoAsignado), after, before)
+                .add(ENLACE_SERVICIOS.withRel("servicios"))
+                .add(ENLACE_TECNICO_COUNT.withRel("total-tecnico", tecnicoAsignado));
 
-        return ResponseEntity.ok(serviciosModel);
+        return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(serviciosModel);
     }
 
     @Operation(
@@ -455,23 +589,24 @@ public class ServicioReparacionControllerV3 {
     @GetMapping("/fecha/{fecha}")
     public ResponseEntity<CollectionModel<EntityModel<ServicioReparacionResponse>>> getServiciosByFecha(
             @Parameter(description = "Fecha agendada (formato: yyyy-MM-dd)", required = true, example = "2024-01-20")
-            @PathVariable String fecha) {
+            @PathVariable String fecha,
+            @Parameter(description = "Cursor de la página siguiente (nextCursor)") @RequestParam(required = false) String after,
+            @Parameter(description = "Cursor de la página anterior (prevCursor)") @RequestParam(required = false) String before,
+            @Parameter(description = "Tamaño de página (máximo 100)", example = "20") @RequestParam(required = false) Integer size) {
+        String etag = ETags.deColeccion(servicioService.getVersionColeccion());
+        if (ETags.noModificado(etag)) {
+            return ETags.respuestaNoModificada(etag);
+        }
         try {
-            List<ServicioReparacionResponse> servicios = servicioService.findByFechaAgendada(fecha);
+            CursorPage<ServicioReparacionResponse> page = servicioService.findByFechaAgendadaPage(fecha, after, before, size);
             
             CollectionModel<EntityModel<ServicioReparacionResponse>> serviciosModel = 
-                CollectionModel.of(servicios.stream()
-                    .map(assembler::toModel)
-                    .collect(Collectors.toList()))
-                    .add(linkTo(ServicioReparacionControllerV3.class).slash("fecha").slash(fecha).withSelfRel())
-                    .add(linkTo(ServicioReparacionControllerV3.class).withRel("servicios"));
+                toCursorModel(page, ENLACE_FECHA.expandir(fecha), after, before)
+                    .add(ENLACE_SERVICIOS.withRel("servicios"));
 
-            return ResponseEntity.ok(serviciosModel);
-        } catch (Exception e) {
-            CollectionModel<EntityModel<ServicioReparacionResponse>> errorModel = 
-                CollectionModel.<EntityModel<ServicioReparacionResponse>>empty()
-                    .add(linkTo(ServicioReparacionControllerV3.class).withRel("servicios"));
-            return ResponseEntity.badRequest().body(errorModel);
+            return ResponseEntity.ok().eTag(etag).cacheControl(ETags.CACHE_CONTROL).body(serviciosModel);
+        } catch (CursorInvalidoException | IllegalArgumentException e) {
+            return cursorError();
         }
     }
 
@@ -489,9 +624,9 @@ public class ServicioReparacionControllerV3 {
             "email", email,
             "totalServicios", total,
             "_links", Map.of(
-                "self", linkTo(ServicioReparacionControllerV3.class).slash("cliente").slash(email).slash("count").withSelfRel().getHref(),
-                "servicios-cliente", linkTo(ServicioReparacionControllerV3.class).slash("cliente").slash(email).withRel("servicios-cliente").getHref(),
-                "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref()
+                "self", ENLACE_CLIENTE_COUNT.withSelfRel(email).getHref(),
+                "servicios-cliente", ENLACE_CLIENTE.withRel("servicios-cliente", email).getHref(),
+                "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
             )
         );
         
@@ -512,9 +647,9 @@ public class ServicioReparacionControllerV3 {
             "tecnicoAsignado", tecnicoAsignado,
             "totalServicios", total,
             "_links", Map.of(
-                "self", linkTo(ServicioReparacionControllerV3.class).slash("tecnico").slash(tecnicoAsignado).slash("count").withSelfRel().getHref(),
-                "servicios-tecnico", linkTo(ServicioReparacionControllerV3.class).slash("tecnico").slash(tecnicoAsignado).withRel("servicios-tecnico").getHref(),
-                "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref()
+                "self", ENLACE_TECNICO_COUNT.withSelfRel(tecnicoAsignado).getHref(),
+                "servicios-tecnico", ENLACE_TECNICO.withRel("servicios-tecnico", tecnicoAsignado).getHref(),
+                "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
             )
         );
         
@@ -526,20 +661,48 @@ public class ServicioReparacionControllerV3 {
 
     @Operation(
         summary = "Búsqueda general de servicios (V3 con HATEOAS)",
-        description = "Permite buscar servicios por nombre de cliente, descripción del problema, marca o modelo"
+        description = "Permite buscar servicios por nombre de cliente, descripción del problema, marca o modelo. " +
+                      "Ignora mayúsculas y tildes, cada palabra se busca como prefijo y los resultados vienen " +
+                      "ordenados por relevancia y paginados (page, size)"
     )
     @GetMapping("/buscar")
-    public ResponseEntity<CollectionModel<EntityModel<ServicioReparacionResponse>>> searchServicios(
+    public ResponseEntity<PagedModel<EntityModel<ServicioReparacionResponse>>> searchServicios(
             @Parameter(description = "Término de búsqueda", required = true, example = "Samsung")
-            @RequestParam String q) {
-        List<ServicioReparacionResponse> servicios = servicioService.search(q);
-        
-        CollectionModel<EntityModel<ServicioReparacionResponse>> serviciosModel = 
-            CollectionModel.of(servicios.stream()
-                .map(assembler::toModel)
-                .collect(Collectors.toList()))
-                .add(linkTo(ServicioReparacionControllerV3.class).slash("buscar").withSelfRel())
-                .add(linkTo(ServicioReparacionControllerV3.class).withRel("servicios"));
+            @RequestParam String q,
+            @Parameter(description = "Número de página (desde 0)", example = "0") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamaño de página (máximo 100)", example = "20") @RequestParam(required = false) Integer size,
+            @Parameter(hidden = true) PagedResourcesAssembler<ServicioReparacionResponse> pagedAssembler) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0),
+                size == null ? ServicioReparacionServiceV3.DEFAULT_PAGE_SIZE : Math.max(size, 1));
+        Page<ServicioReparacionResponse> resultados = servicioService.search(q, pageable);
+
+        PagedModel<EntityModel<ServicioReparacionResponse>> serviciosModel = pagedAssembler.toModel(resultados, assembler);
+        serviciosModel.add(ENLACE_SERVICIOS.withRel("servicios"));
+
+        return ResponseEntity.ok(serviciosModel);
+    }
+
+    @Operation(
+        summary = "Búsqueda avanzada de servicios (V3 con HATEOAS)",
+        description = "Filtra por cualquier combinación de nombre de cliente, email, tipo de dispositivo, estado y técnico. " +
+                      "Los filtros de texto buscan por prefijo sin distinguir mayúsculas. Resultados paginados y ordenables " +
+                      "(page, size, sort=campo,asc|desc)"
+    )
+    @GetMapping("/buscar-avanzado")
+    public ResponseEntity<PagedModel<EntityModel<ServicioReparacionResponse>>> searchAdvanced(
+            @Parameter(description = "Prefijo del nombre del cliente", example = "Juan") @RequestParam(required = false) String nombreCliente,
+            @Parameter(description = "Prefijo del email del cliente", example = "juan@") @RequestParam(required = false) String email,
+            @Parameter(description = "Tipo de dispositivo", example = "Smartphone") @RequestParam(required = false) String tipoDispositivo,
+            @Parameter(description = "Estado del servicio", example = "AGENDADO") @RequestParam(required = false) String estado,
+            @Parameter(description = "Prefijo del técnico asignado", example = "Carlos") @RequestParam(required = false) String tecnicoAsignado,
+            @ParameterObject @PageableDefault(size = ServicioReparacionServiceV3.DEFAULT_PAGE_SIZE, sort = "id") Pageable pageable,
+            @Parameter(hidden = true) PagedResourcesAssembler<ServicioReparacionResponse> pagedAssembler) {
+        Page<ServicioReparacionResponse> page = servicioService.searchAdvanced(
+            nombreCliente, email, tipoDispositivo, estado, tecnicoAsignado, pageable);
+
+        PagedModel<EntityModel<ServicioReparacionResponse>> serviciosModel = pagedAssembler.toModel(page, assembler);
+        serviciosModel.add(ENLACE_SERVICIOS.withRel("servicios"));
+        serviciosModel.add(ENLACE_ESTADOS.withRel("estados"));
 
         return ResponseEntity.ok(serviciosModel);
     }
@@ -550,21 +713,58 @@ public class ServicioReparacionControllerV3 {
     )
     @GetMapping("/estadisticas")
     public ResponseEntity<Map<String, Object>> getEstadisticas() {
-        Map<String, Object> stats = servicioService.getEstadisticas();
+        // Copia: el mapa del servicio está cacheado y se comparte entre peticiones
+        Map<String, Object> stats = new HashMap<>(servicioService.getEstadisticas());
         
         // Agregar enlaces HATEOAS a las estadísticas
         Map<String, Object> linksMap = Map.of(
-            "self", linkTo(ServicioReparacionControllerV3.class).slash("estadisticas").withSelfRel().getHref(),
-            "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref(),
-            "servicios-agendados", linkTo(ServicioReparacionControllerV3.class).slash("estado").slash("AGENDADO").withRel("servicios-agendados").getHref(),
-            "servicios-en-reparacion", linkTo(ServicioReparacionControllerV3.class).slash("estado").slash("EN_REPARACION").withRel("servicios-en-reparacion").getHref(),
-            "servicios-completados", linkTo(ServicioReparacionControllerV3.class).slash("estado").slash("COMPLETADO").withRel("servicios-completados").getHref()
+            "self", ENLACE_ESTADISTICAS.withSelfRel().getHref(),
+            "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref(),
+            "servicios-agendados", ENLACE_ESTADO.withRel("servicios-agendados", "AGENDADO").getHref(),
+            "servicios-en-reparacion", ENLACE_ESTADO.withRel("servicios-en-reparacion", "EN_REPARACION").getHref(),
+            "servicios-completados", ENLACE_ESTADO.withRel("servicios-completados", "COMPLETADO").getHref()
         );
         
         stats.put("_links", linksMap);
         return ResponseEntity.ok(stats);
     }
 
+    @Operation(
+        summary = "Exportar servicios (NDJSON o CSV)",
+        description = "Descarga los servicios filtrados por estado y rango de fechas agendadas (desde/hasta inclusivos). " +
+                      "Las filas se escriben a medida que se leen de la base de datos, sin cargar el resultado completo en memoria"
+    )
+    @GetMapping("/exportar")
+    public ResponseEntity<?> exportarServicios(
+            @Parameter(description = "Formato de salida (ndjson o csv)", example = "csv") @RequestParam(defaultValue = "ndjson") String formato,
+            @Parameter(description = "Estado del servicio", example = "COMPLETADO") @RequestParam(required = false) String estado,
+            @Parameter(description = "Fecha agendada desde (yyyy-MM-dd)", example = "2024-01-01") @RequestParam(required = false) String desde,
+            @Parameter(description = "Fecha agendada hasta (yyyy-MM-dd)", example = "2024-01-31") @RequestParam(required = false) String hasta,
+            @Parameter(description = "Incluir servicios eliminados", example = "false") @RequestParam(defaultValue = "false") boolean incluirEliminados) {
+        ServicioExportService.Formato formatoExportacion;
+        ServicioExportService.Filtro filtro;
+        try {
+            formatoExportacion = ServicioExportService.Formato.from(formato);
+            filtro = exportService.filtro(estado, desde, hasta, incluirEliminados);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "Error al exportar servicios: " + e.getMessage(),
+                "_links", Map.of(
+                    "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref(),
+                    "estados", ENLACE_ESTADOS.withRel("estados").getHref()
+                )
+            ));
+        }
+
+        StreamingResponseBody body = salida -> exportService.exportar(filtro, formatoExportacion, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoExportacion.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("servicios." + formatoExportacion.getExtension()).build().toString())
+                .body(body);
+    }
+
     @Operation(
         summary = "Obtener estados disponibles (V3 con HATEOAS)",
         description = "Retorna la lista de todos los estados posibles para un servicio de reparación con enlaces"
@@ -572,19 +772,10 @@ public class ServicioReparacionControllerV3 {
     @GetMapping("/estados")
     public ResponseEntity<Map<String, Object>> getEstadosDisponibles() {
         Map<String, Object> response = Map.of(
-            "estados", List.of(
-                Map.of("codigo", "AGENDADO", "descripcion", "Agendado - Esperando revisión"),
-                Map.of("codigo", "EN_REVISION", "descripcion", "En revisión técnica"),
-                Map.of("codigo", "EN_REPARACION", "descripcion", "En proceso de reparación"),
-                Map.of("codigo", "ESPERANDO_REPUESTOS", "descripcion", "Esperando repuestos"),
-                Map.of("codigo", "COMPLETADO", "descripcion", "Reparación completada"),
-                Map.of("codigo", "ENTREGADO", "descripcion", "Entregado al cliente"),
-                Map.of("codigo", "CANCELADO", "descripcion", "Servicio cancelado"),
-                Map.of("codigo", "EN_GARANTIA", "descripcion", "En servicio de garantía")
-            ),
+            "estados", catalogoService.getEstadosDisponibles(),
             "_links", Map.of(
-                "self", linkTo(ServicioReparacionControllerV3.class).slash("estados").withSelfRel().getHref(),
-                "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref()
+                "self", ENLACE_ESTADOS.withSelfRel().getHref(),
+                "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
             )
         );
         return ResponseEntity.ok(response);
@@ -596,16 +787,13 @@ public class ServicioReparacionControllerV3 {
     )
     @GetMapping("/tipos-dispositivos")
     public ResponseEntity<Map<String, Object>> getTiposDispositivos() {
-        List<String> tipos = List.of(
-            "Smartphone", "Laptop", "Tablet", "Computador", 
-            "Smartwatch", "Auriculares", "Consola", "Otro"
-        );
+        List<String> tipos = catalogoService.getTiposDispositivos();
         
         Map<String, Object> response = Map.of(
             "tipos", tipos,
             "_links", Map.of(
-                "self", linkTo(ServicioReparacionControllerV3.class).slash("tipos-dispositivos").withSelfRel().getHref(),
-                "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref()
+                "self", ENLACE_TIPOS_DISPOSITIVOS.withSelfRel().getHref(),
+                "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref()
             )
         );
         return ResponseEntity.ok(response);
@@ -623,13 +811,54 @@ public class ServicioReparacionControllerV3 {
             "timestamp", new java.util.Date().toString(),
             "version", "3.0.0",
             "_links", Map.of(
-                "self", linkTo(ServicioReparacionControllerV3.class).slash("health").withSelfRel().getHref(),
-                "servicios", linkTo(ServicioReparacionControllerV3.class).withRel("servicios").getHref(),
-                "estadisticas", linkTo(ServicioReparacionControllerV3.class).slash("estadisticas").withRel("estadisticas").getHref(),
-                "estados", linkTo(ServicioReparacionControllerV3.class).slash("estados").withRel("estados").getHref(),
-                "tipos-dispositivos", linkTo(ServicioReparacionControllerV3.class).slash("tipos-dispositivos").withRel("tipos-dispositivos").getHref()
+                "self", ENLACE_HEALTH.withSelfRel().getHref(),
+                "servicios", ENLACE_SERVICIOS.withRel("servicios").getHref(),
+                "estadisticas", ENLACE_ESTADISTICAS.withRel("estadisticas").getHref(),
+                "estados", ENLACE_ESTADOS.withRel("estados").getHref(),
+                "tipos-dispositivos", ENLACE_TIPOS_DISPOSITIVOS.withRel("tipos-dispositivos").getHref()
             )
         );
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    // ===== HELPERS DE PAGINACIÓN POR CURSOR =====
+
+    // Construye la colección con enlaces self/first/next/prev conservando los query params de la búsqueda
+    private CollectionModel<EntityModel<ServicioReparacionResponse>> toCursorModel(
+            CursorPage<ServicioReparacionResponse> page, String href, String after, String before) {
+        UriComponentsBuilder base = UriComponentsBuilder.fromUriString(href);
+        CollectionModel<EntityModel<ServicioReparacionResponse>> model = CollectionModel.of(page.getContent().stream()
+                .map(assembler::toModel)
+                .collect(Collectors.toList()));
+
+        String selfHref = before != null
+                ? cursorHref(base, "before", before, page.getSize())
+                : cursorHref(base, "after", after, page.getSize());
+        model.add(Link.of(selfHref, IanaLinkRelations.SELF));
+        model.add(Link.of(cursorHref(base, null, null, page.getSize()), IanaLinkRelations.FIRST));
+        if (page.hasNext()) {
+            model.add(Link.of(cursorHref(base, "after", page.getNextCursor(), page.getSize()), IanaLinkRelations.NEXT));
+        }
+        if (page.hasPrev()) {
+            model.add(Link.of(cursorHref(base, "before", page.getPrevCursor(), page.getSize()), IanaLinkRelations.PREV));
+        }
+        return model;
+    }
+
+    private String cursorHref(UriComponentsBuilder base, String param, String cursor, int size) {
+        UriComponentsBuilder builder = base.cloneBuilder();
+        if (param != null && cursor != null) {
+            builder.queryParam(param, cursor);
+        }
+        return builder.queryParam("size", size).build().toUriString();
+    }
+
+    // Solo un cursor inválido (o, en /fecha, una fecha mal formada) es un 400; los errores de la base de datos
+    // no se capturan y siguen como 5xx
+    private ResponseEntity<CollectionModel<EntityModel<ServicioReparacionResponse>>> cursorError() {
+        CollectionModel<EntityModel<ServicioReparacionResponse>> errorModel = 
+            CollectionModel.<EntityModel<ServicioReparacionResponse>>empty()
+                .add(ENLACE_SERVICIOS.withRel("servicios"));
+        return ResponseEntity.badRequest().body(errorModel);
+    }
+}
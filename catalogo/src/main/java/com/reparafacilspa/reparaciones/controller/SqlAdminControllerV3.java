@@ -0,0 +1,73 @@
+package com.reparafacilspa.reparaciones.controller;
+
+import com.reparafacilspa.reparaciones.assemblers.PlantillaEnlace;
+import com.reparafacilspa.reparaciones.service.ConsultasLentas;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@CrossOrigin(origins = "*", allowedHeaders = "*")
+@RequestMapping("/api/v3/admin/sql")
+@Tag(name = "Administración de SQL V3", description = "Sentencias SQL más costosas agrupadas por huella")
+public class SqlAdminControllerV3 {
+
+    // Enlaces HATEOAS precompilados (ver PlantillaEnlace); GET y DELETE comparten la ruta
+    private static final PlantillaEnlace ENLACE_SQL = PlantillaEnlace.de(SqlAdminControllerV3.class, "reiniciarEstadisticasSql");
+    private static final PlantillaEnlace ENLACE_HIBERNATE = PlantillaEnlace.de(CacheAdminControllerV3.class, "getEstadisticasHibernate");
+
+    private static final int MAX_TOP = 100;
+
+    @Autowired
+    private ConsultasLentas consultasLentas;
+
+    @Operation(
+        summary = "Sentencias SQL más costosas",
+        description = "Las top huellas (SQL sin literales ni parámetros) con cantidad de ejecuciones, cuántas superaron " +
+                      "reparafacil.sql.lento-ms y latencia total, promedio y máxima desde el inicio o el último reinicio. " +
+                      "orden: total, maximo, cantidad o promedio"
+    )
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getEstadisticasSql(
+            @Parameter(description = "Cantidad de huellas (máximo 100)", example = "20") @RequestParam(defaultValue = "20") int top,
+            @Parameter(description = "Criterio de orden", example = "total") @RequestParam(defaultValue = "total") String orden) {
+        if (!ConsultasLentas.ORDENES.contains(orden)) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "success", false,
+                "message", "Orden inválido: " + orden + " (use " + String.join(", ", ConsultasLentas.ORDENES) + ")",
+                "_links", links()
+            ));
+        }
+        Map<String, Object> stats = consultasLentas.getEstadisticas(Math.min(Math.max(top, 1), MAX_TOP), orden);
+        stats.put("_links", links());
+        return ResponseEntity.ok(stats);
+    }
+
+    @Operation(
+        summary = "Reiniciar estadísticas de SQL",
+        description = "Olvida las huellas y sus contadores, p. ej. después de agregar un índice para medir de nuevo"
+    )
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> reiniciarEstadisticasSql() {
+        consultasLentas.reiniciar();
+        return ResponseEntity.ok(Map.of(
+            "success", true,
+            "message", "Estadísticas de SQL reiniciadas",
+            "_links", links()
+        ));
+    }
+
+    private Map<String, Object> links() {
+        return Map.of(
+            "sql", ENLACE_SQL.withRel("sql").getHref(),
+            "hibernate", ENLACE_HIBERNATE.withRel("hibernate").getHref()
+        );
+    }
+}
@@ -1,5 +1,6 @@
 package com.reparafacilspa.reparaciones.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -57,6 +58,11 @@ public class AuthResponse {
         
         @Schema(description = "Estado activo del usuario", example = "true")
         private Boolean activo;
+        
+        // Solo para el ETag (cabecera), no forma parte del cuerpo JSON
+        @JsonIgnore
+        @Schema(hidden = true)
+        private Long version;
     }
 
     // Métodos estáticos para crear respuestas
@@ -0,0 +1,33 @@
+package com.reparafacilspa.reparaciones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Resultado de un elemento dentro de una creación por lote")
+public class BulkItemResult {
+
+    @Schema(description = "Posición del elemento en la lista enviada (desde 0)", example = "0")
+    private int indice;
+
+    @Schema(description = "Indica si el elemento se creó", example = "true")
+    private boolean success;
+
+    @Schema(description = "Detalle del resultado o de los errores de validación", example = "Servicio creado")
+    private String message;
+
+    @Schema(description = "Servicio creado (null si el elemento falló)")
+    private ServicioReparacionResponse servicio;
+
+    public static BulkItemResult creado(int indice, ServicioReparacionResponse servicio) {
+        return new BulkItemResult(indice, true, "Servicio creado", servicio);
+    }
+
+    public static BulkItemResult error(int indice, String message) {
+        return new BulkItemResult(indice, false, message, null);
+    }
+}
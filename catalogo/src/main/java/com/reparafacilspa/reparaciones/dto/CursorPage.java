@@ -0,0 +1,35 @@
+package com.reparafacilspa.reparaciones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Página de resultados paginada por cursor (keyset)")
+public class CursorPage<T> {
+
+    @Schema(description = "Elementos de la página actual")
+    private List<T> content;
+
+    @Schema(description = "Cursor para obtener la página siguiente (null si no hay más)", example = "MTIz")
+    private String nextCursor;
+
+    @Schema(description = "Cursor para obtener la página anterior (null si es la primera)", example = "MTAx")
+    private String prevCursor;
+
+    @Schema(description = "Tamaño de página solicitado", example = "20")
+    private int size;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrev() {
+        return prevCursor != null;
+    }
+}
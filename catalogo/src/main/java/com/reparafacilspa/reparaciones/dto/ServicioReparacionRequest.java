@@ -9,7 +9,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
-import java.util.Date;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -58,5 +58,5 @@ public class ServicioReparacionRequest {
     @NotNull(message = "La fecha agendada es obligatoria")
     @Schema(description = "Fecha y hora preferida para la revisión", 
             example = "2024-01-20T10:00:00", required = true)
-    private Date fechaAgendada;
+    private LocalDateTime fechaAgendada;
 }
\ No newline at end of file
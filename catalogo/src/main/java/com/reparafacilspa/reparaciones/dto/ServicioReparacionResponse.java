@@ -4,10 +4,11 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import io.swagger.v3.oas.annotations.media.Schema;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.reparafacilspa.reparaciones.model.ServicioReparacion;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -40,10 +41,10 @@ public class ServicioReparacionResponse {
     private String descripcionProblema;
     
     @Schema(description = "Fecha y hora agendada para la revisión", example = "2024-01-20T10:00:00")
-    private Date fechaAgendada;
+    private LocalDateTime fechaAgendada;
     
     @Schema(description = "Fecha y hora de creación del servicio", example = "2024-01-15T10:30:00")
-    private Date fechaCreacion;
+    private LocalDateTime fechaCreacion;
     
     @Schema(description = "Estado actual del servicio", example = "AGENDADO", 
             allowableValues = {"AGENDADO", "EN_REVISION", "EN_REPARACION", "ESPERANDO_REPUESTOS", 
@@ -66,10 +67,10 @@ public class ServicioReparacionResponse {
     private String observaciones;
     
     @Schema(description = "Fecha y hora de inicio de la reparación", example = "2024-01-20T11:00:00")
-    private Date fechaInicioReparacion;
+    private LocalDateTime fechaInicioReparacion;
     
     @Schema(description = "Fecha y hora de finalización de la reparación", example = "2024-01-22T15:30:00")
-    private Date fechaFinReparacion;
+    private LocalDateTime fechaFinReparacion;
     
     @Schema(description = "Prioridad del servicio", example = "NORMAL", 
             allowableValues = {"BAJA", "NORMAL", "ALTA", "URGENTE"})
@@ -84,6 +85,45 @@ public class ServicioReparacionResponse {
     @Schema(description = "Días transcurridos desde la creación", example = "5")
     private Long diasTranscurridos;
 
+    // Solo para el ETag (cabecera), no forma parte del cuerpo JSON
+    @JsonIgnore
+    @Schema(hidden = true)
+    private Long version;
+
+    // Usado por las consultas de proyección del repositorio (SELECT new ...): arma la respuesta
+    // directamente desde las columnas, sin instanciar ni administrar la entidad
+    public ServicioReparacionResponse(Long id, String nombreCliente, String telefono, String email,
+                                      String tipoDispositivo, String marca, String modelo, String descripcionProblema,
+                                      LocalDateTime fechaAgendada, LocalDateTime fechaCreacion, ServicioReparacion.EstadoReparacion estado,
+                                      String tecnicoAsignado, BigDecimal costoEstimado, BigDecimal costoFinal,
+                                      String observaciones, LocalDateTime fechaInicioReparacion, LocalDateTime fechaFinReparacion,
+                                      ServicioReparacion.PrioridadReparacion prioridad, Integer garantiaDias, Boolean activo,
+                                      Long version) {
+        this.id = id;
+        this.nombreCliente = nombreCliente;
+        this.telefono = telefono;
+        this.email = email;
+        this.tipoDispositivo = tipoDispositivo;
+        this.marca = marca;
+        this.modelo = modelo;
+        this.descripcionProblema = descripcionProblema;
+        this.fechaAgendada = fechaAgendada;
+        this.fechaCreacion = fechaCreacion;
+        this.estado = estado.name();
+        this.estadoDescripcion = ServicioReparacion.descripcionEstado(estado);
+        this.tecnicoAsignado = tecnicoAsignado;
+        this.costoEstimado = costoEstimado;
+        this.costoFinal = costoFinal;
+        this.observaciones = observaciones;
+        this.fechaInicioReparacion = fechaInicioReparacion;
+        this.fechaFinReparacion = fechaFinReparacion;
+        this.prioridad = prioridad.name();
+        this.garantiaDias = garantiaDias;
+        this.activo = activo;
+        this.diasTranscurridos = ServicioReparacion.diasDesde(fechaCreacion);
+        this.version = version;
+    }
+
     public ServicioReparacionResponse(ServicioReparacion servicio) {
         this.id = servicio.getId();
         this.nombreCliente = servicio.getNombreCliente();
@@ -107,5 +147,6 @@ public class ServicioReparacionResponse {
         this.garantiaDias = servicio.getGarantiaDias();
         this.activo = servicio.getActivo();
         this.diasTranscurridos = servicio.getDiasTranscurridos();
+        this.version = servicio.getVersion();
     }
 }
\ No newline at end of file
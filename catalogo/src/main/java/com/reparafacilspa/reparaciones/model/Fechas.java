@@ -0,0 +1,65 @@
+package com.reparafacilspa.reparaciones.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+
+// Convención de fechas del dominio: las columnas TIMESTAMP guardan la hora local de la zona configurada en
+// spring.jackson.time-zone (LocalDateTime en zona()) y un día es el rango semiabierto [día 00:00, día siguiente
+// 00:00). FechasConfig fija la misma zona para la JVM y el driver JDBC; las filas escritas antes con otra zona
+// por defecto se convierten con src/database/convert_fechas_to_local_time.sql.
+// Filtrar por rango en vez de DATE(columna) deja que Oracle recorra idx_servicios_fecha_id por rango.
+// DateTimeFormatter es inmutable y seguro entre hilos: no hace falta un SimpleDateFormat por llamada.
+public final class Fechas {
+
+    // FechasConfig la reemplaza al arrancar; las entidades (@PrePersist) no reciben inyección
+    private static volatile ZoneId zona = ZoneId.of("America/Santiago");
+
+    // Formato de las fechas en JSON y CSV (el de spring.jackson.date-format)
+    public static final DateTimeFormatter FORMATO = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // En los JSON de entrada se acepta además ISO (yyyy-MM-ddTHH:mm[:ss], el valor de un input datetime-local)
+    public static final DateTimeFormatter FORMATO_ENTRADA = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE)
+            .optionalStart().appendLiteral(' ').optionalEnd()
+            .optionalStart().appendLiteral('T').optionalEnd()
+            .append(DateTimeFormatter.ISO_LOCAL_TIME)
+            .toFormatter();
+
+    private Fechas() {
+    }
+
+    public static ZoneId zona() {
+        return zona;
+    }
+
+    public static void configurarZona(ZoneId nueva) {
+        zona = nueva;
+    }
+
+    public static LocalDateTime ahora() {
+        return LocalDateTime.now(zona);
+    }
+
+    // Días en formato yyyy-MM-dd (ISO)
+    public static LocalDate parseDia(String texto) {
+        try {
+            return LocalDate.parse(texto == null ? "" : texto.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Formato de fecha inválido. Use yyyy-MM-dd");
+        }
+    }
+
+    // Inicio del día, incluido en el rango
+    public static LocalDateTime inicio(LocalDate dia) {
+        return dia.atStartOfDay();
+    }
+
+    // Inicio del día siguiente, excluido del rango
+    public static LocalDateTime finExclusivo(LocalDate dia) {
+        return dia.plusDays(1).atStartOfDay();
+    }
+}
@@ -6,20 +6,41 @@ import lombok.NoArgsConstructor;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 @Entity
-@Table(name = "SERVICIOS_REPARACION")
+@Table(name = "SERVICIOS_REPARACION", indexes = {
+    // Índices compuestos (filtro, ACTIVO, ID) para la paginación keyset de la API V3
+    @Index(name = "idx_servicios_activo_id", columnList = "ACTIVO, ID"),
+    @Index(name = "idx_servicios_estado_act_id", columnList = "ESTADO, ACTIVO, ID"),
+    @Index(name = "idx_servicios_tipo_act_id", columnList = "TIPO_DISPOSITIVO, ACTIVO, ID"),
+    @Index(name = "idx_servicios_tecnico_act_id", columnList = "TECNICO_ASIGNADO, ACTIVO, ID"),
+    @Index(name = "idx_servicios_email_act_id", columnList = "EMAIL, ACTIVO, ID"),
+    @Index(name = "idx_servicios_fecha_id", columnList = "FECHA_AGENDADA, ID"),
+    // Orden por fechaCreacion de la búsqueda avanzada paginada (SORTABLE_PROPERTIES en ServicioReparacionServiceV3)
+    @Index(name = "idx_servicios_fecha_creacion_id", columnList = "FECHA_CREACION, ID")
+})
+// Caché de segundo nivel por ID (región servicios-reparacion, ver application.conf)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "servicios-reparacion")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Entidad que representa un servicio de reparación de dispositivos")
 public class ServicioReparacion {
 
+    // Secuencia con bloques de 50 (optimizador pooled-lo) para que Hibernate pueda agrupar los INSERT en lotes JDBC;
+    // con IDENTITY cada INSERT debe ejecutarse por separado para conocer el ID generado
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "servicios_reparacion_seq")
+    @SequenceGenerator(name = "servicios_reparacion_seq", sequenceName = "SEQ_SERVICIOS_REPARACION", allocationSize = 50)
     @Column(name = "ID")
     @Schema(description = "Identificador único del servicio", example = "1")
     private Long id;
@@ -54,14 +75,12 @@ public class ServicioReparacion {
     private String descripcionProblema;
 
     @Column(name = "FECHA_AGENDADA", nullable = false)
-    @Temporal(TemporalType.TIMESTAMP)
     @Schema(description = "Fecha y hora agendada para la revisión", example = "2024-01-20T10:00:00", required = true)
-    private Date fechaAgendada;
+    private LocalDateTime fechaAgendada;
 
     @Column(name = "FECHA_CREACION")
-    @Temporal(TemporalType.TIMESTAMP)
     @Schema(description = "Fecha y hora de creación del servicio", example = "2024-01-15T10:30:00")
-    private Date fechaCreacion;
+    private LocalDateTime fechaCreacion;
 
     @Column(name = "ESTADO", nullable = false, length = 30)
     @Enumerated(EnumType.STRING)
@@ -86,14 +105,12 @@ public class ServicioReparacion {
     private String observaciones;
 
     @Column(name = "FECHA_INICIO_REPARACION")
-    @Temporal(TemporalType.TIMESTAMP)
     @Schema(description = "Fecha y hora de inicio de la reparación", example = "2024-01-20T11:00:00")
-    private Date fechaInicioReparacion;
+    private LocalDateTime fechaInicioReparacion;
 
     @Column(name = "FECHA_FIN_REPARACION")
-    @Temporal(TemporalType.TIMESTAMP)
     @Schema(description = "Fecha y hora de finalización de la reparación", example = "2024-01-22T15:30:00")
-    private Date fechaFinReparacion;
+    private LocalDateTime fechaFinReparacion;
 
     @Column(name = "PRIORIDAD", length = 20)
     @Enumerated(EnumType.STRING)
@@ -108,6 +125,13 @@ public class ServicioReparacion {
     @Schema(description = "Indica si el servicio está activo", example = "true")
     private Boolean activo = true;
 
+    // Bloqueo optimista; también es la base del ETag de /api/v3/reparaciones/{id}
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "VERSION", nullable = false)
+    @Schema(description = "Versión del registro, se incrementa en cada actualización", example = "3")
+    private Long version;
+
     @Schema(description = "Estados posibles para un servicio de reparación")
     public enum EstadoReparacion {
         @Schema(description = "Servicio agendado, esperando revisión")
@@ -143,12 +167,22 @@ public class ServicioReparacion {
     @PrePersist
     public void prePersist() {
         if (fechaCreacion == null) {
-            fechaCreacion = new Date();
+            fechaCreacion = Fechas.ahora();
         }
     }
 
     @Schema(description = "Descripción legible del estado actual", example = "Agendado - Esperando revisión")
     public String getEstadoDescripcion() {
+        return descripcionEstado(estado);
+    }
+
+    @Schema(description = "Número de días transcurridos desde la creación", example = "5")
+    public long getDiasTranscurridos() {
+        return diasDesde(fechaCreacion);
+    }
+
+    // Compartidos con las proyecciones de solo lectura (ServicioReparacionResponse) que no cargan la entidad
+    public static String descripcionEstado(EstadoReparacion estado) {
         switch (estado) {
             case AGENDADO: return "Agendado - Esperando revisión";
             case EN_REVISION: return "En revisión técnica";
@@ -162,10 +196,8 @@ public class ServicioReparacion {
         }
     }
 
-    @Schema(description = "Número de días transcurridos desde la creación", example = "5")
-    public long getDiasTranscurridos() {
+    public static long diasDesde(LocalDateTime fechaCreacion) {
         if (fechaCreacion == null) return 0;
-        long diff = new Date().getTime() - fechaCreacion.getTime();
-        return diff / (24 * 60 * 60 * 1000);
+        return ChronoUnit.DAYS.between(fechaCreacion, Fechas.ahora());
     }
 }
\ No newline at end of file
@@ -5,12 +5,28 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import io.swagger.v3.oas.annotations.media.Schema;
 
-import java.util.Date;
+import java.time.LocalDateTime;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 @Entity
-@Table(name = "USUARIOS")
+@Table(name = "USUARIOS", indexes = {
+    // Índices compuestos (filtro, ACTIVO, ID) para los listados paginados y los conteos por rol de la API V3
+    @Index(name = "idx_usuarios_activo_id", columnList = "ACTIVO, ID"),
+    @Index(name = "idx_usuarios_rol_act_id", columnList = "ROL, ACTIVO, ID"),
+    // Cortes de sesión recientes que RevocacionSesiones vuelve a leer en cada sincronización
+    @Index(name = "idx_usuarios_tokens_desde", columnList = "TOKENS_DESDE")
+})
+// Caché de segundo nivel por ID y por username (región usuarios-username, ver application.conf)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "usuarios")
+@NaturalIdCache(region = "usuarios-username")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,6 +39,8 @@ public class User {
     @Schema(description = "Identificador único del usuario", example = "1")
     private Long id;
 
+    // Mutable porque updateUser permite cambiarlo; Hibernate actualiza la resolución cacheada al hacer flush
+    @NaturalId(mutable = true)
     @Column(name = "USERNAME", nullable = false, unique = true, length = 50)
     @Schema(description = "Nombre de usuario único en el sistema", example = "admin", required = true)
     private String username;
@@ -57,14 +75,12 @@ public class User {
     private Boolean activo = true;
 
     @Column(name = "FECHA_CREACION")
-    @Temporal(TemporalType.TIMESTAMP)
     @Schema(description = "Fecha y hora de creación del usuario", example = "2024-01-15T10:30:00")
-    private Date fechaCreacion;
+    private LocalDateTime fechaCreacion;
 
     @Column(name = "ULTIMO_LOGIN")
-    @Temporal(TemporalType.TIMESTAMP)
     @Schema(description = "Fecha y hora del último inicio de sesión", example = "2024-01-15T10:30:00")
-    private Date ultimoLogin;
+    private LocalDateTime ultimoLogin;
 
     @Column(name = "INTENTOS_LOGIN")
     @Schema(description = "Número de intentos de login fallidos", example = "0")
@@ -74,10 +90,23 @@ public class User {
     @Schema(description = "Indica si la cuenta está bloqueada por múltiples intentos fallidos", example = "false")
     private Boolean cuentaBloqueada = false;
 
+    // Milisegundos epoch antes de los cuales los tokens de sesión del usuario dejan de valer (cambio de rol,
+    // de contraseña o reactivación); en la base de datos para que lo apliquen todos los nodos
+    @Column(name = "TOKENS_DESDE")
+    @Schema(description = "Instante desde el cual valen los tokens de sesión del usuario", hidden = true)
+    private Long tokensDesde;
+
+    // Bloqueo optimista; también es la base del ETag de /api/v3/auth/users/{id}
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "VERSION", nullable = false)
+    @Schema(description = "Versión del registro, se incrementa en cada actualización", example = "3")
+    private Long version;
+
     @PrePersist
     public void prePersist() {
         if (fechaCreacion == null) {
-            fechaCreacion = new Date();
+            fechaCreacion = Fechas.ahora();
         }
     }
 
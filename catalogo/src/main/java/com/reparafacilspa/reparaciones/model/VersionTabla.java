@@ -0,0 +1,24 @@
+package com.reparafacilspa.reparaciones.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+// Versión de una tabla para los ETag débiles de los listados V3: una fila por tabla, compartida por todos
+// los nodos (ver VersionesColeccion)
+@Entity
+@Table(name = "VERSIONES_COLECCION")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VersionTabla {
+
+    @Id
+    @Column(name = "TABLA", length = 50)
+    private String tabla;
+
+    @Column(name = "VERSION", nullable = false)
+    private Long version;
+}
@@ -1,16 +1,26 @@
 package com.reparafacilspa.reparaciones.repository;
 
+import com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse;
 import com.reparafacilspa.reparaciones.model.ServicioReparacion;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Date;
+import java.util.stream.Stream;
 
 @Repository
-public interface ServicioReparacionRepository extends JpaRepository<ServicioReparacion, Long> {
+public interface ServicioReparacionRepository extends JpaRepository<ServicioReparacion, Long>,
+        JpaSpecificationExecutor<ServicioReparacion> {
     
     // Métodos existentes
     List<ServicioReparacion> findByActivoTrue();
@@ -19,16 +29,18 @@ public interface ServicioReparacionRepository extends JpaRepository<ServicioRepa
     List<ServicioReparacion> findByTipoDispositivoAndActivoTrue(String tipoDispositivo);
     List<ServicioReparacion> findByTecnicoAsignadoAndActivoTrue(String tecnicoAsignado);
     List<ServicioReparacion> findByPrioridadAndActivoTrue(ServicioReparacion.PrioridadReparacion prioridad);
-    List<ServicioReparacion> findByFechaAgendadaBetweenAndActivoTrue(Date fechaInicio, Date fechaFin);
+    List<ServicioReparacion> findByFechaAgendadaBetweenAndActivoTrue(LocalDateTime fechaInicio, LocalDateTime fechaFin);
     List<ServicioReparacion> findByTelefonoOrEmailAndActivoTrue(String telefono, String email);
     long countByEstadoAndActivoTrue(ServicioReparacion.EstadoReparacion estado);
     long countByTipoDispositivoAndActivoTrue(String tipoDispositivo);
     
     // NUEVOS MÉTODOS PARA HATEOAS - Métodos personalizados basados en la guía
+    // Los filtros por fecha reciben el rango semiabierto [inicio, fin) de uno o más días (ver Fechas): sin
+    // DATE(s.fechaAgendada), que obligaba a evaluar la función en cada fila en vez de usar el índice por rango
     
     // 1. Obtener todas las reservas en una fecha específica (por fecha agendada)
-    @Query("SELECT s FROM ServicioReparacion s WHERE DATE(s.fechaAgendada) = DATE(:fecha) AND s.activo = true")
-    List<ServicioReparacion> findByFechaAgendadaAndActivoTrue(@Param("fecha") Date fecha);
+    @Query("SELECT s FROM ServicioReparacion s WHERE s.fechaAgendada >= :inicio AND s.fechaAgendada < :fin AND s.activo = true")
+    List<ServicioReparacion> findByFechaAgendadaRangeAndActivoTrue(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
     
     // 2. Obtener el total de reservas realizadas por un estudiante (adaptado a cliente por email)
     long countByEmailAndActivoTrue(String email);
@@ -36,20 +48,159 @@ public interface ServicioReparacionRepository extends JpaRepository<ServicioRepa
     // NUEVOS MÉTODOS PERSONALIZADOS ADICIONALES (los 5 faltantes de la guía)
     
     // 1. Obtener todas las reservas de un estudiante en una fecha específica (cliente por email en fecha específica)
-    @Query("SELECT s FROM ServicioReparacion s WHERE s.email = :email AND DATE(s.fechaAgendada) = DATE(:fecha) AND s.activo = true")
-    List<ServicioReparacion> findByEmailAndFechaAgendadaAndActivoTrue(@Param("email") String email, @Param("fecha") Date fecha);
+    @Query("SELECT s FROM ServicioReparacion s WHERE s.email = :email AND s.fechaAgendada >= :inicio AND s.fechaAgendada < :fin AND s.activo = true")
+    List<ServicioReparacion> findByEmailAndFechaAgendadaRangeAndActivoTrue(@Param("email") String email, @Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
     
     // 2. Obtener todas las reservas de una sala en un estado específico (técnico asignado en estado específico)
     List<ServicioReparacion> findByTecnicoAsignadoAndEstadoAndActivoTrue(String tecnicoAsignado, ServicioReparacion.EstadoReparacion estado);
     
-    // 3. Obtener todas las reservas de un estudiante entre dos fechas (cliente por email entre fechas)
-    @Query("SELECT s FROM ServicioReparacion s WHERE s.email = :email AND s.fechaAgendada BETWEEN :fechaInicio AND :fechaFin AND s.activo = true")
-    List<ServicioReparacion> findByEmailAndFechaAgendadaBetweenAndActivoTrue(@Param("email") String email, @Param("fechaInicio") Date fechaInicio, @Param("fechaFin") Date fechaFin);
+    // 3. Obtener todas las reservas de un estudiante entre dos fechas (cliente por email entre fechas): método 1 de esta lista con el rango de varios días
     
     // 4. Obtener todas las reservas de una sala entre dos fechas (técnico asignado entre fechas)
-    @Query("SELECT s FROM ServicioReparacion s WHERE s.tecnicoAsignado = :tecnicoAsignado AND s.fechaAgendada BETWEEN :fechaInicio AND :fechaFin AND s.activo = true")
-    List<ServicioReparacion> findByTecnicoAsignadoAndFechaAgendadaBetweenAndActivoTrue(@Param("tecnicoAsignado") String tecnicoAsignado, @Param("fechaInicio") Date fechaInicio, @Param("fechaFin") Date fechaFin);
+    @Query("SELECT s FROM ServicioReparacion s WHERE s.tecnicoAsignado = :tecnicoAsignado AND s.fechaAgendada >= :inicio AND s.fechaAgendada < :fin AND s.activo = true")
+    List<ServicioReparacion> findByTecnicoAsignadoAndFechaAgendadaRangeAndActivoTrue(@Param("tecnicoAsignado") String tecnicoAsignado, @Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin);
     
     // 5. Obtener el total de reservas realizadas en una sala específica (total por técnico asignado)
     long countByTecnicoAsignadoAndActivoTrue(String tecnicoAsignado);
-}
\ No newline at end of file
+    
+    // PROYECCIONES DE SOLO LECTURA - Construyen ServicioReparacionResponse directamente desde las columnas,
+    // sin entidades administradas (sin snapshot ni dirty-checking). Usadas por los endpoints de listado.
+    
+    String SELECT_RESPONSE = "SELECT new com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse(" +
+           "s.id, s.nombreCliente, s.telefono, s.email, s.tipoDispositivo, s.marca, s.modelo, s.descripcionProblema, " +
+           "s.fechaAgendada, s.fechaCreacion, s.estado, s.tecnicoAsignado, s.costoEstimado, s.costoFinal, " +
+           "s.observaciones, s.fechaInicioReparacion, s.fechaFinReparacion, s.prioridad, s.garantiaDias, s.activo, s.version) " +
+           "FROM ServicioReparacion s ";
+    
+    @Query(SELECT_RESPONSE + "WHERE s.activo = true ORDER BY s.id")
+    List<ServicioReparacionResponse> findResponsesByActivoTrue();
+    
+    @Query(SELECT_RESPONSE + "WHERE s.activo = false ORDER BY s.id")
+    List<ServicioReparacionResponse> findResponsesByActivoFalse();
+    
+    @Query(SELECT_RESPONSE + "WHERE s.id IN :ids")
+    List<ServicioReparacionResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.email = :email AND s.activo = true ORDER BY s.id")
+    List<ServicioReparacionResponse> findResponsesByEmailAndActivoTrue(@Param("email") String email);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.estado = :estado AND s.activo = true ORDER BY s.id")
+    List<ServicioReparacionResponse> findResponsesByEstadoAndActivoTrue(@Param("estado") ServicioReparacion.EstadoReparacion estado);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.tipoDispositivo = :tipoDispositivo AND s.activo = true ORDER BY s.id")
+    List<ServicioReparacionResponse> findResponsesByTipoDispositivoAndActivoTrue(@Param("tipoDispositivo") String tipoDispositivo);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.tecnicoAsignado = :tecnicoAsignado AND s.activo = true ORDER BY s.id")
+    List<ServicioReparacionResponse> findResponsesByTecnicoAsignadoAndActivoTrue(@Param("tecnicoAsignado") String tecnicoAsignado);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.fechaAgendada >= :inicio AND s.fechaAgendada < :fin AND s.activo = true ORDER BY s.id")
+    List<ServicioReparacionResponse> findResponsesByFechaAgendadaRangeAndActivoTrue(@Param("inicio") LocalDateTime inicio,
+                                                                                    @Param("fin") LocalDateTime fin);
+    
+    // Un día o un rango de días del cliente
+    @Query(SELECT_RESPONSE + "WHERE s.email = :email AND s.fechaAgendada >= :inicio AND s.fechaAgendada < :fin AND s.activo = true ORDER BY s.id")
+    List<ServicioReparacionResponse> findResponsesByEmailAndFechaAgendadaRangeAndActivoTrue(@Param("email") String email,
+                                                                                           @Param("inicio") LocalDateTime inicio,
+                                                                                           @Param("fin") LocalDateTime fin);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.tecnicoAsignado = :tecnicoAsignado AND s.estado = :estado AND s.activo = true ORDER BY s.id")
+    List<ServicioReparacionResponse> findResponsesByTecnicoAsignadoAndEstadoAndActivoTrue(@Param("tecnicoAsignado") String tecnicoAsignado,
+                                                                                         @Param("estado") ServicioReparacion.EstadoReparacion estado);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.tecnicoAsignado = :tecnicoAsignado AND s.fechaAgendada >= :inicio AND s.fechaAgendada < :fin AND s.activo = true ORDER BY s.id")
+    List<ServicioReparacionResponse> findResponsesByTecnicoAsignadoAndFechaAgendadaRangeAndActivoTrue(@Param("tecnicoAsignado") String tecnicoAsignado,
+                                                                                                     @Param("inicio") LocalDateTime inicio,
+                                                                                                     @Param("fin") LocalDateTime fin);
+    
+    // Huella de la tabla; la recorre completa, por eso solo la usa la reconciliación (ver VersionesColeccion)
+    @Query("SELECT COUNT(s) AS total, COALESCE(SUM(s.version), 0) AS sumaVersiones, COALESCE(MAX(s.id), 0) AS maxId " +
+           "FROM ServicioReparacion s")
+    VersionColeccion findVersionColeccion();
+    
+    // AGREGADOS PARA ESTADÍSTICAS - Proyecciones de conteo sin hidratar entidades
+    // El número de filas devueltas depende de la cantidad de grupos, no de la cantidad de servicios
+    
+    interface ConteoPorEstado {
+        Boolean getActivo();
+        ServicioReparacion.EstadoReparacion getEstado();
+        ServicioReparacion.PrioridadReparacion getPrioridad();
+        long getTotal();
+    }
+    
+    interface ConteoPorTipoYTecnico {
+        String getTipoDispositivo();
+        String getTecnicoAsignado();
+        long getTotal();
+    }
+    
+    // Activos y eliminados por estado y prioridad (a lo sumo 2 x estados x prioridades filas)
+    @Query("SELECT s.activo AS activo, s.estado AS estado, s.prioridad AS prioridad, COUNT(s) AS total " +
+           "FROM ServicioReparacion s GROUP BY s.activo, s.estado, s.prioridad")
+    List<ConteoPorEstado> countGroupByActivoEstadoPrioridad();
+    
+    // Servicios activos por tipo de dispositivo y técnico asignado
+    @Query("SELECT s.tipoDispositivo AS tipoDispositivo, s.tecnicoAsignado AS tecnicoAsignado, COUNT(s) AS total " +
+           "FROM ServicioReparacion s WHERE s.activo = true GROUP BY s.tipoDispositivo, s.tecnicoAsignado")
+    List<ConteoPorTipoYTecnico> countActivosGroupByTipoDispositivoTecnico();
+    
+    // PAGINACIÓN KEYSET (CURSOR) - Usan el índice (filtro, ACTIVO, ID) y nunca hacen OFFSET
+    // "After" avanza con id > cursor en orden ascendente; "Before" retrocede con id < cursor en orden descendente
+    
+    @Query(SELECT_RESPONSE + "WHERE s.activo = true AND s.id > :id ORDER BY s.id ASC")
+    List<ServicioReparacionResponse> findResponsesByActivoTrueAndIdAfter(@Param("id") Long id, Limit limit);
+    @Query(SELECT_RESPONSE + "WHERE s.activo = true AND s.id < :id ORDER BY s.id DESC")
+    List<ServicioReparacionResponse> findResponsesByActivoTrueAndIdBefore(@Param("id") Long id, Limit limit);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.estado = :estado AND s.activo = true AND s.id > :id ORDER BY s.id ASC")
+    List<ServicioReparacionResponse> findResponsesByEstadoAndActivoTrueAndIdAfter(@Param("estado") ServicioReparacion.EstadoReparacion estado, @Param("id") Long id, Limit limit);
+    @Query(SELECT_RESPONSE + "WHERE s.estado = :estado AND s.activo = true AND s.id < :id ORDER BY s.id DESC")
+    List<ServicioReparacionResponse> findResponsesByEstadoAndActivoTrueAndIdBefore(@Param("estado") ServicioReparacion.EstadoReparacion estado, @Param("id") Long id, Limit limit);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.tipoDispositivo = :tipoDispositivo AND s.activo = true AND s.id > :id ORDER BY s.id ASC")
+    List<ServicioReparacionResponse> findResponsesByTipoDispositivoAndActivoTrueAndIdAfter(@Param("tipoDispositivo") String tipoDispositivo, @Param("id") Long id, Limit limit);
+    @Query(SELECT_RESPONSE + "WHERE s.tipoDispositivo = :tipoDispositivo AND s.activo = true AND s.id < :id ORDER BY s.id DESC")
+    List<ServicioReparacionResponse> findResponsesByTipoDispositivoAndActivoTrueAndIdBefore(@Param("tipoDispositivo") String tipoDispositivo, @Param("id") Long id, Limit limit);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.tecnicoAsignado = :tecnicoAsignado AND s.activo = true AND s.id > :id ORDER BY s.id ASC")
+    List<ServicioReparacionResponse> findResponsesByTecnicoAsignadoAndActivoTrueAndIdAfter(@Param("tecnicoAsignado") String tecnicoAsignado, @Param("id") Long id, Limit limit);
+    @Query(SELECT_RESPONSE + "WHERE s.tecnicoAsignado = :tecnicoAsignado AND s.activo = true AND s.id < :id ORDER BY s.id DESC")
+    List<ServicioReparacionResponse> findResponsesByTecnicoAsignadoAndActivoTrueAndIdBefore(@Param("tecnicoAsignado") String tecnicoAsignado, @Param("id") Long id, Limit limit);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.email = :email AND s.activo = true AND s.id > :id ORDER BY s.id ASC")
+    List<ServicioReparacionResponse> findResponsesByEmailAndActivoTrueAndIdAfter(@Param("email") String email, @Param("id") Long id, Limit limit);
+    @Query(SELECT_RESPONSE + "WHERE s.email = :email AND s.activo = true AND s.id < :id ORDER BY s.id DESC")
+    List<ServicioReparacionResponse> findResponsesByEmailAndActivoTrueAndIdBefore(@Param("email") String email, @Param("id") Long id, Limit limit);
+    
+    // Keyset compuesto (fechaAgendada, id) dentro del rango [inicio, fin) de un día
+    @Query(SELECT_RESPONSE + "WHERE s.activo = true " +
+           "AND s.fechaAgendada >= :inicio AND s.fechaAgendada < :fin " +
+           "AND (s.fechaAgendada > :fechaCursor OR (s.fechaAgendada = :fechaCursor AND s.id > :idCursor)) " +
+           "ORDER BY s.fechaAgendada ASC, s.id ASC")
+    List<ServicioReparacionResponse> findResponsesByFechaAgendadaRangeAfter(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin,
+                                                                            @Param("fechaCursor") LocalDateTime fechaCursor, @Param("idCursor") Long idCursor,
+                                                                            Limit limit);
+    
+    @Query(SELECT_RESPONSE + "WHERE s.activo = true " +
+           "AND s.fechaAgendada >= :inicio AND s.fechaAgendada < :fin " +
+           "AND (s.fechaAgendada < :fechaCursor OR (s.fechaAgendada = :fechaCursor AND s.id < :idCursor)) " +
+           "ORDER BY s.fechaAgendada DESC, s.id DESC")
+    List<ServicioReparacionResponse> findResponsesByFechaAgendadaRangeBefore(@Param("inicio") LocalDateTime inicio, @Param("fin") LocalDateTime fin,
+                                                                             @Param("fechaCursor") LocalDateTime fechaCursor, @Param("idCursor") Long idCursor,
+                                                                             Limit limit);
+    
+    // Exportación: cursor de solo avance en orden de id; los filtros nulos se ignoran y el rango es [desde, hasta).
+    // Las filas son DTOs (no entidades administradas), así que el contexto de persistencia no crece con el volumen.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(SELECT_RESPONSE + "WHERE (:incluirEliminados = true OR s.activo = true) " +
+           "AND (:estado IS NULL OR s.estado = :estado) " +
+           "AND (:desde IS NULL OR s.fechaAgendada >= :desde) " +
+           "AND (:hasta IS NULL OR s.fechaAgendada < :hasta) " +
+           "ORDER BY s.id ASC")
+    Stream<ServicioReparacionResponse> streamResponsesForExport(@Param("estado") ServicioReparacion.EstadoReparacion estado,
+                                                                @Param("desde") LocalDateTime desde, @Param("hasta") LocalDateTime hasta,
+                                                                @Param("incluirEliminados") boolean incluirEliminados);
+}
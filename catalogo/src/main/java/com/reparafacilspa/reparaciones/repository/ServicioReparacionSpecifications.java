@@ -0,0 +1,83 @@
+package com.reparafacilspa.reparaciones.repository;
+
+import com.reparafacilspa.reparaciones.model.ServicioReparacion;
+import org.springframework.data.jpa.domain.Specification;
+
+// Predicados componibles para búsquedas dinámicas sobre SERVICIOS_REPARACION.
+// Cada filtro retorna null cuando no se informa, de modo que Specification.where(...).and(...)
+// lo ignora y solo los filtros presentes llegan al SQL.
+public final class ServicioReparacionSpecifications {
+
+    private ServicioReparacionSpecifications() {
+    }
+
+    public static Specification<ServicioReparacion> activo() {
+        return (root, query, cb) -> cb.isTrue(root.get("activo"));
+    }
+
+    // LOWER(NOMBRE_CLIENTE) LIKE 'valor%' -> usa idx_servicios_lower_nombre
+    public static Specification<ServicioReparacion> nombreClienteStartsWith(String nombreCliente) {
+        return startsWithIgnoreCase("nombreCliente", nombreCliente);
+    }
+
+    // LOWER(EMAIL) LIKE 'valor%' -> usa idx_servicios_lower_email
+    public static Specification<ServicioReparacion> emailStartsWith(String email) {
+        return startsWithIgnoreCase("email", email);
+    }
+
+    // LOWER(TIPO_DISPOSITIVO) = 'valor' -> usa idx_servicios_lower_tipo
+    public static Specification<ServicioReparacion> tipoDispositivoEquals(String tipoDispositivo) {
+        if (isBlank(tipoDispositivo)) {
+            return null;
+        }
+        String valor = tipoDispositivo.trim().toLowerCase();
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("tipoDispositivo")), valor);
+    }
+
+    // ESTADO = 'VALOR' -> usa idx_servicios_estado; un estado desconocido no coincide con ninguna fila
+    public static Specification<ServicioReparacion> estadoEquals(String estado) {
+        if (isBlank(estado)) {
+            return null;
+        }
+        try {
+            ServicioReparacion.EstadoReparacion estadoEnum =
+                ServicioReparacion.EstadoReparacion.valueOf(estado.trim().toUpperCase());
+            return (root, query, cb) -> cb.equal(root.get("estado"), estadoEnum);
+        } catch (IllegalArgumentException e) {
+            return (root, query, cb) -> cb.disjunction();
+        }
+    }
+
+    // LOWER(TECNICO_ASIGNADO) LIKE 'valor%' -> usa idx_servicios_lower_tecnico
+    public static Specification<ServicioReparacion> tecnicoAsignadoStartsWith(String tecnicoAsignado) {
+        return startsWithIgnoreCase("tecnicoAsignado", tecnicoAsignado);
+    }
+
+    // Combina los filtros de la búsqueda avanzada descartando los vacíos
+    public static Specification<ServicioReparacion> busquedaAvanzada(String nombreCliente, String email,
+                                                                    String tipoDispositivo, String estado,
+                                                                    String tecnicoAsignado) {
+        return Specification.where(activo())
+                .and(nombreClienteStartsWith(nombreCliente))
+                .and(emailStartsWith(email))
+                .and(tipoDispositivoEquals(tipoDispositivo))
+                .and(estadoEquals(estado))
+                .and(tecnicoAsignadoStartsWith(tecnicoAsignado));
+    }
+
+    private static Specification<ServicioReparacion> startsWithIgnoreCase(String atributo, String valor) {
+        if (isBlank(valor)) {
+            return null;
+        }
+        String patron = escapeLike(valor.trim().toLowerCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get(atributo)), patron, '\\');
+    }
+
+    private static String escapeLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean isBlank(String valor) {
+        return valor == null || valor.trim().isEmpty();
+    }
+}
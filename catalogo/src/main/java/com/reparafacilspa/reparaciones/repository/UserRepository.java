@@ -1,28 +1,38 @@
 package com.reparafacilspa.reparaciones.repository;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
 import org.springframework.stereotype.Repository;
 
 import com.reparafacilspa.reparaciones.model.User;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>, UserRepositoryCustom {
     
-    // Buscar por username
-    Optional<User> findByUsername(String username);
+    // Buscar por username: ver UserRepositoryCustom (caché de natural-id)
     
-    // Buscar por email
+    // Buscar por email. EMAIL no es natural-id (Hibernate admite uno por entidad), se usa la caché de
+    // consultas; cualquier escritura en USUARIOS invalida estos resultados
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
     
     // Buscar por username o email
     Optional<User> findByUsernameOrEmail(String username, String email);
     
     // Verificar si existe un username
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByUsername(String username);
     
     // Verificar si existe un email
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByEmail(String email);
     
     // Buscar usuarios activos
@@ -30,4 +40,47 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     // Buscar por username y que no esté bloqueado
     Optional<User> findByUsernameAndActivoTrueAndCuentaBloqueadaFalse(String username);
+    
+    // Usuarios activos de un rol, resuelto con COUNT en la base de datos
+    long countByRolAndActivoTrue(User.UserRole rol);
+    
+    // Si queda otro usuario activo con el rol (p. ej. otro administrador), sin contar ni cargar entidades
+    boolean existsByRolAndActivoTrueAndIdNot(User.UserRole rol, Long id);
+    
+    // IDs de usuarios desactivados, para revocar sus tokens de sesión (RevocacionSesiones)
+    @Query("SELECT u.id FROM User u WHERE u.activo = false")
+    List<Long> findIdsByActivoFalse();
+    
+    // Cortes de tokens posteriores a un instante (los anteriores ya no afectan a ningún token vigente)
+    interface TokensDesde {
+        Long getId();
+        Long getTokensDesde();
+    }
+    
+    @Query("SELECT u.id AS id, u.tokensDesde AS tokensDesde FROM User u WHERE u.tokensDesde > :desde")
+    List<TokensDesde> findTokensDesdeAfter(@Param("desde") long desde);
+    
+    // Solo las columnas, para construir los filtros de Bloom de UsuariosRegistradosBloom
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
+    
+    @Query("SELECT u.email FROM User u")
+    List<String> findAllEmails();
+    
+    // Huella de USUARIOS; recorre la tabla, por eso solo la usa la reconciliación (ver VersionesColeccion)
+    @Query("SELECT COUNT(u) AS total, COALESCE(SUM(u.version), 0) AS sumaVersiones, COALESCE(MAX(u.id), 0) AS maxId " +
+           "FROM User u")
+    VersionColeccion findVersionColeccion();
+    
+    // Conteo agregado para estadísticas, sin hidratar entidades
+    interface ConteoUsuarios {
+        Boolean getActivo();
+        Boolean getCuentaBloqueada();
+        User.UserRole getRol();
+        long getTotal();
+    }
+    
+    @Query("SELECT u.activo AS activo, u.cuentaBloqueada AS cuentaBloqueada, u.rol AS rol, COUNT(u) AS total " +
+           "FROM User u GROUP BY u.activo, u.cuentaBloqueada, u.rol")
+    List<ConteoUsuarios> countGroupByActivoCuentaBloqueadaRol();
 }
\ No newline at end of file
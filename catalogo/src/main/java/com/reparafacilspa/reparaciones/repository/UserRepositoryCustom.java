@@ -0,0 +1,12 @@
+package com.reparafacilspa.reparaciones.repository;
+
+import com.reparafacilspa.reparaciones.model.User;
+
+import java.util.Optional;
+
+// Búsquedas de UserRepository implementadas a mano en UserRepositoryCustomImpl
+public interface UserRepositoryCustom {
+
+    // Buscar por username usando la caché de natural-id (username -> ID) y la de entidades
+    Optional<User> findByUsername(String username);
+}
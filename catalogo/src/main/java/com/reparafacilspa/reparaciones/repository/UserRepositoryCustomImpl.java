@@ -0,0 +1,25 @@
+package com.reparafacilspa.reparaciones.repository;
+
+import com.reparafacilspa.reparaciones.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // A diferencia de la consulta derivada, un acierto en caché no ejecuta ningún SELECT.
+    // La transacción es necesaria para que unwrap devuelva la sesión que queda abierta durante la carga.
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(username);
+    }
+}
@@ -0,0 +1,53 @@
+package com.reparafacilspa.reparaciones.repository;
+
+import com.reparafacilspa.reparaciones.model.User;
+import org.springframework.data.jpa.domain.Specification;
+
+// Predicados componibles para los listados paginados de USUARIOS (API V3).
+// Igual que en ServicioReparacionSpecifications, cada filtro retorna null cuando no se informa
+// y solo los filtros presentes llegan al SQL.
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    // ROL = 'VALOR' -> usa idx_usuarios_rol_act_id
+    public static Specification<User> rolEquals(User.UserRole rol) {
+        if (rol == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("rol"), rol);
+    }
+
+    // ACTIVO = true/false -> usa idx_usuarios_activo_id
+    public static Specification<User> activoEquals(Boolean activo) {
+        if (activo == null) {
+            return null;
+        }
+        return (root, query, cb) -> activo ? cb.isTrue(root.get("activo")) : cb.isFalse(root.get("activo"));
+    }
+
+    // Prefijo sin distinguir mayúsculas en username, email, nombre o apellido
+    public static Specification<User> busqueda(String texto) {
+        if (texto == null || texto.trim().isEmpty()) {
+            return null;
+        }
+        String patron = escapeLike(texto.trim().toLowerCase()) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("username")), patron, '\\'),
+                cb.like(cb.lower(root.get("email")), patron, '\\'),
+                cb.like(cb.lower(root.get("nombre")), patron, '\\'),
+                cb.like(cb.lower(root.get("apellido")), patron, '\\'));
+    }
+
+    // Combina los filtros de los listados descartando los vacíos
+    public static Specification<User> listado(User.UserRole rol, Boolean activo, String texto) {
+        return Specification.where(rolEquals(rol))
+                .and(activoEquals(activo))
+                .and(busqueda(texto));
+    }
+
+    private static String escapeLike(String valor) {
+        return valor.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
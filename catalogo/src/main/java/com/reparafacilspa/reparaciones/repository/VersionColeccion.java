@@ -0,0 +1,11 @@
+package com.reparafacilspa.reparaciones.repository;
+
+// Huella de una tabla versionada para los ETag débiles de los listados. Cada UPDATE incrementa la suma de
+// versiones, cada INSERT o DELETE cambia el total y el mayor ID; el máximo de versión por sí solo no
+// detectaría la actualización de una fila con versión menor a la de otra. Los ETag no la consultan en cada
+// pedido: la reconciliación la compara para avanzar la versión de la tabla (ver VersionesColeccion).
+public interface VersionColeccion {
+    long getTotal();
+    long getSumaVersiones();
+    long getMaxId();
+}
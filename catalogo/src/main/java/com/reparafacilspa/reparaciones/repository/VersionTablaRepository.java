@@ -0,0 +1,27 @@
+package com.reparafacilspa.reparaciones.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.reparafacilspa.reparaciones.model.VersionTabla;
+
+import java.util.Optional;
+
+@Repository
+public interface VersionTablaRepository extends JpaRepository<VersionTabla, String> {
+
+    // Lectura por clave en cada listado V3; sin caché de consultas, que es local a cada nodo
+    @Query("SELECT v.version FROM VersionTabla v WHERE v.tabla = :tabla")
+    Optional<Long> findVersion(@Param("tabla") String tabla);
+
+    // Dentro de una transacción la fila queda bloqueada hasta el commit: las escrituras de una misma tabla
+    // se ordenan y ningún listado lee la versión nueva con los datos anteriores
+    @Modifying
+    @Transactional
+    @Query("UPDATE VersionTabla v SET v.version = v.version + 1 WHERE v.tabla = :tabla")
+    int incrementar(@Param("tabla") String tabla);
+}
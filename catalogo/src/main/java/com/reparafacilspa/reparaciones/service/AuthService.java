@@ -1,28 +1,58 @@
 package com.reparafacilspa.reparaciones.service;
 
+import com.reparafacilspa.reparaciones.config.CacheConfig;
 import com.reparafacilspa.reparaciones.dto.AuthResponse;
 import com.reparafacilspa.reparaciones.dto.LoginRequest;
 import com.reparafacilspa.reparaciones.dto.RegisterRequest;
+import com.reparafacilspa.reparaciones.model.Fechas;
 import com.reparafacilspa.reparaciones.model.User;
 import com.reparafacilspa.reparaciones.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
-import java.util.Date;
+import java.time.LocalDateTime;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
+@Timed("reparafacil.servicio")
 public class AuthService {
 
     @Autowired
     private UserRepository userRepository;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private EstadisticasUsuariosContadores estadisticasContadores;
+
+    // BCrypt en su propio pool acotado; con la cola llena lanza SobrecargaException (429)
+    @Autowired
+    private HashContrasenas hashContrasenas;
+
+    // "Seguro libre" de usernames y emails sin consultar la base de datos
+    @Autowired
+    private UsuariosRegistradosBloom usuariosRegistrados;
+
+    @Autowired
+    private IntentosLoginFallidos intentosFallidos;
+
+    @Autowired
+    private UltimoLoginBuffer ultimoLoginBuffer;
+
+    @Autowired
+    private TokenSesion tokenSesion;
+
+    @Autowired
+    private RevocacionSesiones revocacionSesiones;
+
     private static final int MAX_LOGIN_ATTEMPTS = 5;
+    private static final int MAX_REINTENTOS_VERSION = 3;
 
     // Login de usuario
+    // Solo un login fallido puede bloquear la cuenta y cambiar las estadísticas
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_USUARIOS, allEntries = true, condition = "#result != null && !#result.success")
     public AuthResponse login(LoginRequest loginRequest) {
         try {
             // Buscar usuario por username
@@ -45,50 +75,64 @@ public class AuthService {
             }
 
             // Verificar contraseña
-            if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-                // Incrementar intentos de login
-                user.setIntentosLogin(user.getIntentosLogin() + 1);
+            if (!hashContrasenas.matches(loginRequest.getPassword(), user.getPassword())) {
+                // Intentos contados en memoria (IntentosLoginFallidos); solo el bloqueo se escribe en USUARIOS
+                int fallos = intentosFallidos.registrarFallo(user.getUsername(), user.getIntentosLogin());
                 
                 // Bloquear cuenta si supera los intentos máximos
-                if (user.getIntentosLogin() >= MAX_LOGIN_ATTEMPTS) {
-                    user.setCuentaBloqueada(true);
-                    userRepository.save(user);
+                if (fallos >= MAX_LOGIN_ATTEMPTS) {
+                    guardarLogin(user, bloqueado -> {
+                        bloqueado.setIntentosLogin(fallos);
+                        bloqueado.setCuentaBloqueada(true);
+                    });
+                    intentosFallidos.limpiar(user.getUsername());
                     return AuthResponse.error("Cuenta bloqueada por múltiples intentos fallidos");
                 }
                 
-                userRepository.save(user);
                 return AuthResponse.error("Contraseña incorrecta. Intentos restantes: " + 
-                    (MAX_LOGIN_ATTEMPTS - user.getIntentosLogin()));
+                    (MAX_LOGIN_ATTEMPTS - fallos));
             }
 
-            // Login exitoso - resetear intentos y actualizar último login
-            user.setIntentosLogin(0);
-            user.setUltimoLogin(new Date());
-            userRepository.save(user);
+            // Login exitoso - resetear intentos y actualizar último login. Solo resetear intentos persistidos
+            // justifica escribir antes de responder; ultimoLogin se escribe en diferido (UltimoLoginBuffer)
+            LocalDateTime ahora = Fechas.ahora();
+            user.setUltimoLogin(ahora);
+            if (user.getIntentosLogin() != null && user.getIntentosLogin() != 0) {
+                user = guardarLogin(user, actual -> {
+                    actual.setUltimoLogin(ahora);
+                    actual.setIntentosLogin(0);
+                });
+            } else {
+                ultimoLoginBuffer.registrar(user.getId(), ahora);
+            }
+            intentosFallidos.limpiar(user.getUsername());
 
             // Crear UserInfo desde User
             AuthResponse.UserInfo userInfo = convertToUserInfo(user);
 
-            // Generar token de sesión simple
-            String sessionToken = generateSessionToken();
+            // Token firmado con ID, rol y expiración; SesionTokenFilter lo verifica sin consultar USUARIOS
+            String sessionToken = tokenSesion.emitir(user.getId(), user.getRol().name());
 
             return AuthResponse.success("Login exitoso", userInfo, sessionToken);
 
+        } catch (SobrecargaException e) {
+            throw e;
         } catch (Exception e) {
             return AuthResponse.error("Error interno del servidor");
         }
     }
 
     // Registro de usuario
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_USUARIOS, allEntries = true)
     public AuthResponse register(RegisterRequest registerRequest) {
         try {
             // Verificar si el username ya existe
-            if (userRepository.existsByUsername(registerRequest.getUsername())) {
+            if (userExists(registerRequest.getUsername())) {
                 return AuthResponse.error("El username ya está en uso");
             }
 
             // Verificar si el email ya existe
-            if (userRepository.existsByEmail(registerRequest.getEmail())) {
+            if (emailExists(registerRequest.getEmail())) {
                 return AuthResponse.error("El email ya está registrado");
             }
 
@@ -96,27 +140,31 @@ public class AuthService {
             User newUser = new User();
             newUser.setUsername(registerRequest.getUsername());
             newUser.setEmail(registerRequest.getEmail());
-            newUser.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+            newUser.setPassword(hashContrasenas.encode(registerRequest.getPassword()));
             newUser.setNombre(registerRequest.getNombre());
             newUser.setApellido(registerRequest.getApellido());
             newUser.setTelefono(registerRequest.getTelefono());
             newUser.setRol(User.UserRole.CLIENTE); // Por defecto es cliente
             newUser.setActivo(true);
-            newUser.setFechaCreacion(new Date());
+            newUser.setFechaCreacion(Fechas.ahora());
             newUser.setIntentosLogin(0);
             newUser.setCuentaBloqueada(false);
 
             // Guardar usuario
             User savedUser = userRepository.save(newUser);
+            usuariosRegistrados.agregar(savedUser);
+            estadisticasContadores.registrar(null, savedUser);
 
             // Crear UserInfo desde User
             AuthResponse.UserInfo userInfo = convertToUserInfo(savedUser);
 
             // Generar token de sesión
-            String sessionToken = generateSessionToken();
+            String sessionToken = tokenSesion.emitir(savedUser.getId(), savedUser.getRol().name());
 
             return AuthResponse.success("Usuario registrado exitosamente", userInfo, sessionToken);
 
+        } catch (SobrecargaException e) {
+            throw e;
         } catch (Exception e) {
             return AuthResponse.error("Error al registrar usuario: " + e.getMessage());
         }
@@ -124,23 +172,27 @@ public class AuthService {
 
     // Verificar si un usuario existe
     public boolean userExists(String username) {
-        return userRepository.existsByUsername(username);
+        return usuariosRegistrados.podriaExistirUsername(username) && userRepository.existsByUsername(username);
     }
 
     // Verificar si un email existe
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        return usuariosRegistrados.podriaExistirEmail(email) && userRepository.existsByEmail(email);
     }
 
     // Desbloquear cuenta (para administradores)
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_USUARIOS, allEntries = true)
     public boolean unlockAccount(String username) {
         try {
             Optional<User> userOptional = userRepository.findByUsername(username);
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
+                EstadisticasUsuariosContadores.Huella antes = estadisticasContadores.huella(user);
                 user.setCuentaBloqueada(false);
                 user.setIntentosLogin(0);
                 userRepository.save(user);
+                intentosFallidos.limpiar(username);
+                estadisticasContadores.registrar(antes, user);
                 return true;
             }
             return false;
@@ -161,21 +213,46 @@ public class AuthService {
             User user = userOptional.get();
 
             // Verificar contraseña actual
-            if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+            if (!hashContrasenas.matches(oldPassword, user.getPassword())) {
                 return AuthResponse.error("Contraseña actual incorrecta");
             }
 
-            // Actualizar contraseña
-            user.setPassword(passwordEncoder.encode(newPassword));
+            // Actualizar contraseña; las sesiones abiertas con la contraseña anterior dejan de valer en todos los nodos
+            long ahora = System.currentTimeMillis();
+            user.setPassword(hashContrasenas.encode(newPassword));
+            user.setTokensDesde(ahora);
             userRepository.save(user);
+            revocacionSesiones.revocarEmitidosAntes(user.getId(), ahora);
 
             return AuthResponse.success("Contraseña actualizada exitosamente", null, null);
 
+        } catch (SobrecargaException e) {
+            throw e;
         } catch (Exception e) {
             return AuthResponse.error("Error al cambiar contraseña");
         }
     }
 
+    // USUARIOS tiene @Version y el resumen de IntentosLoginFallidos o la descarga de UltimoLoginBuffer pueden
+    // escribir la misma fila durante un login: ante el conflicto se recarga el usuario y se aplican de nuevo
+    // los cambios, en vez de responder "Error interno del servidor" a quien solo escribió mal su contraseña
+    private User guardarLogin(User user, Consumer<User> cambios) {
+        for (int intento = 1; ; intento++) {
+            EstadisticasUsuariosContadores.Huella antes = estadisticasContadores.huella(user);
+            cambios.accept(user);
+            try {
+                userRepository.save(user);
+                estadisticasContadores.registrar(antes, user);
+                return user;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (intento >= MAX_REINTENTOS_VERSION) {
+                    throw e;
+                }
+                user = userRepository.findById(user.getId()).orElseThrow(() -> e);
+            }
+        }
+    }
+
     // Método helper para convertir User a UserInfo
     private AuthResponse.UserInfo convertToUserInfo(User user) {
         AuthResponse.UserInfo userInfo = new AuthResponse.UserInfo();
@@ -189,9 +266,4 @@ public class AuthService {
         userInfo.setActivo(user.getActivo());
         return userInfo;
     }
-
-    // Generar token de sesión simple
-    private String generateSessionToken() {
-        return UUID.randomUUID().toString() + "-" + System.currentTimeMillis();
-    }
 }
\ No newline at end of file
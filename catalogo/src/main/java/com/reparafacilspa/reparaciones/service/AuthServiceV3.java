@@ -1,33 +1,75 @@
 package com.reparafacilspa.reparaciones.service;
 
+import com.reparafacilspa.reparaciones.config.CacheConfig;
 import com.reparafacilspa.reparaciones.dto.AuthResponse;
 import com.reparafacilspa.reparaciones.dto.LoginRequest;
 import com.reparafacilspa.reparaciones.dto.RegisterRequest;
 import com.reparafacilspa.reparaciones.dto.UpdateUserRequest;
+import com.reparafacilspa.reparaciones.model.Fechas;
 import com.reparafacilspa.reparaciones.model.User;
 import com.reparafacilspa.reparaciones.repository.UserRepository;
+import com.reparafacilspa.reparaciones.repository.UserSpecifications;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
-import java.util.Date;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("reparafacil.servicio")
 public class AuthServiceV3 {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+            "id", "username", "email", "nombre", "apellido", "rol", "fechaCreacion", "ultimoLogin");
+
     @Autowired
     private UserRepository userRepository;
 
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    @Autowired
+    private EstadisticasUsuariosContadores estadisticasContadores;
+
+    // BCrypt en su propio pool acotado; con la cola llena lanza SobrecargaException (429)
+    @Autowired
+    private HashContrasenas hashContrasenas;
+
+    // "Seguro libre" de usernames y emails sin consultar la base de datos
+    @Autowired
+    private UsuariosRegistradosBloom usuariosRegistrados;
+
+    @Autowired
+    private IntentosLoginFallidos intentosFallidos;
+
+    @Autowired
+    private UltimoLoginBuffer ultimoLoginBuffer;
+
+    @Autowired
+    private TokenSesion tokenSesion;
+
+    @Autowired
+    private RevocacionSesiones revocacionSesiones;
+
     private static final int MAX_LOGIN_ATTEMPTS = 5;
+    private static final int MAX_REINTENTOS_VERSION = 3;
 
     // ===== MÉTODOS EXISTENTES DE V2 =====
 
     // Login de usuario
+    // Solo un login fallido puede bloquear la cuenta y cambiar las estadísticas
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_USUARIOS, allEntries = true, condition = "#result != null && !#result.success")
     public AuthResponse login(LoginRequest loginRequest) {
         try {
             // Buscar usuario por username
@@ -50,50 +92,64 @@ public class AuthServiceV3 {
             }
 
             // Verificar contraseña
-            if (!passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())) {
-                // Incrementar intentos de login
-                user.setIntentosLogin(user.getIntentosLogin() + 1);
+            if (!hashContrasenas.matches(loginRequest.getPassword(), user.getPassword())) {
+                // Intentos contados en memoria (IntentosLoginFallidos); solo el bloqueo se escribe en USUARIOS
+                int fallos = intentosFallidos.registrarFallo(user.getUsername(), user.getIntentosLogin());
                 
                 // Bloquear cuenta si supera los intentos máximos
-                if (user.getIntentosLogin() >= MAX_LOGIN_ATTEMPTS) {
-                    user.setCuentaBloqueada(true);
-                    userRepository.save(user);
+                if (fallos >= MAX_LOGIN_ATTEMPTS) {
+                    guardarLogin(user, bloqueado -> {
+                        bloqueado.setIntentosLogin(fallos);
+                        bloqueado.setCuentaBloqueada(true);
+                    });
+                    intentosFallidos.limpiar(user.getUsername());
                     return AuthResponse.error("Cuenta bloqueada por múltiples intentos fallidos");
                 }
                 
-                userRepository.save(user);
                 return AuthResponse.error("Contraseña incorrecta. Intentos restantes: " + 
-                    (MAX_LOGIN_ATTEMPTS - user.getIntentosLogin()));
+                    (MAX_LOGIN_ATTEMPTS - fallos));
             }
 
-            // Login exitoso - resetear intentos y actualizar último login
-            user.setIntentosLogin(0);
-            user.setUltimoLogin(new Date());
-            userRepository.save(user);
+            // Login exitoso - resetear intentos y actualizar último login. Solo resetear intentos persistidos
+            // justifica escribir antes de responder; ultimoLogin se escribe en diferido (UltimoLoginBuffer)
+            LocalDateTime ahora = Fechas.ahora();
+            user.setUltimoLogin(ahora);
+            if (user.getIntentosLogin() != null && user.getIntentosLogin() != 0) {
+                user = guardarLogin(user, actual -> {
+                    actual.setUltimoLogin(ahora);
+                    actual.setIntentosLogin(0);
+                });
+            } else {
+                ultimoLoginBuffer.registrar(user.getId(), ahora);
+            }
+            intentosFallidos.limpiar(user.getUsername());
 
             // Crear UserInfo desde User
             AuthResponse.UserInfo userInfo = convertToUserInfo(user);
 
-            // Generar token de sesión simple
-            String sessionToken = generateSessionToken();
+            // Token firmado con ID, rol y expiración; SesionTokenFilter lo verifica sin consultar USUARIOS
+            String sessionToken = tokenSesion.emitir(user.getId(), user.getRol().name());
 
             return AuthResponse.success("Login exitoso", userInfo, sessionToken);
 
+        } catch (SobrecargaException e) {
+            throw e;
         } catch (Exception e) {
             return AuthResponse.error("Error interno del servidor");
         }
     }
 
     // Registro de usuario
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_USUARIOS, allEntries = true)
     public AuthResponse register(RegisterRequest registerRequest) {
         try {
             // Verificar si el username ya existe
-            if (userRepository.existsByUsername(registerRequest.getUsername())) {
+            if (userExists(registerRequest.getUsername())) {
                 return AuthResponse.error("El username ya está en uso");
             }
 
             // Verificar si el email ya existe
-            if (userRepository.existsByEmail(registerRequest.getEmail())) {
+            if (emailExists(registerRequest.getEmail())) {
                 return AuthResponse.error("El email ya está registrado");
             }
 
@@ -101,27 +157,31 @@ public class AuthServiceV3 {
             User newUser = new User();
             newUser.setUsername(registerRequest.getUsername());
             newUser.setEmail(registerRequest.getEmail());
-            newUser.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
+            newUser.setPassword(hashContrasenas.encode(registerRequest.getPassword()));
             newUser.setNombre(registerRequest.getNombre());
             newUser.setApellido(registerRequest.getApellido());
             newUser.setTelefono(registerRequest.getTelefono());
             newUser.setRol(User.UserRole.CLIENTE); // Por defecto es cliente
             newUser.setActivo(true);
-            newUser.setFechaCreacion(new Date());
+            newUser.setFechaCreacion(Fechas.ahora());
             newUser.setIntentosLogin(0);
             newUser.setCuentaBloqueada(false);
 
             // Guardar usuario
             User savedUser = userRepository.save(newUser);
+            usuariosRegistrados.agregar(savedUser);
+            estadisticasContadores.registrar(null, savedUser);
 
             // Crear UserInfo desde User
             AuthResponse.UserInfo userInfo = convertToUserInfo(savedUser);
 
             // Generar token de sesión
-            String sessionToken = generateSessionToken();
+            String sessionToken = tokenSesion.emitir(savedUser.getId(), savedUser.getRol().name());
 
             return AuthResponse.success("Usuario registrado exitosamente", userInfo, sessionToken);
 
+        } catch (SobrecargaException e) {
+            throw e;
         } catch (Exception e) {
             return AuthResponse.error("Error al registrar usuario: " + e.getMessage());
         }
@@ -129,23 +189,27 @@ public class AuthServiceV3 {
 
     // Verificar si un usuario existe
     public boolean userExists(String username) {
-        return userRepository.existsByUsername(username);
+        return usuariosRegistrados.podriaExistirUsername(username) && userRepository.existsByUsername(username);
     }
 
     // Verificar si un email existe
     public boolean emailExists(String email) {
-        return userRepository.existsByEmail(email);
+        return usuariosRegistrados.podriaExistirEmail(email) && userRepository.existsByEmail(email);
     }
 
     // Desbloquear cuenta (para administradores)
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_USUARIOS, allEntries = true)
     public boolean unlockAccount(String username) {
         try {
             Optional<User> userOptional = userRepository.findByUsername(username);
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
+                EstadisticasUsuariosContadores.Huella antes = estadisticasContadores.huella(user);
                 user.setCuentaBloqueada(false);
                 user.setIntentosLogin(0);
                 userRepository.save(user);
+                intentosFallidos.limpiar(username);
+                estadisticasContadores.registrar(antes, user);
                 return true;
             }
             return false;
@@ -166,16 +230,21 @@ public class AuthServiceV3 {
             User user = userOptional.get();
 
             // Verificar contraseña actual
-            if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
+            if (!hashContrasenas.matches(oldPassword, user.getPassword())) {
                 return AuthResponse.error("Contraseña actual incorrecta");
             }
 
-            // Actualizar contraseña
-            user.setPassword(passwordEncoder.encode(newPassword));
+            // Actualizar contraseña; las sesiones abiertas con la contraseña anterior dejan de valer en todos los nodos
+            long ahora = System.currentTimeMillis();
+            user.setPassword(hashContrasenas.encode(newPassword));
+            user.setTokensDesde(ahora);
             userRepository.save(user);
+            revocacionSesiones.revocarEmitidosAntes(user.getId(), ahora);
 
             return AuthResponse.success("Contraseña actualizada exitosamente", null, null);
 
+        } catch (SobrecargaException e) {
+            throw e;
         } catch (Exception e) {
             return AuthResponse.error("Error al cambiar contraseña");
         }
@@ -183,16 +252,14 @@ public class AuthServiceV3 {
 
     // ===== NUEVOS MÉTODOS V3 PARA CRUD COMPLETO =====
 
-    // Obtener todos los usuarios (para administradores)
-    public List<AuthResponse.UserInfo> findAllUsers() {
-        try {
-            return userRepository.findAll()
-                    .stream()
-                    .map(this::convertToUserInfo)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            throw new RuntimeException("Error al obtener usuarios: " + e.getMessage());
-        }
+    // Obtener usuarios (para administradores), paginado y con filtros opcionales de rol, estado y texto
+    public Page<AuthResponse.UserInfo> findAllUsers(String role, Boolean activo, String busqueda, Pageable pageable) {
+        return buscarUsuarios(parseRole(role), activo, busqueda, pageable, "Error al obtener usuarios: ");
+    }
+
+    // Versión de USUARIOS para el ETag débil de los listados (ver VersionesColeccion)
+    public long getVersionColeccion() {
+        return estadisticasContadores.getVersionColeccion();
     }
 
     // Obtener usuario por ID
@@ -203,20 +270,25 @@ public class AuthServiceV3 {
     }
 
     // Actualizar usuario completo
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_USUARIOS, allEntries = true)
     public AuthResponse updateUser(Long id, UpdateUserRequest request) {
         try {
             User user = userRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Usuario no encontrado con ID: " + id));
+            EstadisticasUsuariosContadores.Huella antes = estadisticasContadores.huella(user);
+            boolean estabaActivo = Boolean.TRUE.equals(user.getActivo());
+            User.UserRole rolAnterior = user.getRol();
+            boolean cambiaPassword = false;
 
             // Validar si el nuevo username ya existe (si es diferente al actual)
             if (!user.getUsername().equals(request.getUsername()) && 
-                userRepository.existsByUsername(request.getUsername())) {
+                userExists(request.getUsername())) {
                 return AuthResponse.error("El username ya está en uso");
             }
 
             // Validar si el nuevo email ya existe (si es diferente al actual)
             if (!user.getEmail().equals(request.getEmail()) && 
-                userRepository.existsByEmail(request.getEmail())) {
+                emailExists(request.getEmail())) {
                 return AuthResponse.error("El email ya está registrado");
             }
 
@@ -229,7 +301,8 @@ public class AuthServiceV3 {
             
             // Solo actualizar contraseña si se proporciona una nueva
             if (request.getPassword() != null && !request.getPassword().trim().isEmpty()) {
-                user.setPassword(passwordEncoder.encode(request.getPassword()));
+                user.setPassword(hashContrasenas.encode(request.getPassword()));
+                cambiaPassword = true;
             }
             
             // Solo actualizar rol si se proporciona
@@ -247,11 +320,32 @@ public class AuthServiceV3 {
                 user.setActivo(request.getActivo());
             }
 
+            // Los tokens de sesión llevan el rol y solo valen para usuarios activos; el corte se guarda con el
+            // cambio para que lo apliquen los demás nodos (ver RevocacionSesiones)
+            long ahora = System.currentTimeMillis();
+            boolean reactivado = !estabaActivo && Boolean.TRUE.equals(user.getActivo());
+            if (rolAnterior != user.getRol() || cambiaPassword || reactivado) {
+                user.setTokensDesde(ahora);
+            }
+
             User updatedUser = userRepository.save(user);
+            usuariosRegistrados.agregar(updatedUser);
+            estadisticasContadores.registrar(antes, user);
+
+            if (!Boolean.TRUE.equals(updatedUser.getActivo())) {
+                revocacionSesiones.revocar(id);
+            } else if (reactivado) {
+                revocacionSesiones.reactivar(id);
+            }
+            if (rolAnterior != updatedUser.getRol() || cambiaPassword) {
+                revocacionSesiones.revocarEmitidosAntes(id, ahora);
+            }
             AuthResponse.UserInfo userInfo = convertToUserInfo(updatedUser);
 
             return AuthResponse.success("Usuario actualizado exitosamente", userInfo, null);
 
+        } catch (SobrecargaException e) {
+            throw e;
         } catch (RuntimeException e) {
             return AuthResponse.error(e.getMessage());
         } catch (Exception e) {
@@ -260,25 +354,24 @@ public class AuthServiceV3 {
     }
 
     // Eliminar usuario (soft delete)
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_USUARIOS, allEntries = true)
     public AuthResponse deleteUser(Long id) {
         try {
             User user = userRepository.findById(id)
                     .orElseThrow(() -> new RuntimeException("Usuario no encontrado con ID: " + id));
+            EstadisticasUsuariosContadores.Huella antes = estadisticasContadores.huella(user);
 
-            // Verificar que no sea el último administrador
-            if (user.getRol() == User.UserRole.ADMIN) {
-                long totalAdmins = userRepository.findAll().stream()
-                        .filter(u -> u.getRol() == User.UserRole.ADMIN && u.getActivo())
-                        .count();
-                
-                if (totalAdmins <= 1) {
-                    return AuthResponse.error("No se puede eliminar el último administrador del sistema");
-                }
+            // Verificar que no sea el último administrador (EXISTS en la base de datos, sin cargar USUARIOS)
+            if (user.getRol() == User.UserRole.ADMIN
+                    && !userRepository.existsByRolAndActivoTrueAndIdNot(User.UserRole.ADMIN, id)) {
+                return AuthResponse.error("No se puede eliminar el último administrador del sistema");
             }
 
             // Soft delete
             user.setActivo(false);
             userRepository.save(user);
+            estadisticasContadores.registrar(antes, user);
+            revocacionSesiones.revocar(id);
 
             return AuthResponse.success("Usuario eliminado exitosamente", null, null);
 
@@ -289,73 +382,95 @@ public class AuthServiceV3 {
         }
     }
 
-    // Obtener usuarios activos solamente
-    public List<AuthResponse.UserInfo> findActiveUsers() {
+    // Obtener usuarios activos solamente, paginado
+    public Page<AuthResponse.UserInfo> findActiveUsers(String busqueda, Pageable pageable) {
+        return buscarUsuarios(null, true, busqueda, pageable, "Error al obtener usuarios activos: ");
+    }
+
+    // Obtener usuarios por rol, paginado
+    public Page<AuthResponse.UserInfo> findUsersByRole(String role, Boolean activo, String busqueda, Pageable pageable) {
+        return buscarUsuarios(parseRole(role), activo, busqueda, pageable, "Error al obtener usuarios por rol: ");
+    }
+
+    // Contar usuarios activos por rol (COUNT en la base de datos)
+    public long countUsersByRole(String role) {
         try {
-            return userRepository.findAll()
-                    .stream()
-                    .filter(User::getActivo)
-                    .map(this::convertToUserInfo)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            throw new RuntimeException("Error al obtener usuarios activos: " + e.getMessage());
+            return userRepository.countByRolAndActivoTrue(User.UserRole.valueOf(role.toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            return 0;
         }
     }
 
-    // Obtener usuarios por rol
-    public List<AuthResponse.UserInfo> findUsersByRole(String role) {
+    // Obtener estadísticas de usuarios (lectura O(1) desde EstadisticasUsuariosContadores); cacheada e inmutable
+    @Cacheable(cacheNames = CacheConfig.ESTADISTICAS_USUARIOS, key = "'resumen'")
+    public java.util.Map<String, Object> getUserStatistics() {
+        return java.util.Collections.unmodifiableMap(estadisticasContadores.toUserStatistics());
+    }
+
+    // ===== MÉTODOS HELPER =====
+
+    // Una página de usuarios filtrada en la base de datos: nunca se carga más de MAX_PAGE_SIZE filas
+    private Page<AuthResponse.UserInfo> buscarUsuarios(User.UserRole rol, Boolean activo, String busqueda,
+                                                       Pageable pageable, String mensajeError) {
         try {
-            User.UserRole userRole = User.UserRole.valueOf(role.toUpperCase());
-            return userRepository.findAll()
-                    .stream()
-                    .filter(u -> u.getRol() == userRole)
-                    .map(this::convertToUserInfo)
-                    .collect(Collectors.toList());
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("Rol inválido: " + role);
+            return userRepository.findAll(UserSpecifications.listado(rol, activo, busqueda), sanitizePageable(pageable))
+                    .map(this::convertToUserInfo);
         } catch (Exception e) {
-            throw new RuntimeException("Error al obtener usuarios por rol: " + e.getMessage());
+            throw new RuntimeException(mensajeError + e.getMessage());
         }
     }
 
-    // Contar usuarios por rol
-    public long countUsersByRole(String role) {
+    // null si no se informa; IllegalArgumentException (un 400 en el controlador) si no es un rol conocido
+    private User.UserRole parseRole(String role) {
+        if (role == null || role.trim().isEmpty()) {
+            return null;
+        }
         try {
-            User.UserRole userRole = User.UserRole.valueOf(role.toUpperCase());
-            return userRepository.findAll()
-                    .stream()
-                    .filter(u -> u.getRol() == userRole && u.getActivo())
-                    .count();
+            return User.UserRole.valueOf(role.trim().toUpperCase());
         } catch (IllegalArgumentException e) {
-            return 0;
+            throw new IllegalArgumentException("Rol inválido: " + role);
         }
     }
 
-    // Obtener estadísticas de usuarios
-    public java.util.Map<String, Object> getUserStatistics() {
-        List<User> allUsers = userRepository.findAll();
-        
-        java.util.Map<String, Object> stats = new java.util.HashMap<>();
-        stats.put("totalUsuarios", allUsers.size());
-        stats.put("usuariosActivos", allUsers.stream().filter(User::getActivo).count());
-        stats.put("usuariosBloqueados", allUsers.stream().filter(User::getCuentaBloqueada).count());
-        
-        // Contar por rol
-        java.util.Map<String, Long> porRol = allUsers.stream()
-                .filter(User::getActivo)
-                .collect(java.util.stream.Collectors.groupingBy(
-                    u -> u.getRol().name(),
-                    java.util.stream.Collectors.counting()
-                ));
-        stats.put("usuariosPorRol", porRol);
-        
-        return stats;
+    // Solo se permite ordenar por columnas conocidas; el tamaño de página se acota a MAX_PAGE_SIZE
+    private Pageable sanitizePageable(Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return PageRequest.of(0, DEFAULT_PAGE_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+        }
+        List<Sort.Order> orders = pageable.getSort().stream()
+                .filter(order -> SORTABLE_PROPERTIES.contains(order.getProperty()))
+                .collect(Collectors.toList());
+        // El id se agrega como desempate para que el orden entre páginas sea estable
+        if (orders.stream().noneMatch(order -> order.getProperty().equals("id"))) {
+            orders.add(Sort.Order.asc("id"));
+        }
+        int size = pageable.getPageSize() < 1 ? DEFAULT_PAGE_SIZE : Math.min(pageable.getPageSize(), MAX_PAGE_SIZE);
+        return PageRequest.of(pageable.getPageNumber(), size, Sort.by(orders));
     }
 
-    // ===== MÉTODOS HELPER =====
+    // USUARIOS tiene @Version y el resumen de IntentosLoginFallidos o la descarga de UltimoLoginBuffer pueden
+    // escribir la misma fila durante un login: ante el conflicto se recarga el usuario y se aplican de nuevo
+    // los cambios, en vez de responder "Error interno del servidor" a quien solo escribió mal su contraseña
+    private User guardarLogin(User user, Consumer<User> cambios) {
+        for (int intento = 1; ; intento++) {
+            EstadisticasUsuariosContadores.Huella antes = estadisticasContadores.huella(user);
+            cambios.accept(user);
+            try {
+                userRepository.save(user);
+                estadisticasContadores.registrar(antes, user);
+                return user;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (intento >= MAX_REINTENTOS_VERSION) {
+                    throw e;
+                }
+                user = userRepository.findById(user.getId()).orElseThrow(() -> e);
+            }
+        }
+    }
 
     // Método helper para convertir User a UserInfo
-    private AuthResponse.UserInfo convertToUserInfo(User user) {
+    // Visibilidad de paquete para el benchmark AuthServiceV3Benchmark (src/jmh)
+    AuthResponse.UserInfo convertToUserInfo(User user) {
         AuthResponse.UserInfo userInfo = new AuthResponse.UserInfo();
         userInfo.setId(user.getId());
         userInfo.setUsername(user.getUsername());
@@ -365,11 +480,7 @@ public class AuthServiceV3 {
         userInfo.setTelefono(user.getTelefono());
         userInfo.setRol(user.getRol().name());
         userInfo.setActivo(user.getActivo());
+        userInfo.setVersion(user.getVersion());
         return userInfo;
     }
-
-    // Generar token de sesión simple
-    private String generateSessionToken() {
-        return UUID.randomUUID().toString() + "-" + System.currentTimeMillis();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.reparafacilspa.reparaciones.config.CacheConfig;
+import com.reparafacilspa.reparaciones.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.NaturalIdStatistics;
+import org.hibernate.stat.Statistics;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Reporte y vaciado de las cachés de Spring (CacheConfig) y de la caché de segundo nivel de Hibernate;
+// ambas son cachés Caffeine declaradas en application.conf
+@Service
+@Timed("reparafacil.servicio")
+public class CacheAdminService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public Map<String, Object> getEstadisticasCaches() {
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (String nombre : CacheConfig.CACHES) {
+            caches.put(nombre, estadisticasCache(nombre));
+        }
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("caches", caches);
+        return resultado;
+    }
+
+    public void limpiarCache(String nombre) {
+        if (!CacheConfig.CACHES.contains(nombre)) {
+            throw new RuntimeException("Caché no encontrada: " + nombre);
+        }
+        Cache cache = cacheManager.getCache(nombre);
+        if (cache != null) {
+            // invalidate y no clear: clear espera al commit cuando la caché es transaccional
+            cache.invalidate();
+        }
+    }
+
+    public void limpiarCaches() {
+        CacheConfig.CACHES.forEach(this::limpiarCache);
+    }
+
+    // Vacía todas las regiones de entidades, natural-id y consultas
+    public void limpiarCacheHibernate() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    public Map<String, Object> getEstadisticasHibernate() {
+        Statistics statistics = estadisticas();
+        Map<String, Object> resultado = new LinkedHashMap<>();
+
+        resultado.put("estadisticasHabilitadas", statistics.isStatisticsEnabled());
+        resultado.put("segundoNivel", conteo(statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        resultado.put("naturalId", conteo(statistics.getNaturalIdCacheHitCount(),
+                statistics.getNaturalIdCacheMissCount(), statistics.getNaturalIdCachePutCount()));
+        resultado.put("consultas", conteo(statistics.getQueryCacheHitCount(),
+                statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+
+        Map<String, Object> regiones = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                regiones.put(region, conteo(regionStatistics.getHitCount(),
+                        regionStatistics.getMissCount(), regionStatistics.getPutCount()));
+            }
+        }
+        resultado.put("regiones", regiones);
+
+        NaturalIdStatistics porUsername = statistics.getNaturalIdStatistics(User.class.getName());
+        resultado.put("usuariosPorUsername", Map.of(
+                "consultasEjecutadas", porUsername.getExecutionCount(),
+                "aciertos", porUsername.getCacheHitCount(),
+                "fallos", porUsername.getCacheMissCount()));
+
+        resultado.put("desde", new Date(statistics.getStartTime()));
+        return resultado;
+    }
+
+    // Vuelve a cero los contadores (no vacía las regiones)
+    public void reiniciarEstadisticasHibernate() {
+        estadisticas().clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> estadisticasCache(String nombre) {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        Cache cache = cacheManager.getCache(nombre);
+        // Con spring.cache.type=none (perfil test) no hay caché nativa que inspeccionar
+        if (cache == null || !(cache.getNativeCache() instanceof javax.cache.Cache)) {
+            resultado.put("habilitada", false);
+            return resultado;
+        }
+
+        javax.cache.Cache<Object, Object> jcache = (javax.cache.Cache<Object, Object>) cache.getNativeCache();
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> caffeine =
+                jcache.unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        CaffeineConfiguration<Object, Object> configuracion = jcache.getConfiguration(CaffeineConfiguration.class);
+        CacheStats stats = caffeine.stats();
+
+        resultado.put("habilitada", true);
+        resultado.put("entradas", caffeine.estimatedSize());
+        resultado.put("tamanoMaximo", valor(configuracion.getMaximumSize()));
+        OptionalLong ttl = configuracion.getExpireAfterWrite();
+        resultado.put("ttlSegundos", ttl.isPresent() ? TimeUnit.NANOSECONDS.toSeconds(ttl.getAsLong()) : null);
+        resultado.put("aciertos", stats.hitCount());
+        resultado.put("fallos", stats.missCount());
+        resultado.put("porcentajeAciertos", porcentaje(stats.hitCount(), stats.missCount()));
+        resultado.put("evicciones", stats.evictionCount());
+        return resultado;
+    }
+
+    private static Long valor(OptionalLong opcional) {
+        return opcional.isPresent() ? opcional.getAsLong() : null;
+    }
+
+    private Statistics estadisticas() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Map<String, Object> conteo(long aciertos, long fallos, long escrituras) {
+        Map<String, Object> conteo = new LinkedHashMap<>();
+        conteo.put("aciertos", aciertos);
+        conteo.put("fallos", fallos);
+        conteo.put("escrituras", escrituras);
+        conteo.put("porcentajeAciertos", porcentaje(aciertos, fallos));
+        return conteo;
+    }
+
+    private static double porcentaje(long aciertos, long fallos) {
+        long lecturas = aciertos + fallos;
+        return lecturas == 0 ? 0.0 : Math.round(aciertos * 1000.0 / lecturas) / 10.0;
+    }
+}
@@ -0,0 +1,38 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.config.CacheConfig;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+
+// Catálogos de /estados y /tipos-dispositivos, compartidos por V1, V2 y V3. Las listas son inmutables
+// porque la misma instancia cacheada se entrega a todas las peticiones.
+@Service
+@Timed("reparafacil.servicio")
+public class CatalogoService {
+
+    @Cacheable(cacheNames = CacheConfig.CATALOGOS, key = "'estados'")
+    public List<Map<String, String>> getEstadosDisponibles() {
+        return List.of(
+            Map.of("codigo", "AGENDADO", "descripcion", "Agendado - Esperando revisión"),
+            Map.of("codigo", "EN_REVISION", "descripcion", "En revisión técnica"),
+            Map.of("codigo", "EN_REPARACION", "descripcion", "En proceso de reparación"),
+            Map.of("codigo", "ESPERANDO_REPUESTOS", "descripcion", "Esperando repuestos"),
+            Map.of("codigo", "COMPLETADO", "descripcion", "Reparación completada"),
+            Map.of("codigo", "ENTREGADO", "descripcion", "Entregado al cliente"),
+            Map.of("codigo", "CANCELADO", "descripcion", "Servicio cancelado"),
+            Map.of("codigo", "EN_GARANTIA", "descripcion", "En servicio de garantía")
+        );
+    }
+
+    @Cacheable(cacheNames = CacheConfig.CATALOGOS, key = "'tipos-dispositivos'")
+    public List<String> getTiposDispositivos() {
+        return List.of(
+            "Smartphone", "Laptop", "Tablet", "Computador",
+            "Smartwatch", "Auriculares", "Consola", "Otro"
+        );
+    }
+}
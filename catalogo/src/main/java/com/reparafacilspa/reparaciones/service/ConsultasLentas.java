@@ -0,0 +1,167 @@
+package com.reparafacilspa.reparaciones.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Latencia de las sentencias SQL agrupadas por huella: el SQL sin literales, con las listas IN de cualquier
+// largo reducidas a una y los espacios normalizados, así "id in (?,?)" e "id in (?,?,?)" cuentan juntas.
+// Lo alimenta el DataSource cronometrado (ver ConsultasLentasConfig) con el tiempo de cada execute*, que no
+// incluye recorrer el ResultSet. Solo se escribe en el log lo que supera reparafacil.sql.lento-ms y una
+// fracción reparafacil.sql.muestreo del resto; los valores enlazados nunca se registran.
+// Reemplaza a org.hibernate.SQL=DEBUG + BasicBinder=TRACE, que escribían cada sentencia con sus parámetros:
+// las lentas van con WARN y las muestras con DEBUG, así el nivel de este logger decide si se escriben las
+// muestras y ambas llegan al archivo de log con el resto de la aplicación.
+// Una sentencia rápida cuesta dos get() de mapas concurrentes y tres sumas atómicas; la huella se calcula
+// una vez por texto SQL distinto.
+@Component
+public class ConsultasLentas {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsultasLentas.class);
+
+    // Huella de las sentencias que ya no caben en reparafacil.sql.max-huellas
+    private static final String OTRAS = "(otras)";
+
+    public static final List<String> ORDENES = List.of("total", "maximo", "cantidad", "promedio");
+
+    private static final Pattern LITERAL_TEXTO = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern LITERAL_NUMERO = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern LISTA_IN = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern ESPACIOS = Pattern.compile("\\s+");
+
+    private final long umbralNanos;
+    private final double muestreo;
+    private final int maxHuellas;
+
+    // Texto SQL -> contadores de su huella; Hibernate repite los mismos textos, así que queda pequeño
+    private final Map<String, Contadores> porSql = new ConcurrentHashMap<>();
+    private final Map<String, Contadores> porHuella = new ConcurrentHashMap<>();
+    private final LongAdder lentas = new LongAdder();
+
+    private static final class Contadores {
+        private final String huella;
+        private final LongAdder cantidad = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maximoNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder lentas = new LongAdder();
+
+        private Contadores(String huella) {
+            this.huella = huella;
+        }
+    }
+
+    public ConsultasLentas(@Value("${reparafacil.sql.lento-ms:250}") long lentoMs,
+                           @Value("${reparafacil.sql.muestreo:0}") double muestreo,
+                           @Value("${reparafacil.sql.max-huellas:500}") int maxHuellas) {
+        this.umbralNanos = TimeUnit.MILLISECONDS.toNanos(lentoMs);
+        this.muestreo = muestreo;
+        this.maxHuellas = maxHuellas;
+    }
+
+    public void registrar(String sql, long nanos) {
+        if (sql == null) {
+            return;
+        }
+        Contadores contadores = porSql.get(sql);
+        if (contadores == null) {
+            contadores = contadoresDe(sql);
+        }
+        contadores.cantidad.increment();
+        contadores.totalNanos.add(nanos);
+        contadores.maximoNanos.accumulate(nanos);
+
+        if (nanos >= umbralNanos) {
+            contadores.lentas.increment();
+            lentas.increment();
+            log.warn("Consulta lenta ({} ms): {}", aMs(nanos), contadores.huella);
+        } else if (muestreo > 0 && log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < muestreo) {
+            log.debug("Consulta muestreada ({} ms): {}", aMs(nanos), contadores.huella);
+        }
+    }
+
+    private Contadores contadoresDe(String sql) {
+        String huella = huella(sql);
+        Contadores contadores = porHuella.get(huella);
+        if (contadores == null) {
+            contadores = porHuella.size() < maxHuellas
+                    ? porHuella.computeIfAbsent(huella, Contadores::new)
+                    : porHuella.computeIfAbsent(OTRAS, Contadores::new);
+        }
+        // SQL armado con literales (texto distinto en cada llamada): se agrupa igual, pero no se guarda el texto
+        if (porSql.size() < maxHuellas * 4) {
+            porSql.put(sql, contadores);
+        }
+        return contadores;
+    }
+
+    public static String huella(String sql) {
+        String huella = LITERAL_TEXTO.matcher(sql).replaceAll("?");
+        huella = LITERAL_NUMERO.matcher(huella).replaceAll("?");
+        huella = LISTA_IN.matcher(huella).replaceAll("(?...)");
+        return ESPACIOS.matcher(huella).replaceAll(" ").trim();
+    }
+
+    // Las top huellas según orden (total, maximo, cantidad o promedio), de mayor a menor
+    public List<Map<String, Object>> getTop(int top, String orden) {
+        Comparator<Contadores> comparador = switch (orden) {
+            case "total" -> Comparator.comparingLong(c -> c.totalNanos.sum());
+            case "maximo" -> Comparator.comparingLong(c -> c.maximoNanos.get());
+            case "cantidad" -> Comparator.comparingLong(c -> c.cantidad.sum());
+            case "promedio" -> Comparator.comparingDouble(c -> c.totalNanos.sum() / (double) Math.max(1, c.cantidad.sum()));
+            default -> throw new RuntimeException("Orden inválido: " + orden + " (use " + String.join(", ", ORDENES) + ")");
+        };
+        List<Map<String, Object>> resultado = new ArrayList<>();
+        porHuella.values().stream()
+                .sorted(comparador.reversed())
+                .limit(Math.max(0, top))
+                .forEach(c -> {
+                    long cantidad = c.cantidad.sum();
+                    long total = c.totalNanos.sum();
+                    Map<String, Object> fila = new LinkedHashMap<>();
+                    fila.put("huella", c.huella);
+                    fila.put("cantidad", cantidad);
+                    fila.put("lentas", c.lentas.sum());
+                    fila.put("totalMs", aMs(total));
+                    fila.put("promedioMs", cantidad == 0 ? 0.0 : aMs(total / cantidad));
+                    fila.put("maximoMs", aMs(c.maximoNanos.get()));
+                    resultado.add(fila);
+                });
+        return resultado;
+    }
+
+    public Map<String, Object> getEstadisticas(int top, String orden) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("umbralLentaMs", aMs(umbralNanos));
+        stats.put("muestreo", muestreo);
+        stats.put("huellas", porHuella.size());
+        stats.put("maxHuellas", maxHuellas);
+        stats.put("lentas", lentas.sum());
+        stats.put("orden", orden);
+        stats.put("top", getTop(top, orden));
+        return stats;
+    }
+
+    // Las sentencias en curso pueden sumar a los contadores viejos; se pierden a lo más esas mediciones
+    public void reiniciar() {
+        porSql.clear();
+        porHuella.clear();
+        lentas.reset();
+    }
+
+    private static double aMs(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+}
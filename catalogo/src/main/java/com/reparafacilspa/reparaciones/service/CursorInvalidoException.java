@@ -0,0 +1,9 @@
+package com.reparafacilspa.reparaciones.service;
+
+// Cursor de paginación keyset que no se pudo decodificar o que no sirve para el listado pedido; se responde 400
+public class CursorInvalidoException extends RuntimeException {
+
+    public CursorInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,94 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.model.ServicioReparacion;
+import com.reparafacilspa.reparaciones.repository.ServicioReparacionRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Arma las respuestas de /estadisticas y /estadisticas-detalladas a partir de los conteos agrupados
+// del repositorio, de modo que el costo depende de la cantidad de grupos y no de filas.
+public final class EstadisticasServicios {
+
+    private long activos;
+    private long eliminados;
+    private final Map<String, Long> porEstado = new HashMap<>();
+    private final Map<String, Long> porPrioridad = new HashMap<>();
+    private final Map<String, Long> porTipo = new HashMap<>();
+    private final Map<String, Long> porTecnico = new HashMap<>();
+
+    private EstadisticasServicios() {
+    }
+
+    // A partir de contadores ya agrupados (ver EstadisticasServiciosContadores)
+    public static EstadisticasServicios of(long activos, long eliminados,
+                                           Map<String, Long> porEstado, Map<String, Long> porPrioridad,
+                                           Map<String, Long> porTipo, Map<String, Long> porTecnico) {
+        EstadisticasServicios estadisticas = new EstadisticasServicios();
+        estadisticas.activos = activos;
+        estadisticas.eliminados = eliminados;
+        estadisticas.porEstado.putAll(porEstado);
+        estadisticas.porPrioridad.putAll(porPrioridad);
+        estadisticas.porTipo.putAll(porTipo);
+        estadisticas.porTecnico.putAll(porTecnico);
+        return estadisticas;
+    }
+
+    public static EstadisticasServicios from(List<ServicioReparacionRepository.ConteoPorEstado> conteosPorEstado,
+                                             List<ServicioReparacionRepository.ConteoPorTipoYTecnico> conteosPorTipo) {
+        EstadisticasServicios estadisticas = new EstadisticasServicios();
+        for (ServicioReparacionRepository.ConteoPorEstado conteo : conteosPorEstado) {
+            if (!Boolean.TRUE.equals(conteo.getActivo())) {
+                estadisticas.eliminados += conteo.getTotal();
+                continue;
+            }
+            estadisticas.activos += conteo.getTotal();
+            if (conteo.getEstado() != null) {
+                estadisticas.porEstado.merge(conteo.getEstado().name(), conteo.getTotal(), Long::sum);
+            }
+            if (conteo.getPrioridad() != null) {
+                estadisticas.porPrioridad.merge(conteo.getPrioridad().name(), conteo.getTotal(), Long::sum);
+            }
+        }
+        for (ServicioReparacionRepository.ConteoPorTipoYTecnico conteo : conteosPorTipo) {
+            if (conteo.getTipoDispositivo() != null) {
+                estadisticas.porTipo.merge(conteo.getTipoDispositivo(), conteo.getTotal(), Long::sum);
+            }
+            String tecnico = conteo.getTecnicoAsignado();
+            if (tecnico != null && !tecnico.trim().isEmpty()) {
+                estadisticas.porTecnico.merge(tecnico, conteo.getTotal(), Long::sum);
+            }
+        }
+        return estadisticas;
+    }
+
+    // Formato de /estadisticas (V1, V2 y V3)
+    public Map<String, Object> toEstadisticas() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalServicios", Math.toIntExact(activos));
+        stats.put("serviciosAgendados", contarEstado(ServicioReparacion.EstadoReparacion.AGENDADO));
+        stats.put("serviciosEnReparacion", contarEstado(ServicioReparacion.EstadoReparacion.EN_REPARACION));
+        stats.put("serviciosCompletados", contarEstado(ServicioReparacion.EstadoReparacion.COMPLETADO));
+        stats.put("serviciosPorTipo", new HashMap<>(porTipo));
+        stats.put("totalTecnicos", porTecnico.size());
+        return stats;
+    }
+
+    // Formato de /estadisticas-detalladas (V3)
+    public Map<String, Object> toDetailedStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalServicios", Math.toIntExact(activos + eliminados));
+        stats.put("serviciosActivos", Math.toIntExact(activos));
+        stats.put("serviciosEliminados", Math.toIntExact(eliminados));
+        stats.put("serviciosPorEstado", new HashMap<>(porEstado));
+        stats.put("serviciosPorTipo", new HashMap<>(porTipo));
+        stats.put("serviciosPorPrioridad", new HashMap<>(porPrioridad));
+        stats.put("serviciosPorTecnico", new HashMap<>(porTecnico));
+        return stats;
+    }
+
+    private long contarEstado(ServicioReparacion.EstadoReparacion estado) {
+        return porEstado.getOrDefault(estado.name(), 0L);
+    }
+}
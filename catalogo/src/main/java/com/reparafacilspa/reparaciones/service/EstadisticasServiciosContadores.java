@@ -0,0 +1,170 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.config.CacheConfig;
+import com.reparafacilspa.reparaciones.model.ServicioReparacion;
+import com.reparafacilspa.reparaciones.repository.ServicioReparacionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores en memoria para /estadisticas: los servicios los ajustan en cada escritura y la lectura
+// no toca la base de datos. Cada cierto tiempo se reconcilian con las consultas agregadas para corregir
+// cualquier desvío (escrituras concurrentes con la reconciliación, cargas directas al repositorio, etc.).
+@Component
+public class EstadisticasServiciosContadores {
+
+    @Autowired
+    private ServicioReparacionRepository servicioRepository;
+
+    private volatile Contadores contadores = new Contadores();
+
+    // Versión de la tabla para los ETag de los listados V3
+    @Autowired
+    private VersionesColeccion versionesColeccion;
+
+    // Valores de las dimensiones contadas, capturados antes de modificar la entidad
+    public static final class Huella {
+        private final boolean activo;
+        private final ServicioReparacion.EstadoReparacion estado;
+        private final ServicioReparacion.PrioridadReparacion prioridad;
+        private final String tipoDispositivo;
+        private final String tecnicoAsignado;
+
+        private Huella(ServicioReparacion servicio) {
+            this.activo = Boolean.TRUE.equals(servicio.getActivo());
+            this.estado = servicio.getEstado();
+            this.prioridad = servicio.getPrioridad();
+            this.tipoDispositivo = servicio.getTipoDispositivo();
+            this.tecnicoAsignado = servicio.getTecnicoAsignado();
+        }
+    }
+
+    private static final class Contadores {
+        private final LongAdder activos = new LongAdder();
+        private final LongAdder eliminados = new LongAdder();
+        private final Map<String, LongAdder> porEstado = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> porPrioridad = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> porTipo = new ConcurrentHashMap<>();
+        private final Map<String, LongAdder> porTecnico = new ConcurrentHashMap<>();
+    }
+
+    public Huella huella(ServicioReparacion servicio) {
+        return servicio == null ? null : new Huella(servicio);
+    }
+
+    // Descuenta la huella anterior (null si el servicio es nuevo) y suma el estado actual; dentro de una
+    // transacción el ajuste espera al commit para no contar escrituras revertidas
+    public void registrar(Huella antes, ServicioReparacion despues) {
+        Huella actual = huella(despues);
+        versionesColeccion.avanzar(VersionesColeccion.SERVICIOS);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicarCambio(antes, actual);
+                }
+            });
+        } else {
+            aplicarCambio(antes, actual);
+        }
+    }
+
+    private void aplicarCambio(Huella antes, Huella despues) {
+        Contadores actuales = contadores;
+        aplicar(actuales, antes, -1);
+        aplicar(actuales, despues, 1);
+    }
+
+    public EstadisticasServicios snapshot() {
+        Contadores actuales = contadores;
+        return EstadisticasServicios.of(actuales.activos.sum(), actuales.eliminados.sum(),
+                sumar(actuales.porEstado), sumar(actuales.porPrioridad),
+                sumar(actuales.porTipo), sumar(actuales.porTecnico));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reparafacil.estadisticas.reconciliacion-ms:300000}",
+               initialDelayString = "${reparafacil.estadisticas.reconciliacion-ms:300000}")
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
+    public void reconciliar() {
+        Contadores nuevos = new Contadores();
+        for (ServicioReparacionRepository.ConteoPorEstado conteo : servicioRepository.countGroupByActivoEstadoPrioridad()) {
+            if (!Boolean.TRUE.equals(conteo.getActivo())) {
+                nuevos.eliminados.add(conteo.getTotal());
+                continue;
+            }
+            nuevos.activos.add(conteo.getTotal());
+            if (conteo.getEstado() != null) {
+                sumar(nuevos.porEstado, conteo.getEstado().name(), conteo.getTotal());
+            }
+            if (conteo.getPrioridad() != null) {
+                sumar(nuevos.porPrioridad, conteo.getPrioridad().name(), conteo.getTotal());
+            }
+        }
+        for (ServicioReparacionRepository.ConteoPorTipoYTecnico conteo : servicioRepository.countActivosGroupByTipoDispositivoTecnico()) {
+            sumar(nuevos.porTipo, conteo.getTipoDispositivo(), conteo.getTotal());
+            if (!esVacio(conteo.getTecnicoAsignado())) {
+                sumar(nuevos.porTecnico, conteo.getTecnicoAsignado(), conteo.getTotal());
+            }
+        }
+        contadores = nuevos;
+        versionesColeccion.reconciliar(VersionesColeccion.SERVICIOS, servicioRepository.findVersionColeccion());
+    }
+
+    public long getVersionColeccion() {
+        return versionesColeccion.getVersion(VersionesColeccion.SERVICIOS);
+    }
+
+    private static void aplicar(Contadores contadores, Huella huella, int delta) {
+        if (huella == null) {
+            return;
+        }
+        if (!huella.activo) {
+            contadores.eliminados.add(delta);
+            return;
+        }
+        contadores.activos.add(delta);
+        if (huella.estado != null) {
+            sumar(contadores.porEstado, huella.estado.name(), delta);
+        }
+        if (huella.prioridad != null) {
+            sumar(contadores.porPrioridad, huella.prioridad.name(), delta);
+        }
+        sumar(contadores.porTipo, huella.tipoDispositivo, delta);
+        if (!esVacio(huella.tecnicoAsignado)) {
+            sumar(contadores.porTecnico, huella.tecnicoAsignado, delta);
+        }
+    }
+
+    private static void sumar(Map<String, LongAdder> mapa, String clave, long delta) {
+        if (clave != null) {
+            mapa.computeIfAbsent(clave, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    // Los grupos que quedaron en cero no se informan, igual que en las consultas agregadas
+    private static Map<String, Long> sumar(Map<String, LongAdder> mapa) {
+        Map<String, Long> resultado = new HashMap<>();
+        mapa.forEach((clave, contador) -> {
+            long total = contador.sum();
+            if (total > 0) {
+                resultado.put(clave, total);
+            }
+        });
+        return resultado;
+    }
+
+    private static boolean esVacio(String valor) {
+        return valor == null || valor.trim().isEmpty();
+    }
+}
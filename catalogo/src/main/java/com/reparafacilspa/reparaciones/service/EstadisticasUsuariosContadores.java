@@ -0,0 +1,141 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.config.CacheConfig;
+import com.reparafacilspa.reparaciones.model.User;
+import com.reparafacilspa.reparaciones.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores en memoria para /users/statistics, con la misma estrategia que EstadisticasServiciosContadores:
+// ajuste en cada escritura de AuthService/AuthServiceV3 y reconciliación periódica contra la base de datos.
+@Component
+public class EstadisticasUsuariosContadores {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private volatile Contadores contadores = new Contadores();
+
+    // Versión de la tabla para los ETag de los listados V3
+    @Autowired
+    private VersionesColeccion versionesColeccion;
+
+    // Valores de las dimensiones contadas, capturados antes de modificar el usuario
+    public static final class Huella {
+        private final boolean activo;
+        private final boolean cuentaBloqueada;
+        private final User.UserRole rol;
+
+        private Huella(boolean activo, boolean cuentaBloqueada, User.UserRole rol) {
+            this.activo = activo;
+            this.cuentaBloqueada = cuentaBloqueada;
+            this.rol = rol;
+        }
+    }
+
+    private static final class Contadores {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder activos = new LongAdder();
+        private final LongAdder bloqueados = new LongAdder();
+        private final Map<String, LongAdder> porRol = new ConcurrentHashMap<>();
+    }
+
+    public Huella huella(User user) {
+        return user == null ? null : new Huella(
+                Boolean.TRUE.equals(user.getActivo()), Boolean.TRUE.equals(user.getCuentaBloqueada()), user.getRol());
+    }
+
+    // Descuenta la huella anterior (null si el usuario es nuevo) y suma el estado actual; dentro de una
+    // transacción el ajuste espera al commit para no contar escrituras revertidas
+    public void registrar(Huella antes, User despues) {
+        Huella actual = huella(despues);
+        versionesColeccion.avanzar(VersionesColeccion.USUARIOS);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicarCambio(antes, actual);
+                }
+            });
+        } else {
+            aplicarCambio(antes, actual);
+        }
+    }
+
+    // Escritura de USUARIOS que no cambia ninguna dimensión contada (ultimoLogin, intentosLogin) pero sí los
+    // datos de los listados
+    public void registrarEscritura() {
+        versionesColeccion.avanzar(VersionesColeccion.USUARIOS);
+    }
+
+    private void aplicarCambio(Huella antes, Huella despues) {
+        Contadores actuales = contadores;
+        aplicar(actuales, antes, -1, 1);
+        aplicar(actuales, despues, 1, 1);
+    }
+
+    public Map<String, Object> toUserStatistics() {
+        Contadores actuales = contadores;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalUsuarios", Math.toIntExact(actuales.total.sum()));
+        stats.put("usuariosActivos", actuales.activos.sum());
+        stats.put("usuariosBloqueados", actuales.bloqueados.sum());
+
+        Map<String, Long> porRol = new HashMap<>();
+        actuales.porRol.forEach((rol, contador) -> {
+            long total = contador.sum();
+            if (total > 0) {
+                porRol.put(rol, total);
+            }
+        });
+        stats.put("usuariosPorRol", porRol);
+        return stats;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reparafacil.estadisticas.reconciliacion-ms:300000}",
+               initialDelayString = "${reparafacil.estadisticas.reconciliacion-ms:300000}")
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_USUARIOS, allEntries = true)
+    public void reconciliar() {
+        Contadores nuevos = new Contadores();
+        for (UserRepository.ConteoUsuarios conteo : userRepository.countGroupByActivoCuentaBloqueadaRol()) {
+            Huella huella = new Huella(Boolean.TRUE.equals(conteo.getActivo()),
+                    Boolean.TRUE.equals(conteo.getCuentaBloqueada()), conteo.getRol());
+            aplicar(nuevos, huella, 1, conteo.getTotal());
+        }
+        contadores = nuevos;
+        versionesColeccion.reconciliar(VersionesColeccion.USUARIOS, userRepository.findVersionColeccion());
+    }
+
+    public long getVersionColeccion() {
+        return versionesColeccion.getVersion(VersionesColeccion.USUARIOS);
+    }
+
+    private static void aplicar(Contadores contadores, Huella huella, int signo, long cantidad) {
+        if (huella == null) {
+            return;
+        }
+        long delta = signo * cantidad;
+        contadores.total.add(delta);
+        if (huella.cuentaBloqueada) {
+            contadores.bloqueados.add(delta);
+        }
+        if (huella.activo) {
+            contadores.activos.add(delta);
+            if (huella.rol != null) {
+                contadores.porRol.computeIfAbsent(huella.rol.name(), k -> new LongAdder()).add(delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.reparafacilspa.reparaciones.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Filtro de Bloom de cadenas: "no está" es seguro, "podría estar" debe confirmarse en la base de datos.
+// Los bits viven en un AtomicLongArray, así agregar y consultar no necesitan locks. Se dimensiona para
+// una cantidad esperada de elementos y una tasa de falsos positivos; por encima de esa cantidad sigue siendo
+// correcto, pero la tasa sube (UsuariosRegistradosBloom lo reconstruye periódicamente).
+public final class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int hashes;
+    private final long capacidad;
+    private final LongAdder insertados = new LongAdder();
+
+    public FiltroBloom(long capacidad, double probabilidadFalsoPositivo) {
+        this.capacidad = Math.max(capacidad, 1);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-this.capacidad * Math.log(probabilidadFalsoPositivo) / (ln2 * ln2));
+        int palabras = (int) Math.min(Integer.MAX_VALUE, (m + 63) / 64);
+        this.bits = new AtomicLongArray(palabras);
+        this.totalBits = palabras * 64L;
+        this.hashes = Math.max(1, (int) Math.round((double) totalBits / this.capacidad * ln2));
+    }
+
+    public void agregar(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, totalBits);
+            int palabra = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            long actual = bits.get(palabra);
+            while ((actual & mascara) == 0 && !bits.compareAndSet(palabra, actual, actual | mascara)) {
+                actual = bits.get(palabra);
+            }
+        }
+        insertados.increment();
+    }
+
+    public boolean podriaContener(String valor) {
+        long h1 = hash(valor);
+        long h2 = mezclar(h1) | 1;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, totalBits);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getInsertados() {
+        return insertados.sum();
+    }
+
+    public long getCapacidad() {
+        return capacidad;
+    }
+
+    public boolean isSaturado() {
+        return insertados.sum() > capacidad;
+    }
+
+    // FNV-1a de 64 bits sobre los bytes UTF-8, mezclado para repartir bien los bits altos
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : valor.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        return mezclar(h);
+    }
+
+    // Finalizador de MurmurHash3 (fmix64)
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
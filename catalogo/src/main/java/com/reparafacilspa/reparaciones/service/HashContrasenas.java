@@ -0,0 +1,164 @@
+package com.reparafacilspa.reparaciones.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// BCrypt (encode y matches) en un pool propio del tamaño de los núcleos con una cola acotada. Cada hash
+// cuesta decenas de milisegundos de CPU: hecho en el hilo de la petición, una ráfaga de logins dejaba sin
+// CPU ni hilos de Tomcat a las lecturas del catálogo. Con la cola llena se rechaza de inmediato
+// (SobrecargaException -> 429) en lugar de acumular esperas que terminarían en timeouts.
+// Como MeterBinder publica reparafacil.bcrypt.espera/calculo (timers), la cola y los rechazos en Micrometer.
+@Component
+public class HashContrasenas implements MeterBinder {
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final ThreadPoolExecutor executor;
+    private final int capacidadCola;
+
+    private final LongAdder completados = new LongAdder();
+    private final LongAdder rechazados = new LongAdder();
+    private final LongAdder esperaTotalNanos = new LongAdder();
+    private final LongAdder calculoTotalNanos = new LongAdder();
+    private final LongAccumulator esperaMaximaNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator calculoMaximoNanos = new LongAccumulator(Math::max, 0);
+
+    // Null hasta que Spring enlaza el registro (y en las pruebas unitarias, que crean la instancia a mano)
+    private volatile Timer esperaTimer;
+    private volatile Timer calculoTimer;
+
+    public HashContrasenas(@Value("${reparafacil.hash.hilos:0}") int hilos,
+                           @Value("${reparafacil.hash.cola:64}") int capacidadCola) {
+        int totalHilos = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        this.capacidadCola = Math.max(capacidadCola, 1);
+        AtomicInteger numeroHilo = new AtomicInteger();
+        // AbortPolicy: con la cola llena execute() lanza RejectedExecutionException
+        this.executor = new ThreadPoolExecutor(totalHilos, totalHilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.capacidadCola),
+                tarea -> {
+                    Thread thread = new Thread(tarea, "bcrypt-" + numeroHilo.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public String encode(String rawPassword) {
+        return ejecutar(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return ejecutar(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T ejecutar(Callable<T> calculo) {
+        long encolado = System.nanoTime();
+        Future<T> resultado;
+        try {
+            resultado = executor.submit(() -> {
+                long inicio = System.nanoTime();
+                registrar(esperaTotalNanos, esperaMaximaNanos, esperaTimer, inicio - encolado);
+                try {
+                    return calculo.call();
+                } finally {
+                    registrar(calculoTotalNanos, calculoMaximoNanos, calculoTimer, System.nanoTime() - inicio);
+                    completados.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rechazados.increment();
+            throw new SobrecargaException("Demasiadas solicitudes de autenticación, reintente en unos segundos",
+                    reintentarEnSegundos());
+        }
+
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            resultado.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Verificación de contraseña interrumpida");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new RuntimeException(e.getCause());
+        }
+    }
+
+    private static void registrar(LongAdder total, LongAccumulator maximo, Timer timer, long nanos) {
+        total.add(nanos);
+        maximo.accumulate(nanos);
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        esperaTimer = Timer.builder("reparafacil.bcrypt.espera")
+                .description("Tiempo en cola antes de calcular un hash")
+                .register(registry);
+        calculoTimer = Timer.builder("reparafacil.bcrypt.calculo")
+                .description("Tiempo de CPU de cada encode/matches de BCrypt")
+                .register(registry);
+        Gauge.builder("reparafacil.bcrypt.cola", executor, pool -> pool.getQueue().size())
+                .description("Hashes esperando un hilo")
+                .register(registry);
+        Gauge.builder("reparafacil.bcrypt.activos", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Hilos calculando un hash")
+                .register(registry);
+        FunctionCounter.builder("reparafacil.bcrypt.rechazados", rechazados, LongAdder::sum)
+                .description("Solicitudes rechazadas con 429 por cola llena")
+                .register(registry);
+    }
+
+    // Tiempo aproximado para vaciar la cola llena con el costo medio de un hash (mínimo 1 s)
+    private long reintentarEnSegundos() {
+        long hechos = completados.sum();
+        long promedioNanos = hechos == 0 ? 0 : calculoTotalNanos.sum() / hechos;
+        long vaciarCola = promedioNanos * capacidadCola / executor.getMaximumPoolSize();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(vaciarCola) + 1);
+    }
+
+    // Para dimensionar hilos y cola: profundidad actual y latencias acumuladas desde el inicio
+    public Map<String, Object> getEstadisticas() {
+        long hechos = completados.sum();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hilos", executor.getMaximumPoolSize());
+        stats.put("activos", executor.getActiveCount());
+        stats.put("enCola", executor.getQueue().size());
+        stats.put("capacidadCola", capacidadCola);
+        stats.put("completados", hechos);
+        stats.put("rechazados", rechazados.sum());
+        stats.put("esperaPromedioMs", promedioMs(esperaTotalNanos.sum(), hechos));
+        stats.put("esperaMaximaMs", promedioMs(esperaMaximaNanos.get(), 1));
+        stats.put("hashPromedioMs", promedioMs(calculoTotalNanos.sum(), hechos));
+        stats.put("hashMaximoMs", promedioMs(calculoMaximoNanos.get(), 1));
+        return stats;
+    }
+
+    private static double promedioMs(long nanos, long cantidad) {
+        return cantidad == 0 ? 0.0 : Math.round(nanos / (double) cantidad / 10_000.0) / 100.0;
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        executor.shutdownNow();
+    }
+}
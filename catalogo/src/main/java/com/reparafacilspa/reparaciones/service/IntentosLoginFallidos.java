@@ -0,0 +1,144 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.model.User;
+import com.reparafacilspa.reparaciones.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Logins fallidos por username en una ventana deslizante, en memoria. Antes cada contraseña incorrecta
+// hacía un save() de USUARIOS solo para sumar intentosLogin, y un ataque de credenciales se convertía en
+// carga de escritura. Ahora AuthService/AuthServiceV3 deciden el bloqueo con estos contadores y solo
+// persisten el bloqueo; intentosLogin se actualiza en un resumen periódico.
+// Cada username se modifica dentro de compute() del ConcurrentHashMap, que bloquea solo su segmento:
+// intentos de usuarios distintos no compiten entre sí.
+@Component
+public class IntentosLoginFallidos {
+
+    // Tope de fallos guardados por usuario; el bloqueo ocurre mucho antes (MAX_LOGIN_ATTEMPTS)
+    private static final int MAXIMO_POR_USUARIO = 32;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EstadisticasUsuariosContadores estadisticasContadores;
+
+    private final long ventanaMs;
+    private final Map<String, Ventana> ventanas = new ConcurrentHashMap<>();
+
+    // Instantes de los fallos dentro de la ventana y el último valor escrito en intentosLogin
+    private static final class Ventana {
+        private final ArrayDeque<Long> fallos = new ArrayDeque<>();
+        private int persistido;
+
+        private int contar(long desde) {
+            while (!fallos.isEmpty() && fallos.peekFirst() < desde) {
+                fallos.pollFirst();
+            }
+            return fallos.size();
+        }
+    }
+
+    public IntentosLoginFallidos(@Value("${reparafacil.login.ventana-minutos:15}") long ventanaMinutos) {
+        this.ventanaMs = TimeUnit.MINUTES.toMillis(ventanaMinutos);
+    }
+
+    // Registra un fallo y devuelve los fallos dentro de la ventana. La primera vez que se ve al usuario
+    // (p. ej. tras un reinicio) parte de los intentosLogin persistidos por el último resumen
+    public int registrarFallo(String username, int persistidos) {
+        long ahora = System.currentTimeMillis();
+        int[] total = new int[1];
+        ventanas.compute(username, (clave, actual) -> {
+            Ventana v = actual;
+            if (v == null) {
+                v = new Ventana();
+                v.persistido = persistidos;
+                for (int i = 0; i < Math.min(persistidos, MAXIMO_POR_USUARIO); i++) {
+                    v.fallos.addLast(ahora);
+                }
+            }
+            v.contar(ahora - ventanaMs);
+            if (v.fallos.size() >= MAXIMO_POR_USUARIO) {
+                v.fallos.pollFirst();
+            }
+            v.fallos.addLast(ahora);
+            total[0] = v.fallos.size();
+            return v;
+        });
+        return total[0];
+    }
+
+    public int fallos(String username) {
+        long desde = System.currentTimeMillis() - ventanaMs;
+        int[] total = new int[1];
+        ventanas.computeIfPresent(username, (clave, ventana) -> {
+            total[0] = ventana.contar(desde);
+            return ventana;
+        });
+        return total[0];
+    }
+
+    // Login correcto, cuenta bloqueada (el bloqueo ya quedó persistido) o desbloqueo del administrador
+    public void limpiar(String username) {
+        ventanas.remove(username);
+    }
+
+    // Escribe intentosLogin solo de los usuarios cuyo conteo cambió desde el último resumen (también cuando
+    // sus fallos salieron de la ventana) y olvida las ventanas vacías ya persistidas. Un conteo cuenta como
+    // persistido solo después de su save(): USUARIOS tiene @Version y el bloqueo de un login o la descarga de
+    // UltimoLoginBuffer pueden escribir la misma fila; ese usuario se reintenta en el próximo resumen sin
+    // detener a los demás, como en UltimoLoginBuffer.descargar
+    @Scheduled(fixedDelayString = "${reparafacil.login.resumen-ms:60000}",
+               initialDelayString = "${reparafacil.login.resumen-ms:60000}")
+    public void persistirResumen() {
+        long desde = System.currentTimeMillis() - ventanaMs;
+        Map<String, Integer> pendientes = new HashMap<>();
+        for (String username : ventanas.keySet()) {
+            ventanas.computeIfPresent(username, (clave, ventana) -> {
+                int actual = ventana.contar(desde);
+                if (actual != ventana.persistido) {
+                    pendientes.put(clave, actual);
+                    return ventana;
+                }
+                return actual == 0 ? null : ventana;
+            });
+        }
+
+        int fallidos = 0;
+        for (Map.Entry<String, Integer> pendiente : pendientes.entrySet()) {
+            String username = pendiente.getKey();
+            Integer intentos = pendiente.getValue();
+            try {
+                Optional<User> userOptional = userRepository.findByUsername(username);
+                // Una cuenta bloqueada conserva el intentosLogin con que se bloqueó
+                if (userOptional.isPresent() && !Boolean.TRUE.equals(userOptional.get().getCuentaBloqueada())
+                        && !intentos.equals(userOptional.get().getIntentosLogin())) {
+                    User user = userOptional.get();
+                    user.setIntentosLogin(intentos);
+                    userRepository.save(user);
+                    estadisticasContadores.registrarEscritura();
+                }
+                ventanas.computeIfPresent(username, (clave, ventana) -> {
+                    ventana.persistido = intentos;
+                    return intentos == 0 && ventana.contar(desde) == 0 ? null : ventana;
+                });
+            } catch (RuntimeException e) {
+                fallidos++;
+                System.out.println("No se pudo guardar intentosLogin de " + username + ": " + e.getMessage());
+            }
+        }
+        if (!pendientes.isEmpty()) {
+            System.out.println("Resumen de logins fallidos: " + (pendientes.size() - fallidos) + " usuarios actualizados"
+                    + (fallidos > 0 ? ", " + fallidos + " pendientes para el próximo resumen" : ""));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.reparafacilspa.reparaciones.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+// Cursor opaco para paginación keyset: guarda la última clave vista (id o fechaAgendada + id)
+// codificada en Base64 URL-safe para poder usarse directamente como query param. La fecha viaja como
+// nanosegundos desde 1970-01-01T00:00 de la hora local (UTC es solo la codificación, no una conversión).
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private final Long id;
+    private final LocalDateTime fechaAgendada;
+
+    public static KeysetCursor ofId(Long id) {
+        return new KeysetCursor(id, null);
+    }
+
+    public static KeysetCursor ofFechaAndId(LocalDateTime fechaAgendada, Long id) {
+        return new KeysetCursor(id, fechaAgendada);
+    }
+
+    public String encode() {
+        String raw = fechaAgendada == null ? String.valueOf(id) : aNanos(fechaAgendada) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = raw.indexOf(':');
+            if (separador < 0) {
+                return ofId(Long.parseLong(raw));
+            }
+            LocalDateTime fecha = deNanos(Long.parseLong(raw.substring(0, separador)));
+            return ofFechaAndId(fecha, Long.parseLong(raw.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new CursorInvalidoException("Cursor inválido: " + cursor);
+        }
+    }
+
+    private static long aNanos(LocalDateTime fecha) {
+        return fecha.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + fecha.getNano();
+    }
+
+    private static LocalDateTime deNanos(long nanos) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
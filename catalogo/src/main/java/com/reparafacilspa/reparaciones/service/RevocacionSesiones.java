@@ -0,0 +1,89 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Tokens de sesión revocados, por usuario: userId -> instante antes del cual sus tokens dejan de valer.
+// Un usuario desactivado o eliminado queda con Long.MAX_VALUE (ningún token vale); un cambio de rol invalida
+// solo los tokens emitidos antes del cambio. Las entradas por instante se olvidan cuando ya expiró todo token
+// afectado, así el mapa queda del tamaño de los usuarios inactivos más los cambios recientes.
+// El nodo que hace el cambio lo aplica de inmediato; el corte queda además en la base de datos (USUARIOS.ACTIVO
+// y USUARIOS.TOKENS_DESDE, que los servicios guardan junto con el cambio). Cada nodo vuelve a leer ambos
+// periódicamente (reparafacil.token.sincronizacion-ms, el desfase máximo de un cambio hecho en otro nodo) y
+// al arrancar, así un reinicio no pierde las revocaciones.
+@Component
+public class RevocacionSesiones {
+
+    private static final long TODOS = Long.MAX_VALUE;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final long ttlMs;
+    private final Map<Long, Long> revocados = new ConcurrentHashMap<>();
+
+    public RevocacionSesiones(@Value("${reparafacil.token.ttl-minutos:480}") long ttlMinutos) {
+        this.ttlMs = TimeUnit.MINUTES.toMillis(ttlMinutos);
+    }
+
+    public boolean revocado(Long userId, long emitido) {
+        Long desde = revocados.get(userId);
+        return desde != null && emitido < desde;
+    }
+
+    // Usuario desactivado o eliminado
+    public void revocar(Long userId) {
+        revocados.put(userId, TODOS);
+    }
+
+    // Cambio de rol (el token lleva el rol anterior) o de contraseña
+    public void revocarEmitidosAntes(Long userId, long instante) {
+        revocados.merge(userId, instante, Math::max);
+    }
+
+    // Usuario reactivado: los tokens previos a la desactivación siguen sin valer
+    public void reactivar(Long userId) {
+        revocados.computeIfPresent(userId, (id, desde) -> desde == TODOS ? System.currentTimeMillis() : desde);
+    }
+
+    public int getRevocados() {
+        return revocados.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reparafacil.token.sincronizacion-ms:30000}",
+               initialDelayString = "${reparafacil.token.sincronizacion-ms:30000}")
+    public void sincronizar() {
+        Set<Long> inactivos = new HashSet<>(userRepository.findIdsByActivoFalse());
+        long expirados = System.currentTimeMillis() - ttlMs;
+        Map<Long, Long> cortes = new HashMap<>();
+        for (UserRepository.TokensDesde corte : userRepository.findTokensDesdeAfter(expirados)) {
+            cortes.put(corte.getId(), corte.getTokensDesde());
+        }
+
+        inactivos.forEach(this::revocar);
+        cortes.forEach(this::revocarEmitidosAntes);
+        for (Long userId : revocados.keySet()) {
+            revocados.computeIfPresent(userId, (id, desde) -> {
+                if (desde == TODOS) {
+                    // Reactivado en otro nodo: vale el corte que guardó la reactivación. Sin corte es una
+                    // desactivación de este nodo posterior a la lectura de inactivos; se corta en este instante
+                    return inactivos.contains(id) ? desde : cortes.getOrDefault(id, System.currentTimeMillis());
+                }
+                return desde < expirados ? null : desde;
+            });
+        }
+    }
+}
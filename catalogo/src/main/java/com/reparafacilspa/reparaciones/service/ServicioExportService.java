@@ -0,0 +1,193 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse;
+import com.reparafacilspa.reparaciones.model.Fechas;
+import com.reparafacilspa.reparaciones.model.ServicioReparacion;
+import com.reparafacilspa.reparaciones.repository.ServicioReparacionRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Exportación completa de SERVICIOS_REPARACION en NDJSON o CSV. Las filas se leen de un cursor de solo
+// avance y se escriben una a una en la respuesta, de modo que la memoria usada no depende del total de filas.
+@Service
+@Timed("reparafacil.servicio")
+public class ServicioExportService {
+
+    // Cada cuántas filas se vacía el buffer hacia el cliente
+    private static final int FILAS_POR_FLUSH = 500;
+
+    private static final String[] COLUMNAS_CSV = {
+        "id", "nombreCliente", "telefono", "email", "tipoDispositivo", "marca", "modelo", "descripcionProblema",
+        "fechaAgendada", "fechaCreacion", "estado", "estadoDescripcion", "tecnicoAsignado", "costoEstimado",
+        "costoFinal", "observaciones", "fechaInicioReparacion", "fechaFinReparacion", "prioridad", "garantiaDias",
+        "activo", "diasTranscurridos"
+    };
+
+    @Autowired
+    private ServicioReparacionRepository servicioRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Formato(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Formato from(String formato) {
+            if (formato == null || formato.trim().isEmpty()) {
+                return NDJSON;
+            }
+            try {
+                return Formato.valueOf(formato.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Formato de exportación inválido. Use ndjson o csv");
+            }
+        }
+    }
+
+    // Filtros ya validados; se construyen antes de empezar a escribir para poder responder 400 con un error claro
+    @Getter
+    @AllArgsConstructor
+    public static class Filtro {
+        private final ServicioReparacion.EstadoReparacion estado;
+        private final LocalDateTime desde;
+        private final LocalDateTime hasta;
+        private final boolean incluirEliminados;
+    }
+
+    // desde y hasta (yyyy-MM-dd) son inclusivos por día: se consulta el rango [desde, hasta + 1 día)
+    public Filtro filtro(String estado, String desde, String hasta, boolean incluirEliminados) {
+        ServicioReparacion.EstadoReparacion estadoEnum = null;
+        if (estado != null && !estado.trim().isEmpty()) {
+            try {
+                estadoEnum = ServicioReparacion.EstadoReparacion.valueOf(estado.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Estado inválido: " + estado);
+            }
+        }
+        LocalDate diaDesde = parseDia(desde);
+        LocalDate diaHasta = parseDia(hasta);
+        if (diaDesde != null && diaHasta != null && diaHasta.isBefore(diaDesde)) {
+            throw new RuntimeException("La fecha 'hasta' no puede ser anterior a 'desde'");
+        }
+        return new Filtro(estadoEnum,
+                diaDesde == null ? null : Fechas.inicio(diaDesde),
+                diaHasta == null ? null : Fechas.finExclusivo(diaHasta),
+                incluirEliminados);
+    }
+
+    // Retorna la cantidad de filas escritas. La transacción de solo lectura mantiene abierto el cursor mientras se escribe.
+    @Transactional(readOnly = true)
+    public long exportar(Filtro filtro, Formato formato, OutputStream salida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        try (Stream<ServicioReparacionResponse> filas = servicioRepository.streamResponsesForExport(
+                filtro.getEstado(), filtro.getDesde(), filtro.getHasta(), filtro.isIncluirEliminados())) {
+            long total = formato == Formato.CSV ? escribirCsv(filas.iterator(), writer) : escribirNdjson(filas.iterator(), writer);
+            writer.flush();
+            return total;
+        }
+    }
+
+    private long escribirNdjson(Iterator<ServicioReparacionResponse> filas, Writer writer) throws IOException {
+        long total = 0;
+        try (SequenceWriter secuencia = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer)) {
+            while (filas.hasNext()) {
+                secuencia.write(filas.next());
+                total++;
+                if (total % FILAS_POR_FLUSH == 0) {
+                    secuencia.flush();
+                }
+            }
+            if (total > 0) {
+                writer.write('\n');
+            }
+        }
+        return total;
+    }
+
+    private long escribirCsv(Iterator<ServicioReparacionResponse> filas, Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNAS_CSV));
+        writer.write("\r\n");
+
+        long total = 0;
+        while (filas.hasNext()) {
+            ServicioReparacionResponse s = filas.next();
+            Object[] valores = {
+                s.getId(), s.getNombreCliente(), s.getTelefono(), s.getEmail(), s.getTipoDispositivo(), s.getMarca(),
+                s.getModelo(), s.getDescripcionProblema(), s.getFechaAgendada(), s.getFechaCreacion(), s.getEstado(),
+                s.getEstadoDescripcion(), s.getTecnicoAsignado(), s.getCostoEstimado(), s.getCostoFinal(),
+                s.getObservaciones(), s.getFechaInicioReparacion(), s.getFechaFinReparacion(), s.getPrioridad(),
+                s.getGarantiaDias(), s.getActivo(), s.getDiasTranscurridos()
+            };
+            for (int i = 0; i < valores.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                escribirCampoCsv(writer, valores[i]);
+            }
+            writer.write("\r\n");
+            total++;
+            if (total % FILAS_POR_FLUSH == 0) {
+                writer.flush();
+            }
+        }
+        return total;
+    }
+
+    // RFC 4180: los campos con coma, comillas o saltos de línea van entre comillas y las comillas se duplican
+    private static void escribirCampoCsv(Writer writer, Object valor) throws IOException {
+        if (valor == null) {
+            return;
+        }
+        // Mismo formato de fechas que las respuestas JSON
+        String texto = valor instanceof LocalDateTime fecha ? Fechas.FORMATO.format(fecha) : valor.toString();
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            writer.write(texto);
+            return;
+        }
+        writer.write('"');
+        writer.write(texto.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static LocalDate parseDia(String fecha) {
+        return fecha == null || fecha.trim().isEmpty() ? null : Fechas.parseDia(fecha);
+    }
+}
@@ -1,31 +1,43 @@
 package com.reparafacilspa.reparaciones.service;
 
+import com.reparafacilspa.reparaciones.config.CacheConfig;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionRequest;
+import com.reparafacilspa.reparaciones.model.Fechas;
 import com.reparafacilspa.reparaciones.model.ServicioReparacion;
 import com.reparafacilspa.reparaciones.repository.ServicioReparacionRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("reparafacil.servicio")
 public class ServicioReparacionService {
 
     @Autowired
     private ServicioReparacionRepository servicioRepository;
 
+    @Autowired
+    private ServicioSearchIndex searchIndex;
+
+    @Autowired
+    private EstadisticasServiciosContadores estadisticasContadores;
+
     // Métodos existentes (sin cambios)
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findAll() {
-        return servicioRepository.findByActivoTrue()
-                .stream()
-                .map(ServicioReparacionResponse::new)
-                .collect(Collectors.toList());
+        return servicioRepository.findResponsesByActivoTrue();
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
     public ServicioReparacionResponse save(ServicioReparacionRequest request) {
         ServicioReparacion servicio = new ServicioReparacion();
         servicio.setNombreCliente(request.getNombreCliente());
@@ -39,21 +51,26 @@ public class ServicioReparacionService {
         servicio.setEstado(ServicioReparacion.EstadoReparacion.AGENDADO);
         servicio.setPrioridad(ServicioReparacion.PrioridadReparacion.NORMAL);
         servicio.setActivo(true);
-        servicio.setFechaCreacion(new Date());
+        servicio.setFechaCreacion(Fechas.ahora());
 
         ServicioReparacion savedServicio = servicioRepository.save(servicio);
+        estadisticasContadores.registrar(null, savedServicio);
+        searchIndex.index(savedServicio);
         return new ServicioReparacionResponse(savedServicio);
     }
 
+    @Transactional(readOnly = true)
     public ServicioReparacionResponse findById(Long id) {
         ServicioReparacion servicio = servicioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Servicio no encontrado con ID: " + id));
         return new ServicioReparacionResponse(servicio);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
     public ServicioReparacionResponse update(Long id, ServicioReparacion servicioDetails) {
         ServicioReparacion servicio = servicioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Servicio no encontrado con ID: " + id));
+        EstadisticasServiciosContadores.Huella antes = estadisticasContadores.huella(servicio);
         
         servicio.setNombreCliente(servicioDetails.getNombreCliente());
         servicio.setTelefono(servicioDetails.getTelefono());
@@ -72,64 +89,70 @@ public class ServicioReparacionService {
         servicio.setGarantiaDias(servicioDetails.getGarantiaDias());
         
         ServicioReparacion updatedServicio = servicioRepository.save(servicio);
+        estadisticasContadores.registrar(antes, updatedServicio);
+        searchIndex.index(updatedServicio);
         return new ServicioReparacionResponse(updatedServicio);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
     public void delete(Long id) {
         ServicioReparacion servicio = servicioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Servicio no encontrado con ID: " + id));
+        EstadisticasServiciosContadores.Huella antes = estadisticasContadores.huella(servicio);
         servicio.setActivo(false);
         servicioRepository.save(servicio);
+        estadisticasContadores.registrar(antes, servicio);
+        searchIndex.remove(id);
     }
 
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByEmail(String email) {
-        return servicioRepository.findByEmailAndActivoTrue(email)
-                .stream()
-                .map(ServicioReparacionResponse::new)
-                .collect(Collectors.toList());
+        return servicioRepository.findResponsesByEmailAndActivoTrue(email);
     }
 
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByEstado(String estado) {
         try {
             ServicioReparacion.EstadoReparacion estadoEnum = 
                 ServicioReparacion.EstadoReparacion.valueOf(estado.toUpperCase());
-            return servicioRepository.findByEstadoAndActivoTrue(estadoEnum)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
+            return servicioRepository.findResponsesByEstadoAndActivoTrue(estadoEnum);
         } catch (IllegalArgumentException e) {
             return new ArrayList<>();
         }
     }
 
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByTipoDispositivo(String tipoDispositivo) {
-        return servicioRepository.findByTipoDispositivoAndActivoTrue(tipoDispositivo)
-                .stream()
-                .map(ServicioReparacionResponse::new)
-                .collect(Collectors.toList());
+        return servicioRepository.findResponsesByTipoDispositivoAndActivoTrue(tipoDispositivo);
     }
 
+    // Resuelta con el índice invertido; resultados ordenados por relevancia
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> search(String busqueda) {
-        return servicioRepository.findByActivoTrue()
-                .stream()
-                .filter(s -> s.getNombreCliente().toLowerCase().contains(busqueda.toLowerCase()) ||
-                           s.getDescripcionProblema().toLowerCase().contains(busqueda.toLowerCase()) ||
-                           s.getMarca().toLowerCase().contains(busqueda.toLowerCase()) ||
-                           s.getModelo().toLowerCase().contains(busqueda.toLowerCase()))
-                .map(ServicioReparacionResponse::new)
+        List<Long> ids = searchIndex.search(busqueda, 0, Integer.MAX_VALUE).getIds();
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ServicioReparacionResponse> porId = servicioRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ServicioReparacionResponse::getId, s -> s));
+        return ids.stream()
+                .map(porId::get)
+                .filter(s -> s != null && Boolean.TRUE.equals(s.getActivo()))
                 .collect(Collectors.toList());
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
     public ServicioReparacionResponse cambiarEstado(Long id, String nuevoEstado) {
         ServicioReparacion servicio = servicioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Servicio no encontrado con ID: " + id));
+        EstadisticasServiciosContadores.Huella antes = estadisticasContadores.huella(servicio);
         
         try {
             ServicioReparacion.EstadoReparacion estadoEnum = 
                 ServicioReparacion.EstadoReparacion.valueOf(nuevoEstado.toUpperCase());
             servicio.setEstado(estadoEnum);
             
-            Date ahora = new Date();
+            LocalDateTime ahora = Fechas.ahora();
             switch (estadoEnum) {
                 case EN_REPARACION:
                     if (servicio.getFechaInicioReparacion() == null) {
@@ -149,128 +172,79 @@ public class ServicioReparacionService {
             }
             
             ServicioReparacion updatedServicio = servicioRepository.save(servicio);
+            estadisticasContadores.registrar(antes, updatedServicio);
             return new ServicioReparacionResponse(updatedServicio);
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Estado inválido: " + nuevoEstado);
         }
     }
 
+    // Lectura O(1) desde los contadores en memoria (ver EstadisticasServiciosContadores); cacheada e inmutable
+    @Cacheable(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, key = "'resumen'")
     public Map<String, Object> getEstadisticas() {
-        List<ServicioReparacion> todosServicios = servicioRepository.findByActivoTrue();
-        Map<String, Object> stats = new HashMap<>();
-        
-        stats.put("totalServicios", todosServicios.size());
-        stats.put("serviciosAgendados", servicioRepository.countByEstadoAndActivoTrue(
-            ServicioReparacion.EstadoReparacion.AGENDADO));
-        stats.put("serviciosEnReparacion", servicioRepository.countByEstadoAndActivoTrue(
-            ServicioReparacion.EstadoReparacion.EN_REPARACION));
-        stats.put("serviciosCompletados", servicioRepository.countByEstadoAndActivoTrue(
-            ServicioReparacion.EstadoReparacion.COMPLETADO));
-        
-        Map<String, Long> porTipoDispositivo = todosServicios.stream()
-                .collect(Collectors.groupingBy(
-                    ServicioReparacion::getTipoDispositivo,
-                    Collectors.counting()
-                ));
-        stats.put("serviciosPorTipo", porTipoDispositivo);
-        
-        Set<String> tecnicos = todosServicios.stream()
-                .map(ServicioReparacion::getTecnicoAsignado)
-                .filter(tecnico -> tecnico != null && !tecnico.trim().isEmpty())
-                .collect(Collectors.toSet());
-        stats.put("totalTecnicos", tecnicos.size());
-        
-        return stats;
+        return Collections.unmodifiableMap(estadisticasContadores.snapshot().toEstadisticas());
     }
 
     // NUEVOS MÉTODOS PERSONALIZADOS PARA HATEOAS
     
     // 1. Obtener todas las reservas de un técnico específico
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByTecnicoAsignado(String tecnicoAsignado) {
-        return servicioRepository.findByTecnicoAsignadoAndActivoTrue(tecnicoAsignado)
-                .stream()
-                .map(ServicioReparacionResponse::new)
-                .collect(Collectors.toList());
+        return servicioRepository.findResponsesByTecnicoAsignadoAndActivoTrue(tecnicoAsignado);
     }
     
     // 2. Obtener todas las reservas en una fecha específica
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByFechaAgendada(String fechaStr) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            Date fecha = sdf.parse(fechaStr);
-            return servicioRepository.findByFechaAgendadaAndActivoTrue(fecha)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
-        } catch (ParseException e) {
-            throw new RuntimeException("Formato de fecha inválido. Use yyyy-MM-dd");
-        }
+        LocalDate dia = Fechas.parseDia(fechaStr);
+        return servicioRepository.findResponsesByFechaAgendadaRangeAndActivoTrue(Fechas.inicio(dia), Fechas.finExclusivo(dia));
     }
     
     // 3. Obtener el total de reservas realizadas por un cliente (email)
+    @Transactional(readOnly = true)
     public long countByEmail(String email) {
         return servicioRepository.countByEmailAndActivoTrue(email);
     }
     
     // 4. Obtener todas las reservas de un cliente en una fecha específica
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByEmailAndFechaAgendada(String email, String fechaStr) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            Date fecha = sdf.parse(fechaStr);
-            return servicioRepository.findByEmailAndFechaAgendadaAndActivoTrue(email, fecha)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
-        } catch (ParseException e) {
-            throw new RuntimeException("Formato de fecha inválido. Use yyyy-MM-dd");
-        }
+        LocalDate dia = Fechas.parseDia(fechaStr);
+        return servicioRepository.findResponsesByEmailAndFechaAgendadaRangeAndActivoTrue(email, Fechas.inicio(dia), Fechas.finExclusivo(dia));
     }
     
     // 5. Obtener todas las reservas de un técnico en un estado específico
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByTecnicoAsignadoAndEstado(String tecnicoAsignado, String estado) {
         try {
             ServicioReparacion.EstadoReparacion estadoEnum = 
                 ServicioReparacion.EstadoReparacion.valueOf(estado.toUpperCase());
-            return servicioRepository.findByTecnicoAsignadoAndEstadoAndActivoTrue(tecnicoAsignado, estadoEnum)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
+            return servicioRepository.findResponsesByTecnicoAsignadoAndEstadoAndActivoTrue(tecnicoAsignado, estadoEnum);
         } catch (IllegalArgumentException e) {
             return new ArrayList<>();
         }
     }
     
     // 6. Obtener todas las reservas de un cliente entre dos fechas
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByEmailAndFechaAgendadaBetween(String email, String fechaInicioStr, String fechaFinStr) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            Date fechaInicio = sdf.parse(fechaInicioStr);
-            Date fechaFin = sdf.parse(fechaFinStr);
-            return servicioRepository.findByEmailAndFechaAgendadaBetweenAndActivoTrue(email, fechaInicio, fechaFin)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
-        } catch (ParseException e) {
-            throw new RuntimeException("Formato de fecha inválido. Use yyyy-MM-dd");
-        }
+        // fechaFin incluye el día completo
+        LocalDate desde = Fechas.parseDia(fechaInicioStr);
+        LocalDate hasta = Fechas.parseDia(fechaFinStr);
+        return servicioRepository.findResponsesByEmailAndFechaAgendadaRangeAndActivoTrue(email, Fechas.inicio(desde), Fechas.finExclusivo(hasta));
     }
     
     // 7. Obtener todas las reservas de un técnico entre dos fechas
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByTecnicoAsignadoAndFechaAgendadaBetween(String tecnicoAsignado, String fechaInicioStr, String fechaFinStr) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            Date fechaInicio = sdf.parse(fechaInicioStr);
-            Date fechaFin = sdf.parse(fechaFinStr);
-            return servicioRepository.findByTecnicoAsignadoAndFechaAgendadaBetweenAndActivoTrue(tecnicoAsignado, fechaInicio, fechaFin)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
-        } catch (ParseException e) {
-            throw new RuntimeException("Formato de fecha inválido. Use yyyy-MM-dd");
-        }
+        // fechaFin incluye el día completo
+        LocalDate desde = Fechas.parseDia(fechaInicioStr);
+        LocalDate hasta = Fechas.parseDia(fechaFinStr);
+        return servicioRepository.findResponsesByTecnicoAsignadoAndFechaAgendadaRangeAndActivoTrue(tecnicoAsignado, Fechas.inicio(desde), Fechas.finExclusivo(hasta));
     }
     
     // 8. Obtener el total de reservas realizadas por un técnico específico
+    @Transactional(readOnly = true)
     public long countByTecnicoAsignado(String tecnicoAsignado) {
         return servicioRepository.countByTecnicoAsignadoAndActivoTrue(tecnicoAsignado);
     }
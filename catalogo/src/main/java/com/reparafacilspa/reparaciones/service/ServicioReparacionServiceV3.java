@@ -1,51 +1,122 @@
 package com.reparafacilspa.reparaciones.service;
 
+import com.reparafacilspa.reparaciones.config.CacheConfig;
+import com.reparafacilspa.reparaciones.dto.BulkItemResult;
+import com.reparafacilspa.reparaciones.dto.CursorPage;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionRequest;
+import com.reparafacilspa.reparaciones.model.Fechas;
 import com.reparafacilspa.reparaciones.model.ServicioReparacion;
 import com.reparafacilspa.reparaciones.repository.ServicioReparacionRepository;
+import com.reparafacilspa.reparaciones.repository.ServicioReparacionSpecifications;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("reparafacil.servicio")
 public class ServicioReparacionServiceV3 {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BULK_SIZE = 500;
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of(
+            "id", "fechaAgendada", "fechaCreacion", "estado", "tipoDispositivo", "tecnicoAsignado", "email");
+
     @Autowired
     private ServicioReparacionRepository servicioRepository;
 
+    @Autowired
+    private ServicioSearchIndex searchIndex;
+
+    @Autowired
+    private EstadisticasServiciosContadores estadisticasContadores;
+
+    @Autowired
+    private Validator validator;
+
     // ===== MÉTODOS EXISTENTES (HEREDADOS DE V2) =====
 
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findAll() {
-        return servicioRepository.findByActivoTrue()
-                .stream()
-                .map(ServicioReparacionResponse::new)
-                .collect(Collectors.toList());
+        return servicioRepository.findResponsesByActivoTrue();
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
     public ServicioReparacionResponse save(ServicioReparacionRequest request) {
-        ServicioReparacion servicio = new ServicioReparacion();
-        servicio.setNombreCliente(request.getNombreCliente());
-        servicio.setTelefono(request.getTelefono());
-        servicio.setEmail(request.getEmail());
-        servicio.setTipoDispositivo(request.getTipoDispositivo());
-        servicio.setMarca(request.getMarca());
-        servicio.setModelo(request.getModelo());
-        servicio.setDescripcionProblema(request.getDescripcionProblema());
-        servicio.setFechaAgendada(request.getFechaAgendada());
-        servicio.setEstado(ServicioReparacion.EstadoReparacion.AGENDADO);
-        servicio.setPrioridad(ServicioReparacion.PrioridadReparacion.NORMAL);
-        servicio.setActivo(true);
-        servicio.setFechaCreacion(new Date());
-
-        ServicioReparacion savedServicio = servicioRepository.save(servicio);
+        ServicioReparacion savedServicio = servicioRepository.save(nuevoServicio(request));
+        estadisticasContadores.registrar(null, savedServicio);
+        searchIndex.index(savedServicio);
         return new ServicioReparacionResponse(savedServicio);
     }
 
+    // Creación por lote: cada elemento se valida por separado y los válidos se insertan en una sola transacción.
+    // Con IDs de secuencia e hibernate.jdbc.batch_size los INSERT viajan agrupados; si la base de datos rechaza
+    // alguno se revierte el lote completo.
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
+    public List<BulkItemResult> saveAll(List<ServicioReparacionRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("La lista de servicios no puede estar vacía");
+        }
+        if (requests.size() > MAX_BULK_SIZE) {
+            throw new RuntimeException("No se pueden crear más de " + MAX_BULK_SIZE + " servicios por lote");
+        }
+
+        BulkItemResult[] resultados = new BulkItemResult[requests.size()];
+        List<Integer> indices = new ArrayList<>();
+        List<ServicioReparacion> nuevos = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ServicioReparacionRequest request = requests.get(i);
+            if (request == null) {
+                resultados[i] = BulkItemResult.error(i, "Errores de validación: el elemento está vacío");
+                continue;
+            }
+            Set<ConstraintViolation<ServicioReparacionRequest>> errores = validator.validate(request);
+            if (!errores.isEmpty()) {
+                resultados[i] = BulkItemResult.error(i, "Errores de validación: " + errores.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+            indices.add(i);
+            nuevos.add(nuevoServicio(request));
+        }
+
+        if (!nuevos.isEmpty()) {
+            List<ServicioReparacion> guardados = servicioRepository.saveAll(nuevos);
+            // El flush dentro del método hace que un error de la base de datos se informe aquí y no al commit
+            servicioRepository.flush();
+            for (int i = 0; i < guardados.size(); i++) {
+                ServicioReparacion guardado = guardados.get(i);
+                estadisticasContadores.registrar(null, guardado);
+                searchIndex.index(guardado);
+                resultados[indices.get(i)] = BulkItemResult.creado(indices.get(i), new ServicioReparacionResponse(guardado));
+            }
+        }
+        return Arrays.asList(resultados);
+    }
+
+    @Transactional(readOnly = true)
     public ServicioReparacionResponse findById(Long id) {
         ServicioReparacion servicio = servicioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Servicio no encontrado con ID: " + id));
@@ -54,9 +125,11 @@ public class ServicioReparacionServiceV3 {
 
     // ===== NUEVO MÉTODO UPDATE MEJORADO PARA V3 =====
 
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
     public ServicioReparacionResponse update(Long id, ServicioReparacionRequest request) {
         ServicioReparacion servicio = servicioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Servicio no encontrado con ID: " + id));
+        EstadisticasServiciosContadores.Huella antes = estadisticasContadores.huella(servicio);
         
         // Actualizar todos los campos básicos
         servicio.setNombreCliente(request.getNombreCliente());
@@ -72,13 +145,17 @@ public class ServicioReparacionServiceV3 {
         // (estado, técnico, costos, etc. se mantienen o se actualizan por otros endpoints)
         
         ServicioReparacion updatedServicio = servicioRepository.save(servicio);
+        estadisticasContadores.registrar(antes, updatedServicio);
+        searchIndex.index(updatedServicio);
         return new ServicioReparacionResponse(updatedServicio);
     }
 
     // Método update completo (para uso interno o futuras extensiones)
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
     public ServicioReparacionResponse updateComplete(Long id, ServicioReparacion servicioDetails) {
         ServicioReparacion servicio = servicioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Servicio no encontrado con ID: " + id));
+        EstadisticasServiciosContadores.Huella antes = estadisticasContadores.huella(servicio);
         
         // Actualizar todos los campos
         servicio.setNombreCliente(servicioDetails.getNombreCliente());
@@ -120,66 +197,76 @@ public class ServicioReparacionServiceV3 {
         }
         
         ServicioReparacion updatedServicio = servicioRepository.save(servicio);
+        estadisticasContadores.registrar(antes, updatedServicio);
+        searchIndex.index(updatedServicio);
         return new ServicioReparacionResponse(updatedServicio);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
     public void delete(Long id) {
         ServicioReparacion servicio = servicioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Servicio no encontrado con ID: " + id));
+        EstadisticasServiciosContadores.Huella antes = estadisticasContadores.huella(servicio);
         servicio.setActivo(false);
         servicioRepository.save(servicio);
+        estadisticasContadores.registrar(antes, servicio);
+        searchIndex.remove(id);
     }
 
     // ===== MÉTODOS DE BÚSQUEDA (HEREDADOS DE V2) =====
 
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByEmail(String email) {
-        return servicioRepository.findByEmailAndActivoTrue(email)
-                .stream()
-                .map(ServicioReparacionResponse::new)
-                .collect(Collectors.toList());
+        return servicioRepository.findResponsesByEmailAndActivoTrue(email);
     }
 
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByEstado(String estado) {
         try {
             ServicioReparacion.EstadoReparacion estadoEnum = 
                 ServicioReparacion.EstadoReparacion.valueOf(estado.toUpperCase());
-            return servicioRepository.findByEstadoAndActivoTrue(estadoEnum)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
+            return servicioRepository.findResponsesByEstadoAndActivoTrue(estadoEnum);
         } catch (IllegalArgumentException e) {
             return new ArrayList<>();
         }
     }
 
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByTipoDispositivo(String tipoDispositivo) {
-        return servicioRepository.findByTipoDispositivoAndActivoTrue(tipoDispositivo)
-                .stream()
-                .map(ServicioReparacionResponse::new)
-                .collect(Collectors.toList());
+        return servicioRepository.findResponsesByTipoDispositivoAndActivoTrue(tipoDispositivo);
     }
 
+    // Resuelta con el índice invertido; resultados ordenados por relevancia
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> search(String busqueda) {
-        return servicioRepository.findByActivoTrue()
-                .stream()
-                .filter(s -> s.getNombreCliente().toLowerCase().contains(busqueda.toLowerCase()) ||
-                           s.getDescripcionProblema().toLowerCase().contains(busqueda.toLowerCase()) ||
-                           s.getMarca().toLowerCase().contains(busqueda.toLowerCase()) ||
-                           s.getModelo().toLowerCase().contains(busqueda.toLowerCase()))
-                .map(ServicioReparacionResponse::new)
-                .collect(Collectors.toList());
+        return loadHits(searchIndex.search(busqueda, 0, Integer.MAX_VALUE).getIds());
     }
 
+    // Búsqueda paginada por relevancia: solo se cargan desde la base de datos los servicios de la página pedida
+    @Transactional(readOnly = true)
+    public Page<ServicioReparacionResponse> search(String busqueda, Pageable pageable) {
+        Pageable pagina = pageable == null || pageable.isUnpaged()
+                ? PageRequest.of(0, DEFAULT_PAGE_SIZE)
+                : PageRequest.of(pageable.getPageNumber(), normalizePageSize(pageable.getPageSize()));
+        // Un page enorme da un offset fuera de int: truncado quedaría negativo y el índice devolvería la página 0.
+        // Cualquier offset desde Integer.MAX_VALUE ya está pasado el final del índice, así que la página sale vacía
+        int offset = (int) Math.min(pagina.getOffset(), Integer.MAX_VALUE);
+        ServicioSearchIndex.SearchHits hits = searchIndex.search(busqueda, offset, pagina.getPageSize());
+        return new PageImpl<>(loadHits(hits.getIds()), pagina, hits.getTotal());
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
     public ServicioReparacionResponse cambiarEstado(Long id, String nuevoEstado) {
         ServicioReparacion servicio = servicioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Servicio no encontrado con ID: " + id));
+        EstadisticasServiciosContadores.Huella antes = estadisticasContadores.huella(servicio);
         
         try {
             ServicioReparacion.EstadoReparacion estadoEnum = 
                 ServicioReparacion.EstadoReparacion.valueOf(nuevoEstado.toUpperCase());
             servicio.setEstado(estadoEnum);
             
-            Date ahora = new Date();
+            LocalDateTime ahora = Fechas.ahora();
             switch (estadoEnum) {
                 case EN_REPARACION:
                     if (servicio.getFechaInicioReparacion() == null) {
@@ -199,128 +286,79 @@ public class ServicioReparacionServiceV3 {
             }
             
             ServicioReparacion updatedServicio = servicioRepository.save(servicio);
+            estadisticasContadores.registrar(antes, updatedServicio);
             return new ServicioReparacionResponse(updatedServicio);
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Estado inválido: " + nuevoEstado);
         }
     }
 
+    // Lectura O(1) desde los contadores en memoria (ver EstadisticasServiciosContadores); cacheada e inmutable
+    @Cacheable(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, key = "'resumen'")
     public Map<String, Object> getEstadisticas() {
-        List<ServicioReparacion> todosServicios = servicioRepository.findByActivoTrue();
-        Map<String, Object> stats = new HashMap<>();
-        
-        stats.put("totalServicios", todosServicios.size());
-        stats.put("serviciosAgendados", servicioRepository.countByEstadoAndActivoTrue(
-            ServicioReparacion.EstadoReparacion.AGENDADO));
-        stats.put("serviciosEnReparacion", servicioRepository.countByEstadoAndActivoTrue(
-            ServicioReparacion.EstadoReparacion.EN_REPARACION));
-        stats.put("serviciosCompletados", servicioRepository.countByEstadoAndActivoTrue(
-            ServicioReparacion.EstadoReparacion.COMPLETADO));
-        
-        Map<String, Long> porTipoDispositivo = todosServicios.stream()
-                .collect(Collectors.groupingBy(
-                    ServicioReparacion::getTipoDispositivo,
-                    Collectors.counting()
-                ));
-        stats.put("serviciosPorTipo", porTipoDispositivo);
-        
-        Set<String> tecnicos = todosServicios.stream()
-                .map(ServicioReparacion::getTecnicoAsignado)
-                .filter(tecnico -> tecnico != null && !tecnico.trim().isEmpty())
-                .collect(Collectors.toSet());
-        stats.put("totalTecnicos", tecnicos.size());
-        
-        return stats;
+        return Collections.unmodifiableMap(estadisticasContadores.snapshot().toEstadisticas());
     }
 
     // ===== MÉTODOS PERSONALIZADOS (HEREDADOS DE V2) =====
     
     // 1. Obtener todas las reservas de un técnico específico
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByTecnicoAsignado(String tecnicoAsignado) {
-        return servicioRepository.findByTecnicoAsignadoAndActivoTrue(tecnicoAsignado)
-                .stream()
-                .map(ServicioReparacionResponse::new)
-                .collect(Collectors.toList());
+        return servicioRepository.findResponsesByTecnicoAsignadoAndActivoTrue(tecnicoAsignado);
     }
     
     // 2. Obtener todas las reservas en una fecha específica
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByFechaAgendada(String fechaStr) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            Date fecha = sdf.parse(fechaStr);
-            return servicioRepository.findByFechaAgendadaAndActivoTrue(fecha)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
-        } catch (ParseException e) {
-            throw new RuntimeException("Formato de fecha inválido. Use yyyy-MM-dd");
-        }
+        LocalDate dia = Fechas.parseDia(fechaStr);
+        return servicioRepository.findResponsesByFechaAgendadaRangeAndActivoTrue(Fechas.inicio(dia), Fechas.finExclusivo(dia));
     }
     
     // 3. Obtener el total de reservas realizadas por un cliente (email)
+    @Transactional(readOnly = true)
     public long countByEmail(String email) {
         return servicioRepository.countByEmailAndActivoTrue(email);
     }
     
     // 4. Obtener todas las reservas de un cliente en una fecha específica
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByEmailAndFechaAgendada(String email, String fechaStr) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            Date fecha = sdf.parse(fechaStr);
-            return servicioRepository.findByEmailAndFechaAgendadaAndActivoTrue(email, fecha)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
-        } catch (ParseException e) {
-            throw new RuntimeException("Formato de fecha inválido. Use yyyy-MM-dd");
-        }
+        LocalDate dia = Fechas.parseDia(fechaStr);
+        return servicioRepository.findResponsesByEmailAndFechaAgendadaRangeAndActivoTrue(email, Fechas.inicio(dia), Fechas.finExclusivo(dia));
     }
     
     // 5. Obtener todas las reservas de un técnico en un estado específico
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByTecnicoAsignadoAndEstado(String tecnicoAsignado, String estado) {
         try {
             ServicioReparacion.EstadoReparacion estadoEnum = 
                 ServicioReparacion.EstadoReparacion.valueOf(estado.toUpperCase());
-            return servicioRepository.findByTecnicoAsignadoAndEstadoAndActivoTrue(tecnicoAsignado, estadoEnum)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
+            return servicioRepository.findResponsesByTecnicoAsignadoAndEstadoAndActivoTrue(tecnicoAsignado, estadoEnum);
         } catch (IllegalArgumentException e) {
             return new ArrayList<>();
         }
     }
     
     // 6. Obtener todas las reservas de un cliente entre dos fechas
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByEmailAndFechaAgendadaBetween(String email, String fechaInicioStr, String fechaFinStr) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            Date fechaInicio = sdf.parse(fechaInicioStr);
-            Date fechaFin = sdf.parse(fechaFinStr);
-            return servicioRepository.findByEmailAndFechaAgendadaBetweenAndActivoTrue(email, fechaInicio, fechaFin)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
-        } catch (ParseException e) {
-            throw new RuntimeException("Formato de fecha inválido. Use yyyy-MM-dd");
-        }
+        // fechaFin incluye el día completo
+        LocalDate desde = Fechas.parseDia(fechaInicioStr);
+        LocalDate hasta = Fechas.parseDia(fechaFinStr);
+        return servicioRepository.findResponsesByEmailAndFechaAgendadaRangeAndActivoTrue(email, Fechas.inicio(desde), Fechas.finExclusivo(hasta));
     }
     
     // 7. Obtener todas las reservas de un técnico entre dos fechas
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findByTecnicoAsignadoAndFechaAgendadaBetween(String tecnicoAsignado, String fechaInicioStr, String fechaFinStr) {
-        try {
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-            Date fechaInicio = sdf.parse(fechaInicioStr);
-            Date fechaFin = sdf.parse(fechaFinStr);
-            return servicioRepository.findByTecnicoAsignadoAndFechaAgendadaBetweenAndActivoTrue(tecnicoAsignado, fechaInicio, fechaFin)
-                    .stream()
-                    .map(ServicioReparacionResponse::new)
-                    .collect(Collectors.toList());
-        } catch (ParseException e) {
-            throw new RuntimeException("Formato de fecha inválido. Use yyyy-MM-dd");
-        }
+        // fechaFin incluye el día completo
+        LocalDate desde = Fechas.parseDia(fechaInicioStr);
+        LocalDate hasta = Fechas.parseDia(fechaFinStr);
+        return servicioRepository.findResponsesByTecnicoAsignadoAndFechaAgendadaRangeAndActivoTrue(tecnicoAsignado, Fechas.inicio(desde), Fechas.finExclusivo(hasta));
     }
     
     // 8. Obtener el total de reservas realizadas por un técnico específico
+    @Transactional(readOnly = true)
     public long countByTecnicoAsignado(String tecnicoAsignado) {
         return servicioRepository.countByTecnicoAsignadoAndActivoTrue(tecnicoAsignado);
     }
@@ -328,100 +366,225 @@ public class ServicioReparacionServiceV3 {
     // ===== MÉTODOS ADICIONALES V3 =====
 
     // Obtener servicios eliminados (soft deleted)
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> findDeletedServicios() {
-        return servicioRepository.findAll()
-                .stream()
-                .filter(s -> !s.getActivo())
-                .map(ServicioReparacionResponse::new)
-                .collect(Collectors.toList());
+        return servicioRepository.findResponsesByActivoFalse();
     }
 
     // Restaurar servicio eliminado
+    @CacheEvict(cacheNames = CacheConfig.ESTADISTICAS_SERVICIOS, allEntries = true)
     public ServicioReparacionResponse restoreServicio(Long id) {
         ServicioReparacion servicio = servicioRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Servicio no encontrado con ID: " + id));
+        EstadisticasServiciosContadores.Huella antes = estadisticasContadores.huella(servicio);
         servicio.setActivo(true);
         ServicioReparacion restoredServicio = servicioRepository.save(servicio);
+        estadisticasContadores.registrar(antes, restoredServicio);
+        searchIndex.index(restoredServicio);
         return new ServicioReparacionResponse(restoredServicio);
     }
 
-    // Búsqueda avanzada con múltiples filtros
+    // Búsqueda avanzada con múltiples filtros (resuelta en la base de datos)
+    @Transactional(readOnly = true)
     public List<ServicioReparacionResponse> searchAdvanced(String nombreCliente, String email, 
                                                           String tipoDispositivo, String estado, 
                                                           String tecnicoAsignado) {
-        return servicioRepository.findByActivoTrue()
+        return servicioRepository.findAll(
+                    ServicioReparacionSpecifications.busquedaAvanzada(nombreCliente, email, tipoDispositivo, estado, tecnicoAsignado),
+                    Sort.by(Sort.Direction.ASC, "id"))
                 .stream()
-                .filter(s -> {
-                    boolean matches = true;
-                    
-                    if (nombreCliente != null && !nombreCliente.trim().isEmpty()) {
-                        matches &= s.getNombreCliente().toLowerCase().contains(nombreCliente.toLowerCase());
-                    }
-                    if (email != null && !email.trim().isEmpty()) {
-                        matches &= s.getEmail().toLowerCase().contains(email.toLowerCase());
-                    }
-                    if (tipoDispositivo != null && !tipoDispositivo.trim().isEmpty()) {
-                        matches &= s.getTipoDispositivo().toLowerCase().contains(tipoDispositivo.toLowerCase());
-                    }
-                    if (estado != null && !estado.trim().isEmpty()) {
-                        matches &= s.getEstado().name().equalsIgnoreCase(estado);
-                    }
-                    if (tecnicoAsignado != null && !tecnicoAsignado.trim().isEmpty()) {
-                        matches &= s.getTecnicoAsignado() != null && 
-                                  s.getTecnicoAsignado().toLowerCase().contains(tecnicoAsignado.toLowerCase());
-                    }
-                    
-                    return matches;
-                })
                 .map(ServicioReparacionResponse::new)
                 .collect(Collectors.toList());
     }
 
-    // Obtener estadísticas detalladas
+    // Búsqueda avanzada paginada y ordenada; solo los filtros informados se envían como predicados
+    @Transactional(readOnly = true)
+    public Page<ServicioReparacionResponse> searchAdvanced(String nombreCliente, String email, 
+                                                          String tipoDispositivo, String estado, 
+                                                          String tecnicoAsignado, Pageable pageable) {
+        return servicioRepository.findAll(
+                    ServicioReparacionSpecifications.busquedaAvanzada(nombreCliente, email, tipoDispositivo, estado, tecnicoAsignado),
+                    sanitizePageable(pageable))
+                .map(ServicioReparacionResponse::new);
+    }
+
+    // Obtener estadísticas detalladas (incluye eliminados) con dos consultas agregadas
+    @Transactional(readOnly = true)
     public Map<String, Object> getDetailedStatistics() {
-        List<ServicioReparacion> todosServicios = servicioRepository.findAll(); // Incluye eliminados
-        List<ServicioReparacion> serviciosActivos = servicioRepository.findByActivoTrue();
-        
-        Map<String, Object> stats = new HashMap<>();
-        
-        // Estadísticas generales
-        stats.put("totalServicios", todosServicios.size());
-        stats.put("serviciosActivos", serviciosActivos.size());
-        stats.put("serviciosEliminados", todosServicios.size() - serviciosActivos.size());
-        
-        // Por estado
-        Map<String, Long> porEstado = serviciosActivos.stream()
-                .collect(Collectors.groupingBy(
-                    s -> s.getEstado().name(),
-                    Collectors.counting()
-                ));
-        stats.put("serviciosPorEstado", porEstado);
-        
-        // Por tipo de dispositivo
-        Map<String, Long> porTipo = serviciosActivos.stream()
-                .collect(Collectors.groupingBy(
-                    ServicioReparacion::getTipoDispositivo,
-                    Collectors.counting()
-                ));
-        stats.put("serviciosPorTipo", porTipo);
-        
-        // Por prioridad
-        Map<String, Long> porPrioridad = serviciosActivos.stream()
-                .collect(Collectors.groupingBy(
-                    s -> s.getPrioridad().name(),
-                    Collectors.counting()
-                ));
-        stats.put("serviciosPorPrioridad", porPrioridad);
-        
-        // Por técnico
-        Map<String, Long> porTecnico = serviciosActivos.stream()
-                .filter(s -> s.getTecnicoAsignado() != null && !s.getTecnicoAsignado().trim().isEmpty())
-                .collect(Collectors.groupingBy(
-                    ServicioReparacion::getTecnicoAsignado,
-                    Collectors.counting()
-                ));
-        stats.put("serviciosPorTecnico", porTecnico);
-        
-        return stats;
+        return EstadisticasServicios.from(
+                servicioRepository.countGroupByActivoEstadoPrioridad(),
+                servicioRepository.countActivosGroupByTipoDispositivoTecnico())
+            .toDetailedStatistics();
+    }
+
+    // ===== PAGINACIÓN KEYSET (CURSOR) =====
+
+    // Versión de la tabla para el ETag débil de los listados (ver VersionesColeccion)
+    public long getVersionColeccion() {
+        return estadisticasContadores.getVersionColeccion();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ServicioReparacionResponse> findAllPage(String after, String before, Integer size) {
+        return keysetPageById(after, before, size,
+                (id, limit) -> servicioRepository.findResponsesByActivoTrueAndIdAfter(id, limit),
+                (id, limit) -> servicioRepository.findResponsesByActivoTrueAndIdBefore(id, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ServicioReparacionResponse> findByEstadoPage(String estado, String after, String before, Integer size) {
+        ServicioReparacion.EstadoReparacion estadoEnum;
+        try {
+            estadoEnum = ServicioReparacion.EstadoReparacion.valueOf(estado.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return new CursorPage<>(new ArrayList<>(), null, null, normalizePageSize(size));
+        }
+        return keysetPageById(after, before, size,
+                (id, limit) -> servicioRepository.findResponsesByEstadoAndActivoTrueAndIdAfter(estadoEnum, id, limit),
+                (id, limit) -> servicioRepository.findResponsesByEstadoAndActivoTrueAndIdBefore(estadoEnum, id, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ServicioReparacionResponse> findByTipoDispositivoPage(String tipoDispositivo, String after, String before, Integer size) {
+        return keysetPageById(after, before, size,
+                (id, limit) -> servicioRepository.findResponsesByTipoDispositivoAndActivoTrueAndIdAfter(tipoDispositivo, id, limit),
+                (id, limit) -> servicioRepository.findResponsesByTipoDispositivoAndActivoTrueAndIdBefore(tipoDispositivo, id, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ServicioReparacionResponse> findByTecnicoAsignadoPage(String tecnicoAsignado, String after, String before, Integer size) {
+        return keysetPageById(after, before, size,
+                (id, limit) -> servicioRepository.findResponsesByTecnicoAsignadoAndActivoTrueAndIdAfter(tecnicoAsignado, id, limit),
+                (id, limit) -> servicioRepository.findResponsesByTecnicoAsignadoAndActivoTrueAndIdBefore(tecnicoAsignado, id, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ServicioReparacionResponse> findByEmailPage(String email, String after, String before, Integer size) {
+        return keysetPageById(after, before, size,
+                (id, limit) -> servicioRepository.findResponsesByEmailAndActivoTrueAndIdAfter(email, id, limit),
+                (id, limit) -> servicioRepository.findResponsesByEmailAndActivoTrueAndIdBefore(email, id, limit));
+    }
+
+    // Ordena por (fechaAgendada, id) dentro del día solicitado
+    @Transactional(readOnly = true)
+    public CursorPage<ServicioReparacionResponse> findByFechaAgendadaPage(String fechaStr, String after, String before, Integer size) {
+        LocalDate dia = Fechas.parseDia(fechaStr);
+        LocalDateTime inicio = Fechas.inicio(dia);
+        LocalDateTime fin = Fechas.finExclusivo(dia);
+
+        return keysetPage(after, before, size, KeysetCursor.ofFechaAndId(inicio, 0L),
+                s -> KeysetCursor.ofFechaAndId(s.getFechaAgendada(), s.getId()),
+                (cursor, limit) -> servicioRepository.findResponsesByFechaAgendadaRangeAfter(
+                        inicio, fin, requireFecha(cursor), cursor.getId(), limit),
+                (cursor, limit) -> servicioRepository.findResponsesByFechaAgendadaRangeBefore(
+                        inicio, fin, requireFecha(cursor), cursor.getId(), limit));
+    }
+
+    private CursorPage<ServicioReparacionResponse> keysetPageById(
+            String after, String before, Integer size,
+            BiFunction<Long, Limit, List<ServicioReparacionResponse>> forward,
+            BiFunction<Long, Limit, List<ServicioReparacionResponse>> backward) {
+        return keysetPage(after, before, size, KeysetCursor.ofId(0L),
+                s -> KeysetCursor.ofId(s.getId()),
+                (cursor, limit) -> forward.apply(cursor.getId(), limit),
+                (cursor, limit) -> backward.apply(cursor.getId(), limit));
+    }
+
+    // Se pide una fila extra (size + 1) para saber si existe otra página sin hacer COUNT
+    private CursorPage<ServicioReparacionResponse> keysetPage(
+            String after, String before, Integer size, KeysetCursor inicio,
+            Function<ServicioReparacionResponse, KeysetCursor> cursorOf,
+            BiFunction<KeysetCursor, Limit, List<ServicioReparacionResponse>> forward,
+            BiFunction<KeysetCursor, Limit, List<ServicioReparacionResponse>> backward) {
+        int pageSize = normalizePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        if (before != null && !before.isBlank()) {
+            List<ServicioReparacionResponse> filas = backward.apply(KeysetCursor.decode(before), limit);
+            boolean hayAnterior = filas.size() > pageSize;
+            List<ServicioReparacionResponse> pagina = new ArrayList<>(filas.subList(0, Math.min(pageSize, filas.size())));
+            Collections.reverse(pagina);
+            return toCursorPage(pagina, cursorOf, hayAnterior, true, pageSize);
+        }
+
+        boolean conCursor = after != null && !after.isBlank();
+        KeysetCursor desde = conCursor ? KeysetCursor.decode(after) : inicio;
+        List<ServicioReparacionResponse> filas = forward.apply(desde, limit);
+        boolean haySiguiente = filas.size() > pageSize;
+        List<ServicioReparacionResponse> pagina = filas.subList(0, Math.min(pageSize, filas.size()));
+        return toCursorPage(pagina, cursorOf, conCursor, haySiguiente, pageSize);
+    }
+
+    private CursorPage<ServicioReparacionResponse> toCursorPage(List<ServicioReparacionResponse> pagina,
+                                                                Function<ServicioReparacionResponse, KeysetCursor> cursorOf,
+                                                                boolean hayAnterior, boolean haySiguiente, int pageSize) {
+        List<ServicioReparacionResponse> content = new ArrayList<>(pagina);
+        if (pagina.isEmpty()) {
+            return new CursorPage<>(content, null, null, pageSize);
+        }
+        String next = haySiguiente ? cursorOf.apply(pagina.get(pagina.size() - 1)).encode() : null;
+        String prev = hayAnterior ? cursorOf.apply(pagina.get(0)).encode() : null;
+        return new CursorPage<>(content, next, prev, pageSize);
+    }
+
+    // Servicio recién agendado a partir del request, igual para save y saveAll
+    private ServicioReparacion nuevoServicio(ServicioReparacionRequest request) {
+        ServicioReparacion servicio = new ServicioReparacion();
+        servicio.setNombreCliente(request.getNombreCliente());
+        servicio.setTelefono(request.getTelefono());
+        servicio.setEmail(request.getEmail());
+        servicio.setTipoDispositivo(request.getTipoDispositivo());
+        servicio.setMarca(request.getMarca());
+        servicio.setModelo(request.getModelo());
+        servicio.setDescripcionProblema(request.getDescripcionProblema());
+        servicio.setFechaAgendada(request.getFechaAgendada());
+        servicio.setEstado(ServicioReparacion.EstadoReparacion.AGENDADO);
+        servicio.setPrioridad(ServicioReparacion.PrioridadReparacion.NORMAL);
+        servicio.setActivo(true);
+        servicio.setFechaCreacion(Fechas.ahora());
+        return servicio;
+    }
+
+    // Solo se permite ordenar por columnas indexadas; el tamaño de página se acota a MAX_PAGE_SIZE
+    private Pageable sanitizePageable(Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return PageRequest.of(0, DEFAULT_PAGE_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+        }
+        List<Sort.Order> orders = pageable.getSort().stream()
+                .filter(order -> SORTABLE_PROPERTIES.contains(order.getProperty()))
+                .collect(Collectors.toList());
+        // El id se agrega como desempate para que el orden entre páginas sea estable
+        if (orders.stream().noneMatch(order -> order.getProperty().equals("id"))) {
+            orders.add(Sort.Order.asc("id"));
+        }
+        Sort sort = Sort.by(orders);
+        return PageRequest.of(pageable.getPageNumber(), normalizePageSize(pageable.getPageSize()), sort);
+    }
+
+    // Carga los servicios indicados por el índice respetando su orden de relevancia
+    private List<ServicioReparacionResponse> loadHits(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ServicioReparacionResponse> porId = servicioRepository.findResponsesByIdIn(ids).stream()
+                .collect(Collectors.toMap(ServicioReparacionResponse::getId, Function.identity()));
+        return ids.stream()
+                .map(porId::get)
+                .filter(s -> s != null && Boolean.TRUE.equals(s.getActivo()))
+                .collect(Collectors.toList());
+    }
+
+    private int normalizePageSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private LocalDateTime requireFecha(KeysetCursor cursor) {
+        if (cursor.getFechaAgendada() == null) {
+            throw new CursorInvalidoException("Cursor inválido para búsqueda por fecha");
+        }
+        return cursor.getFechaAgendada();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,205 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.model.ServicioReparacion;
+import com.reparafacilspa.reparaciones.repository.ServicioReparacionRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice invertido en memoria para /buscar sobre nombreCliente, descripcionProblema, marca y modelo.
+// Solo contiene servicios activos; los servicios lo mantienen al crear, actualizar, eliminar y restaurar.
+@Component
+public class ServicioSearchIndex {
+
+    // Peso de cada campo en el puntaje de relevancia
+    private static final int PESO_NOMBRE_CLIENTE = 3;
+    private static final int PESO_MARCA = 2;
+    private static final int PESO_MODELO = 2;
+    private static final int PESO_DESCRIPCION = 1;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private ServicioReparacionRepository servicioRepository;
+
+    // término -> (id del servicio -> peso acumulado del término en ese servicio)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // id del servicio -> términos indexados, para poder retirarlo sin recorrer todo el índice
+    private final Map<Long, Map<String, Integer>> documentos = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Getter
+    @AllArgsConstructor
+    public static class SearchHits {
+        private final List<Long> ids;
+        private final int total;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromDatabase() {
+        rebuild(servicioRepository.findByActivoTrue());
+        System.out.println("Índice de búsqueda construido con " + size() + " servicios activos");
+    }
+
+    public void rebuild(Collection<ServicioReparacion> servicios) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentos.clear();
+            for (ServicioReparacion servicio : servicios) {
+                if (Boolean.TRUE.equals(servicio.getActivo())) {
+                    agregar(servicio);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Reindexa el servicio; si quedó inactivo simplemente se retira
+    public void index(ServicioReparacion servicio) {
+        if (servicio == null || servicio.getId() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            retirar(servicio.getId());
+            if (Boolean.TRUE.equals(servicio.getActivo())) {
+                agregar(servicio);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            retirar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Cada término de la consulta debe coincidir (como prefijo) con algún término del servicio.
+    // El puntaje suma, por término de consulta, el mejor peso encontrado; una coincidencia exacta vale el doble.
+    // Los resultados se ordenan por puntaje descendente y luego por id ascendente.
+    public SearchHits search(String consulta, int offset, int limit) {
+        List<String> terminos = tokenize(consulta);
+        if (terminos.isEmpty()) {
+            return new SearchHits(Collections.emptyList(), 0);
+        }
+
+        Map<Long, Integer> puntajes = null;
+        lock.readLock().lock();
+        try {
+            for (String termino : new LinkedHashSet<>(terminos)) {
+                Map<Long, Integer> coincidencias = new HashMap<>();
+                for (Map.Entry<String, Map<Long, Integer>> entrada
+                        : postings.subMap(termino, true, termino + Character.MAX_VALUE, true).entrySet()) {
+                    int factor = entrada.getKey().equals(termino) ? 2 : 1;
+                    for (Map.Entry<Long, Integer> posting : entrada.getValue().entrySet()) {
+                        if (puntajes == null || puntajes.containsKey(posting.getKey())) {
+                            coincidencias.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+                        }
+                    }
+                }
+                if (puntajes != null) {
+                    for (Map.Entry<Long, Integer> coincidencia : coincidencias.entrySet()) {
+                        coincidencia.setValue(coincidencia.getValue() + puntajes.get(coincidencia.getKey()));
+                    }
+                }
+                puntajes = coincidencias;
+                if (puntajes.isEmpty()) {
+                    break;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map.Entry<Long, Integer>> ordenados = new ArrayList<>(puntajes.entrySet());
+        ordenados.sort(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        int desde = Math.min(Math.max(offset, 0), ordenados.size());
+        int hasta = (int) Math.min((long) desde + Math.max(limit, 0), ordenados.size());
+        List<Long> ids = new ArrayList<>(hasta - desde);
+        for (Map.Entry<Long, Integer> entrada : ordenados.subList(desde, hasta)) {
+            ids.add(entrada.getKey());
+        }
+        return new SearchHits(ids, ordenados.size());
+    }
+
+    // Minúsculas y sin tildes ("Pérez" -> "perez", "Compañía" -> "compania"), separado por todo lo que no sea letra o dígito
+    public static List<String> tokenize(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return Collections.emptyList();
+        }
+        String normalizado = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terminos = new ArrayList<>();
+        for (String termino : SEPARADORES.split(normalizado)) {
+            if (!termino.isEmpty()) {
+                terminos.add(termino);
+            }
+        }
+        return terminos;
+    }
+
+    private void agregar(ServicioReparacion servicio) {
+        Map<String, Integer> terminos = new HashMap<>();
+        acumular(terminos, servicio.getNombreCliente(), PESO_NOMBRE_CLIENTE);
+        acumular(terminos, servicio.getMarca(), PESO_MARCA);
+        acumular(terminos, servicio.getModelo(), PESO_MODELO);
+        acumular(terminos, servicio.getDescripcionProblema(), PESO_DESCRIPCION);
+
+        documentos.put(servicio.getId(), terminos);
+        for (Map.Entry<String, Integer> termino : terminos.entrySet()) {
+            postings.computeIfAbsent(termino.getKey(), k -> new HashMap<>())
+                    .put(servicio.getId(), termino.getValue());
+        }
+    }
+
+    private void retirar(Long id) {
+        Map<String, Integer> terminos = documentos.remove(id);
+        if (terminos == null) {
+            return;
+        }
+        for (String termino : terminos.keySet()) {
+            Map<Long, Integer> posting = postings.get(termino);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(termino);
+                }
+            }
+        }
+    }
+
+    private static void acumular(Map<String, Integer> terminos, String texto, int peso) {
+        for (String termino : tokenize(texto)) {
+            terminos.merge(termino, peso, Integer::sum);
+        }
+    }
+}
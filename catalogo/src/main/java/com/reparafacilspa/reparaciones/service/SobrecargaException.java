@@ -0,0 +1,16 @@
+package com.reparafacilspa.reparaciones.service;
+
+// Trabajo rechazado porque su cola está llena; se responde 429 con Retry-After (ver SobrecargaExceptionHandler)
+public class SobrecargaException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    public SobrecargaException(String message, long reintentarEnSegundos) {
+        super(message);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
@@ -0,0 +1,112 @@
+package com.reparafacilspa.reparaciones.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// Token de sesión firmado y autocontenido: "<payload>.<firma>" en Base64 URL, con payload
+// "userId:rol:emitido:expira" (milisegundos epoch) y firma HMAC-SHA256. Se verifica en memoria, sin consultar
+// USUARIOS; cualquier nodo con el mismo reparafacil.token.secreto acepta los tokens de los demás. Lo único
+// que no viaja en el token es la revocación (ver RevocacionSesiones).
+@Component
+public class TokenSesion {
+
+    private static final String ALGORITMO = "HmacSHA256";
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+
+    @Autowired
+    private RevocacionSesiones revocacion;
+
+    private final SecretKeySpec clave;
+    private final long ttlMs;
+
+    // Mac no es seguro entre hilos; se clona este ya inicializado, que es más barato que Mac.getInstance() + init().
+    // No se usa ThreadLocal: con hilos virtuales cada petición tiene su propio hilo
+    private final Mac prototipo;
+
+    // Datos del token ya verificado
+    public record Sesion(Long userId, String rol, long emitido, long expira) {
+    }
+
+    public TokenSesion(@Value("${reparafacil.token.secreto:}") String secreto,
+                       @Value("${reparafacil.token.ttl-minutos:480}") long ttlMinutos) {
+        byte[] bytes;
+        if (secreto == null || secreto.isBlank()) {
+            // Sin secreto configurado los tokens solo valen en este nodo y hasta que se reinicie
+            bytes = new byte[32];
+            new SecureRandom().nextBytes(bytes);
+            System.out.println("⚠️ reparafacil.token.secreto no configurado: se usa una clave aleatoria para los tokens de sesión");
+        } else {
+            bytes = secreto.getBytes(StandardCharsets.UTF_8);
+        }
+        this.clave = new SecretKeySpec(bytes, ALGORITMO);
+        this.ttlMs = TimeUnit.MINUTES.toMillis(ttlMinutos);
+        try {
+            this.prototipo = Mac.getInstance(ALGORITMO);
+            this.prototipo.init(clave);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo inicializar " + ALGORITMO, e);
+        }
+    }
+
+    public String emitir(Long userId, String rol) {
+        long ahora = System.currentTimeMillis();
+        String payload = userId + ":" + rol + ":" + ahora + ":" + (ahora + ttlMs);
+        String payloadBase64 = BASE64.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return payloadBase64 + "." + BASE64.encodeToString(firmar(payloadBase64));
+    }
+
+    // Vacío si el token está mal formado, la firma no coincide, expiró o fue revocado
+    public Optional<Sesion> verificar(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int punto = token.indexOf('.');
+        if (punto <= 0 || punto != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        String payloadBase64 = token.substring(0, punto);
+        try {
+            byte[] firma = BASE64_DECODER.decode(token.substring(punto + 1));
+            // Comparación en tiempo constante para no filtrar cuántos bytes de la firma coinciden
+            if (!MessageDigest.isEqual(firma, firmar(payloadBase64))) {
+                return Optional.empty();
+            }
+            String[] partes = new String(BASE64_DECODER.decode(payloadBase64), StandardCharsets.UTF_8).split(":");
+            if (partes.length != 4) {
+                return Optional.empty();
+            }
+            Sesion sesion = new Sesion(Long.valueOf(partes[0]), partes[1], Long.parseLong(partes[2]), Long.parseLong(partes[3]));
+            if (sesion.expira() <= System.currentTimeMillis() || revocacion.revocado(sesion.userId(), sesion.emitido())) {
+                return Optional.empty();
+            }
+            return Optional.of(sesion);
+        } catch (IllegalArgumentException e) {
+            // Base64 o números inválidos
+            return Optional.empty();
+        }
+    }
+
+    public long getTtlMs() {
+        return ttlMs;
+    }
+
+    private byte[] firmar(String payloadBase64) {
+        try {
+            return ((Mac) prototipo.clone()).doFinal(payloadBase64.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITMO + " sin soporte para clone()", e);
+        }
+    }
+}
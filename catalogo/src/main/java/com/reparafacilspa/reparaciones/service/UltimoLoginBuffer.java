@@ -0,0 +1,77 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.model.User;
+import com.reparafacilspa.reparaciones.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Escritura diferida de ultimoLogin. Un login correcto sin nada que cambiar por seguridad (intentosLogin ya
+// en 0) no espera un UPDATE: el instante queda aquí, un valor por usuario (el más reciente), y se escribe
+// cada reparafacil.login.ultimo-login-ms y al detener la aplicación. Cada descarga es un solo saveAll, que
+// Hibernate envía como un lote JDBC de UPDATE (hibernate.jdbc.batch_size) y que mantiene la versión, la
+// caché de segundo nivel y la caché de consultas igual que cualquier otra escritura.
+@Component
+public class UltimoLoginBuffer {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EstadisticasUsuariosContadores estadisticasContadores;
+
+    private final Map<Long, LocalDateTime> pendientes = new ConcurrentHashMap<>();
+
+    public void registrar(Long userId, LocalDateTime ultimoLogin) {
+        pendientes.merge(userId, ultimoLogin, (anterior, nuevo) -> nuevo.isAfter(anterior) ? nuevo : anterior);
+    }
+
+    public int getPendientes() {
+        return pendientes.size();
+    }
+
+    @Scheduled(fixedDelayString = "${reparafacil.login.ultimo-login-ms:10000}",
+               initialDelayString = "${reparafacil.login.ultimo-login-ms:10000}")
+    public void descargar() {
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        // Se retira cada entrada con remove(): un login que llegue mientras tanto queda para la siguiente descarga
+        Map<Long, LocalDateTime> lote = new HashMap<>();
+        for (Long userId : new ArrayList<>(pendientes.keySet())) {
+            LocalDateTime fecha = pendientes.remove(userId);
+            if (fecha != null) {
+                lote.put(userId, fecha);
+            }
+        }
+
+        List<User> users = userRepository.findAllById(lote.keySet());
+        for (User user : users) {
+            LocalDateTime fecha = lote.get(user.getId());
+            if (user.getUltimoLogin() == null || fecha.isAfter(user.getUltimoLogin())) {
+                user.setUltimoLogin(fecha);
+            }
+        }
+        try {
+            userRepository.saveAll(users);
+            estadisticasContadores.registrarEscritura();
+        } catch (RuntimeException e) {
+            // Conflicto de versión con otra escritura del mismo usuario: se reintenta en la próxima descarga
+            lote.forEach(this::registrar);
+            System.out.println("No se pudo guardar ultimoLogin de " + lote.size() + " usuarios: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        descargar();
+    }
+}
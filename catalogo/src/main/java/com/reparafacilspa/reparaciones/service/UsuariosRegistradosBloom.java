@@ -0,0 +1,107 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.model.User;
+import com.reparafacilspa.reparaciones.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Filtros de Bloom de los usernames y emails de USUARIOS, para check-username/check-email y la validación de
+// registro: si el filtro dice "no está", el nombre está libre sin ir a la base de datos; solo un "podría
+// estar" llega a existsByUsername/existsByEmail. Mientras no termine la primera construcción se consulta
+// siempre la base de datos.
+// Renombres y usuarios eliminados dejan bits de más, que solo producen falsos positivos (se confirman en la
+// base de datos). Lo que no puede faltar es un usuario existente: este nodo agrega los suyos al guardarlos, y
+// los creados en otros nodos entran en la reconstrucción periódica (reparafacil.bloom.reconstruccion-ms).
+// Hasta entonces un nombre recién tomado en otro nodo puede verse libre en check-username, pero el registro
+// lo rechaza igual por el índice único de la tabla.
+@Component
+public class UsuariosRegistradosBloom {
+
+    // Filtros dimensionados para el doble de los usuarios actuales, con este mínimo
+    private static final long CAPACIDAD_MINIMA = 1024;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final double probabilidadFalsoPositivo;
+
+    // Se reemplazan completos en cada reconstrucción; null hasta la primera
+    private volatile Filtros filtros;
+    // Filtros en construcción: lo agregado mientras se leen las tablas también entra en ellos
+    private volatile Filtros enConstruccion;
+
+    private record Filtros(FiltroBloom usernames, FiltroBloom emails) {
+
+        private Filtros(long capacidad, double probabilidad) {
+            this(new FiltroBloom(capacidad, probabilidad), new FiltroBloom(capacidad, probabilidad));
+        }
+
+        private void agregar(String username, String email) {
+            if (username != null) {
+                usernames.agregar(username);
+            }
+            if (email != null) {
+                emails.agregar(email);
+            }
+        }
+    }
+
+    public UsuariosRegistradosBloom(@Value("${reparafacil.bloom.falsos-positivos:0.01}") double probabilidadFalsoPositivo) {
+        this.probabilidadFalsoPositivo = probabilidadFalsoPositivo;
+    }
+
+    // false solo si es seguro que ningún usuario tiene ese username
+    public boolean podriaExistirUsername(String username) {
+        Filtros actuales = filtros;
+        return actuales == null || username == null || actuales.usernames().podriaContener(username);
+    }
+
+    // false solo si es seguro que ningún usuario tiene ese email
+    public boolean podriaExistirEmail(String email) {
+        Filtros actuales = filtros;
+        return actuales == null || email == null || actuales.emails().podriaContener(email);
+    }
+
+    // Después de guardar un usuario nuevo o con username/email cambiados
+    public void agregar(User user) {
+        Filtros actuales = filtros;
+        if (actuales != null) {
+            actuales.agregar(user.getUsername(), user.getEmail());
+        }
+        Filtros nuevos = enConstruccion;
+        if (nuevos != null) {
+            nuevos.agregar(user.getUsername(), user.getEmail());
+        }
+    }
+
+    public boolean isListo() {
+        return filtros != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${reparafacil.bloom.reconstruccion-ms:600000}",
+               initialDelayString = "${reparafacil.bloom.reconstruccion-ms:600000}")
+    public synchronized void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        long capacidad = Math.max(CAPACIDAD_MINIMA, userRepository.count() * 2);
+        Filtros nuevos = new Filtros(capacidad, probabilidadFalsoPositivo);
+        enConstruccion = nuevos;
+        try {
+            List<String> usernames = userRepository.findAllUsernames();
+            usernames.forEach(nuevos.usernames()::agregar);
+            List<String> emails = userRepository.findAllEmails();
+            emails.forEach(nuevos.emails()::agregar);
+            filtros = nuevos;
+            System.out.println("Filtros de Bloom de usuarios construidos: " + usernames.size() + " usernames, "
+                    + emails.size() + " emails en " + (System.currentTimeMillis() - inicio) + " ms");
+        } finally {
+            enConstruccion = null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.reparafacilspa.reparaciones.service;
+
+import com.reparafacilspa.reparaciones.model.VersionTabla;
+import com.reparafacilspa.reparaciones.repository.VersionColeccion;
+import com.reparafacilspa.reparaciones.repository.VersionTablaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Versión de cada tabla para los ETag débiles de los listados V3, guardada en VERSIONES_COLECCION. La huella
+// completa (VersionColeccion: COUNT/SUM(version)/MAX(id)) recorre la tabla y una versión en memoria no ve las
+// escrituras de otro nodo, así que cada escritura incrementa la fila de su tabla y cada listado la lee por
+// clave. Todos los nodos comparten el valor y sobrevive a los reinicios.
+// La reconciliación periódica sigue comparando la huella para avanzar la versión cuando la tabla cambió por
+// algo que no pasó por los servicios (DataLoader, cargas directas al repositorio o a la base de datos).
+@Component
+public class VersionesColeccion {
+
+    public static final String SERVICIOS = "SERVICIOS_REPARACION";
+    public static final String USUARIOS = "USUARIOS";
+
+    @Autowired
+    private VersionTablaRepository versionTablaRepository;
+
+    // Última huella vista por este nodo, por tabla
+    private final Map<String, String> huellas = new ConcurrentHashMap<>();
+
+    public long getVersion(String tabla) {
+        return versionTablaRepository.findVersion(tabla).orElse(0L);
+    }
+
+    // Dentro de una transacción se incrementa una sola vez por tabla, antes del commit, para que la versión y
+    // los datos se confirmen juntos; sin transacción la escritura ya se confirmó y se incrementa enseguida
+    public void avanzar(String tabla) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            incrementar(tabla);
+            return;
+        }
+        String clave = VersionesColeccion.class.getName() + "." + tabla;
+        if (TransactionSynchronizationManager.hasResource(clave)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(clave, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                versionTablaRepository.incrementar(tabla);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(clave);
+            }
+        });
+    }
+
+    // La primera reconciliación de cada nodo avanza siempre: las cargas del arranque no pasan por los servicios
+    public void reconciliar(String tabla, VersionColeccion version) {
+        String huella = version.getTotal() + "-" + version.getSumaVersiones() + "-" + version.getMaxId();
+        if (!huella.equals(huellas.put(tabla, huella))) {
+            incrementar(tabla);
+        }
+    }
+
+    // Fuera de una transacción: si la fila aún no existe se crea, y si otro nodo la creó primero se incrementa
+    private void incrementar(String tabla) {
+        if (versionTablaRepository.incrementar(tabla) > 0) {
+            return;
+        }
+        try {
+            versionTablaRepository.save(new VersionTabla(tabla, 1L));
+        } catch (DataIntegrityViolationException e) {
+            versionTablaRepository.incrementar(tabla);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.reparafacilspa.reparaciones.assemblers;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PlantillaEnlace - Pruebas unitarias")
+class PlantillaEnlaceTest {
+
+    private static final String PAQUETE = "com.reparafacilspa.reparaciones";
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Todas las plantillas estáticas se construyen: un método renombrado falla aquí y no al arrancar")
+    void testTodasLasPlantillasSeConstruyen() throws Exception {
+        // Arrange - todas las clases de la aplicación, no solo los beans
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return true;
+            }
+        };
+        scanner.addIncludeFilter((metadataReader, metadataReaderFactory) -> true);
+
+        // Act - inicializar cada clase ejecuta los PlantillaEnlace.de(...) de sus campos estáticos
+        List<String> plantillas = new ArrayList<>();
+        for (BeanDefinition definicion : scanner.findCandidateComponents(PAQUETE)) {
+            Class<?> clase = Class.forName(definicion.getBeanClassName(), true, getClass().getClassLoader());
+            for (Field campo : clase.getDeclaredFields()) {
+                if (campo.getType() == PlantillaEnlace.class && Modifier.isStatic(campo.getModifiers())) {
+                    campo.setAccessible(true);
+                    PlantillaEnlace plantilla = (PlantillaEnlace) campo.get(null);
+                    assertNotNull(plantilla, clase.getSimpleName() + "." + campo.getName());
+                    plantillas.add(clase.getSimpleName() + "." + campo.getName() + " -> " + expandirConValores(plantilla));
+                }
+            }
+        }
+
+        // Assert - hay plantillas y todas expanden a un href absoluto sin variables pendientes
+        assertFalse(plantillas.isEmpty());
+        for (String plantilla : plantillas) {
+            String href = plantilla.substring(plantilla.indexOf(" -> ") + 4);
+            assertTrue(href.startsWith("http://localhost/api/"), plantilla);
+            assertFalse(href.contains("{"), plantilla);
+        }
+    }
+
+    @Test
+    @DisplayName("Un método inexistente o con parámetros de consulta se rechaza al construir la plantilla")
+    void testMetodoInvalido() {
+        assertThrows(IllegalArgumentException.class,
+            () -> PlantillaEnlace.de(PlantillaEnlaceTest.class, "metodoQueNoExiste"));
+    }
+
+    private static String expandirConValores(PlantillaEnlace plantilla) {
+        List<?> variables = (List<?>) ReflectionTestUtils.getField(plantilla, "variables");
+        Object[] valores = new Object[variables.size()];
+        Arrays.fill(valores, "1");
+        return plantilla.expandir(valores);
+    }
+}
@@ -2,17 +2,22 @@ package com.reparafacilspa.reparaciones.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reparafacilspa.reparaciones.assemblers.UserModelAssembler;
+import com.reparafacilspa.reparaciones.config.SesionTokenFilter;
 import com.reparafacilspa.reparaciones.dto.AuthResponse;
 import com.reparafacilspa.reparaciones.dto.LoginRequest;
 import com.reparafacilspa.reparaciones.dto.RegisterRequest;
 import com.reparafacilspa.reparaciones.dto.UpdateUserRequest;
 import com.reparafacilspa.reparaciones.service.AuthServiceV3;
+import com.reparafacilspa.reparaciones.service.SobrecargaException;
+import com.reparafacilspa.reparaciones.service.TokenSesion;
+import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -22,6 +27,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -85,6 +92,9 @@ class AuthControllerV3Test {
         updateRequest.setTelefono("+56999888777");
         updateRequest.setRol("CLIENTE");
         updateRequest.setActivo(true);
+
+        // Versión de la tabla para los ETag de los listados
+        when(authService.getVersionColeccion()).thenReturn(5L);
     }
 
     // ===== PRUEBAS DE LOGIN =====
@@ -129,6 +139,42 @@ class AuthControllerV3Test {
         verify(authService).login(any(LoginRequest.class));
     }
 
+    @Test
+    @DisplayName("POST /login - Cola de BCrypt llena responde 429 con Retry-After")
+    void testLoginSobrecarga() throws Exception {
+        // Arrange
+        when(authService.login(any(LoginRequest.class)))
+                .thenThrow(new SobrecargaException("Demasiadas solicitudes de autenticación, reintente en unos segundos", 3));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/v3/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"))
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value(org.hamcrest.Matchers.containsString("reintente")));
+    }
+
+    @Test
+    @DisplayName("GET /sesion - Datos del token verificado, sin consultar el servicio")
+    void testGetSesion() throws Exception {
+        // Act & Assert - la sesión la deja SesionTokenFilter como atributo de la petición
+        mockMvc.perform(get("/api/v3/auth/sesion")
+                .requestAttr(SesionTokenFilter.ATRIBUTO_SESION, new TokenSesion.Sesion(1L, "ADMIN", 1000L, 2000L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(1))
+                .andExpect(jsonPath("$.rol").value("ADMIN"))
+                .andExpect(jsonPath("$._links.profile").exists());
+
+        mockMvc.perform(get("/api/v3/auth/sesion"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$._links.login").exists());
+
+        verifyNoInteractions(authService);
+    }
+
     @Test
     @DisplayName("POST /login - Datos inválidos")
     void testLoginValidationError() throws Exception {
@@ -349,7 +395,7 @@ class AuthControllerV3Test {
     void testGetAllUsers() throws Exception {
         // Arrange
         List<AuthResponse.UserInfo> users = Arrays.asList(testUser, createOtherUser());
-        when(authService.findAllUsers()).thenReturn(users);
+        when(authService.findAllUsers(any(), any(), any(), any())).thenReturn(new PageImpl<>(users));
         when(userAssembler.toModel(any())).thenReturn(null); // Mock HATEOAS
 
         // Act & Assert
@@ -357,21 +403,65 @@ class AuthControllerV3Test {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$._links").exists());
 
-        verify(authService).findAllUsers();
+        verify(authService).findAllUsers(any(), any(), any(), any());
     }
 
     @Test
     @DisplayName("GET /users - Lista vacía")
     void testGetAllUsersEmpty() throws Exception {
         // Arrange
-        when(authService.findAllUsers()).thenReturn(Arrays.asList());
+        when(authService.findAllUsers(any(), any(), any(), any())).thenReturn(new PageImpl<>(List.of()));
 
         // Act & Assert
         mockMvc.perform(get("/api/v3/auth/users"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$._links").exists());
 
-        verify(authService).findAllUsers();
+        verify(authService).findAllUsers(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /users - Página, orden y filtros llegan al servicio")
+    void testGetAllUsersPaginado() throws Exception {
+        // Arrange
+        when(authService.findAllUsers(any(), any(), any(), any())).thenReturn(new PageImpl<>(List.of()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v3/auth/users")
+                        .param("rol", "ADMIN").param("activo", "true").param("q", "ad")
+                        .param("page", "2").param("size", "5").param("sort", "username,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page").exists());
+
+        verify(authService).findAllUsers(eq("ADMIN"), eq(true), eq("ad"), argThat(pageable ->
+                pageable.getPageNumber() == 2 && pageable.getPageSize() == 5
+                        && pageable.getSort().getOrderFor("username").isDescending()));
+    }
+
+    @Test
+    @DisplayName("GET /users - Rol inválido")
+    void testGetAllUsersRolInvalido() throws Exception {
+        // Arrange
+        when(authService.findAllUsers(eq("INVALID_ROLE"), any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Rol inválido: INVALID_ROLE"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v3/auth/users").param("rol", "INVALID_ROLE"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$._links").exists());
+    }
+
+    @Test
+    @DisplayName("GET /users - Un error de la base de datos no se informa como rol inválido")
+    void testGetAllUsersErrorBaseDatos() {
+        // Arrange
+        when(authService.findAllUsers(any(), any(), any(), any()))
+                .thenThrow(new RuntimeException("Error al obtener usuarios: Connection is not available"));
+
+        // Act & Assert - sin manejador, el error llega al contenedor como 500
+        ServletException exception = assertThrows(ServletException.class,
+                () -> mockMvc.perform(get("/api/v3/auth/users").param("rol", "ADMIN")));
+        assertTrue(exception.getCause().getMessage().contains("Connection is not available"));
     }
 
     @Test
@@ -401,6 +491,40 @@ class AuthControllerV3Test {
         verify(authService).findUserById(999L);
     }
 
+    @Test
+    @DisplayName("GET /users/{id} - If-None-Match vigente responde 304 sin cuerpo")
+    void testGetUserByIdNotModified() throws Exception {
+        // Arrange
+        testUser.setVersion(3L);
+        when(authService.findUserById(1L)).thenReturn(testUser);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v3/auth/users/1").header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(content().string(""));
+
+        verify(userAssembler, never()).toModel(any());
+    }
+
+    @Test
+    @DisplayName("GET /users - ETag débil de la colección y 304 con If-None-Match")
+    void testGetAllUsersETag() throws Exception {
+        // Arrange
+        when(authService.findAllUsers(any(), any(), any(), any())).thenReturn(new PageImpl<>(List.of()));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/v3/auth/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"5\""));
+
+        mockMvc.perform(get("/api/v3/auth/users").header("If-None-Match", "W/\"5\""))
+                .andExpect(status().isNotModified());
+
+        // El segundo GET no vuelve a leer los usuarios
+        verify(authService, times(1)).findAllUsers(any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("PUT /users/{id} - Actualización exitosa")
     void testUpdateUserSuccess() throws Exception {
@@ -512,7 +636,7 @@ class AuthControllerV3Test {
     void testGetActiveUsers() throws Exception {
         // Arrange
         List<AuthResponse.UserInfo> activeUsers = Arrays.asList(testUser);
-        when(authService.findActiveUsers()).thenReturn(activeUsers);
+        when(authService.findActiveUsers(any(), any())).thenReturn(new PageImpl<>(activeUsers));
         when(userAssembler.toModel(any())).thenReturn(null); // Mock HATEOAS
 
         // Act & Assert
@@ -520,7 +644,7 @@ class AuthControllerV3Test {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$._links").exists());
 
-        verify(authService).findActiveUsers();
+        verify(authService).findActiveUsers(any(), any());
     }
 
     @Test
@@ -528,7 +652,7 @@ class AuthControllerV3Test {
     void testGetUsersByRole() throws Exception {
         // Arrange
         List<AuthResponse.UserInfo> clientUsers = Arrays.asList(testUser);
-        when(authService.findUsersByRole("CLIENTE")).thenReturn(clientUsers);
+        when(authService.findUsersByRole(eq("CLIENTE"), any(), any(), any())).thenReturn(new PageImpl<>(clientUsers));
         when(userAssembler.toModel(any())).thenReturn(null); // Mock HATEOAS
 
         // Act & Assert
@@ -536,21 +660,21 @@ class AuthControllerV3Test {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$._links").exists());
 
-        verify(authService).findUsersByRole("CLIENTE");
+        verify(authService).findUsersByRole(eq("CLIENTE"), any(), any(), any());
     }
 
     @Test
     @DisplayName("GET /users/role/{role} - Rol inválido")
     void testGetUsersByRoleInvalid() throws Exception {
         // Arrange
-        when(authService.findUsersByRole("INVALID_ROLE")).thenThrow(new RuntimeException("Rol inválido: INVALID_ROLE"));
+        when(authService.findUsersByRole(eq("INVALID_ROLE"), any(), any(), any())).thenThrow(new IllegalArgumentException("Rol inválido: INVALID_ROLE"));
 
         // Act & Assert
         mockMvc.perform(get("/api/v3/auth/users/role/INVALID_ROLE"))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$._links").exists());
 
-        verify(authService).findUsersByRole("INVALID_ROLE");
+        verify(authService).findUsersByRole(eq("INVALID_ROLE"), any(), any(), any());
     }
 
     @Test
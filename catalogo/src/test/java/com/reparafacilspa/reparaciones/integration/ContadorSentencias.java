@@ -0,0 +1,142 @@
+package com.reparafacilspa.reparaciones.integration;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Proxy del DataSource para las pruebas de presupuesto: cuenta las sentencias que llegan a JDBC y las filas
+// leídas de sus ResultSet. Se registra con @Import(ContadorSentencias.class) y solo mide dentro de
+// medir(...), en el hilo que llama; las tareas @Scheduled de otros hilos no entran en la cuenta.
+// Cada execute* es una sentencia (un executeBatch cuenta una vez: es un viaje a la base de datos).
+public class ContadorSentencias implements BeanPostProcessor {
+
+    private static final ThreadLocal<Medicion> ACTUAL = new ThreadLocal<>();
+
+    @FunctionalInterface
+    public interface Accion {
+        void ejecutar() throws Exception;
+    }
+
+    // Resultado de una medición, con aserciones encadenables
+    public static final class Medicion {
+        private final List<String> sql = new ArrayList<>();
+        private long filas;
+
+        public int getSentencias() {
+            return sql.size();
+        }
+
+        public long getFilas() {
+            return filas;
+        }
+
+        public List<String> getSql() {
+            return sql;
+        }
+
+        public Medicion sentenciasMaximas(int maximo) {
+            assertTrue(sql.size() <= maximo, "Se esperaban a lo más " + maximo + " sentencias y hubo " + sql.size() + detalle());
+            return this;
+        }
+
+        public Medicion filasMaximas(long maximo) {
+            assertTrue(filas <= maximo, "Se esperaban a lo más " + maximo + " filas leídas y hubo " + filas + detalle());
+            return this;
+        }
+
+        private String detalle() {
+            StringBuilder texto = new StringBuilder(":");
+            sql.forEach(sentencia -> texto.append("\n  ").append(sentencia));
+            return texto.toString();
+        }
+    }
+
+    public static Medicion medir(Accion accion) throws Exception {
+        Medicion medicion = new Medicion();
+        Medicion anterior = ACTUAL.get();
+        ACTUAL.set(medicion);
+        try {
+            accion.ejecutar();
+        } finally {
+            ACTUAL.set(anterior);
+        }
+        return medicion;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof DataSourceContador)) {
+            return new DataSourceContador(dataSource);
+        }
+        return bean;
+    }
+
+    private static final class DataSourceContador extends DelegatingDataSource {
+
+        private DataSourceContador(DataSource destino) {
+            super(destino);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return envolver(Connection.class, super.getConnection(), null);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return envolver(Connection.class, super.getConnection(username, password), null);
+        }
+    }
+
+    // Envuelve conexiones, sentencias y ResultSet; sql es el texto de la sentencia preparada, si lo hay
+    @SuppressWarnings("unchecked")
+    private static <T> T envolver(Class<T> tipo, T destino, String sql) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            String nombre = method.getName();
+            if (Statement.class.isAssignableFrom(tipo) && nombre.startsWith("execute")) {
+                Medicion medicion = ACTUAL.get();
+                if (medicion != null) {
+                    medicion.sql.add(args != null && args.length > 0 && args[0] instanceof String texto ? texto : sql);
+                }
+            }
+            Object resultado;
+            try {
+                resultado = method.invoke(destino, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (tipo == ResultSet.class && nombre.equals("next") && Boolean.TRUE.equals(resultado)) {
+                Medicion medicion = ACTUAL.get();
+                if (medicion != null) {
+                    medicion.filas++;
+                }
+            }
+            if (resultado == null) {
+                return null;
+            }
+            // Sentencias creadas por la conexión y ResultSet de consultas (no las claves generadas)
+            if (tipo == Connection.class && Statement.class.isAssignableFrom(method.getReturnType())) {
+                return envolver((Class<Statement>) method.getReturnType(), (Statement) resultado,
+                        args != null && args.length > 0 && args[0] instanceof String texto ? texto : null);
+            }
+            if (Statement.class.isAssignableFrom(tipo) && method.getReturnType() == ResultSet.class
+                    && (nombre.equals("executeQuery") || nombre.equals("getResultSet"))) {
+                return envolver(ResultSet.class, (ResultSet) resultado, sql);
+            }
+            return resultado;
+        };
+        return (T) Proxy.newProxyInstance(ContadorSentencias.class.getClassLoader(), new Class<?>[]{tipo}, handler);
+    }
+}
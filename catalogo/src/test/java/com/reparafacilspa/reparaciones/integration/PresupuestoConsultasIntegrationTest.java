@@ -0,0 +1,295 @@
+package com.reparafacilspa.reparaciones.integration;
+
+import com.reparafacilspa.reparaciones.model.ServicioReparacion;
+import com.reparafacilspa.reparaciones.model.User;
+import com.reparafacilspa.reparaciones.repository.ServicioReparacionRepository;
+import com.reparafacilspa.reparaciones.repository.UserRepository;
+import com.reparafacilspa.reparaciones.service.CacheAdminService;
+import com.reparafacilspa.reparaciones.service.EstadisticasServiciosContadores;
+import com.reparafacilspa.reparaciones.service.EstadisticasUsuariosContadores;
+import com.reparafacilspa.reparaciones.service.HashContrasenas;
+import com.reparafacilspa.reparaciones.service.ServicioSearchIndex;
+import com.reparafacilspa.reparaciones.service.UsuariosRegistradosBloom;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.reparafacilspa.reparaciones.integration.ContadorSentencias.medir;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Presupuesto de sentencias y filas por endpoint V3, con datos sembrados en H2. Cada endpoint se mide en frío
+// (cachés vacías): una consulta N+1, un listado sin límite o una búsqueda que vuelve a recorrer la tabla hacen
+// fallar el build con el SQL ejecutado en el mensaje. Los presupuestos son los valores actuales; si un cambio
+// los sube a propósito, se ajustan aquí en el mismo commit.
+@SpringBootTest(
+    properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:presupuesto;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration",
+        "spring.cache.type=jcache"
+    }
+)
+@AutoConfigureMockMvc
+@Import(ContadorSentencias.class)
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("Presupuesto de consultas - Endpoints V3")
+class PresupuestoConsultasIntegrationTest {
+
+    private static final int SERVICIOS = 300;
+    private static final int USUARIOS = 60;
+    private static final String PASSWORD = "Presupuesto123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ServicioReparacionRepository servicioRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheAdminService cacheAdminService;
+
+    @Autowired
+    private ServicioSearchIndex searchIndex;
+
+    @Autowired
+    private EstadisticasServiciosContadores estadisticasServicios;
+
+    @Autowired
+    private EstadisticasUsuariosContadores estadisticasUsuarios;
+
+    @Autowired
+    private UsuariosRegistradosBloom usuariosRegistrados;
+
+    @Autowired
+    private HashContrasenas hashContrasenas;
+
+    private Long servicioId;
+    private Long userId;
+    private String fecha;
+
+    @BeforeAll
+    void sembrarDatos() {
+        LocalDateTime fechaAgendada = LocalDateTime.of(2025, 3, 10, 10, 0);
+        fecha = fechaAgendada.toLocalDate().toString();
+
+        String[] tipos = {"Smartphone", "Laptop", "Tablet", "Consola"};
+        ServicioReparacion.EstadoReparacion[] estados = ServicioReparacion.EstadoReparacion.values();
+        List<ServicioReparacion> servicios = new ArrayList<>();
+        for (int i = 0; i < SERVICIOS; i++) {
+            ServicioReparacion servicio = new ServicioReparacion();
+            servicio.setNombreCliente("Cliente " + i);
+            servicio.setTelefono("+5691234" + String.format("%04d", i));
+            servicio.setEmail("cliente" + (i % 30) + "@presupuesto.cl");
+            servicio.setTipoDispositivo(tipos[i % tipos.length]);
+            servicio.setMarca("Marca " + (i % 7));
+            servicio.setModelo("Modelo " + i);
+            servicio.setDescripcionProblema("Pantalla rota número " + i);
+            servicio.setFechaAgendada(fechaAgendada);
+            servicio.setEstado(estados[i % estados.length]);
+            servicio.setTecnicoAsignado("Técnico " + (i % 5));
+            servicio.setCostoEstimado(new BigDecimal(10000 + i));
+            servicios.add(servicio);
+        }
+        servicioId = servicioRepository.saveAll(servicios).get(0).getId();
+
+        String password = hashContrasenas.encode(PASSWORD);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USUARIOS; i++) {
+            User user = new User();
+            user.setUsername("usuario" + i);
+            user.setEmail("usuario" + i + "@presupuesto.cl");
+            user.setPassword(password);
+            user.setNombre("Nombre" + i);
+            user.setApellido("Apellido" + i);
+            user.setRol(i < 3 ? User.UserRole.ADMIN : i < 15 ? User.UserRole.EMPRENDEDOR : User.UserRole.CLIENTE);
+            user.setActivo(i % 10 != 9);
+            users.add(user);
+        }
+        userId = userRepository.saveAll(users).get(0).getId();
+
+        // Estado en memoria que en producción se arma al arrancar
+        searchIndex.rebuildFromDatabase();
+        estadisticasServicios.reconciliar();
+        estadisticasUsuarios.reconciliar();
+        usuariosRegistrados.reconstruir();
+    }
+
+    @AfterAll
+    void limpiarDatos() {
+        servicioRepository.deleteAll();
+        userRepository.deleteAll();
+        cacheAdminService.limpiarCaches();
+    }
+
+    // Cada medición parte con las cachés de Spring y de Hibernate vacías
+    private ContadorSentencias.Medicion medirEnFrio(RequestBuilder request) throws Exception {
+        cacheAdminService.limpiarCaches();
+        cacheAdminService.limpiarCacheHibernate();
+        return medir(() -> mockMvc.perform(request).andExpect(status().isOk()));
+    }
+
+    @Test
+    @DisplayName("Listado por cursor: versión de la colección y una página, sin N+1")
+    void testListadoServicios() throws Exception {
+        // Versión para el ETag (1 fila, por clave) y la página pedida (20 filas + 1 para saber si hay siguiente)
+        medirEnFrio(get("/api/v3/reparaciones").param("size", "20"))
+                .sentenciasMaximas(2)
+                .filasMaximas(22);
+
+        // El tamaño máximo de página no lee la tabla completa
+        medirEnFrio(get("/api/v3/reparaciones").param("size", "100"))
+                .sentenciasMaximas(2)
+                .filasMaximas(102);
+    }
+
+    @Test
+    @DisplayName("Listado revalidado con If-None-Match: solo la versión de la colección")
+    void testListadoNoModificado() throws Exception {
+        String etag = mockMvc.perform(get("/api/v3/reparaciones"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        medir(() -> mockMvc.perform(get("/api/v3/reparaciones").header("If-None-Match", etag))
+                .andExpect(status().isNotModified()))
+                .sentenciasMaximas(1)
+                .filasMaximas(1);
+    }
+
+    @Test
+    @DisplayName("Servicio por ID: una lectura por clave")
+    void testServicioPorId() throws Exception {
+        medirEnFrio(get("/api/v3/reparaciones/" + servicioId))
+                .sentenciasMaximas(1)
+                .filasMaximas(1);
+    }
+
+    @Test
+    @DisplayName("Filtros por cliente, estado, tipo, técnico y fecha: una página cada uno")
+    void testFiltrosServicios() throws Exception {
+        for (String url : List.of("/api/v3/reparaciones/cliente/cliente1@presupuesto.cl",
+                "/api/v3/reparaciones/estado/AGENDADO",
+                "/api/v3/reparaciones/tipo/Laptop",
+                "/api/v3/reparaciones/tecnico/Técnico 1",
+                "/api/v3/reparaciones/fecha/" + fecha)) {
+            medirEnFrio(get(url))
+                    .sentenciasMaximas(2)
+                    .filasMaximas(22);
+        }
+    }
+
+    @Test
+    @DisplayName("Conteos por cliente y técnico: un COUNT sin leer filas de servicios")
+    void testConteosServicios() throws Exception {
+        medirEnFrio(get("/api/v3/reparaciones/cliente/cliente1@presupuesto.cl/count"))
+                .sentenciasMaximas(1)
+                .filasMaximas(1);
+        medirEnFrio(get("/api/v3/reparaciones/tecnico/Técnico 1/count"))
+                .sentenciasMaximas(1)
+                .filasMaximas(1);
+    }
+
+    @Test
+    @DisplayName("Búsquedas: el índice en memoria resuelve los IDs y la base solo carga la página")
+    void testBusquedasServicios() throws Exception {
+        medirEnFrio(get("/api/v3/reparaciones/buscar").param("q", "pantalla").param("size", "20"))
+                .sentenciasMaximas(1)
+                .filasMaximas(20);
+
+        medirEnFrio(get("/api/v3/reparaciones/buscar-avanzado")
+                .param("nombreCliente", "Cliente 1")
+                .param("estado", "AGENDADO"))
+                .sentenciasMaximas(1)
+                .filasMaximas(21);
+    }
+
+    @Test
+    @DisplayName("Estadísticas y catálogos: sin consultas, salen de los contadores en memoria")
+    void testEstadisticasServicios() throws Exception {
+        medirEnFrio(get("/api/v3/reparaciones/estadisticas"))
+                .sentenciasMaximas(0);
+        medirEnFrio(get("/api/v3/reparaciones/estados"))
+                .sentenciasMaximas(0);
+    }
+
+    @Test
+    @DisplayName("Cambio de estado: lectura por clave, el UPDATE y la versión de la colección")
+    void testCambioEstado() throws Exception {
+        medirEnFrio(put("/api/v3/reparaciones/" + servicioId + "/estado")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"estado\":\"EN_REVISION\"}"))
+                .sentenciasMaximas(3)
+                .filasMaximas(1);
+    }
+
+    @Test
+    @DisplayName("Listados de usuarios paginados: versión de la colección, página y COUNT")
+    void testListadosUsuarios() throws Exception {
+        for (String url : List.of("/api/v3/auth/users", "/api/v3/auth/users/active")) {
+            medirEnFrio(get(url))
+                    .sentenciasMaximas(3)
+                    .filasMaximas(22);
+        }
+        medirEnFrio(get("/api/v3/auth/users/role/ADMIN"))
+                .sentenciasMaximas(3)
+                .filasMaximas(5);
+    }
+
+    @Test
+    @DisplayName("Usuario por ID y estadísticas de usuarios")
+    void testUsuarioPorId() throws Exception {
+        medirEnFrio(get("/api/v3/auth/users/" + userId))
+                .sentenciasMaximas(1)
+                .filasMaximas(1);
+        medirEnFrio(get("/api/v3/auth/users/statistics"))
+                .sentenciasMaximas(0);
+    }
+
+    @Test
+    @DisplayName("Disponibilidad de username y email: los libres no llegan a la base de datos")
+    void testDisponibilidadUsuarios() throws Exception {
+        medirEnFrio(get("/api/v3/auth/check-username/libre"))
+                .sentenciasMaximas(0);
+        medirEnFrio(get("/api/v3/auth/check-email/libre@presupuesto.cl"))
+                .sentenciasMaximas(0);
+        medirEnFrio(get("/api/v3/auth/check-username/usuario5"))
+                .sentenciasMaximas(1)
+                .filasMaximas(1);
+    }
+
+    @Test
+    @DisplayName("Login correcto: una lectura del usuario, ultimoLogin se escribe diferido")
+    void testLogin() throws Exception {
+        medirEnFrio(post("/api/v3/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"usuario20\",\"password\":\"" + PASSWORD + "\"}"))
+                .sentenciasMaximas(1)
+                .filasMaximas(1);
+    }
+}
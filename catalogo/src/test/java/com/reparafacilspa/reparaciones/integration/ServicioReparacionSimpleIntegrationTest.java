@@ -1,21 +1,63 @@
 package com.reparafacilspa.reparaciones.integration;
 
+import com.reparafacilspa.reparaciones.assemblers.PlantillaEnlace;
+import com.reparafacilspa.reparaciones.assemblers.ServicioReparacionModelAssembler;
+import com.reparafacilspa.reparaciones.controller.ServicioReparacionControllerV2;
+import com.reparafacilspa.reparaciones.dto.AuthResponse;
+import com.reparafacilspa.reparaciones.dto.BulkItemResult;
+import com.reparafacilspa.reparaciones.dto.CursorPage;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionRequest;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse;
+import com.reparafacilspa.reparaciones.model.Fechas;
+import com.reparafacilspa.reparaciones.model.ServicioReparacion;
+import com.reparafacilspa.reparaciones.model.User;
 import com.reparafacilspa.reparaciones.repository.ServicioReparacionRepository;
+import com.reparafacilspa.reparaciones.repository.UserRepository;
+import com.reparafacilspa.reparaciones.repository.VersionColeccion;
+import com.reparafacilspa.reparaciones.repository.VersionTablaRepository;
+import com.reparafacilspa.reparaciones.config.CacheConfig;
+import com.reparafacilspa.reparaciones.service.AuthServiceV3;
+import com.reparafacilspa.reparaciones.service.CacheAdminService;
+import com.reparafacilspa.reparaciones.service.CatalogoService;
+import com.reparafacilspa.reparaciones.service.ConsultasLentas;
+import com.reparafacilspa.reparaciones.service.EstadisticasServiciosContadores;
+import com.reparafacilspa.reparaciones.service.HashContrasenas;
+import com.reparafacilspa.reparaciones.service.ServicioExportService;
 import com.reparafacilspa.reparaciones.service.ServicioReparacionService;
+import com.reparafacilspa.reparaciones.service.ServicioReparacionServiceV3;
+import com.reparafacilspa.reparaciones.service.ServicioSearchIndex;
+import com.reparafacilspa.reparaciones.service.UltimoLoginBuffer;
+import com.reparafacilspa.reparaciones.service.VersionesColeccion;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Date;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 
 @SpringBootTest(
     properties = {
@@ -26,7 +68,9 @@ import static org.junit.jupiter.api.Assertions.*;
         "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
         "spring.jpa.hibernate.ddl-auto=create-drop",
         "spring.jpa.show-sql=false",
-        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration"
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration",
+        // El perfil test desactiva las cachés de Spring; aquí se prueban junto a los servicios
+        "spring.cache.type=jcache"
     },
     webEnvironment = SpringBootTest.WebEnvironment.NONE
 )
@@ -38,15 +82,61 @@ class ServicioReparacionSimpleIntegrationTest {
     @Autowired
     private ServicioReparacionService servicioService;
 
+    @Autowired
+    private ServicioReparacionServiceV3 servicioServiceV3;
+
     @Autowired
     private ServicioReparacionRepository servicioRepository;
 
+    @Autowired
+    private ServicioSearchIndex searchIndex;
+
+    @Autowired
+    private EstadisticasServiciosContadores estadisticasContadores;
+
+    @Autowired
+    private ServicioExportService exportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VersionTablaRepository versionTablaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheAdminService cacheAdminService;
+
+    @Autowired
+    private CatalogoService catalogoService;
+
+    @Autowired
+    private ServicioReparacionModelAssembler assembler;
+
+    @Autowired
+    private UltimoLoginBuffer ultimoLoginBuffer;
+
+    @Autowired
+    private AuthServiceV3 authServiceV3;
+
+    @Autowired
+    private HashContrasenas hashContrasenas;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ConsultasLentas consultasLentas;
+
     private ServicioReparacionRequest servicioRequest;
 
     @BeforeEach
     void setUp() {
         // Limpiar base de datos de test
         servicioRepository.deleteAll();
+        cacheAdminService.limpiarCaches();
 
         // Configurar datos de prueba
         servicioRequest = new ServicioReparacionRequest();
@@ -57,7 +147,7 @@ class ServicioReparacionSimpleIntegrationTest {
         servicioRequest.setMarca("HP");
         servicioRequest.setModelo("Pavilion 15");
         servicioRequest.setDescripcionProblema("No enciende");
-        servicioRequest.setFechaAgendada(new Date());
+        servicioRequest.setFechaAgendada(Fechas.ahora());
     }
 
     @Test
@@ -108,7 +198,7 @@ class ServicioReparacionSimpleIntegrationTest {
         segundoRequest.setMarca("Samsung");
         segundoRequest.setModelo("Galaxy S21");
         segundoRequest.setDescripcionProblema("Pantalla rota");
-        segundoRequest.setFechaAgendada(new Date());
+        segundoRequest.setFechaAgendada(Fechas.ahora());
         servicioService.save(segundoRequest);
 
         // When
@@ -164,6 +254,8 @@ class ServicioReparacionSimpleIntegrationTest {
     void testEstadisticasIntegracion() {
         // Given - Crear algunos servicios
         servicioService.save(servicioRequest);
+        // La transacción del test no se confirma, así que se reconcilian los contadores contra la base de datos
+        estadisticasContadores.reconciliar();
 
         // When
         var estadisticas = servicioService.getEstadisticas();
@@ -173,4 +265,506 @@ class ServicioReparacionSimpleIntegrationTest {
         assertEquals(1, estadisticas.get("totalServicios"));
         assertEquals(1L, estadisticas.get("serviciosAgendados"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Debe recorrer servicios con paginación keyset en ambas direcciones")
+    void testPaginacionKeysetIntegracion() {
+        // Given - Crear cinco servicios
+        for (int i = 0; i < 5; i++) {
+            servicioService.save(servicioRequest);
+        }
+
+        // When
+        CursorPage<ServicioReparacionResponse> primera = servicioServiceV3.findAllPage(null, null, 2);
+        CursorPage<ServicioReparacionResponse> segunda = servicioServiceV3.findAllPage(primera.getNextCursor(), null, 2);
+        CursorPage<ServicioReparacionResponse> tercera = servicioServiceV3.findAllPage(segunda.getNextCursor(), null, 2);
+        CursorPage<ServicioReparacionResponse> anterior = servicioServiceV3.findAllPage(null, tercera.getPrevCursor(), 2);
+
+        // Then
+        assertEquals(2, primera.getContent().size());
+        assertFalse(primera.hasPrev());
+        assertEquals(2, segunda.getContent().size());
+        assertTrue(segunda.getContent().get(0).getId() > primera.getContent().get(1).getId());
+        assertEquals(1, tercera.getContent().size());
+        assertFalse(tercera.hasNext());
+        assertEquals(segunda.getContent().get(0).getId(), anterior.getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("Debe filtrar la búsqueda avanzada en base de datos solo con los filtros informados")
+    void testBusquedaAvanzadaIntegracion() {
+        // Given
+        servicioService.save(servicioRequest);
+        servicioRequest.setNombreCliente("Pedro Soto");
+        servicioRequest.setEmail("pedro.soto@example.com");
+        servicioService.save(servicioRequest);
+
+        // When
+        List<ServicioReparacionResponse> porNombre = servicioServiceV3.searchAdvanced("maría", null, null, null, null);
+        List<ServicioReparacionResponse> porEstado = servicioServiceV3.searchAdvanced(null, null, null, "AGENDADO", null);
+        List<ServicioReparacionResponse> estadoInvalido = servicioServiceV3.searchAdvanced(null, null, null, "NO_EXISTE", null);
+        List<ServicioReparacionResponse> sinCoincidencias = servicioServiceV3.searchAdvanced("Juan", null, null, null, null);
+        // Cada filtro coincide con un servicio distinto: combinados con AND no queda ninguno
+        List<ServicioReparacionResponse> filtrosCruzados = servicioServiceV3.searchAdvanced("maría", "pedro", null, null, null);
+        Page<ServicioReparacionResponse> pagina = servicioServiceV3.searchAdvanced(
+            null, "PEDRO", null, null, null, PageRequest.of(0, 10, Sort.by("fechaAgendada")));
+
+        // Then
+        assertEquals(1, porNombre.size());
+        assertEquals("María González", porNombre.get(0).getNombreCliente());
+        assertEquals(2, porEstado.size());
+        assertTrue(estadoInvalido.isEmpty());
+        assertTrue(sinCoincidencias.isEmpty());
+        assertTrue(filtrosCruzados.isEmpty());
+        assertEquals(1, pagina.getTotalElements());
+        assertEquals("Pedro Soto", pagina.getContent().get(0).getNombreCliente());
+    }
+
+    @Test
+    @DisplayName("Debe mantener el índice de búsqueda al crear, eliminar y restaurar servicios")
+    void testIndiceBusquedaIntegracion() {
+        // Given - índice alineado con la base de datos limpia
+        searchIndex.rebuildFromDatabase();
+        ServicioReparacionResponse creado = servicioServiceV3.save(servicioRequest);
+
+        // When
+        List<ServicioReparacionResponse> sinTildes = servicioServiceV3.search("gonzalez pavil");
+        servicioServiceV3.delete(creado.getId());
+        List<ServicioReparacionResponse> trasEliminar = servicioServiceV3.search("gonzalez");
+        servicioServiceV3.restoreServicio(creado.getId());
+        Page<ServicioReparacionResponse> trasRestaurar = servicioServiceV3.search("González", PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(1, sinTildes.size());
+        assertEquals(creado.getId(), sinTildes.get(0).getId());
+        assertTrue(trasEliminar.isEmpty());
+        assertEquals(1, trasRestaurar.getTotalElements());
+    }
+
+    @Test
+    @DisplayName("Debe calcular estadísticas detalladas con consultas agregadas")
+    @SuppressWarnings("unchecked")
+    void testEstadisticasDetalladasIntegracion() {
+        // Given - dos activos y uno eliminado
+        servicioServiceV3.save(servicioRequest);
+        servicioServiceV3.save(servicioRequest);
+        ServicioReparacionResponse eliminado = servicioServiceV3.save(servicioRequest);
+        servicioServiceV3.delete(eliminado.getId());
+
+        // When
+        var estadisticas = servicioServiceV3.getDetailedStatistics();
+
+        // Then
+        assertEquals(3, estadisticas.get("totalServicios"));
+        assertEquals(2, estadisticas.get("serviciosActivos"));
+        assertEquals(1, estadisticas.get("serviciosEliminados"));
+        assertEquals(2L, ((Map<String, Long>) estadisticas.get("serviciosPorEstado")).get("AGENDADO"));
+        assertEquals(2L, ((Map<String, Long>) estadisticas.get("serviciosPorTipo")).get("Laptop"));
+        assertEquals(2L, ((Map<String, Long>) estadisticas.get("serviciosPorPrioridad")).get("NORMAL"));
+    }
+
+    @Test
+    @DisplayName("Debe exportar en NDJSON y CSV aplicando los filtros de estado y fecha")
+    void testExportacionIntegracion() throws Exception {
+        // Given - uno agendado, uno completado con una coma en la descripción y uno eliminado
+        servicioServiceV3.save(servicioRequest);
+        servicioRequest.setDescripcionProblema("No carga, pantalla \"rota\"");
+        ServicioReparacionResponse completado = servicioServiceV3.save(servicioRequest);
+        servicioServiceV3.cambiarEstado(completado.getId(), "COMPLETADO");
+        ServicioReparacionResponse eliminado = servicioServiceV3.save(servicioRequest);
+        servicioServiceV3.delete(eliminado.getId());
+        String hoy = Fechas.ahora().toLocalDate().toString();
+
+        // When
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long totalNdjson = exportService.exportar(exportService.filtro(null, hoy, hoy, false),
+            ServicioExportService.Formato.NDJSON, ndjson);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        long totalCsv = exportService.exportar(exportService.filtro("completado", null, null, false),
+            ServicioExportService.Formato.CSV, csv);
+        ByteArrayOutputStream todos = new ByteArrayOutputStream();
+        long totalConEliminados = exportService.exportar(exportService.filtro(null, null, null, true),
+            ServicioExportService.Formato.NDJSON, todos);
+        ByteArrayOutputStream manana = new ByteArrayOutputStream();
+        String diaSiguiente = Fechas.ahora().toLocalDate().plusDays(1).toString();
+        long totalManana = exportService.exportar(exportService.filtro(null, diaSiguiente, null, false),
+            ServicioExportService.Formato.NDJSON, manana);
+
+        // Then
+        assertEquals(2, totalNdjson);
+        String[] lineas = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[0].startsWith("{") && lineas[0].contains("\"nombreCliente\":\"María González\""));
+
+        assertEquals(1, totalCsv);
+        String[] filasCsv = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, filasCsv.length);
+        assertTrue(filasCsv[0].startsWith("id,nombreCliente,"));
+        assertTrue(filasCsv[1].startsWith(completado.getId() + ",María González,"));
+        assertTrue(filasCsv[1].contains("\"No carga, pantalla \"\"rota\"\"\""));
+
+        assertEquals(3, totalConEliminados);
+        assertEquals(0, totalManana);
+        assertEquals("", manana.toString(StandardCharsets.UTF_8));
+        assertThrows(RuntimeException.class, () -> exportService.filtro("NO_EXISTE", null, null, false));
+        assertThrows(RuntimeException.class, () -> exportService.filtro(null, hoy, "2000-01-01", false));
+        assertThrows(RuntimeException.class, () -> ServicioExportService.Formato.from("xml"));
+    }
+
+    @Test
+    @DisplayName("Debe filtrar por día con el rango semiabierto [día, día siguiente)")
+    void testFechaAgendadaRangoSemiabiertoIntegracion() {
+        // Given - los bordes del 10 de marzo y el primer instante del 11
+        LocalDateTime[] fechas = {
+            LocalDateTime.of(2025, 3, 10, 0, 0),
+            LocalDateTime.of(2025, 3, 10, 23, 59, 59, 999_999_000),
+            LocalDateTime.of(2025, 3, 11, 0, 0)
+        };
+        for (LocalDateTime fecha : fechas) {
+            servicioRequest.setFechaAgendada(fecha);
+            servicioServiceV3.save(servicioRequest);
+        }
+        String email = servicioRequest.getEmail();
+
+        // When
+        List<ServicioReparacionResponse> delDia = servicioServiceV3.findByFechaAgendada("2025-03-10");
+        List<ServicioReparacionResponse> hastaElDia = servicioServiceV3.findByEmailAndFechaAgendadaBetween(email, "2025-03-01", "2025-03-10");
+        List<ServicioReparacionResponse> ambos = servicioServiceV3.findByEmailAndFechaAgendadaBetween(email, "2025-03-10", "2025-03-11");
+
+        // Then - el último día del rango entra completo y la medianoche siguiente queda fuera
+        assertEquals(2, delDia.size());
+        assertTrue(delDia.stream().allMatch(s -> s.getFechaAgendada().toLocalDate().getDayOfMonth() == 10));
+        assertEquals(2, hastaElDia.size());
+        assertEquals(3, ambos.size());
+        assertEquals(1, servicioServiceV3.findByFechaAgendada("2025-03-11").size());
+        assertThrows(RuntimeException.class, () -> servicioServiceV3.findByFechaAgendada("10/03/2025"));
+
+        // La zona sale de spring.jackson.time-zone y la JVM queda con la misma (ver FechasConfig)
+        assertEquals(java.time.ZoneId.of("America/Santiago"), Fechas.zona());
+        assertEquals(Fechas.zona(), java.util.TimeZone.getDefault().toZoneId());
+    }
+
+    @Test
+    @DisplayName("Debe crear servicios por lote con IDs de secuencia e informar los elementos inválidos")
+    void testCreacionPorLoteIntegracion() {
+        // Given
+        ServicioReparacionRequest invalido = new ServicioReparacionRequest();
+        List<ServicioReparacionRequest> lote = new java.util.ArrayList<>(java.util.Collections.nCopies(60, servicioRequest));
+        lote.add(5, invalido);
+
+        // When
+        List<BulkItemResult> resultados = servicioServiceV3.saveAll(lote);
+
+        // Then
+        assertEquals(61, resultados.size());
+        assertEquals(60, resultados.stream().filter(BulkItemResult::isSuccess).count());
+        assertFalse(resultados.get(5).isSuccess());
+        assertEquals(60, servicioRepository.count());
+        List<Long> ids = resultados.stream().filter(BulkItemResult::isSuccess)
+            .map(resultado -> resultado.getServicio().getId()).toList();
+        assertEquals(60, new java.util.HashSet<>(ids).size());
+        assertEquals("María González", servicioServiceV3.findById(ids.get(59)).getNombreCliente());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Debe resolver lecturas repetidas desde la caché de segundo nivel e invalidarla al escribir")
+    void testCacheSegundoNivelIntegracion() {
+        // Sin la transacción del test: cada llamada abre su propia sesión y solo la caché de segundo nivel se comparte
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ServicioReparacionResponse creado = servicioServiceV3.save(servicioRequest);
+        User user = new User();
+        user.setUsername("cache.integracion");
+        user.setEmail("cache.integracion@example.com");
+        user.setPassword("clave");
+        user.setNombre("Cache");
+        user.setApellido("Integración");
+        user = userRepository.save(user);
+
+        try {
+            // When - lecturas repetidas por ID, por username (natural-id) y consulta cacheable por email
+            statistics.clear();
+            servicioServiceV3.findById(creado.getId());
+            servicioServiceV3.findById(creado.getId());
+            assertTrue(userRepository.findByUsername("cache.integracion").isPresent());
+            assertTrue(userRepository.findByUsername("cache.integracion").isPresent());
+            assertTrue(userRepository.existsByEmail("cache.integracion@example.com"));
+            assertTrue(userRepository.existsByEmail("cache.integracion@example.com"));
+
+            // Then
+            assertEquals(2, statistics.getCacheRegionStatistics("servicios-reparacion").getHitCount());
+            assertEquals(0, statistics.getCacheRegionStatistics("servicios-reparacion").getMissCount());
+            assertTrue(statistics.getCacheRegionStatistics("usuarios").getHitCount() >= 1);
+            assertEquals(2, statistics.getNaturalIdCacheHitCount());
+            assertEquals(0, statistics.getNaturalIdStatistics(User.class.getName()).getExecutionCount());
+            assertEquals(1, statistics.getQueryCacheHitCount());
+
+            // Las escrituras actualizan o invalidan lo cacheado
+            servicioServiceV3.cambiarEstado(creado.getId(), "EN_REPARACION");
+            assertEquals("EN_REPARACION", servicioServiceV3.findById(creado.getId()).getEstado());
+
+            user.setUsername("cache.renombrado");
+            user.setEmail("cache.renombrado@example.com");
+            user = userRepository.save(user);
+            assertTrue(userRepository.findByUsername("cache.integracion").isEmpty());
+            assertEquals(user.getId(), userRepository.findByUsername("cache.renombrado").orElseThrow().getId());
+            assertFalse(userRepository.existsByEmail("cache.integracion@example.com"));
+        } finally {
+            userRepository.deleteById(user.getId());
+            servicioRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Debe cachear estadísticas y catálogos e invalidar las estadísticas al escribir")
+    @SuppressWarnings("unchecked")
+    void testCacheEstadisticasIntegracion() {
+        try {
+            // Given
+            estadisticasContadores.reconciliar();
+            Map<String, Object> inicial = servicioServiceV3.getEstadisticas();
+
+            // When / Then - sin escrituras se entrega la misma instancia (V1 y V3 comparten la entrada)
+            assertSame(inicial, servicioServiceV3.getEstadisticas());
+            assertSame(inicial, servicioService.getEstadisticas());
+            assertSame(catalogoService.getTiposDispositivos(), catalogoService.getTiposDispositivos());
+            assertThrows(UnsupportedOperationException.class, () -> inicial.put("_links", Map.of()));
+
+            // Una escritura confirmada invalida la entrada y la siguiente lectura refleja el cambio
+            servicioServiceV3.save(servicioRequest);
+            Map<String, Object> trasGuardar = servicioServiceV3.getEstadisticas();
+            assertNotSame(inicial, trasGuardar);
+            assertEquals(((Integer) inicial.get("totalServicios")) + 1, trasGuardar.get("totalServicios"));
+
+            Map<String, Object> caches = (Map<String, Object>) cacheAdminService.getEstadisticasCaches().get("caches");
+            Map<String, Object> estadisticas = (Map<String, Object>) caches.get(CacheConfig.ESTADISTICAS_SERVICIOS);
+            assertEquals(true, estadisticas.get("habilitada"));
+            assertEquals(2L, estadisticas.get("aciertos"));
+            assertEquals(30L, estadisticas.get("ttlSegundos"));
+            assertEquals(1L, ((Map<String, Object>) caches.get(CacheConfig.CATALOGOS)).get("aciertos"));
+
+            // Vaciado desde el endpoint de administración
+            cacheAdminService.limpiarCache(CacheConfig.ESTADISTICAS_SERVICIOS);
+            assertNotSame(trasGuardar, servicioServiceV3.getEstadisticas());
+            assertThrows(RuntimeException.class, () -> cacheAdminService.limpiarCache("no-existe"));
+        } finally {
+            servicioRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Debe escribir en un lote el último ultimoLogin pendiente de cada usuario")
+    void testUltimoLoginDiferidoIntegracion() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            User user = new User();
+            user.setUsername("login.diferido" + i);
+            user.setEmail("login.diferido" + i + "@example.com");
+            user.setPassword("clave");
+            user.setNombre("Login");
+            user.setApellido("Diferido");
+            users.add(userRepository.save(user));
+        }
+
+        try {
+            // Given - varios logins por usuario antes de la descarga
+            LocalDateTime reciente = Fechas.ahora().withNano(0);
+            LocalDateTime anterior = reciente.minusMinutes(1);
+            for (User user : users) {
+                ultimoLoginBuffer.registrar(user.getId(), reciente);
+                ultimoLoginBuffer.registrar(user.getId(), anterior);
+            }
+            assertNull(userRepository.findById(users.get(0).getId()).orElseThrow().getUltimoLogin());
+
+            // When
+            statistics.clear();
+            ultimoLoginBuffer.descargar();
+
+            // Then - un UPDATE por usuario, con la versión avanzada y la caché de segundo nivel al día
+            assertEquals(2, statistics.getEntityUpdateCount());
+            assertEquals(0, ultimoLoginBuffer.getPendientes());
+            for (User user : users) {
+                User guardado = userRepository.findById(user.getId()).orElseThrow();
+                assertEquals(reciente, guardado.getUltimoLogin());
+                assertEquals(user.getVersion() + 1, guardado.getVersion());
+            }
+        } finally {
+            users.forEach(user -> userRepository.deleteById(user.getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Debe paginar, ordenar y filtrar usuarios en la base de datos")
+    void testListadoUsuariosPaginadoIntegracion() {
+        // Given
+        long adminsAntes = authServiceV3.countUsersByRole("ADMIN");
+        String[][] datos = {{"paginado.a", "ADMIN"}, {"paginado.b", "ADMIN"}, {"paginado.c", "CLIENTE"}};
+        for (String[] dato : datos) {
+            User user = new User();
+            user.setUsername(dato[0]);
+            user.setEmail(dato[0] + "@example.com");
+            user.setPassword("clave");
+            user.setNombre("Usuario");
+            user.setApellido("Paginado");
+            user.setRol(User.UserRole.valueOf(dato[1]));
+            userRepository.save(user);
+        }
+
+        // When - filtro por rol y prefijo, página de 1 ordenada por username descendente
+        Page<AuthResponse.UserInfo> pagina = authServiceV3.findAllUsers("ADMIN", true, "PAGINADO.",
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "username")));
+
+        // Then
+        assertEquals(2, pagina.getTotalElements());
+        assertEquals(2, pagina.getTotalPages());
+        assertEquals("paginado.b", pagina.getContent().get(0).getUsername());
+        assertEquals(3, authServiceV3.findActiveUsers("paginado.", PageRequest.of(0, 20)).getTotalElements());
+        assertEquals(1, authServiceV3.findUsersByRole("cliente", null, "paginado.", PageRequest.of(0, 20)).getTotalElements());
+        assertEquals(adminsAntes + 2, authServiceV3.countUsersByRole("ADMIN"));
+    }
+
+    @Test
+    @DisplayName("Debe publicar métricas de servicios, BCrypt, pool de conexiones, Hibernate y cachés")
+    void testMetricasIntegracion() {
+        // Given - el registro es compartido por todo el contexto de pruebas
+        long savesAntes = contarSaves();
+        long hashesAntes = meterRegistry.get("reparafacil.bcrypt.calculo").timer().count();
+
+        // When
+        servicioServiceV3.save(servicioRequest);
+        hashContrasenas.matches("clave", hashContrasenas.encode("clave"));
+
+        // Then - un timer por clase y método de servicio (@Timed)
+        assertEquals(savesAntes + 1, contarSaves());
+        assertEquals(hashesAntes + 2, meterRegistry.get("reparafacil.bcrypt.calculo").timer().count());
+        assertNotNull(meterRegistry.get("reparafacil.bcrypt.cola").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections.active").gauge());
+        assertNotNull(meterRegistry.get("hikaricp.connections.acquire").timer());
+        assertNotNull(meterRegistry.get("hibernate.statements").functionCounter());
+        assertNotNull(meterRegistry.get("hibernate.second.level.cache.requests").tag("region", "usuarios").functionCounter());
+        assertNotNull(meterRegistry.get("cache.gets").tag("cache", CacheConfig.ESTADISTICAS_SERVICIOS).functionCounter());
+    }
+
+    private long contarSaves() {
+        return meterRegistry.find("reparafacil.servicio")
+                .tag("class", ServicioReparacionServiceV3.class.getName()).tag("method", "save")
+                .timers().stream().mapToLong(timer -> timer.count()).sum();
+    }
+
+    @Test
+    @DisplayName("Debe agrupar las sentencias SQL por huella y ordenar las más costosas")
+    void testConsultasLentasIntegracion() {
+        // Given - literales y listas IN de distinto largo comparten huella
+        assertEquals(ConsultasLentas.huella("select * from t where id in (?, ?) and email = 'a@b.cl' and n > 10"),
+                ConsultasLentas.huella("select *  from t where id in (?,?,?) and email = 'x' and n > 2"));
+        assertEquals("select sr1_0.id from t sr1_0 where sr1_0.id in (?...) fetch first ? rows only",
+                ConsultasLentas.huella("select sr1_0.id from t sr1_0\n where sr1_0.id in (?,?) fetch first 5 rows only"));
+
+        // When - las sentencias pasan por el DataSource cronometrado
+        servicioServiceV3.save(servicioRequest);
+        servicioServiceV3.findByEmail("maria.gonzalez@example.com");
+
+        // Then
+        List<Map<String, Object>> top = consultasLentas.getTop(100, "cantidad");
+        Map<String, Object> porEmail = top.stream()
+                .filter(fila -> fila.get("huella").toString().contains("from servicios_reparacion")
+                        && fila.get("huella").toString().contains("email=?"))
+                .findFirst()
+                .orElseThrow();
+        assertTrue((Long) porEmail.get("cantidad") >= 1);
+        assertFalse(porEmail.get("huella").toString().contains("maria.gonzalez"));
+        assertTrue((Double) porEmail.get("maximoMs") >= (Double) porEmail.get("promedioMs"));
+        assertThrows(RuntimeException.class, () -> consultasLentas.getTop(10, "otro"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Debe versionar los servicios y cambiar la versión de la colección en cada escritura")
+    void testVersionYHuellaColeccionIntegracion() {
+        try {
+            // Given
+            ServicioReparacionResponse creado = servicioServiceV3.save(servicioRequest);
+            servicioServiceV3.save(servicioRequest);
+            assertEquals(0L, creado.getVersion());
+            VersionColeccion inicial = servicioRepository.findVersionColeccion();
+            long versionInicial = servicioServiceV3.getVersionColeccion();
+            assertEquals(2L, inicial.getTotal());
+            assertEquals(0L, inicial.getSumaVersiones());
+
+            // When - se actualiza una sola fila
+            servicioServiceV3.cambiarEstado(creado.getId(), "EN_REPARACION");
+
+            // Then - la versión de la entidad y la de la colección avanzan aunque el total y el mayor ID no cambien
+            assertEquals(1L, servicioServiceV3.findById(creado.getId()).getVersion());
+            long versionTrasActualizar = servicioServiceV3.getVersionColeccion();
+            assertEquals(versionInicial + 1, versionTrasActualizar);
+            assertEquals(versionTrasActualizar, servicioServiceV3.getVersionColeccion());
+            // La versión vive en la base de datos, así que cualquier nodo lee la misma
+            assertEquals(versionTrasActualizar, versionTablaRepository.findVersion(VersionesColeccion.SERVICIOS).orElseThrow());
+            VersionColeccion trasActualizar = servicioRepository.findVersionColeccion();
+            assertEquals(inicial.getTotal(), trasActualizar.getTotal());
+            assertEquals(inicial.getMaxId(), trasActualizar.getMaxId());
+            assertEquals(1L, trasActualizar.getSumaVersiones());
+
+            // Un listado por página lleva la misma versión que la lectura por ID
+            CursorPage<ServicioReparacionResponse> pagina = servicioServiceV3.findAllPage(null, null, 10);
+            assertTrue(pagina.getContent().stream()
+                    .anyMatch(s -> s.getId().equals(creado.getId()) && s.getVersion() == 1L));
+
+            // Un lote se confirma en una sola transacción y avanza la versión una vez
+            servicioServiceV3.saveAll(List.of(servicioRequest, servicioRequest));
+            assertEquals(versionTrasActualizar + 1, servicioServiceV3.getVersionColeccion());
+
+            // Una escritura que no pasa por los servicios la detecta la reconciliación con la huella de la tabla
+            estadisticasContadores.reconciliar();
+            long versionReconciliada = servicioServiceV3.getVersionColeccion();
+            ServicioReparacion directo = servicioRepository.findById(creado.getId()).orElseThrow();
+            directo.setTecnicoAsignado("Otro técnico");
+            servicioRepository.save(directo);
+            assertEquals(versionReconciliada, servicioServiceV3.getVersionColeccion());
+            estadisticasContadores.reconciliar();
+            assertNotEquals(versionReconciliada, servicioServiceV3.getVersionColeccion());
+        } finally {
+            servicioRepository.deleteAll();
+        }
+    }
+
+    @Test
+    @DisplayName("Las plantillas de enlace deben generar los mismos href que linkTo y slash")
+    void testPlantillasEnlaceIntegracion() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reparafacil-api/api/v2/reparaciones");
+        request.setContextPath("/reparafacil-api");
+        request.setServerPort(8080);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            PlantillaEnlace cliente = PlantillaEnlace.de(ServicioReparacionControllerV2.class).slash("cliente").slash("{email}").slash("count");
+            PlantillaEnlace porEmail = PlantillaEnlace.de(ServicioReparacionControllerV2.class, "getServiciosByEmail");
+
+            // Valores comunes y los que cada API codifica distinto ('/', '?', '#', blancos y null)
+            String[] valores = {"maria.gonzalez@example.com", "a+b@c.com", "José Pérez", "50%", "a:b;c&d=e",
+                    "x/y", "a//b", "a?b", "a#b", "fin#", " ", "", null};
+            for (String valor : valores) {
+                assertEquals(linkTo(ServicioReparacionControllerV2.class).slash("cliente").slash(valor).slash("count").withRel("r").getHref(),
+                        cliente.withRel("r", valor).getHref(), "slash: " + valor);
+                Link esperado = linkTo(methodOn(ServicioReparacionControllerV2.class).getServiciosByEmail(valor)).withRel("r");
+                Link obtenido = porEmail.withRel("r", valor);
+                assertEquals(esperado.getHref(), obtenido.getHref(), "methodOn: " + valor);
+                assertEquals(esperado.isTemplated(), obtenido.isTemplated());
+            }
+
+            // Enlaces de cada elemento de un listado
+            ServicioReparacionResponse servicio = servicioServiceV3.save(servicioRequest);
+            EntityModel<ServicioReparacionResponse> modelo = assembler.toModel(servicio);
+            assertEquals(5, modelo.getLinks().toList().size());
+            assertEquals("http://localhost:8080/reparafacil-api/api/v2/reparaciones/" + servicio.getId(), modelo.getRequiredLink("self").getHref());
+            assertEquals(linkTo(methodOn(ServicioReparacionControllerV2.class).getServiciosByEstado(servicio.getEstado())).withRel("servicios-estado").getHref(),
+                    modelo.getRequiredLink("servicios-estado").getHref());
+            assertEquals(linkTo(ServicioReparacionControllerV2.class).withRel("servicios"), modelo.getRequiredLink("servicios"));
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+}
@@ -4,19 +4,33 @@ import com.reparafacilspa.reparaciones.dto.AuthResponse;
 import com.reparafacilspa.reparaciones.dto.LoginRequest;
 import com.reparafacilspa.reparaciones.dto.RegisterRequest;
 import com.reparafacilspa.reparaciones.dto.UpdateUserRequest;
+import com.reparafacilspa.reparaciones.model.Fechas;
 import com.reparafacilspa.reparaciones.model.User;
 import com.reparafacilspa.reparaciones.repository.UserRepository;
+import com.reparafacilspa.reparaciones.repository.VersionColeccion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.Date;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
@@ -31,6 +45,31 @@ class AuthServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private VersionesColeccion versionesColeccion;
+
+    @Spy
+    private EstadisticasUsuariosContadores estadisticasContadores = new EstadisticasUsuariosContadores();
+
+    @Spy
+    private HashContrasenas hashContrasenas = new HashContrasenas(1, 8);
+
+    @Spy
+    private IntentosLoginFallidos intentosFallidos = new IntentosLoginFallidos(15);
+
+    @Spy
+    private UltimoLoginBuffer ultimoLoginBuffer = new UltimoLoginBuffer();
+
+    @Spy
+    private RevocacionSesiones revocacionSesiones = new RevocacionSesiones(60);
+
+    @Spy
+    private TokenSesion tokenSesion = new TokenSesion("secreto-de-prueba", 60);
+
+    // Sin reconstruir() no está listo y todo va a la base de datos, como al arrancar
+    @Spy
+    private UsuariosRegistradosBloom usuariosRegistrados = new UsuariosRegistradosBloom(0.01);
+
     @InjectMocks
     private AuthServiceV3 authService;
 
@@ -42,6 +81,12 @@ class AuthServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(estadisticasContadores, "userRepository", userRepository);
+        ReflectionTestUtils.setField(estadisticasContadores, "versionesColeccion", versionesColeccion);
+        ReflectionTestUtils.setField(ultimoLoginBuffer, "userRepository", userRepository);
+        ReflectionTestUtils.setField(ultimoLoginBuffer, "estadisticasContadores", estadisticasContadores);
+        ReflectionTestUtils.setField(tokenSesion, "revocacion", revocacionSesiones);
+        ReflectionTestUtils.setField(usuariosRegistrados, "userRepository", userRepository);
         passwordEncoder = new BCryptPasswordEncoder();
         
         // Usuario de prueba
@@ -55,7 +100,7 @@ class AuthServiceTest {
         testUser.setTelefono("+56912345678");
         testUser.setRol(User.UserRole.CLIENTE);
         testUser.setActivo(true);
-        testUser.setFechaCreacion(new Date());
+        testUser.setFechaCreacion(Fechas.ahora());
         testUser.setIntentosLogin(0);
         testUser.setCuentaBloqueada(false);
 
@@ -91,7 +136,6 @@ class AuthServiceTest {
     void testLoginSuccess() {
         // Arrange
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // Act
         AuthResponse response = authService.login(loginRequest);
@@ -104,7 +148,150 @@ class AuthServiceTest {
         assertNotNull(response.getSessionToken());
         
         verify(userRepository).findByUsername("testuser");
-        verify(userRepository).save(any(User.class));
+        // Sin intentos que resetear no se escribe antes de responder: ultimoLogin queda en el buffer
+        verify(userRepository, never()).save(any(User.class));
+        verify(ultimoLoginBuffer).registrar(eq(1L), any(LocalDateTime.class));
+        assertEquals(1, ultimoLoginBuffer.getPendientes());
+
+        // El token es verificable sin consultar la base de datos
+        TokenSesion.Sesion sesion = tokenSesion.verificar(response.getSessionToken()).orElseThrow();
+        assertEquals(1L, sesion.userId());
+        assertEquals("CLIENTE", sesion.rol());
+        assertTrue(sesion.expira() > System.currentTimeMillis());
+    }
+
+    @Test
+    @DisplayName("Token de sesión - se rechaza si la firma no coincide o el usuario fue desactivado")
+    void testTokenSesionFirmaYRevocacion() {
+        // Arrange
+        String token = tokenSesion.emitir(1L, "CLIENTE");
+        String payloadAdmin = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1:ADMIN:0:9999999999999".getBytes(StandardCharsets.UTF_8));
+        String firma = token.substring(token.indexOf('.') + 1);
+
+        // Act & Assert - payload alterado con la firma original, otra clave y basura
+        assertTrue(tokenSesion.verificar(token).isPresent());
+        assertTrue(tokenSesion.verificar(payloadAdmin + "." + firma).isEmpty());
+        assertTrue(new TokenSesion("otro-secreto", 60).verificar(token).isEmpty());
+        assertTrue(tokenSesion.verificar("no-es-un-token").isEmpty());
+
+        // Desactivar al usuario revoca sus tokens
+        updateRequest.setActivo(false);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.existsByUsername("updateduser")).thenReturn(false);
+        when(userRepository.existsByEmail("updated@email.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        assertTrue(authService.updateUser(1L, updateRequest).isSuccess());
+        assertTrue(tokenSesion.verificar(token).isEmpty());
+        verify(revocacionSesiones).revocar(1L);
+    }
+
+    @Test
+    @DisplayName("Token de sesión - el corte por cambio de rol se guarda y lo aplica otro nodo o un reinicio al sincronizar")
+    void testTokenSesionCorteCompartido() throws InterruptedException {
+        // Arrange - token emitido antes del cambio de rol
+        String token = tokenSesion.emitir(1L, "CLIENTE");
+        Thread.sleep(2);
+        updateRequest.setRol("ADMIN");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(userRepository.existsByUsername("updateduser")).thenReturn(false);
+        when(userRepository.existsByEmail("updated@email.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // Act - el cambio se hace en este nodo
+        assertTrue(authService.updateUser(1L, updateRequest).isSuccess());
+
+        // Assert - el corte viaja en el mismo save que el rol
+        Long corte = testUser.getTokensDesde();
+        assertNotNull(corte);
+        assertTrue(tokenSesion.verificar(token).isEmpty());
+
+        // Otro nodo (o este tras reiniciar) no vio el cambio hasta leer el corte de la base de datos
+        RevocacionSesiones otroNodo = new RevocacionSesiones(60);
+        ReflectionTestUtils.setField(otroNodo, "userRepository", userRepository);
+        TokenSesion tokenOtroNodo = new TokenSesion("secreto-de-prueba", 60);
+        ReflectionTestUtils.setField(tokenOtroNodo, "revocacion", otroNodo);
+        assertTrue(tokenOtroNodo.verificar(token).isPresent());
+        UserRepository.TokensDesde guardado = mock(UserRepository.TokensDesde.class);
+        when(guardado.getId()).thenReturn(1L);
+        when(guardado.getTokensDesde()).thenReturn(corte);
+        when(userRepository.findIdsByActivoFalse()).thenReturn(List.of());
+        when(userRepository.findTokensDesdeAfter(anyLong())).thenReturn(List.of(guardado));
+        otroNodo.sincronizar();
+        assertTrue(tokenOtroNodo.verificar(token).isEmpty());
+        assertTrue(tokenOtroNodo.verificar(tokenOtroNodo.emitir(1L, "ADMIN")).isPresent());
+    }
+
+    @Test
+    @DisplayName("Login exitoso con intentos fallidos persistidos - se resetean de inmediato")
+    void testLoginSuccessReseteaIntentos() {
+        // Arrange
+        testUser.setIntentosLogin(2);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // Act
+        AuthResponse response = authService.login(loginRequest);
+
+        // Assert
+        assertTrue(response.isSuccess());
+        verify(userRepository).save(argThat(user -> user.getIntentosLogin() == 0 && user.getUltimoLogin() != null));
+        assertEquals(0, ultimoLoginBuffer.getPendientes());
+    }
+
+    @Test
+    @DisplayName("Buffer de ultimoLogin - agrupa por usuario y guarda el más reciente en un solo saveAll")
+    void testUltimoLoginBufferDescargar() {
+        // Arrange
+        LocalDateTime reciente = Fechas.ahora();
+        LocalDateTime anterior = reciente.minusMinutes(1);
+        ultimoLoginBuffer.registrar(1L, anterior);
+        ultimoLoginBuffer.registrar(1L, reciente);
+        ultimoLoginBuffer.registrar(1L, anterior);
+        when(userRepository.findAllById(any())).thenReturn(List.of(testUser));
+
+        // Act
+        ultimoLoginBuffer.descargar();
+
+        // Assert
+        assertEquals(reciente, testUser.getUltimoLogin());
+        assertEquals(0, ultimoLoginBuffer.getPendientes());
+        verify(userRepository, times(1)).saveAll(List.of(testUser));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Resumen de logins fallidos - un conflicto de versión no detiene a los demás y se reintenta")
+    void testPersistirResumenConflictoVersion() {
+        // Arrange - dos usuarios con fallos; el primer save choca con otra escritura de la misma fila
+        ReflectionTestUtils.setField(intentosFallidos, "userRepository", userRepository);
+        ReflectionTestUtils.setField(intentosFallidos, "estadisticasContadores", estadisticasContadores);
+        User otroUser = new User();
+        otroUser.setId(2L);
+        otroUser.setUsername("otrouser");
+        otroUser.setCuentaBloqueada(false);
+        otroUser.setIntentosLogin(0);
+        intentosFallidos.registrarFallo("testuser", 0);
+        intentosFallidos.registrarFallo("otrouser", 0);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findByUsername("otrouser")).thenReturn(Optional.of(otroUser));
+        when(userRepository.save(testUser))
+            .thenAnswer(invocation -> {
+                // La fila no cambió: la próxima lectura vuelve a traer el valor persistido
+                testUser.setIntentosLogin(0);
+                throw new ObjectOptimisticLockingFailureException(User.class, 1L);
+            })
+            .thenReturn(testUser);
+
+        // Act
+        intentosFallidos.persistirResumen();
+
+        // Assert - otrouser se guardó; testuser sigue pendiente y se escribe en el siguiente resumen
+        assertEquals(1, otroUser.getIntentosLogin());
+        verify(userRepository).save(otroUser);
+        intentosFallidos.persistirResumen();
+        verify(userRepository, times(2)).save(testUser);
+        verify(userRepository, times(1)).save(otroUser);
     }
 
     @Test
@@ -168,7 +355,6 @@ class AuthServiceTest {
         // Arrange
         loginRequest.setPassword("wrongpassword");
         when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // Act
         AuthResponse response = authService.login(loginRequest);
@@ -176,9 +362,33 @@ class AuthServiceTest {
         // Assert
         assertFalse(response.isSuccess());
         assertTrue(response.getMessage().contains("Contraseña incorrecta"));
+        assertEquals(1, intentosFallidos.fallos("testuser"));
         
         verify(userRepository).findByUsername("testuser");
-        verify(userRepository).save(any(User.class)); // Para incrementar intentos
+        verify(userRepository, never()).save(any(User.class)); // El intento se cuenta en memoria
+    }
+
+    @Test
+    @DisplayName("Login falla - 5 intentos seguidos escriben en la base de datos solo el bloqueo")
+    void testLoginIntentosEnMemoriaHastaElBloqueo() {
+        // Arrange
+        loginRequest.setPassword("wrongpassword");
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+
+        // Act
+        for (int intento = 1; intento < 5; intento++) {
+            AuthResponse response = authService.login(loginRequest);
+            assertEquals("Contraseña incorrecta. Intentos restantes: " + (5 - intento), response.getMessage());
+        }
+        verify(userRepository, never()).save(any(User.class));
+        AuthResponse response = authService.login(loginRequest);
+
+        // Assert
+        assertEquals("Cuenta bloqueada por múltiples intentos fallidos", response.getMessage());
+        verify(userRepository, times(1)).save(argThat(user ->
+            user.getIntentosLogin() == 5 && user.getCuentaBloqueada()));
+        assertEquals(0, intentosFallidos.fallos("testuser"));
     }
 
     @Test
@@ -202,6 +412,51 @@ class AuthServiceTest {
             user.getIntentosLogin() == 5 && user.getCuentaBloqueada()));
     }
 
+    @Test
+    @DisplayName("Login falla - un conflicto de versión al bloquear recarga el usuario y reintenta el bloqueo")
+    void testLoginBloqueoConflictoVersion() {
+        // Arrange - el resumen de intentos escribió la fila después de leerla este login
+        testUser.setIntentosLogin(4);
+        loginRequest.setPassword("wrongpassword");
+        User recargado = new User();
+        recargado.setId(1L);
+        recargado.setUsername("testuser");
+        recargado.setActivo(true);
+        recargado.setRol(User.UserRole.CLIENTE);
+        recargado.setIntentosLogin(4);
+        recargado.setCuentaBloqueada(false);
+        recargado.setVersion(1L);
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.save(testUser)).thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(recargado));
+        when(userRepository.save(recargado)).thenReturn(recargado);
+
+        // Act
+        AuthResponse response = authService.login(loginRequest);
+
+        // Assert - se bloquea la versión recargada en vez de responder "Error interno del servidor"
+        assertFalse(response.isSuccess());
+        assertEquals("Cuenta bloqueada por múltiples intentos fallidos", response.getMessage());
+        assertTrue(recargado.getCuentaBloqueada());
+        assertEquals(5, recargado.getIntentosLogin());
+        assertEquals(1L, estadisticasContadores.toUserStatistics().get("usuariosBloqueados"));
+    }
+
+    @Test
+    @DisplayName("Login con la cola de BCrypt llena - se propaga la sobrecarga sin contar un intento fallido")
+    void testLoginSobrecargaHash() {
+        // Arrange
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+        doThrow(new SobrecargaException("Demasiadas solicitudes de autenticación, reintente en unos segundos", 2))
+                .when(hashContrasenas).matches(anyString(), anyString());
+
+        // Act & Assert
+        SobrecargaException exception = assertThrows(SobrecargaException.class, () -> authService.login(loginRequest));
+        assertEquals(2, exception.getReintentarEnSegundos());
+        assertEquals(0, testUser.getIntentosLogin());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
     // ===== PRUEBAS DE REGISTRO =====
 
     @Test
@@ -313,6 +568,35 @@ class AuthServiceTest {
         verify(userRepository).existsByEmail("test@email.com");
     }
 
+    @Test
+    @DisplayName("Filtro de Bloom - un username o email libre se responde sin consultar la base de datos")
+    void testUserExistsFiltroBloom() {
+        // Arrange
+        when(userRepository.findAllUsernames()).thenReturn(List.of("testuser"));
+        when(userRepository.findAllEmails()).thenReturn(List.of("test@email.com"));
+        when(userRepository.existsByUsername("testuser")).thenReturn(true);
+        usuariosRegistrados.reconstruir();
+        assertTrue(usuariosRegistrados.isListo());
+
+        // Act & Assert: lo que el filtro descarta no llega al repositorio
+        assertFalse(authService.userExists("nonexistent"));
+        assertFalse(authService.emailExists("libre@email.com"));
+        verify(userRepository, never()).existsByUsername("nonexistent");
+        verify(userRepository, never()).existsByEmail(any());
+
+        // Un posible acierto se confirma en la base de datos
+        assertTrue(authService.userExists("testuser"));
+        verify(userRepository).existsByUsername("testuser");
+
+        // Un usuario nuevo entra al filtro al guardarse
+        User nuevo = new User();
+        nuevo.setUsername("recien");
+        nuevo.setEmail("recien@email.com");
+        usuariosRegistrados.agregar(nuevo);
+        assertTrue(usuariosRegistrados.podriaExistirUsername("recien"));
+        assertTrue(usuariosRegistrados.podriaExistirEmail("recien@email.com"));
+    }
+
     // ===== PRUEBAS DE DESBLOQUEO =====
 
     @Test
@@ -406,7 +690,7 @@ class AuthServiceTest {
     // ===== PRUEBAS CRUD V3 =====
 
     @Test
-    @DisplayName("findAllUsers retorna lista de usuarios")
+    @DisplayName("findAllUsers retorna una página de usuarios filtrada en la base de datos")
     void testFindAllUsers() {
         // Arrange
         User user2 = new User();
@@ -418,18 +702,21 @@ class AuthServiceTest {
         user2.setRol(User.UserRole.EMPRENDEDOR);
         user2.setActivo(true);
 
-        List<User> users = Arrays.asList(testUser, user2);
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findAll(ArgumentMatchers.<Specification<User>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(testUser, user2)));
 
-        // Act
-        List<AuthResponse.UserInfo> result = authService.findAllUsers();
+        // Act: tamaño fuera de rango y orden por una columna no permitida
+        Page<AuthResponse.UserInfo> result = authService.findAllUsers(null, null, null,
+                PageRequest.of(0, 1000, Sort.by("password")));
 
         // Assert
-        assertEquals(2, result.size());
-        assertEquals("testuser", result.get(0).getUsername());
-        assertEquals("user2", result.get(1).getUsername());
-        
-        verify(userRepository).findAll();
+        assertEquals(2, result.getContent().size());
+        assertEquals("testuser", result.getContent().get(0).getUsername());
+        assertEquals("user2", result.getContent().get(1).getUsername());
+        verify(userRepository).findAll(ArgumentMatchers.<Specification<User>>any(), argThat((Pageable pageable) ->
+                pageable.getPageSize() == AuthServiceV3.MAX_PAGE_SIZE
+                        && pageable.getSort().equals(Sort.by(Sort.Direction.ASC, "id"))));
+        verify(userRepository, never()).findAll();
     }
 
     @Test
@@ -511,7 +798,6 @@ class AuthServiceTest {
     void testDeleteUserSuccess() {
         // Arrange
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.findAll()).thenReturn(Arrays.asList(testUser, createAdminUser()));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // Act
@@ -523,6 +809,7 @@ class AuthServiceTest {
         
         verify(userRepository).findById(1L);
         verify(userRepository).save(argThat(user -> !user.getActivo()));
+        verify(userRepository, never()).findAll();
     }
 
     @Test
@@ -531,7 +818,7 @@ class AuthServiceTest {
         // Arrange
         testUser.setRol(User.UserRole.ADMIN);
         when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(userRepository.findAll()).thenReturn(Arrays.asList(testUser)); // Solo un admin
+        when(userRepository.existsByRolAndActivoTrueAndIdNot(User.UserRole.ADMIN, 1L)).thenReturn(false); // Solo un admin
 
         // Act
         AuthResponse response = authService.deleteUser(1L);
@@ -541,72 +828,68 @@ class AuthServiceTest {
         assertEquals("No se puede eliminar el último administrador del sistema", response.getMessage());
         
         verify(userRepository).findById(1L);
+        verify(userRepository, never()).findAll();
         verify(userRepository, never()).save(any(User.class));
     }
 
     @Test
-    @DisplayName("findActiveUsers retorna solo usuarios activos")
+    @DisplayName("findActiveUsers retorna una página de usuarios activos")
     void testFindActiveUsers() {
         // Arrange
-        User inactiveUser = new User();
-        inactiveUser.setId(3L);
-        inactiveUser.setUsername("inactive");
-        inactiveUser.setActivo(false);
-
-        List<User> allUsers = Arrays.asList(testUser, inactiveUser);
-        when(userRepository.findAll()).thenReturn(allUsers);
+        when(userRepository.findAll(ArgumentMatchers.<Specification<User>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(testUser)));
 
         // Act
-        List<AuthResponse.UserInfo> result = authService.findActiveUsers();
+        Page<AuthResponse.UserInfo> result = authService.findActiveUsers(null, PageRequest.of(0, 20));
 
         // Assert
-        assertEquals(1, result.size());
-        assertEquals("testuser", result.get(0).getUsername());
-        assertTrue(result.get(0).getActivo());
+        assertEquals(1, result.getContent().size());
+        assertEquals("testuser", result.getContent().get(0).getUsername());
+        assertTrue(result.getContent().get(0).getActivo());
         
-        verify(userRepository).findAll();
+        verify(userRepository).findAll(ArgumentMatchers.<Specification<User>>any(), any(Pageable.class));
+        verify(userRepository, never()).findAll();
     }
 
     @Test
-    @DisplayName("findUsersByRole retorna usuarios del rol especificado")
+    @DisplayName("findUsersByRole retorna una página de usuarios del rol especificado")
     void testFindUsersByRole() {
         // Arrange
-        User emprendedor = createEmprendedorUser();
-        List<User> allUsers = Arrays.asList(testUser, emprendedor);
-        when(userRepository.findAll()).thenReturn(allUsers);
+        when(userRepository.findAll(ArgumentMatchers.<Specification<User>>any(), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(Arrays.asList(createEmprendedorUser())));
 
         // Act
-        List<AuthResponse.UserInfo> result = authService.findUsersByRole("EMPRENDEDOR");
+        Page<AuthResponse.UserInfo> result = authService.findUsersByRole("EMPRENDEDOR", null, null, PageRequest.of(0, 20));
 
         // Assert
-        assertEquals(1, result.size());
-        assertEquals("EMPRENDEDOR", result.get(0).getRol());
+        assertEquals(1, result.getContent().size());
+        assertEquals("EMPRENDEDOR", result.getContent().get(0).getRol());
         
-        verify(userRepository).findAll();
+        verify(userRepository).findAll(ArgumentMatchers.<Specification<User>>any(), any(Pageable.class));
+        verify(userRepository, never()).findAll();
     }
 
     @Test
     @DisplayName("findUsersByRole lanza excepción con rol inválido")
     void testFindUsersByRoleInvalidRole() {
         // Act & Assert
-        RuntimeException exception = assertThrows(RuntimeException.class, 
-            () -> authService.findUsersByRole("INVALID_ROLE"));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
+            () -> authService.findUsersByRole("INVALID_ROLE", null, null, PageRequest.of(0, 20)));
         assertEquals("Rol inválido: INVALID_ROLE", exception.getMessage());
     }
 
     @Test
-    @DisplayName("countUsersByRole cuenta usuarios por rol")
+    @DisplayName("countUsersByRole cuenta usuarios por rol en la base de datos")
     void testCountUsersByRole() {
         // Arrange
-        List<User> users = Arrays.asList(testUser, createEmprendedorUser());
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.countByRolAndActivoTrue(User.UserRole.CLIENTE)).thenReturn(1L);
 
         // Act
         long count = authService.countUsersByRole("CLIENTE");
 
         // Assert
         assertEquals(1, count);
-        verify(userRepository).findAll();
+        verify(userRepository, never()).findAll();
     }
 
     @Test
@@ -618,8 +901,11 @@ class AuthServiceTest {
         blockedUser.setActivo(true);
         blockedUser.setRol(User.UserRole.CLIENTE);
 
-        List<User> users = Arrays.asList(testUser, createEmprendedorUser(), blockedUser);
-        when(userRepository.findAll()).thenReturn(users);
+        List<UserRepository.ConteoUsuarios> conteos = Arrays.asList(
+            conteoUsuarios(testUser, 1), conteoUsuarios(createEmprendedorUser(), 1), conteoUsuarios(blockedUser, 1));
+        when(userRepository.countGroupByActivoCuentaBloqueadaRol()).thenReturn(conteos);
+        when(userRepository.findVersionColeccion()).thenReturn(mock(VersionColeccion.class));
+        estadisticasContadores.reconciliar();
 
         // Act
         java.util.Map<String, Object> stats = authService.getUserStatistics();
@@ -634,7 +920,30 @@ class AuthServiceTest {
         assertEquals(2L, porRol.get("CLIENTE"));
         assertEquals(1L, porRol.get("EMPRENDEDOR"));
         
-        verify(userRepository).findAll();
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    @DisplayName("getUserStatistics refleja registro y bloqueo sin consultar la base de datos")
+    void testGetUserStatisticsIncremental() {
+        // Arrange
+        testUser.setCuentaBloqueada(true);
+        estadisticasContadores.registrar(null, testUser);
+        when(userRepository.existsByUsername("newuser")).thenReturn(false);
+        when(userRepository.existsByEmail("new@email.com")).thenReturn(false);
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.findByUsername("testuser")).thenReturn(Optional.of(testUser));
+
+        // Act
+        authService.register(registerRequest);
+        authService.unlockAccount("testuser");
+        java.util.Map<String, Object> stats = authService.getUserStatistics();
+
+        // Assert
+        assertEquals(2, stats.get("totalUsuarios"));
+        assertEquals(2L, stats.get("usuariosActivos"));
+        assertEquals(0L, stats.get("usuariosBloqueados"));
+        verify(userRepository, never()).findAll();
     }
 
     // ===== MÉTODOS HELPER =====
@@ -658,4 +967,13 @@ class AuthServiceTest {
         emprendedor.setActivo(true);
         return emprendedor;
     }
-}
\ No newline at end of file
+
+    private UserRepository.ConteoUsuarios conteoUsuarios(User user, long total) {
+        return new UserRepository.ConteoUsuarios() {
+            public Boolean getActivo() { return user.getActivo(); }
+            public Boolean getCuentaBloqueada() { return user.getCuentaBloqueada(); }
+            public User.UserRole getRol() { return user.getRol(); }
+            public long getTotal() { return total; }
+        };
+    }
+}
@@ -1,19 +1,37 @@
 package com.reparafacilspa.reparaciones.service;
 
+import com.reparafacilspa.reparaciones.dto.BulkItemResult;
+import com.reparafacilspa.reparaciones.dto.CursorPage;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionResponse;
 import com.reparafacilspa.reparaciones.dto.ServicioReparacionRequest;
+import com.reparafacilspa.reparaciones.model.Fechas;
 import com.reparafacilspa.reparaciones.model.ServicioReparacion;
 import com.reparafacilspa.reparaciones.repository.ServicioReparacionRepository;
+import com.reparafacilspa.reparaciones.repository.VersionColeccion;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,6 +44,18 @@ class ServicioReparacionServiceTest {
     @Mock
     private ServicioReparacionRepository servicioRepository;
 
+    @Mock
+    private VersionesColeccion versionesColeccion;
+
+    @Spy
+    private ServicioSearchIndex searchIndex = new ServicioSearchIndex();
+
+    @Spy
+    private EstadisticasServiciosContadores estadisticasContadores = new EstadisticasServiciosContadores();
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
     @InjectMocks
     private ServicioReparacionServiceV3 servicioService;
 
@@ -34,6 +64,9 @@ class ServicioReparacionServiceTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(estadisticasContadores, "servicioRepository", servicioRepository);
+        ReflectionTestUtils.setField(estadisticasContadores, "versionesColeccion", versionesColeccion);
+
         // Servicio de prueba
         testServicio = new ServicioReparacion();
         testServicio.setId(1L);
@@ -44,8 +77,8 @@ class ServicioReparacionServiceTest {
         testServicio.setMarca("Samsung");
         testServicio.setModelo("Galaxy S21");
         testServicio.setDescripcionProblema("Pantalla rota");
-        testServicio.setFechaAgendada(new Date());
-        testServicio.setFechaCreacion(new Date());
+        testServicio.setFechaAgendada(Fechas.ahora());
+        testServicio.setFechaCreacion(Fechas.ahora());
         testServicio.setEstado(ServicioReparacion.EstadoReparacion.AGENDADO);
         testServicio.setPrioridad(ServicioReparacion.PrioridadReparacion.NORMAL);
         testServicio.setActivo(true);
@@ -62,7 +95,7 @@ class ServicioReparacionServiceTest {
         servicioRequest.setMarca("HP");
         servicioRequest.setModelo("Pavilion");
         servicioRequest.setDescripcionProblema("No enciende");
-        servicioRequest.setFechaAgendada(new Date());
+        servicioRequest.setFechaAgendada(Fechas.ahora());
     }
 
     // ===== PRUEBAS CRUD BÁSICO =====
@@ -71,8 +104,8 @@ class ServicioReparacionServiceTest {
     @DisplayName("findAll retorna lista de servicios activos")
     void testFindAll() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio, createOtroServicio());
-        when(servicioRepository.findByActivoTrue()).thenReturn(servicios);
+        List<ServicioReparacionResponse> servicios = respuestas(testServicio, createOtroServicio());
+        when(servicioRepository.findResponsesByActivoTrue()).thenReturn(servicios);
 
         // Act
         List<ServicioReparacionResponse> result = servicioService.findAll();
@@ -81,7 +114,7 @@ class ServicioReparacionServiceTest {
         assertEquals(2, result.size());
         assertEquals("Juan Pérez", result.get(0).getNombreCliente());
         
-        verify(servicioRepository).findByActivoTrue();
+        verify(servicioRepository).findResponsesByActivoTrue();
     }
 
     @Test
@@ -112,6 +145,49 @@ class ServicioReparacionServiceTest {
         ));
     }
 
+    @Test
+    @DisplayName("saveAll guarda los elementos válidos en un solo saveAll e informa los inválidos")
+    void testSaveAllConElementosInvalidos() {
+        // Arrange
+        ServicioReparacionRequest invalido = new ServicioReparacionRequest();
+        invalido.setEmail("no-es-email");
+        when(servicioRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ServicioReparacion> servicios = invocation.getArgument(0);
+            long id = 10L;
+            for (ServicioReparacion servicio : servicios) {
+                servicio.setId(id++);
+            }
+            return servicios;
+        });
+
+        // Act
+        List<BulkItemResult> resultados = servicioService.saveAll(Arrays.asList(servicioRequest, invalido, servicioRequest));
+
+        // Assert
+        assertEquals(3, resultados.size());
+        assertTrue(resultados.get(0).isSuccess());
+        assertEquals(10L, resultados.get(0).getServicio().getId());
+        assertFalse(resultados.get(1).isSuccess());
+        assertEquals(1, resultados.get(1).getIndice());
+        assertTrue(resultados.get(1).getMessage().contains("Debe ser un email válido"));
+        assertTrue(resultados.get(2).isSuccess());
+        assertEquals(11L, resultados.get(2).getServicio().getId());
+
+        verify(servicioRepository).saveAll(argThat(servicios -> ((List<ServicioReparacion>) servicios).size() == 2));
+        verify(servicioRepository).flush();
+        verify(servicioRepository, never()).save(any(ServicioReparacion.class));
+    }
+
+    @Test
+    @DisplayName("saveAll rechaza listas vacías o sobre el máximo permitido")
+    void testSaveAllLimites() {
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> servicioService.saveAll(Collections.emptyList()));
+        assertThrows(RuntimeException.class, () -> servicioService.saveAll(
+            Collections.nCopies(ServicioReparacionServiceV3.MAX_BULK_SIZE + 1, servicioRequest)));
+        verifyNoInteractions(servicioRepository);
+    }
+
     @Test
     @DisplayName("findById retorna servicio existente")
     void testFindByIdSuccess() {
@@ -172,12 +248,15 @@ class ServicioReparacionServiceTest {
         when(servicioRepository.findById(1L)).thenReturn(Optional.of(testServicio));
         when(servicioRepository.save(any(ServicioReparacion.class))).thenReturn(testServicio);
 
+        searchIndex.index(testServicio);
+
         // Act
         servicioService.delete(1L);
 
         // Assert
         verify(servicioRepository).findById(1L);
         verify(servicioRepository).save(argThat(servicio -> !servicio.getActivo()));
+        assertEquals(0, searchIndex.search("Samsung", 0, 10).getTotal());
     }
 
     // ===== PRUEBAS DE BÚSQUEDA =====
@@ -186,8 +265,8 @@ class ServicioReparacionServiceTest {
     @DisplayName("findByEmail retorna servicios del cliente")
     void testFindByEmail() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByEmailAndActivoTrue("juan@email.com")).thenReturn(servicios);
+        List<ServicioReparacionResponse> servicios = respuestas(testServicio);
+        when(servicioRepository.findResponsesByEmailAndActivoTrue("juan@email.com")).thenReturn(servicios);
 
         // Act
         List<ServicioReparacionResponse> result = servicioService.findByEmail("juan@email.com");
@@ -196,15 +275,15 @@ class ServicioReparacionServiceTest {
         assertEquals(1, result.size());
         assertEquals("juan@email.com", result.get(0).getEmail());
         
-        verify(servicioRepository).findByEmailAndActivoTrue("juan@email.com");
+        verify(servicioRepository).findResponsesByEmailAndActivoTrue("juan@email.com");
     }
 
     @Test
     @DisplayName("findByEstado retorna servicios del estado especificado")
     void testFindByEstado() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByEstadoAndActivoTrue(ServicioReparacion.EstadoReparacion.AGENDADO))
+        List<ServicioReparacionResponse> servicios = respuestas(testServicio);
+        when(servicioRepository.findResponsesByEstadoAndActivoTrue(ServicioReparacion.EstadoReparacion.AGENDADO))
             .thenReturn(servicios);
 
         // Act
@@ -214,7 +293,7 @@ class ServicioReparacionServiceTest {
         assertEquals(1, result.size());
         assertEquals("AGENDADO", result.get(0).getEstado());
         
-        verify(servicioRepository).findByEstadoAndActivoTrue(ServicioReparacion.EstadoReparacion.AGENDADO);
+        verify(servicioRepository).findResponsesByEstadoAndActivoTrue(ServicioReparacion.EstadoReparacion.AGENDADO);
     }
 
     @Test
@@ -226,15 +305,15 @@ class ServicioReparacionServiceTest {
         // Assert
         assertTrue(result.isEmpty());
         
-        verify(servicioRepository, never()).findByEstadoAndActivoTrue(any());
+        verify(servicioRepository, never()).findResponsesByEstadoAndActivoTrue(any());
     }
 
     @Test
     @DisplayName("findByTipoDispositivo retorna servicios del tipo especificado")
     void testFindByTipoDispositivo() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByTipoDispositivoAndActivoTrue("Smartphone")).thenReturn(servicios);
+        List<ServicioReparacionResponse> servicios = respuestas(testServicio);
+        when(servicioRepository.findResponsesByTipoDispositivoAndActivoTrue("Smartphone")).thenReturn(servicios);
 
         // Act
         List<ServicioReparacionResponse> result = servicioService.findByTipoDispositivo("Smartphone");
@@ -243,15 +322,15 @@ class ServicioReparacionServiceTest {
         assertEquals(1, result.size());
         assertEquals("Smartphone", result.get(0).getTipoDispositivo());
         
-        verify(servicioRepository).findByTipoDispositivoAndActivoTrue("Smartphone");
+        verify(servicioRepository).findResponsesByTipoDispositivoAndActivoTrue("Smartphone");
     }
 
     @Test
     @DisplayName("search encuentra servicios por término de búsqueda")
     void testSearch() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByActivoTrue()).thenReturn(servicios);
+        searchIndex.index(testServicio);
+        when(servicioRepository.findResponsesByIdIn(List.of(1L))).thenReturn(respuestas(testServicio));
 
         // Act
         List<ServicioReparacionResponse> result = servicioService.search("Samsung");
@@ -260,15 +339,15 @@ class ServicioReparacionServiceTest {
         assertEquals(1, result.size());
         assertEquals("Samsung", result.get(0).getMarca());
         
-        verify(servicioRepository).findByActivoTrue();
+        verify(servicioRepository).findResponsesByIdIn(List.of(1L));
+        verify(servicioRepository, never()).findResponsesByActivoTrue();
     }
 
     @Test
     @DisplayName("search no encuentra servicios con término no coincidente")
     void testSearchNoMatches() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByActivoTrue()).thenReturn(servicios);
+        searchIndex.index(testServicio);
 
         // Act
         List<ServicioReparacionResponse> result = servicioService.search("iPhone");
@@ -276,7 +355,62 @@ class ServicioReparacionServiceTest {
         // Assert
         assertTrue(result.isEmpty());
         
-        verify(servicioRepository).findByActivoTrue();
+        verify(servicioRepository, never()).findResponsesByIdIn(any());
+    }
+
+    @Test
+    @DisplayName("search ignora tildes, busca por prefijo y ordena por relevancia")
+    void testSearchRelevanciaYTildes() {
+        // Arrange
+        ServicioReparacion otroServicio = createOtroServicio();
+        otroServicio.setDescripcionProblema("Cliente reporta problema similar al de Pérez");
+        searchIndex.index(testServicio);
+        searchIndex.index(otroServicio);
+        when(servicioRepository.findResponsesByIdIn(List.of(1L, 2L))).thenReturn(respuestas(otroServicio, testServicio));
+
+        // Act
+        List<ServicioReparacionResponse> result = servicioService.search("PEREZ");
+        ServicioSearchIndex.SearchHits prefijo = searchIndex.search("galax pant", 0, 10);
+
+        // Assert
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(2L, result.get(1).getId());
+        assertEquals(List.of(1L), prefijo.getIds());
+    }
+
+    @Test
+    @DisplayName("search paginado solo carga los servicios de la página pedida")
+    void testSearchPaged() {
+        // Arrange
+        ServicioReparacion otroServicio = createOtroServicio();
+        otroServicio.setMarca("Samsung");
+        searchIndex.index(testServicio);
+        searchIndex.index(otroServicio);
+        when(servicioRepository.findResponsesByIdIn(List.of(2L))).thenReturn(respuestas(otroServicio));
+
+        // Act
+        Page<ServicioReparacionResponse> result = servicioService.search("samsung", PageRequest.of(1, 1));
+
+        // Assert
+        assertEquals(2, result.getTotalElements());
+        assertEquals(1, result.getContent().size());
+        assertEquals(2L, result.getContent().get(0).getId());
+    }
+
+    @Test
+    @DisplayName("search con un page cuyo offset no cabe en int devuelve una página vacía, no la página 0")
+    void testSearchPagedOffsetFueraDeRango() {
+        // Arrange
+        searchIndex.index(testServicio);
+
+        // Act
+        Page<ServicioReparacionResponse> result = servicioService.search("samsung", PageRequest.of(Integer.MAX_VALUE / 10, 20));
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        assertTrue(result.getContent().isEmpty());
+        assertEquals(Integer.MAX_VALUE / 10, result.getNumber());
     }
 
     // ===== PRUEBAS DE CAMBIO DE ESTADO =====
@@ -342,19 +476,16 @@ class ServicioReparacionServiceTest {
     @DisplayName("getEstadisticas retorna estadísticas completas")
     void testGetEstadisticas() {
         // Arrange
-        ServicioReparacion servicio2 = createOtroServicio();
-        servicio2.setEstado(ServicioReparacion.EstadoReparacion.EN_REPARACION);
-        servicio2.setTipoDispositivo("Laptop");
-        servicio2.setTecnicoAsignado("Ana García");
-
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio, servicio2);
-        when(servicioRepository.findByActivoTrue()).thenReturn(servicios);
-        when(servicioRepository.countByEstadoAndActivoTrue(ServicioReparacion.EstadoReparacion.AGENDADO))
-            .thenReturn(1L);
-        when(servicioRepository.countByEstadoAndActivoTrue(ServicioReparacion.EstadoReparacion.EN_REPARACION))
-            .thenReturn(1L);
-        when(servicioRepository.countByEstadoAndActivoTrue(ServicioReparacion.EstadoReparacion.COMPLETADO))
-            .thenReturn(0L);
+        when(servicioRepository.countGroupByActivoEstadoPrioridad()).thenReturn(Arrays.asList(
+            conteoPorEstado(true, ServicioReparacion.EstadoReparacion.AGENDADO, ServicioReparacion.PrioridadReparacion.NORMAL, 1),
+            conteoPorEstado(true, ServicioReparacion.EstadoReparacion.EN_REPARACION, ServicioReparacion.PrioridadReparacion.NORMAL, 1)
+        ));
+        when(servicioRepository.countActivosGroupByTipoDispositivoTecnico()).thenReturn(Arrays.asList(
+            conteoPorTipoYTecnico("Smartphone", "Carlos González", 1),
+            conteoPorTipoYTecnico("Laptop", "Ana García", 1)
+        ));
+        when(servicioRepository.findVersionColeccion()).thenReturn(mock(VersionColeccion.class));
+        estadisticasContadores.reconciliar();
 
         // Act
         Map<String, Object> stats = servicioService.getEstadisticas();
@@ -372,7 +503,38 @@ class ServicioReparacionServiceTest {
         
         assertEquals(2, stats.get("totalTecnicos"));
         
-        verify(servicioRepository).findByActivoTrue();
+        verify(servicioRepository, never()).findResponsesByActivoTrue();
+    }
+
+    @Test
+    @DisplayName("getEstadisticas refleja las escrituras sin consultar la base de datos")
+    void testGetEstadisticasIncremental() {
+        // Arrange
+        when(servicioRepository.save(any(ServicioReparacion.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(servicioRepository.findById(1L)).thenReturn(Optional.of(testServicio));
+        ServicioReparacion otroServicio = createOtroServicio();
+        when(servicioRepository.findById(2L)).thenReturn(Optional.of(otroServicio));
+        estadisticasContadores.registrar(null, testServicio);
+        estadisticasContadores.registrar(null, otroServicio);
+
+        // Act
+        servicioService.cambiarEstado(1L, "EN_REPARACION");
+        servicioService.delete(2L);
+        servicioService.save(servicioRequest);
+        Map<String, Object> stats = servicioService.getEstadisticas();
+
+        // Assert
+        assertEquals(2, stats.get("totalServicios"));
+        assertEquals(1L, stats.get("serviciosAgendados"));
+        assertEquals(1L, stats.get("serviciosEnReparacion"));
+        
+        @SuppressWarnings("unchecked")
+        Map<String, Long> porTipo = (Map<String, Long>) stats.get("serviciosPorTipo");
+        assertEquals(1L, porTipo.get("Smartphone"));
+        assertEquals(1L, porTipo.get("Laptop"));
+        assertEquals(1, stats.get("totalTecnicos"));
+        
+        verify(servicioRepository, never()).countGroupByActivoEstadoPrioridad();
     }
 
     // ===== PRUEBAS MÉTODOS PERSONALIZADOS =====
@@ -381,8 +543,8 @@ class ServicioReparacionServiceTest {
     @DisplayName("findByTecnicoAsignado retorna servicios del técnico")
     void testFindByTecnicoAsignado() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByTecnicoAsignadoAndActivoTrue("Carlos González")).thenReturn(servicios);
+        List<ServicioReparacionResponse> servicios = respuestas(testServicio);
+        when(servicioRepository.findResponsesByTecnicoAsignadoAndActivoTrue("Carlos González")).thenReturn(servicios);
 
         // Act
         List<ServicioReparacionResponse> result = servicioService.findByTecnicoAsignado("Carlos González");
@@ -391,16 +553,17 @@ class ServicioReparacionServiceTest {
         assertEquals(1, result.size());
         assertEquals("Carlos González", result.get(0).getTecnicoAsignado());
         
-        verify(servicioRepository).findByTecnicoAsignadoAndActivoTrue("Carlos González");
+        verify(servicioRepository).findResponsesByTecnicoAsignadoAndActivoTrue("Carlos González");
     }
 
     @Test
     @DisplayName("findByFechaAgendada retorna servicios de la fecha")
     void testFindByFechaAgendada() {
         // Arrange
-        Date fecha = new Date();
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByFechaAgendadaAndActivoTrue(any(Date.class))).thenReturn(servicios);
+        List<ServicioReparacionResponse> servicios = respuestas(testServicio);
+        LocalDateTime inicio = LocalDateTime.of(2024, 1, 20, 0, 0);
+        LocalDateTime fin = LocalDateTime.of(2024, 1, 21, 0, 0);
+        when(servicioRepository.findResponsesByFechaAgendadaRangeAndActivoTrue(inicio, fin)).thenReturn(servicios);
 
         // Act
         List<ServicioReparacionResponse> result = servicioService.findByFechaAgendada("2024-01-20");
@@ -408,7 +571,8 @@ class ServicioReparacionServiceTest {
         // Assert
         assertEquals(1, result.size());
         
-        verify(servicioRepository).findByFechaAgendadaAndActivoTrue(any(Date.class));
+        // Rango semiabierto [día, día siguiente) en vez de DATE(fechaAgendada)
+        verify(servicioRepository).findResponsesByFechaAgendadaRangeAndActivoTrue(inicio, fin);
     }
 
     @Test
@@ -439,8 +603,8 @@ class ServicioReparacionServiceTest {
     @DisplayName("findByEmailAndFechaAgendada retorna servicios filtrados")
     void testFindByEmailAndFechaAgendada() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByEmailAndFechaAgendadaAndActivoTrue(eq("juan@email.com"), any(Date.class)))
+        List<ServicioReparacionResponse> servicios = respuestas(testServicio);
+        when(servicioRepository.findResponsesByEmailAndFechaAgendadaRangeAndActivoTrue(eq("juan@email.com"), any(LocalDateTime.class), any(LocalDateTime.class)))
             .thenReturn(servicios);
 
         // Act
@@ -450,15 +614,15 @@ class ServicioReparacionServiceTest {
         assertEquals(1, result.size());
         assertEquals("juan@email.com", result.get(0).getEmail());
         
-        verify(servicioRepository).findByEmailAndFechaAgendadaAndActivoTrue(eq("juan@email.com"), any(Date.class));
+        verify(servicioRepository).findResponsesByEmailAndFechaAgendadaRangeAndActivoTrue(eq("juan@email.com"), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
     @DisplayName("findByTecnicoAsignadoAndEstado retorna servicios filtrados")
     void testFindByTecnicoAsignadoAndEstado() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByTecnicoAsignadoAndEstadoAndActivoTrue(
+        List<ServicioReparacionResponse> servicios = respuestas(testServicio);
+        when(servicioRepository.findResponsesByTecnicoAsignadoAndEstadoAndActivoTrue(
             "Carlos González", ServicioReparacion.EstadoReparacion.AGENDADO))
             .thenReturn(servicios);
 
@@ -470,7 +634,7 @@ class ServicioReparacionServiceTest {
         assertEquals("Carlos González", result.get(0).getTecnicoAsignado());
         assertEquals("AGENDADO", result.get(0).getEstado());
         
-        verify(servicioRepository).findByTecnicoAsignadoAndEstadoAndActivoTrue(
+        verify(servicioRepository).findResponsesByTecnicoAsignadoAndEstadoAndActivoTrue(
             "Carlos González", ServicioReparacion.EstadoReparacion.AGENDADO);
     }
 
@@ -478,9 +642,9 @@ class ServicioReparacionServiceTest {
     @DisplayName("findByEmailAndFechaAgendadaBetween retorna servicios en rango de fechas")
     void testFindByEmailAndFechaAgendadaBetween() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByEmailAndFechaAgendadaBetweenAndActivoTrue(
-            eq("juan@email.com"), any(Date.class), any(Date.class)))
+        List<ServicioReparacionResponse> servicios = respuestas(testServicio);
+        when(servicioRepository.findResponsesByEmailAndFechaAgendadaRangeAndActivoTrue(
+            eq("juan@email.com"), any(LocalDateTime.class), any(LocalDateTime.class)))
             .thenReturn(servicios);
 
         // Act
@@ -491,17 +655,17 @@ class ServicioReparacionServiceTest {
         assertEquals(1, result.size());
         assertEquals("juan@email.com", result.get(0).getEmail());
         
-        verify(servicioRepository).findByEmailAndFechaAgendadaBetweenAndActivoTrue(
-            eq("juan@email.com"), any(Date.class), any(Date.class));
+        verify(servicioRepository).findResponsesByEmailAndFechaAgendadaRangeAndActivoTrue(
+            eq("juan@email.com"), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
     @DisplayName("findByTecnicoAsignadoAndFechaAgendadaBetween retorna servicios en rango")
     void testFindByTecnicoAsignadoAndFechaAgendadaBetween() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByTecnicoAsignadoAndFechaAgendadaBetweenAndActivoTrue(
-            eq("Carlos González"), any(Date.class), any(Date.class)))
+        List<ServicioReparacionResponse> servicios = respuestas(testServicio);
+        when(servicioRepository.findResponsesByTecnicoAsignadoAndFechaAgendadaRangeAndActivoTrue(
+            eq("Carlos González"), any(LocalDateTime.class), any(LocalDateTime.class)))
             .thenReturn(servicios);
 
         // Act
@@ -512,8 +676,8 @@ class ServicioReparacionServiceTest {
         assertEquals(1, result.size());
         assertEquals("Carlos González", result.get(0).getTecnicoAsignado());
         
-        verify(servicioRepository).findByTecnicoAsignadoAndFechaAgendadaBetweenAndActivoTrue(
-            eq("Carlos González"), any(Date.class), any(Date.class));
+        verify(servicioRepository).findResponsesByTecnicoAsignadoAndFechaAgendadaRangeAndActivoTrue(
+            eq("Carlos González"), any(LocalDateTime.class), any(LocalDateTime.class));
     }
 
     @Test
@@ -540,8 +704,7 @@ class ServicioReparacionServiceTest {
         ServicioReparacion servicioEliminado = createOtroServicio();
         servicioEliminado.setActivo(false);
         
-        List<ServicioReparacion> todosServicios = Arrays.asList(testServicio, servicioEliminado);
-        when(servicioRepository.findAll()).thenReturn(todosServicios);
+        when(servicioRepository.findResponsesByActivoFalse()).thenReturn(respuestas(servicioEliminado));
 
         // Act
         List<ServicioReparacionResponse> result = servicioService.findDeletedServicios();
@@ -550,7 +713,7 @@ class ServicioReparacionServiceTest {
         assertEquals(1, result.size());
         assertFalse(result.get(0).getActivo());
         
-        verify(servicioRepository).findAll();
+        verify(servicioRepository).findResponsesByActivoFalse();
     }
 
     @Test
@@ -566,6 +729,7 @@ class ServicioReparacionServiceTest {
 
         // Assert
         assertNotNull(result);
+        assertEquals(List.of(1L), searchIndex.search("Samsung", 0, 10).getIds());
         
         verify(servicioRepository).findById(1L);
         verify(servicioRepository).save(argThat(servicio -> servicio.getActivo()));
@@ -576,7 +740,7 @@ class ServicioReparacionServiceTest {
     void testSearchAdvanced() {
         // Arrange
         List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByActivoTrue()).thenReturn(servicios);
+        when(servicioRepository.findAll(ArgumentMatchers.<Specification<ServicioReparacion>>any(), any(Sort.class))).thenReturn(servicios);
 
         // Act
         List<ServicioReparacionResponse> result = servicioService.searchAdvanced(
@@ -587,46 +751,42 @@ class ServicioReparacionServiceTest {
         assertEquals(1, result.size());
         assertEquals("Juan Pérez", result.get(0).getNombreCliente());
         
-        verify(servicioRepository).findByActivoTrue();
+        verify(servicioRepository).findAll(ArgumentMatchers.<Specification<ServicioReparacion>>any(), eq(Sort.by(Sort.Direction.ASC, "id")));
+        verify(servicioRepository, never()).findResponsesByActivoTrue();
     }
 
     @Test
-    @DisplayName("searchAdvanced no encuentra servicios que no coinciden")
-    void testSearchAdvancedNoMatches() {
+    @DisplayName("searchAdvanced paginado descarta ordenamientos no permitidos y agrega desempate por id")
+    void testSearchAdvancedPaged() {
         // Arrange
-        List<ServicioReparacion> servicios = Arrays.asList(testServicio);
-        when(servicioRepository.findByActivoTrue()).thenReturn(servicios);
+        Page<ServicioReparacion> page = new PageImpl<>(Arrays.asList(testServicio));
+        when(servicioRepository.findAll(ArgumentMatchers.<Specification<ServicioReparacion>>any(), any(Pageable.class))).thenReturn(page);
 
         // Act
-        List<ServicioReparacionResponse> result = servicioService.searchAdvanced(
-            "Pedro", null, null, null, null
+        Page<ServicioReparacionResponse> result = servicioService.searchAdvanced(
+            "Juan", null, null, null, null,
+            PageRequest.of(0, 500, Sort.by(Sort.Direction.DESC, "fechaAgendada").and(Sort.by("password")))
         );
 
         // Assert
-        assertTrue(result.isEmpty());
-        
-        verify(servicioRepository).findByActivoTrue();
+        assertEquals(1, result.getContent().size());
+        verify(servicioRepository).findAll(ArgumentMatchers.<Specification<ServicioReparacion>>any(), eq(PageRequest.of(0, 100,
+            Sort.by(Sort.Order.desc("fechaAgendada"), Sort.Order.asc("id")))));
     }
 
     @Test
     @DisplayName("getDetailedStatistics retorna estadísticas detalladas")
     void testGetDetailedStatistics() {
         // Arrange
-        ServicioReparacion servicioEliminado = createOtroServicio();
-        servicioEliminado.setActivo(false);
-        servicioEliminado.setEstado(ServicioReparacion.EstadoReparacion.CANCELADO);
-        
-        ServicioReparacion servicioCompletado = createOtroServicio();
-        servicioCompletado.setId(3L);
-        servicioCompletado.setEstado(ServicioReparacion.EstadoReparacion.COMPLETADO);
-        servicioCompletado.setPrioridad(ServicioReparacion.PrioridadReparacion.ALTA);
-        servicioCompletado.setTecnicoAsignado("Ana García");
-
-        List<ServicioReparacion> todosServicios = Arrays.asList(testServicio, servicioEliminado, servicioCompletado);
-        List<ServicioReparacion> serviciosActivos = Arrays.asList(testServicio, servicioCompletado);
-        
-        when(servicioRepository.findAll()).thenReturn(todosServicios);
-        when(servicioRepository.findByActivoTrue()).thenReturn(serviciosActivos);
+        when(servicioRepository.countGroupByActivoEstadoPrioridad()).thenReturn(Arrays.asList(
+            conteoPorEstado(true, ServicioReparacion.EstadoReparacion.AGENDADO, ServicioReparacion.PrioridadReparacion.NORMAL, 1),
+            conteoPorEstado(true, ServicioReparacion.EstadoReparacion.COMPLETADO, ServicioReparacion.PrioridadReparacion.ALTA, 1),
+            conteoPorEstado(false, ServicioReparacion.EstadoReparacion.CANCELADO, ServicioReparacion.PrioridadReparacion.NORMAL, 1)
+        ));
+        when(servicioRepository.countActivosGroupByTipoDispositivoTecnico()).thenReturn(Arrays.asList(
+            conteoPorTipoYTecnico("Smartphone", "Carlos González", 1),
+            conteoPorTipoYTecnico("Smartphone", "Ana García", 1)
+        ));
 
         // Act
         Map<String, Object> stats = servicioService.getDetailedStatistics();
@@ -655,8 +815,85 @@ class ServicioReparacionServiceTest {
         assertEquals(1L, porTecnico.get("Carlos González"));
         assertEquals(1L, porTecnico.get("Ana García"));
         
-        verify(servicioRepository).findAll();
-        verify(servicioRepository).findByActivoTrue();
+        verify(servicioRepository, never()).findAll();
+        verify(servicioRepository, never()).findResponsesByActivoTrue();
+    }
+
+    // ===== PRUEBAS DE PAGINACIÓN KEYSET =====
+
+    @Test
+    @DisplayName("findAllPage retorna cursor siguiente cuando hay más filas que el tamaño de página")
+    void testFindAllPageWithNext() {
+        // Arrange
+        ServicioReparacion tercero = createOtroServicio();
+        tercero.setId(3L);
+        when(servicioRepository.findResponsesByActivoTrueAndIdAfter(eq(0L), any(Limit.class)))
+            .thenReturn(respuestas(testServicio, createOtroServicio(), tercero));
+
+        // Act
+        CursorPage<ServicioReparacionResponse> page = servicioService.findAllPage(null, null, 2);
+
+        // Assert
+        assertEquals(2, page.getContent().size());
+        assertTrue(page.hasNext());
+        assertFalse(page.hasPrev());
+        assertEquals(2L, KeysetCursor.decode(page.getNextCursor()).getId());
+        
+        verify(servicioRepository).findResponsesByActivoTrueAndIdAfter(0L, Limit.of(3));
+    }
+
+    @Test
+    @DisplayName("findAllPage con cursor 'before' retrocede y mantiene orden ascendente")
+    void testFindAllPageBefore() {
+        // Arrange
+        when(servicioRepository.findResponsesByActivoTrueAndIdBefore(eq(3L), any(Limit.class)))
+            .thenReturn(respuestas(createOtroServicio(), testServicio));
+
+        // Act
+        CursorPage<ServicioReparacionResponse> page = servicioService.findAllPage(
+            null, KeysetCursor.ofId(3L).encode(), 5);
+
+        // Assert
+        assertEquals(1L, page.getContent().get(0).getId());
+        assertEquals(2L, page.getContent().get(1).getId());
+        assertFalse(page.hasPrev());
+        assertTrue(page.hasNext());
+    }
+
+    @Test
+    @DisplayName("findAllPage limita el tamaño de página al máximo permitido")
+    void testFindAllPageMaxSize() {
+        // Arrange
+        when(servicioRepository.findResponsesByActivoTrueAndIdAfter(eq(0L), any(Limit.class)))
+            .thenReturn(new ArrayList<>());
+
+        // Act
+        CursorPage<ServicioReparacionResponse> page = servicioService.findAllPage(null, null, 5000);
+
+        // Assert
+        assertEquals(ServicioReparacionServiceV3.MAX_PAGE_SIZE, page.getSize());
+        verify(servicioRepository).findResponsesByActivoTrueAndIdAfter(
+            0L, Limit.of(ServicioReparacionServiceV3.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    @DisplayName("findAllPage lanza excepción con cursor inválido")
+    void testFindAllPageInvalidCursor() {
+        // Act & Assert
+        assertThrows(CursorInvalidoException.class, () -> servicioService.findAllPage("%%%", null, 10));
+        verifyNoInteractions(servicioRepository);
+    }
+
+    @Test
+    @DisplayName("findByFechaAgendadaPage rechaza un cursor sin fecha")
+    void testFindByFechaAgendadaPageCursorSinFecha() {
+        // Arrange - cursor de un listado por id
+        String cursor = KeysetCursor.ofId(5L).encode();
+
+        // Act & Assert
+        assertThrows(CursorInvalidoException.class,
+            () -> servicioService.findByFechaAgendadaPage("2024-01-20", cursor, null, 10));
+        verifyNoInteractions(servicioRepository);
     }
 
     // ===== PRUEBAS DE CASOS EXTREMOS =====
@@ -727,8 +964,8 @@ class ServicioReparacionServiceTest {
         servicio.setMarca("iPhone");
         servicio.setModelo("iPhone 13");
         servicio.setDescripcionProblema("Batería no carga");
-        servicio.setFechaAgendada(new Date());
-        servicio.setFechaCreacion(new Date());
+        servicio.setFechaAgendada(Fechas.ahora());
+        servicio.setFechaCreacion(Fechas.ahora());
         servicio.setEstado(ServicioReparacion.EstadoReparacion.AGENDADO);
         servicio.setPrioridad(ServicioReparacion.PrioridadReparacion.NORMAL);
         servicio.setActivo(true);
@@ -737,4 +974,30 @@ class ServicioReparacionServiceTest {
         servicio.setGarantiaDias(30);
         return servicio;
     }
-}
\ No newline at end of file
+
+    private List<ServicioReparacionResponse> respuestas(ServicioReparacion... servicios) {
+        return Arrays.stream(servicios).map(ServicioReparacionResponse::new).collect(Collectors.toList());
+    }
+
+    private ServicioReparacionRepository.ConteoPorEstado conteoPorEstado(boolean activo,
+                                                                        ServicioReparacion.EstadoReparacion estado,
+                                                                        ServicioReparacion.PrioridadReparacion prioridad,
+                                                                        long total) {
+        return new ServicioReparacionRepository.ConteoPorEstado() {
+            public Boolean getActivo() { return activo; }
+            public ServicioReparacion.EstadoReparacion getEstado() { return estado; }
+            public ServicioReparacion.PrioridadReparacion getPrioridad() { return prioridad; }
+            public long getTotal() { return total; }
+        };
+    }
+
+    private ServicioReparacionRepository.ConteoPorTipoYTecnico conteoPorTipoYTecnico(String tipoDispositivo,
+                                                                                    String tecnicoAsignado,
+                                                                                    long total) {
+        return new ServicioReparacionRepository.ConteoPorTipoYTecnico() {
+            public String getTipoDispositivo() { return tipoDispositivo; }
+            public String getTecnicoAsignado() { return tecnicoAsignado; }
+            public long getTotal() { return total; }
+        };
+    }
+}